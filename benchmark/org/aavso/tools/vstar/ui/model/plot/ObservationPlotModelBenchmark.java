@@ -0,0 +1,93 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.SyntheticLightCurve;
+import org.aavso.tools.vstar.util.comparator.JDComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The light curve plot model: recomputation of its means series, as when the
+ * bin size is changed, and a renderer's pass over every item's coordinates.
+ * The model is created once per trial since each model registers listeners
+ * with the mediator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class ObservationPlotModelBenchmark {
+
+	@Param({ "10000", "100000", "1000000", "5000000" })
+	public int points;
+
+	private ObservationAndMeanPlotModel model;
+	private int series;
+	private double binDays;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<ValidObservation> obs = new SyntheticLightCurve(points, 1)
+				.getObservations();
+
+		Map<SeriesType, List<ValidObservation>> obsMap = new HashMap<SeriesType, List<ValidObservation>>();
+		obsMap.put(SeriesType.Visual, obs);
+
+		model = new ObservationAndMeanPlotModel(obsMap, JDCoordSource.instance,
+				JDComparator.instance, JDTimeElementEntity.instance, null);
+		series = model.getSrcTypeToSeriesNumMap().get(SeriesType.Visual);
+		binDays = 20;
+	}
+
+	@Benchmark
+	public boolean changeMeansSeries() {
+		// Alternate between bin sizes so that each call does the work.
+		binDays = binDays == 20 ? 10 : 20;
+		return model.changeMeansSeries(binDays);
+	}
+
+	@Benchmark
+	public double iterateItems() {
+		double sum = 0;
+		int n = model.getItemCount(series);
+		for (int i = 0; i < n; i++) {
+			sum += model.getXValue(series, i) + model.getYValue(series, i);
+		}
+		return sum;
+	}
+}
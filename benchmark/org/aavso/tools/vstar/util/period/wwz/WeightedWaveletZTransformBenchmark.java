@@ -0,0 +1,69 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.period.wwz;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.util.SyntheticLightCurve;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * WWZ over a fixed grid of 11 frequencies by about 11 tau values, so that the
+ * cost scales with the number of observations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class WeightedWaveletZTransformBenchmark {
+
+	@Param({ "10000", "100000", "1000000", "5000000" })
+	public int points;
+
+	private List<ValidObservation> obs;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		obs = new SyntheticLightCurve(points, 1).getObservations();
+	}
+
+	@Benchmark
+	public WeightedWaveletZTransform frequencyRange() throws AlgorithmError {
+		WeightedWaveletZTransform wwz = new WeightedWaveletZTransform(obs,
+				0.001, 10.0);
+		wwz.make_freqs_from_freq_range(0.005, 0.015, 0.001);
+		wwz.execute();
+		return wwz;
+	}
+}
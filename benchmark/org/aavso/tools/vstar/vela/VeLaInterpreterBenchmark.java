@@ -0,0 +1,95 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.SyntheticLightCurve;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * VeLa evaluation in compiled mode: a Fourier series model of the kind created
+ * by period analysis mapped over the observation times, and an observation
+ * filter applied to every observation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class VeLaInterpreterBenchmark {
+
+	private static final String MODEL = "zeroPoint is 2450000.0\n"
+			+ "f(t:real) : real {\n"
+			+ "  10.0\n"
+			+ "  + 1.5 * sin(2*PI*(t-zeroPoint)/123.4)\n"
+			+ "  + 0.3 * sin(2*PI*(t-zeroPoint)/17.3)\n"
+			+ "  + 0.02 * cos(4*PI*(t-zeroPoint)/123.4)\n" + "}\n";
+
+	private static final String FILTER = "magnitude < 10.5 and band = \"Visual\"";
+
+	@Param({ "10000", "100000", "1000000", "5000000" })
+	public int points;
+
+	private List<ValidObservation> obs;
+	private VeLaInterpreter vela;
+	private AST mapAST;
+	private VeLaObservationFilter filter;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticLightCurve curve = new SyntheticLightCurve(points, 1);
+		obs = curve.getObservations();
+
+		vela = new VeLaInterpreter(false, false, Collections.emptyList());
+		vela.setCompiledMode(true);
+		vela.program(MODEL);
+		vela.bind("TIMES", new Operand(Type.LIST, new RealList(curve
+				.getTimesAndMagnitudes()[0])), true);
+		mapAST = vela.compile("map(f times)");
+
+		filter = new VeLaObservationFilter(FILTER);
+	}
+
+	@Benchmark
+	public Operand mapModel() {
+		return vela.program(mapAST).get();
+	}
+
+	@Benchmark
+	public boolean[] filter() {
+		return filter.accept(obs, error -> {
+			throw error;
+		});
+	}
+}
@@ -39,6 +39,8 @@ import java.util.List;
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
@@ -57,6 +59,7 @@ import org.aavso.tools.vstar.util.Triple;
 import org.aavso.tools.vstar.util.coords.DecInfo;
 import org.aavso.tools.vstar.util.coords.EpochType;
 import org.aavso.tools.vstar.util.coords.RAInfo;
+import org.aavso.tools.vstar.util.date.BarycentricTimeConverter;
 import org.aavso.tools.vstar.util.help.Help;
 
 public class ConvertHelper {
@@ -64,6 +67,38 @@ public class ConvertHelper {
 	public static final String ASTROUTILS_URL = "https://astroutils.astronomy.osu.edu";
 	public static final String URL_TEMPLATE = ASTROUTILS_URL + "/time/convert.php?JDS=%s&RA=%s&DEC=%s&FUNCTION=%s";
 	
+	// The maximum number of times sent to the web service in one request.
+	public static final int REMOTE_CHUNK_SIZE = 200;
+	
+	// Whether BJD_TDB conversions use the web service rather than the
+	// in-process converter; remembered for the session.
+	private static boolean webServiceSelected = false;
+	
+	/**
+	 * Has the astroutils web service been chosen over the in-process
+	 * converter?
+	 */
+	public static boolean isWebServiceSelected() {
+		return webServiceSelected;
+	}
+	
+	/**
+	 * Creates a check box with which the astroutils web service may be chosen
+	 * over the (faster, offline) in-process converter. The choice is shared by
+	 * all such check boxes.
+	 */
+	public static JCheckBox createWebServiceCheckBox() {
+		JCheckBox checkBox = new JCheckBox("Use the " + ASTROUTILS_URL + " service");
+		checkBox.setToolTipText("Requires network access; otherwise an internal routine is used");
+		checkBox.setSelected(webServiceSelected);
+		checkBox.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				webServiceSelected = checkBox.isSelected();
+			}
+		});
+		return checkBox;
+	}
+	
 	
 	/**
 	 * A pane for entering RA/Dec with a button that gets coordinates from the VSX server by the VSX star name 
@@ -418,6 +453,22 @@ public class ConvertHelper {
 		String helpTopic;
 		
 		public ConfirmDialogWithHelp(String title, String msg, String helpTopic) {
+			this(title, msg, helpTopic, null);
+		}
+		
+		/**
+		 * Constructor
+		 * 
+		 * @param title
+		 *            the dialog title
+		 * @param msg
+		 *            the message
+		 * @param helpTopic
+		 *            the help topic
+		 * @param option
+		 *            a component shown below the message, or null
+		 */
+		public ConfirmDialogWithHelp(String title, String msg, String helpTopic, JComponent option) {
 			super(title);
 			
 			this.helpTopic = helpTopic;
@@ -429,6 +480,12 @@ public class ConvertHelper {
 			topPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 			
 			topPane.add(createMessagePane(msg));
+			
+			if (option != null) {
+				JPanel optionPane = new JPanel();
+				optionPane.add(option);
+				topPane.add(optionPane);
+			}
 
 			// OK, Cancel, Help
 			JPanel buttonPane = createButtonPane2();
@@ -479,7 +536,9 @@ public class ConvertHelper {
 	}
 	
 	/**
-	 * Uses the https://astroutils.astronomy.osu.edu service for conversion
+	 * Uses the https://astroutils.astronomy.osu.edu service for conversion;
+	 * network access is required. The times are sent in a single request, so
+	 * large lists should be split (see getRemotelyConvertedTimes()).
 	 * 
 	 * @param times
 	 *                   a list of JD or HJD epochs
@@ -522,6 +581,84 @@ public class ConvertHelper {
 		return out_times;
 	}
 		
+	/**
+	 * Array based version of getConvertedListOfTimes(), sending the times to
+	 * the web service REMOTE_CHUNK_SIZE at a time.
+	 */
+	public static double[] getRemotelyConvertedTimes(double[] times, double ra, double dec, String func)
+			throws Exception {
+
+		double[] out_times = new double[times.length];
+
+		for (int from = 0; from < times.length; from += REMOTE_CHUNK_SIZE) {
+			int to = Math.min(from + REMOTE_CHUNK_SIZE, times.length);
+			List<Double> chunk = new ArrayList<Double>(to - from);
+			for (int i = from; i < to; i++) {
+				chunk.add(times[i]);
+			}
+			List<Double> converted = getConvertedListOfTimes(chunk, ra, dec, func);
+			for (int i = from; i < to; i++) {
+				out_times[i] = converted.get(i - from);
+			}
+		}
+
+		return out_times;
+	}
+
+	/**
+	 * Converts times in-process via BarycentricTimeConverter; no network
+	 * access is required. ConvertHelperTest checks the results against those
+	 * of getConvertedListOfTimes(); see BarycentricTimeConverter for the
+	 * precision.
+	 *
+	 * @param times
+	 *                   an array of JD or HJD epochs
+	 * @param ra
+	 *                   star's RA
+	 * @param dec
+	 *                   star's Dec
+	 * @param func
+	 *                   'utc2bjd': converts JD in UTC to BJD_TDB
+	 *                   'hjd2bjd': converts HJD to BJD_TDB
+	 * @return
+	 *                  an array of BJD_TBD epochs
+	 * @throws Exception
+	 */
+	public static double[] getLocallyConvertedTimes(double[] times, double ra, double dec, String func)
+			throws Exception {
+
+		BarycentricTimeConverter converter = BarycentricTimeConverter.getInstance();
+
+		if ("utc2bjd".equals(func)) {
+			return converter.utcToBJD(times, ra, dec);
+		} else if ("hjd2bjd".equals(func)) {
+			return converter.hjdToBJD(times, ra, dec);
+		} else {
+			throw new Exception("Invalid conversion function: " + func);
+		}
+	}
+
+	/**
+	 * List based convenience version of getLocallyConvertedTimes().
+	 */
+	public static List<Double> getLocallyConvertedListOfTimes(List<Double> times, double ra, double dec, String func)
+			throws Exception {
+
+		double[] in_times = new double[times.size()];
+		for (int i = 0; i < in_times.length; i++) {
+			in_times[i] = times.get(i);
+		}
+
+		double[] converted = getLocallyConvertedTimes(in_times, ra, dec, func);
+
+		List<Double> out_times = new ArrayList<Double>(converted.length);
+		for (double d : converted) {
+			out_times.add(d);
+		}
+
+		return out_times;
+	}
+
 	private static String getURLstring(List<Double> times, double ra, double dec, String func) {
 
 		String s = null;
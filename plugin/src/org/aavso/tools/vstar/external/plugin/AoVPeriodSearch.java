@@ -52,6 +52,7 @@ import org.aavso.tools.vstar.ui.mediator.message.PeriodAnalysisSelectionMessage;
 import org.aavso.tools.vstar.ui.model.list.PeriodAnalysisDataTableModel;
 import org.aavso.tools.vstar.ui.model.plot.PeriodAnalysis2DPlotModel;
 import org.aavso.tools.vstar.ui.model.plot.PhaseTimeElementEntity;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.comparator.StandardPhaseComparator;
 import org.aavso.tools.vstar.util.model.Harmonic;
 import org.aavso.tools.vstar.util.model.PeriodAnalysisDerivedMultiPeriodicModel;
@@ -88,7 +89,7 @@ public class AoVPeriodSearch extends PeriodAnalysisPluginBase {
 	private final static int MAX_TOP_HITS = 20;
 
 	private boolean firstInvocation;
-	private boolean interrupted;
+	private volatile boolean interrupted;
 	private boolean cancelled;
 	private boolean legalParams;
 
@@ -428,10 +429,13 @@ public class AoVPeriodSearch extends PeriodAnalysisPluginBase {
 
 				interrupted = false;
 
+				// Stop if interrupted or if the current token is cancelled.
+				CancellationToken token = CancellationToken.current();
+
 				// TODO: for a multi-threaded range-subset approach, we would
 				// need to do this once for each thread
 				for (ValidObservation ob : obs) {
-					if (interrupted)
+					if (interrupted || token.isCancelled())
 						break;
 
 					ValidObservation phOb = new ValidObservation();
@@ -463,10 +467,15 @@ public class AoVPeriodSearch extends PeriodAnalysisPluginBase {
 				// unrolling would be simpler and less memory intensive though;
 				// may be worth trying first
 
+				long steps = (long) ((maxPeriod - minPeriod) / resolution) + 1;
+				long step = 0;
+
 				for (double period = minPeriod; period <= maxPeriod; period += resolution) {
-					if (interrupted)
+					if (interrupted || token.isCancelled())
 						break;
 
+					token.progress(++step, steps);
+
 					PhaseCalcs.setPhases(phObs, epoch, period);
 
 					Collections.sort(phObs, StandardPhaseComparator.instance);
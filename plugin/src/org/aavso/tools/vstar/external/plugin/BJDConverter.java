@@ -46,8 +46,6 @@ import org.aavso.tools.vstar.external.lib.ConvertHelper;
  */
 public class BJDConverter extends ObservationToolPluginBase {
 
-	private static final int CHUNK_SIZE = 200;
-	
 	private static Cursor waitCursor = new Cursor(Cursor.WAIT_CURSOR);
 	
 	@Override
@@ -125,7 +123,9 @@ public class BJDConverter extends ObservationToolPluginBase {
 	}
 
 	private boolean showConfirmDialog(String title, String msg, String helpTopic) {
-		ConvertHelper.ConfirmDialogWithHelp dlg = new ConvertHelper.ConfirmDialogWithHelp(title, msg, helpTopic);
+		// The web service may be chosen over the internal routine.
+		ConvertHelper.ConfirmDialogWithHelp dlg = new ConvertHelper.ConfirmDialogWithHelp(title, msg, helpTopic,
+				ConvertHelper.createWebServiceCheckBox());
 		return !dlg.isCancelled();
 	}
 	
@@ -161,8 +161,8 @@ public class BJDConverter extends ObservationToolPluginBase {
 		List<ValidObservation> obsJD = collectObservationsOfType(obs, JDflavour.JD);
 		List<ValidObservation> obsHJD = collectObservationsOfType(obs, JDflavour.HJD);
 		
-		List<Double> timesUTCtoBJD = null;
-		List<Double> timesHJDtoBJD = null;
+		double[] timesUTCtoBJD = null;
+		double[] timesHJDtoBJD = null;
 
 		try {
 			timesUTCtoBJD = getConvertedTimes(obsJD, ra, dec, JDflavour.JD);		
@@ -174,11 +174,11 @@ public class BJDConverter extends ObservationToolPluginBase {
 
 		// Here, we are setting converted times.
 		for (int i = 0; i < obsJD.size(); i++) {
-			obsJD.get(i).setJD(timesUTCtoBJD.get(i));
+			obsJD.get(i).setJD(timesUTCtoBJD[i]);
 			obsJD.get(i).setJDflavour(JDflavour.BJD);
 		}
 		for (int i = 0; i < obsHJD.size(); i++) {
-			obsHJD.get(i).setJD(timesHJDtoBJD.get(i));
+			obsHJD.get(i).setJD(timesHJDtoBJD[i]);
 			obsHJD.get(i).setJDflavour(JDflavour.BJD);
 		}
 		
@@ -196,7 +196,7 @@ public class BJDConverter extends ObservationToolPluginBase {
 		return result;
 	}
 
-	private List<Double> getConvertedTimes(List<ValidObservation> obs, RAInfo ra, DecInfo dec, JDflavour f) throws Exception {
+	private double[] getConvertedTimes(List<ValidObservation> obs, RAInfo ra, DecInfo dec, JDflavour f) throws Exception {
 		
 		String func = null;
 		
@@ -207,40 +207,20 @@ public class BJDConverter extends ObservationToolPluginBase {
 		else
 			throw new Exception("Invalid JD flavor");
 
-		List<Double> result = new ArrayList<Double>();
-		List<ValidObservation> obs_chunk = null;
-		int counter = 0;
-		for (ValidObservation ob : obs) {
+		double[] times = new double[obs.size()];
+		for (int i = 0; i < times.length; i++) {
+			ValidObservation ob = obs.get(i);
 			if (ob.getJDflavour() != f) {
 				throw new Exception("Invalid JD flavor");
 			}
-			if (obs_chunk == null) {
-				obs_chunk = new ArrayList<ValidObservation>();
-			}
-			obs_chunk.add(ob);
-			counter++;
-			if (counter == CHUNK_SIZE) {
-				result.addAll(convertChunk(obs_chunk, ra, dec, func));
-				obs_chunk = null;
-				counter = 0;
-			}
-		}
-		if (obs_chunk != null) {
-			result.addAll(convertChunk(obs_chunk, ra, dec, func));
-			obs_chunk = null;
-			counter = 0;
+			times[i] = ob.getJD();
 		}
 		
-		return result;
-	}
-	
-	private List<Double> convertChunk(List<ValidObservation> obs_chunk, RAInfo ra, DecInfo dec, String func) throws Exception {
-		List<Double> times = new ArrayList<Double>();
-		for (ValidObservation ob : obs_chunk) {
-			times.add(ob.getJD());
+		if (ConvertHelper.isWebServiceSelected()) {
+			return ConvertHelper.getRemotelyConvertedTimes(times, ra.toDegrees(), dec.toDegrees(), func);
+		} else {
+			return ConvertHelper.getLocallyConvertedTimes(times, ra.toDegrees(), dec.toDegrees(), func);
 		}
-		List<Double> result = ConvertHelper.getConvertedListOfTimes(times, ra.toDegrees(), dec.toDegrees(), func);
-		return result;
 	}
 	
 }
@@ -29,7 +29,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
@@ -65,6 +65,8 @@ import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
 import org.aavso.tools.vstar.ui.mediator.message.PeriodAnalysisSelectionMessage;
 import org.aavso.tools.vstar.ui.model.list.PeriodAnalysisDataTableModel;
 import org.aavso.tools.vstar.ui.model.plot.PeriodAnalysis2DPlotModel;
+import org.aavso.tools.vstar.util.CancellationToken;
+import org.aavso.tools.vstar.util.ComputeService;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.Harmonic;
 import org.aavso.tools.vstar.util.model.PeriodAnalysisDerivedMultiPeriodicModel;
@@ -615,8 +617,10 @@ public class DFTandSpectralWindow extends PeriodAnalysisPluginBase {
 		//I (Max) am not sure if it is required (volatile). However, it is accessed from different threads.
 		private volatile boolean algorithm_interrupted;
 
-		CountDownLatch startLatch;		
-		CountDownLatch doneLatch;
+		// The token of the current execution, whose cancellation interrupts
+		// the algorithm, and the number of frequencies computed so far.
+		private volatile CancellationToken token = new CancellationToken();
+		private final AtomicLong stepsDone = new AtomicLong();
 
 		public DFTandSpectralWindowAlgorithm(
 				double minFrequency, double maxFrequency, double resolution,
@@ -830,13 +834,22 @@ public class DFTandSpectralWindow extends PeriodAnalysisPluginBase {
 		public void execute() throws AlgorithmError {
 
 			algorithm_interrupted = false;
-				
+			stepsDone.set(0);
+
+			token = CancellationToken.current();
+			Runnable listener = () -> algorithm_interrupted = true;
+			token.addCancellationListener(listener);
+
 			int n_steps = (int)Math.ceil((maxFrequency - minFrequency) / resolution) + 1;
 
-			if (USE_MULTI_THREAD_VERSION) {
-				multiThreadDFT(minFrequency, resolution, n_steps);
-			} else {
-				singleThreadDFT(minFrequency, resolution, n_steps);
+			try {
+				if (USE_MULTI_THREAD_VERSION) {
+					multiThreadDFT(minFrequency, resolution, n_steps);
+				} else {
+					singleThreadDFT(minFrequency, resolution, n_steps);
+				}
+			} finally {
+				token.removeCancellationListener(listener);
 			}
 		}
 		
@@ -845,8 +858,10 @@ public class DFTandSpectralWindow extends PeriodAnalysisPluginBase {
 			double frequency = minFrequency;
 			
 			for (int i = 0; i < n_steps; i++) {
-				if (algorithm_interrupted)
+				if (algorithm_interrupted || token.isCancelled())
 					break;
+
+				token.progress(i + 1, n_steps);
 				
 				frequencies.add(frequency);
 				periods.add(fixInf(1 / frequency));
@@ -862,146 +877,36 @@ public class DFTandSpectralWindow extends PeriodAnalysisPluginBase {
 		private void multiThreadDFT(double minFrequency, double resolution, int n_steps)
 				throws AlgorithmError {
 			
-			int cores = Runtime.getRuntime().availableProcessors();
-			int steps_per_core = n_steps / cores;
-			int remainder = n_steps - steps_per_core * cores;
-			
-			List<DftWorker>workers = new ArrayList<DftWorker>();
-			
-			doneLatch = new CountDownLatch(cores);
-			startLatch = new CountDownLatch(1);
-			for (int n = 0; n < cores; n++) {
-				int start_n = steps_per_core * n;
-				int steps_to_do = steps_per_core;
-				if (n == cores - 1)
-					steps_to_do += remainder;
-				DftWorker worker = new DftWorker(n, minFrequency, resolution, start_n, steps_to_do, ftResult, startLatch, doneLatch);
-				workers.add(worker);
-				new Thread(worker).start();
-			}
-			startLatch.countDown();
+			double[] frqArray = new double[n_steps];
+			double[] perArray = new double[n_steps];
+			double[] pwrArray = new double[n_steps];
+			double[] ampArray = new double[n_steps];
 			
 			try {
-				doneLatch.await();
+				ComputeService.getInstance().forEachFrequency(token, minFrequency, resolution, n_steps, (i, frequency) -> {
+					double[] result = ftResult.calculateF(frequency);
+					
+					frqArray[i] = frequency;
+					perArray[i] = 1 / frequency;
+					ampArray[i] = result[0];
+					pwrArray[i] = result[1];
+					
+					token.progress(stepsDone.incrementAndGet(), n_steps);
+				});
 			} catch (InterruptedException ex) {
 				algorithm_interrupted = true;
-				//throw new AlgorithmError("Interrupted");
 			}
-			//if (algorithm_interrupted) System.out.println("Algorithm interrupted.");
 			
 			if (!algorithm_interrupted) {
-				for (DftWorker worker : workers) {
-					double[] frqArray = worker.getFrequencies();
-					double[] perArray = worker.getPeriods();
-					double[] pwrArray = worker.getPowers();
-					double[] ampArray = worker.getSemiAmplitudes();
-					for (int i = 0; i < worker.getStepsToDo(); i++) {
-						frequencies.add(frqArray[i]);
-						periods.add(fixInf(perArray[i]));
-						powers.add(pwrArray[i]);
-						semiAmplitudes.add(fixInf(ampArray[i]));
-					}
+				for (int i = 0; i < n_steps; i++) {
+					frequencies.add(frqArray[i]);
+					periods.add(fixInf(perArray[i]));
+					powers.add(pwrArray[i]);
+					semiAmplitudes.add(fixInf(ampArray[i]));
 				}
 			}
 		}
 		
-		private class DftWorker implements Runnable {
-			
-			private final CountDownLatch startLatch;
-			private final CountDownLatch doneLatch;			
-			
-			private double minFrequency;
-			private double resolution;
-			private int start_n;
-			private int steps_to_do;
-			//private int thread_n; 
-			
-			private double[] frqArray;
-			private double[] perArray;
-			private double[] pwrArray;
-			private double[] ampArray;
-			
-			private FtResult ftResult;
-			
-			public DftWorker(
-					int thread_n,
-					double minFrequency, 
-					double resolution, 
-					int start_n, 
-					int steps_to_do,
-					FtResult ftResult,
-					CountDownLatch startLatch,
-					CountDownLatch doneLatch) {
-				this.minFrequency = minFrequency;
-				this.resolution = resolution;
-				this.start_n = start_n;
-				this.steps_to_do = steps_to_do;
-				//this.thread_n = thread_n;
-				this.startLatch = startLatch;
-				this.doneLatch = doneLatch;
-				this.frqArray = new double[steps_to_do];
-				this.perArray = new double[steps_to_do];
-				this.pwrArray = new double[steps_to_do];
-				this.ampArray = new double[steps_to_do];
-				this.ftResult = ftResult;
-			}
-			
-			public void run() {
-				try {
-					try {
-						startLatch.await();				
-						//System.out.println("DftThread #" + thread_n + " started. start_n=" + start_n + "; steps_to_do=" + steps_to_do);
-						double frequency = minFrequency + start_n * resolution;
-						for (int i = 0; i < steps_to_do; i++) {
-							if (algorithm_interrupted) {
-								//System.out.println("DftThread #" + thread_n + " interrupted");
-								break;
-							}
-							
-							double[] result = ftResult.calculateF(frequency);
-							
-							frqArray[i] = frequency;
-							perArray[i] = 1 / frequency;
-							ampArray[i] = result[0];
-							pwrArray[i] = result[1];
-							
-							frequency += resolution;
-						}
-						//System.out.println("DftThread #" + thread_n + " finished.");					
-					} catch (InterruptedException ex) {
-						// return;
-					}
-				} finally {
-					if (!algorithm_interrupted) doneLatch.countDown();
-				}
-			}
-
-			//public int getStartN() {
-			//	return start_n;
-			//}
-			
-			public int getStepsToDo() {
-				return steps_to_do;
-			}
-			
-			public double[] getFrequencies() {
-				return frqArray;
-			}
-			
-			public double[] getPeriods() {
-				return perArray;
-			}
-			
-			public double[] getPowers() {
-				return pwrArray;
-			}
-			
-			public double[] getSemiAmplitudes() {
-				return ampArray;
-			}
-			
-		}
-		
 		// replace +-Infinity by NaN
 		private double fixInf(double v) {
 			if (Double.isInfinite(v))
@@ -1013,6 +918,7 @@ public class DFTandSpectralWindow extends PeriodAnalysisPluginBase {
 		@Override
 		public void interrupt() {
 			algorithm_interrupted = true;
+			token.cancel();
 		}
 	}
 
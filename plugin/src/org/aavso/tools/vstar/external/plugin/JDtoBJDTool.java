@@ -116,6 +116,7 @@ public class JDtoBJDTool extends GeneralToolPluginBase {
 			coordPane = new ConvertHelper.CoordPane(null, null, false);
 			
 			topPane.add(coordPane);
+			topPane.add(createOptionPane());
 			topPane.add(createMainPane());
 			topPane.add(createButtonPane2(cancelListener));
 			
@@ -147,16 +148,24 @@ public class JDtoBJDTool extends GeneralToolPluginBase {
 			return panel;
 		}
 
+		// The web service may be chosen for BJD_TDB conversions; UTC->HJD
+		// always uses the internal routine.
+		private JPanel createOptionPane() {
+			JPanel panel = new JPanel();
+			panel.add(ConvertHelper.createWebServiceCheckBox());
+			return panel;
+		}
+
 		private JPanel createButtonPane() {
 			JPanel panel = new JPanel();
 			
 			bUTCtoBJD = new JButton("UTC->BJD");
-			bUTCtoBJD.setToolTipText("Via " + ConvertHelper.ASTROUTILS_URL + " service");
+			bUTCtoBJD.setToolTipText("Via internal routine or " + ConvertHelper.ASTROUTILS_URL + " service");
 			bUTCtoBJD.addActionListener(createUTCtoBJDButtonListener());
 			panel.add(bUTCtoBJD, BorderLayout.NORTH);
 			
 			bHJDtoBJD = new JButton("HJD->BJD");
-			bHJDtoBJD.setToolTipText("Via " + ConvertHelper.ASTROUTILS_URL + " service");
+			bHJDtoBJD.setToolTipText("Via internal routine or " + ConvertHelper.ASTROUTILS_URL + " service");
 			bHJDtoBJD.addActionListener(createHJDtoBJDButtonListener());
 			panel.add(bHJDtoBJD, BorderLayout.CENTER);
 
@@ -292,10 +301,14 @@ public class JDtoBJDTool extends GeneralToolPluginBase {
 		}
 	
 		void performLocalConvertUTC2HJD(List<Double> times, double ra, double dec) {
-			List<Double> result = new ArrayList<Double>();
+			double[] jds = new double[times.size()];
+			for (int i = 0; i < jds.length; i++) {
+				jds[i] = times.get(i);
+			}
 			AbstractHJDConverter converter = AbstractHJDConverter.getInstance(EpochType.J2000);			
-			for (Double d : times) {
-				double d1 = converter.convert(d, new RAInfo(EpochType.J2000, ra), new DecInfo(EpochType.J2000, dec));
+			double[] hjds = converter.convert(jds, new RAInfo(EpochType.J2000, ra), new DecInfo(EpochType.J2000, dec));
+			List<Double> result = new ArrayList<Double>();
+			for (double d1 : hjds) {
 				result.add(d1);
 			}
 			displayOutput(result);
@@ -307,7 +320,8 @@ public class JDtoBJDTool extends GeneralToolPluginBase {
 			bUTCtoBJD.setEnabled(false);
 			bHJDtoBJD.setEnabled(false);
 			bUTCtoHJD.setEnabled(false);
-			SwingWorker<ConvertResult, Object> worker = new JDtoBJDToolSwingWorker(this, times, ra, dec, func);
+			SwingWorker<ConvertResult, Object> worker = new JDtoBJDToolSwingWorker(this, times, ra, dec, func,
+					ConvertHelper.isWebServiceSelected());
 			worker.execute();
 		}
 		
@@ -337,14 +351,17 @@ public class JDtoBJDTool extends GeneralToolPluginBase {
 		private double ra;
 		private double dec;
 		private String func;
+		private boolean remote;
 
-		public JDtoBJDToolSwingWorker(JDtoBJDTool.JDtoBJDToolDialog dialog, List<Double>times, double ra, double dec, String func)
+		public JDtoBJDToolSwingWorker(JDtoBJDTool.JDtoBJDToolDialog dialog, List<Double>times, double ra, double dec, String func,
+				boolean remote)
 		{
 			this.dialog = dialog;
 			this.times = times;
 			this.ra = ra;
 			this.dec = dec;
 			this.func = func;
+			this.remote = remote;
 		}
 		
 		@Override
@@ -352,7 +369,10 @@ public class JDtoBJDTool extends GeneralToolPluginBase {
 			ConvertResult result = new ConvertResult();
 			result.error = null;			
 			try {
-				result.out_times = ConvertHelper.getConvertedListOfTimes(times, ra, dec, func);
+				if (remote)
+					result.out_times = ConvertHelper.getConvertedListOfTimes(times, ra, dec, func);
+				else
+					result.out_times = ConvertHelper.getLocallyConvertedListOfTimes(times, ra, dec, func);
 			} catch (Exception ex) {
 				result.out_times = null;
 				result.error = ex.getMessage();
@@ -48,6 +48,7 @@ import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
 import org.aavso.tools.vstar.ui.mediator.message.PeriodAnalysisSelectionMessage;
 import org.aavso.tools.vstar.ui.model.list.PeriodAnalysisDataTableModel;
 import org.aavso.tools.vstar.ui.model.plot.PeriodAnalysis2DPlotModel;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.Pair;
 import org.aavso.tools.vstar.util.model.Harmonic;
 import org.aavso.tools.vstar.util.model.PeriodAnalysisDerivedMultiPeriodicModel;
@@ -77,7 +78,7 @@ public class MinimumScatterPeriodFinder extends PeriodAnalysisPluginBase {
 	private final static int ASTERISK_COUNTER_LIMIT = 1000;
 
 	private boolean firstInvocation;
-	private boolean interrupted;
+	private volatile boolean interrupted;
 	private boolean cancelled;
 	private boolean legalParams;
 
@@ -596,7 +597,19 @@ public class MinimumScatterPeriodFinder extends PeriodAnalysisPluginBase {
 										// final
 										// value
 			counter = 1;
+
+			// Stop if interrupted or if the current token is cancelled.
+			CancellationToken token = CancellationToken.current();
+			long steps = (long) ((maxPeriod - minPeriod) / periodStep) + 1;
+			long step = 0;
+
 			for (trialPeriod = minPeriod; trialPeriod < maxPeriod + periodStep; trialPeriod += periodStep) {
+				if (interrupted || token.isCancelled()) {
+					break;
+				}
+
+				token.progress(++step, steps);
+
 				if (++counter > ASTERISK_COUNTER_LIMIT) {
 					// printf("*");
 					counter = 1;
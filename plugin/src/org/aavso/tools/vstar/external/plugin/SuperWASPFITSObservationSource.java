@@ -260,8 +260,8 @@ public class SuperWASPFITSObservationSource extends ObservationSourcePluginBase
 				if (magErr >= magErrThreshold) {
 					ob.setExcluded(true);
 				}
-				collectObservation(ob);
 			}
+			collectObservationBatch(obs);
 		}
 
 		@Override
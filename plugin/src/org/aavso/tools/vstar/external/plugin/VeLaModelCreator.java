@@ -7,7 +7,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.aavso.tools.vstar.data.DateInfo;
 import org.aavso.tools.vstar.data.Magnitude;
@@ -30,9 +29,10 @@ import org.aavso.tools.vstar.util.comparator.StandardPhaseComparator;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.IModel;
 import org.aavso.tools.vstar.util.model.PeriodFitParameters;
-import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.aavso.tools.vstar.vela.Operand;
+import org.aavso.tools.vstar.vela.RealList;
 import org.aavso.tools.vstar.vela.Type;
+import org.aavso.tools.vstar.vela.VeLaEvalError;
 import org.aavso.tools.vstar.vela.VeLaInterpreter;
 import org.aavso.tools.vstar.vela.VeLaValidObservationEnvironment;
 import org.apache.commons.math.FunctionEvaluationException;
@@ -103,11 +103,11 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 		 */
 		@Override
 		public double value(double t) throws FunctionEvaluationException {
-			String funCall = funcName + "(" + NumericPrecisionPrefs.formatTime(t) + ")";
-			Optional<Operand> result = vela.program(funCall);
-			if (result.isPresent()) {
-				return result.get().doubleVal();
-			} else {
+			// Apply the function directly rather than via a program string
+			// so that t is neither rounded nor parsed for each point.
+			try {
+				return vela.applyAsDouble(funcName, t);
+			} catch (VeLaEvalError e) {
 				throw new FunctionEvaluationException(t);
 			}
 		}
@@ -130,6 +130,7 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 		VeLaModel(List<ValidObservation> obs) {
 			// Create a VeLa interpreter instance.
 			vela = new VeLaInterpreter();
+			vela.setCompiledMode(true);
 
 			// Select time mode (JD or phase).
 			switch (Mediator.getInstance().getAnalysisType()) {
@@ -140,10 +141,10 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 				// zeroPoint = DescStats.calcTimeElementMean(obs,
 				// JDTimeElementEntity.instance);
 				zeroPoint = 0;
-				List<Operand> jdList = obs.stream()
-						.map(ob -> new Operand(Type.REAL, ob.getJD()))
-						.collect(Collectors.toList());
-				vela.bind("TIMES", new Operand(Type.LIST, jdList), true);
+				double[] jds = obs.stream().mapToDouble(ob -> ob.getJD())
+						.toArray();
+				vela.bind("TIMES", new Operand(Type.LIST, new RealList(jds)),
+						true);
 				break;
 
 			case PHASE_PLOT:
@@ -152,18 +153,16 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 				this.obs = new ArrayList<ValidObservation>(obs);
 				Collections.sort(this.obs, timeComparator);
 				zeroPoint = 0;
-				List<Operand> phaseList = this.obs
-						.stream()
-						.map(ob -> new Operand(Type.REAL, ob.getStandardPhase()))
-						.collect(Collectors.toList());
-				vela.bind("TIMES", new Operand(Type.LIST, phaseList), true);
+				double[] phases = this.obs.stream()
+						.mapToDouble(ob -> ob.getStandardPhase()).toArray();
+				vela.bind("TIMES",
+						new Operand(Type.LIST, new RealList(phases)), true);
 				break;
 			}
 
-			List<Operand> magList = this.obs.stream()
-					.map(ob -> new Operand(Type.REAL, ob.getMag()))
-					.collect(Collectors.toList());
-			Operand mags = new Operand(Type.LIST, magList);
+			double[] magValues = this.obs.stream()
+					.mapToDouble(ob -> ob.getMag()).toArray();
+			Operand mags = new Operand(Type.LIST, new RealList(magValues));
 			vela.bind("MAGS", mags, true);
 		}
 
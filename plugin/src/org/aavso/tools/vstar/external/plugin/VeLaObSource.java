@@ -32,12 +32,18 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
@@ -49,6 +55,7 @@ import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
+import javax.swing.JFileChooser;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
@@ -85,14 +92,20 @@ import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.dialog.NumberFieldBase;
 import org.aavso.tools.vstar.ui.dialog.TextField;
 import org.aavso.tools.vstar.ui.mediator.StarInfo;
+import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
+import org.aavso.tools.vstar.ui.mediator.message.ProgressType;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
+import org.aavso.tools.vstar.util.CancellationToken;
+import org.aavso.tools.vstar.util.ComputeService;
 import org.aavso.tools.vstar.util.Pair;
 import org.aavso.tools.vstar.util.help.Help;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
-import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
+import org.aavso.tools.vstar.vela.AST;
 import org.aavso.tools.vstar.vela.FunctionExecutor;
-import org.aavso.tools.vstar.vela.Operand;
 import org.aavso.tools.vstar.vela.Type;
+import org.aavso.tools.vstar.vela.VeLaEvalError;
 import org.aavso.tools.vstar.vela.VeLaInterpreter;
+import org.aavso.tools.vstar.vela.VeLaRuntime;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -122,6 +135,7 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 	private String titleX = null;
 	private String titleY = null;
 	private String objectName = null;
+	private ModelFileSaveTask saveTask = null;
 	
 	private static ParameterDialog paramDialog;
 	
@@ -159,6 +173,8 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 
 	@Override
 	public AbstractObservationRetriever getObservationRetriever() {
+		saveTask = null;
+		
 		if (paramDialog == null)
 			paramDialog = new ParameterDialog();
 		paramDialog.showDialog();
@@ -182,10 +198,25 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 		else
 			inputName = objectName;
 		
+		File outputFile = paramDialog.getOutputFile();
+		if (outputFile != null) {
+			// Stream the model's points to the file rather than loading them,
+			// once this configuration step has ended.
+			saveTask = new ModelFileSaveTask(outputFile);
+			return null;
+		}
+
 		seriesNameAndDescription = getSeriesNameAndDescription();
 		
 		return new VeLaModelObsRetriever();
 	}
+
+	@Override
+	public ScheduledTask<?, ?> getDeferredTask() {
+		ScheduledTask<?, ?> task = saveTask;
+		saveTask = null;
+		return task;
+	}
 	
 	// Create unique series name and description
 	private NameAndDescription getSeriesNameAndDescription() {
@@ -246,6 +277,7 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 	private VeLaInterpreter createVeLaInterpreter(String veLaCode) throws ObservationReadError {
 		// Create a VeLa interpreter instance.
 		VeLaInterpreter vela = new VeLaInterpreter();
+		vela.setCompiledMode(true);
 
 		// Evaluate the VeLa model code.
 		vela.program(veLaCode);
@@ -267,6 +299,244 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 		throw new ObservationReadError("A (non-overloaded) model function " + FUNC_NAME + "(T:REAL):REAL must be defined");
 	}
 	
+	/**
+	 * Receives generated model points, a contiguous run at a time.
+	 */
+	interface ModelPointSink {
+		/**
+		 * @param times
+		 *            The columnar buffer of times.
+		 * @param mags
+		 *            The columnar buffer of magnitudes.
+		 * @param from
+		 *            The index of the first point in the run.
+		 * @param to
+		 *            The index after the last point in the run.
+		 * @throws ObservationReadError
+		 *             If the points could not be consumed.
+		 */
+		void accept(double[] times, double[] mags, int from, int to) throws ObservationReadError;
+	}
+
+	/**
+	 * Generates model points by applying the model function at evenly spaced
+	 * times. Given enough points, the time range is split into chunks that are
+	 * evaluated in parallel, each worker thread having its own interpreter
+	 * over the already compiled model code. Times and magnitudes are written
+	 * into a columnar buffer and passed to a sink a chunk at a time, in JD
+	 * order, on the calling thread.
+	 */
+	static class ModelGenerator {
+
+		static final int CHUNK_SIZE = 4096;
+
+		// The number of points below which the calling thread generates all
+		// points.
+		static final int PARALLEL_THRESHOLD = 4 * CHUNK_SIZE;
+
+		private final VeLaRuntime runtime;
+		private final AST program;
+		private final double minJD;
+		private final double step;
+		private final int points;
+
+		private final double[] times;
+		private final double[] mags;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param vela
+		 *            An interpreter that has evaluated the model code.
+		 * @param veLaCode
+		 *            The model code.
+		 * @param minJD
+		 *            The first time.
+		 * @param maxJD
+		 *            The last time.
+		 * @param points
+		 *            The number of points, at least 2.
+		 */
+		ModelGenerator(VeLaInterpreter vela, String veLaCode, double minJD, double maxJD, int points) {
+			// The code has already been parsed and compiled, so is retrieved
+			// from the runtime's cache.
+			runtime = vela.getRuntime();
+			program = vela.compile(veLaCode);
+			this.minJD = minJD;
+			this.step = (maxJD - minJD) / (points - 1);
+			this.points = points;
+
+			times = new double[points];
+			mags = new double[points];
+		}
+
+		/**
+		 * Generate the points.
+		 * 
+		 * @param sink
+		 *            The sink to which runs of points are passed in order.
+		 * @param interrupted
+		 *            Has generation been interrupted?
+		 * @throws ObservationReadError
+		 *             If the model function could not be evaluated or the sink
+		 *             failed.
+		 */
+		void generate(ModelPointSink sink, BooleanSupplier interrupted) throws ObservationReadError {
+			int chunks = (points + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			int workers = Math.min(ComputeService.getInstance().getParallelism(), chunks);
+
+			if (points < PARALLEL_THRESHOLD || workers < 2) {
+				VeLaInterpreter vela = createContext();
+				for (int chunk = 0; chunk < chunks && !interrupted.getAsBoolean(); chunk++) {
+					int from = chunk * CHUNK_SIZE;
+					int to = Math.min(from + CHUNK_SIZE, points);
+					try {
+						evaluate(vela, from, to);
+					} catch (VeLaEvalError e) {
+						throw new ObservationReadError(e.getLocalizedMessage());
+					}
+					sink.accept(times, mags, from, to);
+				}
+			} else {
+				ComputeService service = ComputeService.getInstance();
+				CancellationToken token = new CancellationToken();
+				ThreadLocal<VeLaInterpreter> contexts = ThreadLocal.withInitial(this::createContext);
+
+				try {
+					List<Future<?>> results = new ArrayList<Future<?>>();
+					for (int chunk = 0; chunk < chunks; chunk++) {
+						int from = chunk * CHUNK_SIZE;
+						int to = Math.min(from + CHUNK_SIZE, points);
+						results.add(service.submit(token, () -> {
+							evaluate(contexts.get(), from, to);
+							return null;
+						}));
+					}
+
+					for (int chunk = 0; chunk < chunks && !interrupted.getAsBoolean(); chunk++) {
+						results.get(chunk).get();
+						int from = chunk * CHUNK_SIZE;
+						sink.accept(times, mags, from, Math.min(from + CHUNK_SIZE, points));
+					}
+				} catch (ExecutionException e) {
+					throw new ObservationReadError(e.getCause().getLocalizedMessage());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					// Skip chunks not yet evaluated if interrupted or failed.
+					token.cancel();
+				}
+			}
+		}
+
+		private VeLaInterpreter createContext() {
+			VeLaInterpreter vela = runtime.createInterpreter(false);
+			vela.setCompiledMode(true);
+			vela.program(program);
+			return vela;
+		}
+
+		private void evaluate(VeLaInterpreter vela, int from, int to) {
+			for (int i = from; i < to; i++) {
+				double time = minJD + i * step;
+				times[i] = time;
+				mags[i] = vela.applyAsDouble(FUNC_NAME, time);
+			}
+		}
+	}
+
+	/**
+	 * A concurrent task in which model points are written to a file as they
+	 * are generated, without observations being created.
+	 */
+	class ModelFileSaveTask extends ScheduledTask<Void, Void> {
+
+		private File outFile;
+		private String code;
+		private double fromJD;
+		private double toJD;
+		private int count;
+		private String error;
+
+		ModelFileSaveTask(File outFile) {
+			this.outFile = outFile;
+
+			// Later dialog invocations must not change the model being saved.
+			code = veLaCode;
+			fromJD = minJD;
+			toJD = maxJD;
+			count = points;
+
+			// Saving does not touch the document's observations.
+			declare(DOCUMENT, Access.READ);
+			declare(VeLaObSource.this, Access.WRITE);
+		}
+
+		@Override
+		protected Void doInBackground() throws Exception {
+			Mediator mediator = Mediator.getInstance();
+
+			int chunks = (count + ModelGenerator.CHUNK_SIZE - 1) / ModelGenerator.CHUNK_SIZE;
+			mediator.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, chunks));
+			mediator.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
+
+			Mediator.getUI().getStatusPane().setMessage("Saving " + outFile.getName() + "...");
+
+			try (PrintWriter writer = new PrintWriter(outFile)) {
+				VeLaInterpreter vela = createVeLaInterpreter(code);
+				ModelGenerator generator = new ModelGenerator(vela, code, fromJD, toJD, count);
+
+				// JD and magnitude fields, as in the simple text format.
+				generator.generate((times, mags, from, to) -> {
+					StringBuilder buf = new StringBuilder();
+					for (int i = from; i < to; i++) {
+						buf.append(times[i]);
+						buf.append(",");
+						buf.append(mags[i]);
+						buf.append("\n");
+					}
+					writer.write(buf.toString());
+
+					mediator.getProgressNotifier().notifyListeners(ProgressInfo.INCREMENT_PROGRESS);
+				}, this::isCancelled);
+
+				// PrintWriter does not throw I/O exceptions.
+				if (writer.checkError()) {
+					error = "Unable to write '" + outFile.getAbsolutePath() + "'";
+				}
+			} catch (Exception ex) {
+				error = ex.getLocalizedMessage();
+			}
+
+			return null;
+		}
+
+		@Override
+		protected void finished() {
+			Mediator.getInstance().getProgressNotifier().notifyListeners(ProgressInfo.COMPLETE_PROGRESS);
+			Mediator.getInstance().getProgressNotifier().notifyListeners(ProgressInfo.CLEAR_PROGRESS);
+
+			String path = outFile.getAbsolutePath();
+
+			if (!isCancelled()) {
+				try {
+					get();
+				} catch (InterruptedException | ExecutionException ex) {
+					error = ex.getLocalizedMessage();
+				}
+			}
+
+			if (isCancelled()) {
+				Mediator.getUI().getStatusPane().setMessage("Saving '" + path + "' cancelled: the file is incomplete");
+			} else if (error != null) {
+				Mediator.getUI().getStatusPane().setMessage("");
+				MessageBox.showErrorDialog("Model File Save Error", error);
+			} else {
+				Mediator.getUI().getStatusPane().setMessage("Saved '" + path + "'");
+			}
+		}
+	}
+
 	class VeLaModelObsRetriever extends AbstractObservationRetriever {
 		
 		public VeLaModelObsRetriever() {
@@ -288,39 +558,26 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 			
 			VeLaInterpreter vela = createVeLaInterpreter(veLaCode);
 
-			Double magVal = null;
-			
-			double step = (maxJD - minJD) / (points - 1);
-			
-			for (int i = 0; i < points && !wasInterrupted(); i++) {
-				
-				double time = minJD + i * step;
-				
-				String funCall = FUNC_NAME + "(" + NumericPrecisionPrefs.formatTime(time) + ")";
-				Optional<Operand> result = vela.program(funCall);
-				if (result.isPresent() && result.get().getType() == Type.REAL) {
-					magVal = result.get().doubleVal();
-				} else {
-					throw new ObservationReadError("VeLa expression: Expected a Real value");
-				}
+			ModelGenerator generator = new ModelGenerator(vela, veLaCode, minJD, maxJD, points);
 
-				if (magVal != null) {
-					double uncertainty = 0;
+			String name = getStarInfo().getDesignation();
+			SeriesType band = SeriesType.create(seriesNameAndDescription.desc, seriesNameAndDescription.name, Color.RED, false, false);
+			double uncertainty = 0;
 
+			// Points arrive in JD order on this thread, a chunk at a time.
+			generator.generate((times, mags, from, to) -> {
+				for (int i = from; i < to; i++) {
 					ValidObservation ob = new ValidObservation();
-					
-					String name = getStarInfo().getDesignation();
 					ob.setName(name);
-					
-					ob.setDateInfo(new DateInfo(time));
-					ob.setMagnitude(new Magnitude(magVal, uncertainty));
-					ob.setBand(SeriesType.create(seriesNameAndDescription.desc, seriesNameAndDescription.name, Color.RED, false, false));
+					ob.setDateInfo(new DateInfo(times[i]));
+					ob.setMagnitude(new Magnitude(mags[i], uncertainty));
+					ob.setBand(band);
 					ob.setRecordNumber(i);
 					collectObservation(ob);
+
+					incrementProgress();
 				}
-				
-				incrementProgress();
-			}
+			}, this::wasInterrupted);
 		}
 
 		@Override
@@ -367,6 +624,8 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 		private JComboBox<String> jDflavour;
 		private JTextArea codeArea;
 		private JCheckBox addToCurrent;
+		private JCheckBox streamToFile;
+		private File outputFile;
 		private TextField titleXfield;
 		private TextField titleYfield;
 		private TextField objectNameField;
@@ -468,6 +727,14 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 		public boolean isAdditive() {
 			return addToCurrent.isSelected();
 		}
+
+		/**
+		 * @return The file to which the model's points are to be streamed or
+		 *         null if they are to be loaded.
+		 */
+		public File getOutputFile() {
+			return streamToFile.isSelected() ? outputFile : null;
+		}
 		
 		public Double getMinJD() {
 			return minJD.getValue();
@@ -565,6 +832,11 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 			addToCurrent = new JCheckBox("Add to current?");
 			addToCurrent.setSelected(true);
 			panel.add(addToCurrent);
+
+			streamToFile = new JCheckBox("Stream to file?");
+			streamToFile.setToolTipText("Write the model's points to a file rather than loading them");
+			streamToFile.setSelected(false);
+			panel.add(streamToFile);
 			
 			return panel;
 		}
@@ -945,6 +1217,13 @@ public class VeLaObSource extends ObservationSourcePluginBase {
 		@Override
 		protected void okAction() {
 			if (checkInput()) {
+				if (streamToFile.isSelected()) {
+					JFileChooser chooser = new JFileChooser();
+					if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+						return;
+					}
+					outputFile = chooser.getSelectedFile();
+				}
 				cancelled = false;
 				setVisible(false);
 				dispose();
@@ -37,8 +37,11 @@ import org.aavso.tools.vstar.ui.undo.IUndoableAction;
 import org.aavso.tools.vstar.ui.vela.VeLaDialog;
 import org.aavso.tools.vstar.util.Pair;
 import org.aavso.tools.vstar.util.notification.Listener;
+import org.aavso.tools.vstar.vela.AST;
 import org.aavso.tools.vstar.vela.Operand;
+import org.aavso.tools.vstar.vela.Operation;
 import org.aavso.tools.vstar.vela.Type;
+import org.aavso.tools.vstar.vela.VeLaColumnEvaluator;
 import org.aavso.tools.vstar.vela.VeLaInterpreter;
 import org.aavso.tools.vstar.vela.VeLaValidObservationEnvironment;
 
@@ -48,6 +51,9 @@ import org.aavso.tools.vstar.vela.VeLaValidObservationEnvironment;
 public class VeLaObservationTransformer extends ObservationTransformerPluginBase {
 
     private VeLaInterpreter vela;
+    private VeLaValidObservationEnvironment env;
+    private AST doCall;
+    private Pair<VeLaColumnEvaluator, VeLaColumnEvaluator> columns;
     private boolean shouldInvokeDialog;
     private boolean firstInvocation;
 
@@ -89,20 +95,43 @@ public class VeLaObservationTransformer extends ObservationTransformerPluginBase
                 switch (type) {
                 case DO:
                     vela = new VeLaInterpreter();
+                    vela.setCompiledMode(true);
 
                     Pair<Boolean, String> pair = invokeDialog(vela);
 
                     ok = pair.first;
 
                     if (ok && pair.second.trim().length() != 0) {
-                        vela.program(pair.second);
+                        // Bind observation symbols in the user's code to an
+                        // environment that is reused for each observation.
+                        AST code = vela.compile(pair.second);
+                        env = new VeLaValidObservationEnvironment();
+                        vela.program(env.bindSlots(code));
+                        doCall = vela.compile("do()");
+                        columns = columnEvaluators(code);
                     } else {
                         break;
                     }
                     // Note: there being no unconditional break here is on purpose!
                 case REDO:
                     for (SeriesType seriesType : series) {
-                        for (ValidObservation ob : seriesInfo.getObservations(seriesType)) {
+                        List<ValidObservation> obs = seriesInfo.getObservations(seriesType);
+
+                        // Evaluate the function's result a column at a time
+                        // if possible.
+                        double[] newMags = null;
+                        double[] newErrs = null;
+
+                        if (columns != null) {
+                            newMags = columns.first.evaluate(obs);
+                            if (newMags != null) {
+                                newErrs = columns.second.evaluate(obs);
+                            }
+                        }
+
+                        for (int i = 0; i < obs.size(); i++) {
+                            ValidObservation ob = obs.get(i);
+
                             // Store old magnitude for undo
                             Magnitude magnitude = ob.getMagnitude();
 
@@ -116,15 +145,19 @@ public class VeLaObservationTransformer extends ObservationTransformerPluginBase
                             }
                             errs.get(seriesType).add(magnitude.getUncertainty());
 
+                            if (newErrs != null) {
+                                ob.setMagnitude(new Magnitude(newMags[i], newErrs[i]));
+                                continue;
+                            }
+
                             // Push an environment that makes the
                             // observation available to VeLa code...
-                            vela.pushEnvironment(new VeLaValidObservationEnvironment(ob));
-
-                            // ...and call the function with the current
-                            // observation's magnitude and error values.
-                            String funCall = String.format("do()", magnitude.getMagValue(), magnitude.getUncertainty());
+                            env.setObservation(ob);
+                            vela.pushEnvironment(env);
 
-                            Optional<Operand> result = vela.program(funCall);
+                            // ...and call the function, which has access to
+                            // the current observation's magnitude and error.
+                            Optional<Operand> result = vela.program(doCall);
 
                             if (result.isPresent() && result.get().getType() == Type.LIST) {
                                 Operand op = result.get();
@@ -183,6 +216,43 @@ public class VeLaObservationTransformer extends ObservationTransformerPluginBase
         };
     }
 
+    /**
+     * If the VeLa code consists only of a definition of do() whose body is a
+     * list of two numeric expressions that can be evaluated a column at a
+     * time, return column evaluators for these.
+     * 
+     * @param code The AST of the VeLa code.
+     * @return A pair of magnitude and uncertainty column evaluators, or null.
+     */
+    private static Pair<VeLaColumnEvaluator, VeLaColumnEvaluator> columnEvaluators(AST code) {
+        Pair<VeLaColumnEvaluator, VeLaColumnEvaluator> evaluators = null;
+
+        AST fundef = code;
+        while (fundef != null && fundef.getOp() == Operation.SEQUENCE) {
+            fundef = fundef.hasChildren() && fundef.getChildren().size() == 1 ? fundef.head() : null;
+        }
+
+        if (fundef != null && fundef.getOp() == Operation.FUNDEF && fundef.head().getOp() == Operation.SYMBOL
+                && "DO".equalsIgnoreCase(fundef.head().getToken())
+                && fundef.getChildren().stream().noneMatch(child -> child.getOp() == Operation.PAIR)) {
+
+            AST body = fundef.lastChild();
+            if (body.getOp() == Operation.SEQUENCE && body.hasChildren() && body.getChildren().size() == 1
+                    && body.head().getOp() == Operation.LIST && body.head().hasChildren()
+                    && body.head().getChildren().size() == 2) {
+
+                Optional<VeLaColumnEvaluator> mag = VeLaColumnEvaluator.create(body.head().left());
+                Optional<VeLaColumnEvaluator> err = VeLaColumnEvaluator.create(body.head().right());
+
+                if (mag.isPresent() && mag.get().isNumeric() && err.isPresent() && err.get().isNumeric()) {
+                    evaluators = new Pair<VeLaColumnEvaluator, VeLaColumnEvaluator>(mag.get(), err.get());
+                }
+            }
+        }
+
+        return evaluators;
+    }
+
     /**
      * Get the new star listener for this plugin.
      */
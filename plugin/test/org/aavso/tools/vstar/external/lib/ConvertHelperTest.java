@@ -0,0 +1,83 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.external.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks the in-process BJD_TDB conversion against the astroutils web service
+ * (which uses the JPL DE ephemerides), for dates from 1800 to 2050 and
+ * targets in both hemispheres. Network access is required.
+ */
+public class ConvertHelperTest extends TestCase {
+
+	// The agreement required with the web service: 0.2 seconds, in days.
+	private static final double TOLERANCE = 0.2 / 86400.0;
+
+	// 1800-01-01, 1900-01-01, 1962-01-01, 1985-07-01, 2000-01-01, 2020-06-01
+	// and 2050-12-31, at various times of day.
+	private static final double[] TIMES = { 2378496.5, 2415020.75, 2437665.6,
+			2446247.5, 2451545.0, 2459001.8, 2470171.25 };
+
+	public ConvertHelperTest(String name) {
+		super(name);
+	}
+
+	// eps Aur
+	public void testUTCToBJDNorthern() throws Exception {
+		assertAgreesWithWebService(75.4922, 43.8233, "utc2bjd");
+	}
+
+	// R Car
+	public void testUTCToBJDSouthern() throws Exception {
+		assertAgreesWithWebService(143.0696, -62.7886, "utc2bjd");
+	}
+
+	public void testUTCToBJDEquatorial() throws Exception {
+		assertAgreesWithWebService(270.0, 0.0, "utc2bjd");
+	}
+
+	// sig Oct, near the south celestial pole
+	public void testHJDToBJDSouthern() throws Exception {
+		assertAgreesWithWebService(317.1951, -88.9565, "hjd2bjd");
+	}
+
+	// eps Aur
+	public void testHJDToBJDNorthern() throws Exception {
+		assertAgreesWithWebService(75.4922, 43.8233, "hjd2bjd");
+	}
+
+	// Helpers
+
+	private void assertAgreesWithWebService(double ra, double dec, String func) throws Exception {
+		List<Double> times = new ArrayList<Double>();
+		for (double t : TIMES) {
+			times.add(t);
+		}
+
+		List<Double> remote = ConvertHelper.getConvertedListOfTimes(times, ra, dec, func);
+		List<Double> local = ConvertHelper.getLocallyConvertedListOfTimes(times, ra, dec, func);
+
+		for (int i = 0; i < TIMES.length; i++) {
+			assertEquals(func + "(" + TIMES[i] + ")", remote.get(i), local.get(i), TOLERANCE);
+		}
+	}
+}
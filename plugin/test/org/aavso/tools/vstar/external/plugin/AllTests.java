@@ -23,6 +23,8 @@ import java.util.Locale;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.aavso.tools.vstar.external.lib.ConvertHelperTest;
+
 public class AllTests {
 
 	public static Test suite() {
@@ -33,6 +35,7 @@ public class AllTests {
 
 		// $JUnit-BEGIN$
 		suite.addTestSuite(PluginTest.class);
+		suite.addTestSuite(ConvertHelperTest.class);
 		// $JUnit-END$
 		
 		return suite;
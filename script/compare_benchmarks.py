@@ -0,0 +1,67 @@
+#!/usr/bin/env python3
+#
+# Compare JMH JSON results (as written by "ant benchmark") against a saved
+# baseline and report the change in score of each benchmark and parameter
+# combination present in both.
+#
+# Usage: compare_benchmarks.py baseline.json results.json [threshold%]
+#
+# Exits with status 1 if any benchmark regressed by more than the threshold
+# (default 10%), i.e. took longer in time-per-operation modes or achieved
+# less in throughput mode.
+
+import json
+import sys
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for result in json.load(f):
+            params = result.get("params", {})
+            key = result["benchmark"] + "".join(
+                " {}={}".format(name, params[name]) for name in sorted(params))
+            results[key] = result
+        return results
+
+def main(args):
+    if len(args) < 2:
+        print("Usage: compare_benchmarks.py baseline.json results.json [threshold%]")
+        return 2
+
+    baseline = load(args[0])
+    current = load(args[1])
+    threshold = float(args[2]) if len(args) > 2 else 10.0
+
+    regressions = 0
+
+    for key in sorted(current):
+        if key not in baseline:
+            print("{:80s} new".format(key))
+            continue
+
+        before = baseline[key]["primaryMetric"]
+        after = current[key]["primaryMetric"]
+        unit = after["scoreUnit"]
+
+        change = 100.0 * (after["score"] - before["score"]) / before["score"]
+        if current[key]["mode"] == "thrpt":
+            change = -change
+
+        # A positive change is worse, whatever the mode.
+        regressed = change > threshold
+        if regressed:
+            regressions += 1
+
+        print("{:80s} {:12.3f} -> {:12.3f} {:10s} {:+7.1f}%{}".format(
+            key, before["score"], after["score"], unit, change,
+            "  REGRESSION" if regressed else ""))
+
+    for key in sorted(set(baseline) - set(current)):
+        print("{:80s} missing".format(key))
+
+    print("{} regression(s) beyond {}%".format(regressions, threshold))
+
+    return 1 if regressions > 0 else 0
+
+if __name__ == "__main__":
+    sys.exit(main(sys.argv[1:]))
@@ -17,6 +17,8 @@
  */
 package org.aavso.tools.vstar.data.filter;
 
+import java.util.function.Predicate;
+
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
@@ -89,6 +91,18 @@ public abstract class AbstractObservationFieldMatcher<T> implements IObservation
 	 */
 	protected abstract T getValueUnderTest(ValidObservation ob);
 
+	/**
+	 * Return a predicate equivalent to matches() for use by a compiled
+	 * observation filter. Subclasses may return a predicate that does less
+	 * work per observation, e.g. one that compares primitive values or that
+	 * has already decided which comparison to make.
+	 * 
+	 * @return The predicate.
+	 */
+	public Predicate<ValidObservation> compile() {
+		return this::matches;
+	}
+
 	/**
 	 * @see org.aavso.tools.vstar.data.filter.IObservationFieldMatcher#setSelectedObservationMessage(org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage)
 	 */
@@ -0,0 +1,166 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.data.filter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.ParallelChunks;
+
+/**
+ * An observation filter's matchers and inclusion criteria compiled into a
+ * single predicate. Matchers compile themselves (see
+ * AbstractObservationFieldMatcher.compile()) so that, for example, numeric
+ * test values are not unboxed and comparison operators are not switched on
+ * for each observation. Several "not equal to" matchers on the same string
+ * field are combined into a single test against a set of strings.<br/>
+ * The result of filtering a list of observations is a bit set indexed by
+ * position in the list, evaluated in parallel over ranges of the list.
+ */
+public class CompiledObservationFilter {
+
+	private final List<Predicate<ValidObservation>> predicates;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param matchers
+	 *            The matchers, all of which an observation must satisfy.
+	 * @param includeFainterThan
+	 *            Should fainter-than observations be included?
+	 * @param includeDiscrepant
+	 *            Should discrepant observations be included?
+	 * @param includeExcluded
+	 *            Should excluded observations be included?
+	 */
+	public CompiledObservationFilter(List<IObservationFieldMatcher> matchers,
+			boolean includeFainterThan, boolean includeDiscrepant,
+			boolean includeExcluded) {
+
+		List<Predicate<ValidObservation>> all = new ArrayList<Predicate<ValidObservation>>();
+
+		// The inclusion criteria are cheaper to test than most matchers.
+		if (!includeFainterThan) {
+			all.add(ob -> !ob.getMagnitude().isFainterThan());
+		}
+
+		if (!includeDiscrepant) {
+			all.add(ob -> !ob.isDiscrepant());
+		}
+
+		if (!includeExcluded) {
+			all.add(ob -> !ob.isExcluded());
+		}
+
+		// String values excluded by "not equal to" matchers, by matcher class.
+		Map<Class<?>, StringFieldMatcher> exclusionMatchers = new LinkedHashMap<Class<?>, StringFieldMatcher>();
+		Map<Class<?>, Set<String>> exclusions = new LinkedHashMap<Class<?>, Set<String>>();
+
+		for (IObservationFieldMatcher matcher : matchers) {
+			if (matcher instanceof StringFieldMatcher
+					&& ((StringFieldMatcher) matcher).op == ObservationMatcherOp.NOT_EQUALS
+					&& ((StringFieldMatcher) matcher).testValue != null) {
+				StringFieldMatcher stringMatcher = (StringFieldMatcher) matcher;
+				if (!exclusions.containsKey(matcher.getClass())) {
+					exclusionMatchers.put(matcher.getClass(), stringMatcher);
+					exclusions.put(matcher.getClass(), new HashSet<String>());
+				}
+				exclusions.get(matcher.getClass()).add(stringMatcher.testValue);
+			} else if (matcher instanceof AbstractObservationFieldMatcher) {
+				all.add(((AbstractObservationFieldMatcher<?>) matcher).compile());
+			} else {
+				all.add(matcher::matches);
+			}
+		}
+
+		for (Class<?> matcherClass : exclusionMatchers.keySet()) {
+			StringFieldMatcher matcher = exclusionMatchers.get(matcherClass);
+			Set<String> excluded = exclusions.get(matcherClass);
+
+			if (excluded.size() == 1) {
+				all.add(matcher.compile());
+			} else {
+				// At least one excluded value is non-empty, so an empty value
+				// cannot satisfy all of the matchers.
+				all.add(ob -> {
+					String value = matcher.getValueUnderTest(ob);
+					return value != null && !value.isEmpty()
+							&& !excluded.contains(value);
+				});
+			}
+		}
+
+		predicates = all;
+	}
+
+	/**
+	 * Does the specified observation satisfy this filter?
+	 * 
+	 * @param ob
+	 *            The observation under test.
+	 * @return True or false.
+	 */
+	public boolean matches(ValidObservation ob) {
+		for (Predicate<ValidObservation> predicate : predicates) {
+			if (!predicate.test(ob)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Filter the supplied list of observations.
+	 * 
+	 * @param obs
+	 *            The observation list to be filtered.
+	 * @return A bit set in which the bit at the index of each matching
+	 *         observation in the list is set.
+	 */
+	public BitSet filter(final List<ValidObservation> obs) {
+		final int n = obs.size();
+		final long[] words = new long[(n + 63) / 64];
+
+		// Ranges of words are filled in parallel, each by one thread.
+		ParallelChunks.forEachChunk(words.length, (from, to) -> {
+			for (int w = from; w < to; w++) {
+				int first = w * 64;
+				int last = Math.min(first + 64, n);
+
+				long word = 0;
+				for (int i = first; i < last; i++) {
+					if (matches(obs.get(i))) {
+						word |= 1L << (i - first);
+					}
+				}
+
+				words[w] = word;
+			}
+		});
+
+		return BitSet.valueOf(words);
+	}
+}
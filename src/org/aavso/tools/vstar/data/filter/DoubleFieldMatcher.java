@@ -17,6 +17,8 @@
  */
 package org.aavso.tools.vstar.data.filter;
 
+import java.util.function.Predicate;
+
 import org.aavso.tools.vstar.data.ValidObservation;
 
 /**
@@ -75,6 +77,52 @@ public abstract class DoubleFieldMatcher extends
 		return success;
 	}
 
+	/**
+	 * Get the value under test without boxing it. Subclasses whose value is
+	 * held as a primitive should override this.
+	 * 
+	 * @param ob
+	 *            An observation containing the value.
+	 * @return The value to be matched against.
+	 */
+	protected double getPrimitiveValueUnderTest(ValidObservation ob) {
+		return getValueUnderTest(ob);
+	}
+
+	@Override
+	public Predicate<ValidObservation> compile() {
+		final double test = testValue;
+
+		// Double.compare() orders values as Double.compareTo() does.
+		Predicate<ValidObservation> predicate = null;
+
+		switch (op) {
+		case EQUALS:
+			predicate = ob -> Double.compare(getPrimitiveValueUnderTest(ob), test) == 0;
+			break;
+		case NOT_EQUALS:
+			predicate = ob -> Double.compare(getPrimitiveValueUnderTest(ob), test) != 0;
+			break;
+		case LESS_THAN:
+			predicate = ob -> Double.compare(getPrimitiveValueUnderTest(ob), test) < 0;
+			break;
+		case GREATER_THAN:
+			predicate = ob -> Double.compare(getPrimitiveValueUnderTest(ob), test) > 0;
+			break;
+		case LESS_THAN_OR_EQUAL:
+			predicate = ob -> Double.compare(getPrimitiveValueUnderTest(ob), test) <= 0;
+			break;
+		case GREATER_THAN_OR_EQUAL:
+			predicate = ob -> Double.compare(getPrimitiveValueUnderTest(ob), test) >= 0;
+			break;
+		default:
+			predicate = ob -> false;
+			break;
+		}
+
+		return predicate;
+	}
+
 	@Override
 	public Class<?> getType() {
 		return Double.class;
@@ -55,6 +55,11 @@ public class ErrorFieldMatcher extends DoubleFieldMatcher {
 		return ob.getMagnitude().getUncertainty();
 	}
 
+	@Override
+	protected double getPrimitiveValueUnderTest(ValidObservation ob) {
+		return ob.getMagnitude().getUncertainty();
+	}
+
 	@Override
 	public String getDisplayName() {
 		return "Error";
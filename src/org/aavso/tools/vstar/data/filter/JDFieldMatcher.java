@@ -40,6 +40,11 @@ public class JDFieldMatcher extends DoubleFieldMatcher {
 		return ob.getJD();
 	}
 
+	@Override
+	protected double getPrimitiveValueUnderTest(ValidObservation ob) {
+		return ob.getJD();
+	}
+
 	@Override
 	public IObservationFieldMatcher create(String fieldValue,
 			ObservationMatcherOp op) {
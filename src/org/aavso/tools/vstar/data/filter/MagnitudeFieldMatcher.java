@@ -55,6 +55,11 @@ public class MagnitudeFieldMatcher extends DoubleFieldMatcher {
 		return ob.getMag();
 	}
 
+	@Override
+	protected double getPrimitiveValueUnderTest(ValidObservation ob) {
+		return ob.getMag();
+	}
+
 	@Override
 	public String getDisplayName() {
 		return "Magnitude";
@@ -18,6 +18,7 @@
 package org.aavso.tools.vstar.data.filter;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +26,6 @@ import java.util.Set;
 import java.util.TreeMap;
 
 import org.aavso.tools.vstar.data.ValidObservation;
-import org.aavso.tools.vstar.util.Logic;
 
 /**
  * A filter for valid observations.
@@ -94,6 +94,45 @@ public class ObservationFilter {
 		matchers.clear();
 	}
 
+	/**
+	 * Compile this filter's matchers and the specified inclusion criteria.
+	 * 
+	 * @param includeFainterThan
+	 *            Should fainter-than observations be included?
+	 * @param includeDiscrepant
+	 *            Should discrepant observations be included?
+	 * @param includeExcluded
+	 *            Should excluded observations be included?
+	 * @return The compiled filter.
+	 */
+	public CompiledObservationFilter compile(boolean includeFainterThan,
+			boolean includeDiscrepant, boolean includeExcluded) {
+		return new CompiledObservationFilter(matchers, includeFainterThan,
+				includeDiscrepant, includeExcluded);
+	}
+
+	/**
+	 * Filter the supplied list of observations, yielding the indices of
+	 * matching observations.
+	 * 
+	 * @param obs
+	 *            The observation list to be filtered.
+	 * @param includeFainterThan
+	 *            Should fainter-than observations be included?
+	 * @param includeDiscrepant
+	 *            Should discrepant observations be included?
+	 * @param includeExcluded
+	 *            Should excluded observations be included?
+	 * @return A bit set in which the bit at the index of each matching
+	 *         observation in the list is set.
+	 */
+	public BitSet getFilteredRows(List<ValidObservation> obs,
+			boolean includeFainterThan, boolean includeDiscrepant,
+			boolean includeExcluded) {
+		return compile(includeFainterThan, includeDiscrepant, includeExcluded)
+				.filter(obs);
+	}
+
 	/**
 	 * Filter the supplied list of observations.
 	 * 
@@ -116,27 +155,11 @@ public class ObservationFilter {
 		// needs to perform lookups.
 		Set<ValidObservation> matchingObs = new LinkedHashSet<ValidObservation>();
 
-		for (int i = 0; i < obs.size(); i++) {
-			ValidObservation ob = obs.get(i);
-
-			boolean does_match = matches(ob);
-
-			if (does_match) {
-				/**
-				 * Use logical implication, p => q, where p is the observation's
-				 * property and q is the inclusion property relating to p, to
-				 * check that our inclusion criteria still permit a match for
-				 * this observation.
-				 */
-				does_match &= Logic.imp(ob.getMagnitude().isFainterThan(),
-						includeFainterThan);
-				does_match &= Logic.imp(ob.isDiscrepant(), includeDiscrepant);
-				does_match &= Logic.imp(ob.isExcluded(), includeExcluded);
-
-				if (does_match) {
-					matchingObs.add(ob);
-				}
-			}
+		BitSet rows = getFilteredRows(obs, includeFainterThan,
+				includeDiscrepant, includeExcluded);
+
+		for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+			matchingObs.add(obs.get(i));
 		}
 
 		return matchingObs;
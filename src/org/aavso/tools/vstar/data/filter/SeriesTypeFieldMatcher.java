@@ -17,6 +17,8 @@
  */
 package org.aavso.tools.vstar.data.filter;
 
+import java.util.function.Predicate;
+
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 
@@ -96,6 +98,14 @@ public class SeriesTypeFieldMatcher extends
 		return result;
 	}
 
+	@Override
+	public Predicate<ValidObservation> compile() {
+		final SeriesType test = testValue;
+		final boolean equal = op == ObservationMatcherOp.EQUALS;
+
+		return ob -> (getValueUnderTest(ob) == test) == equal;
+	}
+
 	@Override
 	public String getDisplayName() {
 		return kind.name;
@@ -17,6 +17,8 @@
  */
 package org.aavso.tools.vstar.data.filter;
 
+import java.util.function.Predicate;
+
 import org.aavso.tools.vstar.data.ValidObservation;
 
 /**
@@ -69,6 +71,50 @@ public abstract class StringFieldMatcher extends
 		return result;
 	}
 
+	@Override
+	public Predicate<ValidObservation> compile() {
+		final String test = testValue;
+		final boolean emptyMatches = "".equals(test);
+
+		if (test == null) {
+			return super.compile();
+		}
+
+		Predicate<ValidObservation> predicate = null;
+
+		switch (op) {
+		case EQUALS:
+			// String hash codes are cached, so comparing them first rejects
+			// most values without comparing characters.
+			final int hash = test.hashCode();
+			predicate = ob -> {
+				String value = getValueUnderTest(ob);
+				return value == null || value.isEmpty() ? emptyMatches
+						: value.hashCode() == hash && value.equals(test);
+			};
+			break;
+		case NOT_EQUALS:
+			predicate = ob -> {
+				String value = getValueUnderTest(ob);
+				return value == null || value.isEmpty() ? emptyMatches
+						: !value.equals(test);
+			};
+			break;
+		case CONTAINS:
+			predicate = ob -> {
+				String value = getValueUnderTest(ob);
+				return value == null || value.isEmpty() ? emptyMatches
+						: value.contains(test);
+			};
+			break;
+		default:
+			predicate = super.compile();
+			break;
+		}
+
+		return predicate;
+	}
+
 	@Override
 	public Class<?> getType() {
 		return String.class;
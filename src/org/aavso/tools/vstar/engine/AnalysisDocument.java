@@ -0,0 +1,1096 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.exception.CancellationException;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.database.VSXWebServiceStarInfoSource;
+import org.aavso.tools.vstar.plugin.ModelCreatorPluginBase;
+import org.aavso.tools.vstar.plugin.ObservationSinkPluginBase;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+import org.aavso.tools.vstar.plugin.model.impl.ApacheCommonsPolynomialFitCreatorPlugin;
+import org.aavso.tools.vstar.plugin.ob.src.impl.AIDWebServiceCSV2ObservationSourcePlugin;
+import org.aavso.tools.vstar.ui.mediator.NewStarType;
+import org.aavso.tools.vstar.ui.mediator.StarInfo;
+import org.aavso.tools.vstar.util.CancellationToken;
+import org.aavso.tools.vstar.util.IAlgorithm;
+import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.period.dcdft.DcDftAnalysisType;
+import org.aavso.tools.vstar.util.period.dcdft.TSDcDft;
+import org.aavso.tools.vstar.util.period.wwz.WWZCoordinateType;
+import org.aavso.tools.vstar.util.period.wwz.WeightedWaveletZTransform;
+import org.aavso.tools.vstar.util.stats.PhaseCalcs;
+import org.aavso.tools.vstar.vela.VeLaObservationFilter;
+
+/**
+ * <p>
+ * An analysis document: one dataset, i.e. the valid and invalid observations
+ * loaded for a star along with the observations of each series, and the
+ * results of analyses of it. Documents are created by an analysis engine (see
+ * AnalysisEngine.createDocument()) and are independent of one another and of
+ * the user interface.
+ * </p>
+ * <p>
+ * Each operation may be invoked synchronously, on the calling thread, or
+ * asynchronously via its ...Async() counterpart, which runs it on one of the
+ * engine's threads and returns a future. Synchronous operations stop at their
+ * next checkpoint if the calling thread's current cancellation token (see
+ * CancellationToken.current()) is cancelled, throwing a
+ * CancellationException; asynchronous operations are cancelled via their
+ * future.
+ * </p>
+ * <p>
+ * Operations that change the document (loading, filtering, phasing,
+ * modelling) exclude one another and those that only read it (period
+ * analysis, saving). The lists and maps returned by the document's getters
+ * are its own, so must not be modified other than via the document.
+ * </p>
+ * <p>
+ * Note that detail titles of observations (see ValidObservation) are shared
+ * by all documents, as are the notifiers through which observation
+ * retrievers report progress; and model creator plug-ins that depend upon the
+ * current analysis type consult the user interface's.
+ * </p>
+ */
+public final class AnalysisDocument {
+
+	private final AnalysisEngine engine;
+
+	private final ReadWriteLock lock;
+
+	private StarInfo starInfo;
+	private NewStarType newStarType;
+
+	private List<ValidObservation> validObs;
+	private List<InvalidObservation> invalidObs;
+	private Map<SeriesType, List<ValidObservation>> categoryMap;
+
+	private Double period;
+	private Double epoch;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param engine
+	 *            The engine that created this document.
+	 */
+	AnalysisDocument(AnalysisEngine engine) {
+		this.engine = engine;
+		lock = new ReentrantReadWriteLock();
+	}
+
+	/**
+	 * @return The engine that created this document.
+	 */
+	public AnalysisEngine getEngine() {
+		return engine;
+	}
+
+	// Loading
+
+	/**
+	 * Load observations from files via an observation source plug-in.
+	 * 
+	 * @param plugin
+	 *            The observation source plug-in.
+	 * @param files
+	 *            The files from which to load observations.
+	 * @param isAdditive
+	 *            Should the observations be added to those already loaded?
+	 * @throws IOException
+	 *             If a file cannot be read.
+	 * @throws ObservationReadError
+	 *             If the observations cannot be read.
+	 * @throws CancellationException
+	 *             If the load was cancelled.
+	 */
+	public void load(ObservationSourcePluginBase plugin, List<File> files,
+			boolean isAdditive) throws IOException, ObservationReadError,
+			CancellationException {
+
+		List<InputStream> streams = new ArrayList<InputStream>();
+
+		try {
+			AbstractObservationRetriever retriever;
+
+			// Plug-ins hold their input, so one must not be shared by
+			// concurrent loads.
+			synchronized (plugin) {
+				String names = "";
+				plugin.clearStreamNameMap();
+				for (File file : files) {
+					InputStream stream = new FileInputStream(file);
+					streams.add(stream);
+					plugin.addStreamNamePair(stream, file.getName());
+					names += (names.isEmpty() ? "" : ", ") + file.getName();
+				}
+				plugin.setInputInfo(streams, names);
+
+				retriever = createRetriever(plugin, isAdditive);
+			}
+
+			load(retriever, plugin.getNewStarType(), isAdditive);
+		} finally {
+			for (InputStream stream : streams) {
+				stream.close();
+			}
+		}
+	}
+
+	/**
+	 * Load observations from a URL via an observation source plug-in.
+	 * 
+	 * @param plugin
+	 *            The observation source plug-in.
+	 * @param url
+	 *            The URL from which to load observations.
+	 * @param isAdditive
+	 *            Should the observations be added to those already loaded?
+	 * @throws IOException
+	 *             If the URL cannot be read.
+	 * @throws ObservationReadError
+	 *             If the observations cannot be read.
+	 * @throws CancellationException
+	 *             If the load was cancelled.
+	 */
+	public void load(ObservationSourcePluginBase plugin, URL url,
+			boolean isAdditive) throws IOException, ObservationReadError,
+			CancellationException {
+
+		InputStream stream = url.openStream();
+
+		try {
+			AbstractObservationRetriever retriever;
+
+			synchronized (plugin) {
+				plugin.clearStreamNameMap();
+				plugin.addStreamNamePair(stream, url.getPath());
+				plugin.setInputInfo(Collections.singletonList(stream),
+						url.getPath());
+
+				retriever = createRetriever(plugin, isAdditive);
+			}
+
+			load(retriever, plugin.getNewStarType(), isAdditive);
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Load observations of a named star from the AAVSO International
+	 * Database.
+	 * 
+	 * @param name
+	 *            The star's name (not its AUID).
+	 * @param minJD
+	 *            The minimum JD of the range to be loaded.
+	 * @param maxJD
+	 *            The maximum JD of the range to be loaded.
+	 * @param bands
+	 *            A comma-delimited list of short band names or null for all
+	 *            available bands.
+	 * @param isAdditive
+	 *            Should the observations be added to those already loaded?
+	 * @throws IOException
+	 *             If the database cannot be read.
+	 * @throws ObservationReadError
+	 *             If the star is unknown or the observations cannot be read.
+	 * @throws CancellationException
+	 *             If the load was cancelled.
+	 */
+	public void loadFromAID(String name, double minJD, double maxJD,
+			String bands, boolean isAdditive) throws IOException,
+			ObservationReadError, CancellationException {
+
+		StarInfo info = new VSXWebServiceStarInfoSource().getStarByName(name);
+
+		if (info == null || info.getAuid() == null) {
+			throw new ObservationReadError("Unknown star: " + name);
+		}
+
+		AIDWebServiceCSV2ObservationSourcePlugin plugin = new AIDWebServiceCSV2ObservationSourcePlugin();
+
+		String url;
+		if (bands == null) {
+			url = plugin.createAIDUrlForAUID(info.getAuid(), minJD, maxJD);
+		} else {
+			url = plugin.createAIDUrlForAUID(info.getAuid(), minJD, maxJD,
+					bands, null, false);
+		}
+
+		plugin.setUrl(url);
+		plugin.setInfo(info);
+
+		load(createRetriever(plugin, isAdditive), plugin.getNewStarType(),
+				isAdditive);
+	}
+
+	/**
+	 * Load observations via an observation retriever that has not yet
+	 * retrieved them.
+	 * 
+	 * @param retriever
+	 *            The observation retriever.
+	 * @param type
+	 *            The type of the observation source.
+	 * @param isAdditive
+	 *            Should the observations be added to those already loaded?
+	 * @throws ObservationReadError
+	 *             If the observations cannot be read.
+	 * @throws CancellationException
+	 *             If the load was cancelled.
+	 */
+	public void load(AbstractObservationRetriever retriever, NewStarType type,
+			boolean isAdditive) throws ObservationReadError,
+			CancellationException {
+
+		CancellationToken token = CancellationToken.current();
+
+		// A retriever may use this to read and cache its input.
+		retriever.getNumberOfRecords();
+
+		try {
+			retriever.retrieveObservations();
+		} catch (InterruptedException e) {
+			throw new CancellationException();
+		}
+
+		if (token.isCancelled() || retriever.wasInterrupted()) {
+			throw new CancellationException();
+		}
+
+		if (retriever.getValidObservations().isEmpty()) {
+			throw new ObservationReadError("No observations found.");
+		}
+
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			if (isAdditive && isLoaded()) {
+				retriever.collectAllObservations(validObs,
+						retriever.getSourceName());
+				retriever.addAllInvalidObservations(invalidObs);
+
+				if (type != newStarType) {
+					type = NewStarType.NEW_STAR_FROM_ARBITRARY_SOURCE;
+				}
+			}
+
+			clear();
+
+			setContents(retriever.getStarInfo(), type,
+					retriever.getValidObservations(),
+					retriever.getInvalidObservations(),
+					retriever.getValidObservationCategoryMap());
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Asynchronously load observations from files via an observation source
+	 * plug-in.
+	 * 
+	 * @see #load(ObservationSourcePluginBase, List, boolean)
+	 */
+	public CompletableFuture<AnalysisDocument> loadAsync(
+			ObservationSourcePluginBase plugin, List<File> files,
+			boolean isAdditive) {
+		return submit(() -> {
+			load(plugin, files, isAdditive);
+			return this;
+		});
+	}
+
+	/**
+	 * Asynchronously load observations from a URL via an observation source
+	 * plug-in.
+	 * 
+	 * @see #load(ObservationSourcePluginBase, URL, boolean)
+	 */
+	public CompletableFuture<AnalysisDocument> loadAsync(
+			ObservationSourcePluginBase plugin, URL url, boolean isAdditive) {
+		return submit(() -> {
+			load(plugin, url, isAdditive);
+			return this;
+		});
+	}
+
+	// Contents
+
+	/**
+	 * Set the contents of this document, replacing (but not clearing) any
+	 * previous contents.
+	 * 
+	 * @param starInfo
+	 *            Information about the star whose observations these are.
+	 * @param type
+	 *            The type of the observation source.
+	 * @param validObs
+	 *            The valid observations.
+	 * @param invalidObs
+	 *            The invalid observations.
+	 * @param categoryMap
+	 *            The valid observations of each series.
+	 */
+	public void setContents(StarInfo starInfo, NewStarType type,
+			List<ValidObservation> validObs,
+			List<InvalidObservation> invalidObs,
+			Map<SeriesType, List<ValidObservation>> categoryMap) {
+
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			this.starInfo = starInfo;
+			this.newStarType = type;
+			this.validObs = validObs;
+			this.invalidObs = invalidObs;
+			this.categoryMap = categoryMap;
+			period = null;
+			epoch = null;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Clear the contents of this document, first clearing its observation
+	 * lists and series map so that they may be garbage collected even if
+	 * still referred to elsewhere.
+	 */
+	public void clear() {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			if (validObs != null) {
+				validObs.clear();
+			}
+
+			if (invalidObs != null) {
+				invalidObs.clear();
+			}
+
+			if (categoryMap != null) {
+				categoryMap.clear();
+			}
+
+			starInfo = null;
+			newStarType = null;
+			validObs = null;
+			invalidObs = null;
+			categoryMap = null;
+			period = null;
+			epoch = null;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * @return Whether observations have been loaded into this document.
+	 */
+	public boolean isLoaded() {
+		return validObs != null;
+	}
+
+	/**
+	 * @return Information about the star whose observations are loaded; null
+	 *         if none are.
+	 */
+	public StarInfo getStarInfo() {
+		return starInfo;
+	}
+
+	/**
+	 * @return The type of the source of the loaded observations; null if none
+	 *         are loaded.
+	 */
+	public NewStarType getNewStarType() {
+		return newStarType;
+	}
+
+	/**
+	 * @return The valid observations; empty if none are loaded.
+	 */
+	public List<ValidObservation> getValidObservations() {
+		return validObs != null ? validObs : Collections
+				.<ValidObservation> emptyList();
+	}
+
+	/**
+	 * @return The invalid observations; empty if none are loaded.
+	 */
+	public List<InvalidObservation> getInvalidObservations() {
+		return invalidObs != null ? invalidObs : Collections
+				.<InvalidObservation> emptyList();
+	}
+
+	/**
+	 * @return The valid observations of each series; empty if none are
+	 *         loaded.
+	 */
+	public Map<SeriesType, List<ValidObservation>> getCategoryMap() {
+		return categoryMap != null ? categoryMap : Collections
+				.<SeriesType, List<ValidObservation>> emptyMap();
+	}
+
+	/**
+	 * Return the observations of a series.
+	 * 
+	 * @param series
+	 *            The series.
+	 * @return The observations; empty if there are none.
+	 */
+	public List<ValidObservation> getObservations(SeriesType series) {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			List<ValidObservation> obs = getCategoryMap().get(series);
+			return obs != null ? obs : Collections
+					.<ValidObservation> emptyList();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Add or replace the observations of a series.
+	 * 
+	 * @param series
+	 *            The series.
+	 * @param obs
+	 *            The observations.
+	 */
+	public void putSeries(SeriesType series, List<ValidObservation> obs) {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			if (categoryMap == null) {
+				categoryMap = new TreeMap<SeriesType, List<ValidObservation>>();
+			}
+
+			categoryMap.put(series, obs);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove the observations of a series.
+	 * 
+	 * @param series
+	 *            The series.
+	 */
+	public void removeSeries(SeriesType series) {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			if (categoryMap != null) {
+				categoryMap.remove(series);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Find a series given its short or long name, e.g. V or Johnson V.
+	 * 
+	 * @param name
+	 *            The name.
+	 * @return The series or null if there is no such series.
+	 */
+	public static SeriesType findSeries(String name) {
+		SeriesType series = SeriesType.getSeriesFromShortName(name);
+
+		if (series == SeriesType.getDefault()) {
+			series = SeriesType.getSeriesFromDescription(name);
+		}
+
+		// Unless the default series was really asked for, we got it because
+		// there is no such series.
+		if (series == SeriesType.getDefault()
+				&& !SeriesType.getDefault().getDescription()
+						.equals(name.toLowerCase())) {
+			series = null;
+		}
+
+		return series;
+	}
+
+	// Filtering
+
+	/**
+	 * Filter the loaded observations, excluding those that are fainter than
+	 * their magnitude, discrepant or excluded, making those accepted the
+	 * filtered series.
+	 * 
+	 * @param velaFilter
+	 *            The VeLa filter program.
+	 * @return The filtered observations.
+	 * @throws CancellationException
+	 *             If filtering was cancelled.
+	 */
+	public List<ValidObservation> filter(String velaFilter)
+			throws CancellationException {
+		return filter(velaFilter, false, false, false);
+	}
+
+	/**
+	 * Filter the loaded observations, making those accepted the filtered
+	 * series.
+	 * 
+	 * @param velaFilter
+	 *            The VeLa filter program.
+	 * @param includeFainterThan
+	 *            Include accepted observations that are fainter than their
+	 *            magnitude?
+	 * @param includeDiscrepant
+	 *            Include accepted discrepant observations?
+	 * @param includeExcluded
+	 *            Include accepted excluded observations?
+	 * @return The filtered observations.
+	 * @throws VeLaParseError
+	 *             If the filter cannot be parsed.
+	 * @throws VeLaEvalError
+	 *             If the filter cannot be evaluated for some observation.
+	 * @throws CancellationException
+	 *             If filtering was cancelled.
+	 */
+	public List<ValidObservation> filter(String velaFilter,
+			boolean includeFainterThan, boolean includeDiscrepant,
+			boolean includeExcluded) throws CancellationException {
+
+		VeLaObservationFilter filter = new VeLaObservationFilter(velaFilter);
+
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			List<ValidObservation> obs = getValidObservations();
+
+			boolean[] accepted = filter.accept(obs, error -> {
+				throw error;
+			});
+
+			checkCancelled();
+
+			List<ValidObservation> filtered = new ArrayList<ValidObservation>();
+
+			for (int i = 0; i < accepted.length; i++) {
+				ValidObservation ob = obs.get(i);
+
+				if (accepted[i]
+						&& (includeFainterThan || !ob.getMagnitude()
+								.isFainterThan())
+						&& (includeDiscrepant || !ob.isDiscrepant())
+						&& (includeExcluded || !ob.isExcluded())) {
+					filtered.add(ob);
+				}
+			}
+
+			putSeries(SeriesType.Filtered, filtered);
+
+			return filtered;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Asynchronously filter the loaded observations.
+	 * 
+	 * @see #filter(String)
+	 */
+	public CompletableFuture<List<ValidObservation>> filterAsync(
+			String velaFilter) {
+		return submit(() -> filter(velaFilter));
+	}
+
+	// Phasing
+
+	/**
+	 * Set the phases of all observations, including those of the model,
+	 * residuals and filtered series, which are not among the loaded
+	 * observations.
+	 * 
+	 * @param period
+	 *            The period.
+	 * @param epoch
+	 *            The epoch.
+	 */
+	public void phase(double period, double epoch) {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			PhaseCalcs.setPhases(getValidObservations(), epoch, period);
+			setPhases(SeriesType.Model, epoch, period);
+			setPhases(SeriesType.Residuals, epoch, period);
+			setPhases(SeriesType.Filtered, epoch, period);
+
+			this.period = period;
+			this.epoch = epoch;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Set the phases of the observations of a series, if present.
+	 * 
+	 * @param series
+	 *            The series.
+	 * @param epoch
+	 *            The epoch.
+	 * @param period
+	 *            The period.
+	 */
+	public void setPhases(SeriesType series, double epoch, double period) {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			List<ValidObservation> obs = getCategoryMap().get(series);
+
+			if (obs != null) {
+				PhaseCalcs.setPhases(obs, epoch, period);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Asynchronously set the phases of all observations.
+	 * 
+	 * @see #phase(double, double)
+	 */
+	public CompletableFuture<AnalysisDocument> phaseAsync(double period,
+			double epoch) {
+		return submit(() -> {
+			phase(period, epoch);
+			return this;
+		});
+	}
+
+	/**
+	 * @return The period with which observations were last phased; null if
+	 *         they have not been.
+	 */
+	public Double getPeriod() {
+		return period;
+	}
+
+	/**
+	 * @return The epoch with which observations were last phased; null if
+	 *         they have not been.
+	 */
+	public Double getEpoch() {
+		return epoch;
+	}
+
+	// Period analysis
+
+	/**
+	 * Perform a DC DFT standard scan of a series.
+	 * 
+	 * @param series
+	 *            The series.
+	 * @return The executed algorithm, from which results may be obtained.
+	 * @throws AlgorithmError
+	 *             If the analysis fails.
+	 * @throws CancellationException
+	 *             If the analysis was cancelled.
+	 */
+	public TSDcDft dcdftStandardScan(SeriesType series) throws AlgorithmError,
+			CancellationException {
+		return dcdft(series, DcDftAnalysisType.STANDARD_SCAN, 0, 0, 0);
+	}
+
+	/**
+	 * Perform a DC DFT of a series.
+	 * 
+	 * @param series
+	 *            The series.
+	 * @param type
+	 *            Standard scan, frequency range or period range?
+	 * @param low
+	 *            The low value of the range; ignored for a standard scan.
+	 * @param high
+	 *            The high value of the range; ignored for a standard scan.
+	 * @param resolution
+	 *            The resolution of the scan over the range; ignored for a
+	 *            standard scan.
+	 * @return The executed algorithm, from which results may be obtained.
+	 * @throws AlgorithmError
+	 *             If the analysis fails.
+	 * @throws CancellationException
+	 *             If the analysis was cancelled.
+	 */
+	public TSDcDft dcdft(SeriesType series, DcDftAnalysisType type,
+			double low, double high, double resolution)
+			throws AlgorithmError, CancellationException {
+		return analyse(createDcDft(getObservations(series), type, low, high,
+				resolution));
+	}
+
+	/**
+	 * Perform a WWZ time-frequency analysis of a series.
+	 * 
+	 * @param series
+	 *            The series.
+	 * @param type
+	 *            Is the range one of frequencies or periods?
+	 * @param min
+	 *            The low value of the range.
+	 * @param max
+	 *            The high value of the range.
+	 * @param step
+	 *            The step over the range.
+	 * @param decay
+	 *            The wavelet decay constant.
+	 * @param timeDivisions
+	 *            The number of time divisions.
+	 * @return The executed algorithm, from which results may be obtained.
+	 * @throws AlgorithmError
+	 *             If the analysis fails.
+	 * @throws CancellationException
+	 *             If the analysis was cancelled.
+	 */
+	public WeightedWaveletZTransform wwz(SeriesType series,
+			WWZCoordinateType type, double min, double max, double step,
+			double decay, double timeDivisions) throws AlgorithmError,
+			CancellationException {
+		return analyse(createWwz(getObservations(series), type, min, max,
+				step, decay, timeDivisions));
+	}
+
+	/**
+	 * Execute an algorithm, e.g. a period analysis, that reads this
+	 * document's observations.
+	 * 
+	 * @param algorithm
+	 *            The algorithm.
+	 * @return The executed algorithm.
+	 * @throws AlgorithmError
+	 *             If the algorithm fails.
+	 * @throws CancellationException
+	 *             If the algorithm was cancelled.
+	 */
+	public <A extends IAlgorithm> A analyse(A algorithm) throws AlgorithmError,
+			CancellationException {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			algorithm.execute(CancellationToken.current());
+			checkCancelled();
+			return algorithm;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Asynchronously execute an algorithm.
+	 * 
+	 * @see #analyse(IAlgorithm)
+	 */
+	public <A extends IAlgorithm> CompletableFuture<A> analyseAsync(
+			A algorithm) {
+		return submit(() -> analyse(algorithm));
+	}
+
+	/**
+	 * Create a DC DFT algorithm.
+	 * 
+	 * @param obs
+	 *            The observations to be analysed.
+	 * @param type
+	 *            Standard scan, frequency range or period range?
+	 * @param low
+	 *            The low value of the range; ignored for a standard scan.
+	 * @param high
+	 *            The high value of the range; ignored for a standard scan.
+	 * @param resolution
+	 *            The resolution of the scan over the range; ignored for a
+	 *            standard scan.
+	 * @return The algorithm, ready to be executed.
+	 */
+	public static TSDcDft createDcDft(List<ValidObservation> obs,
+			DcDftAnalysisType type, double low, double high, double resolution) {
+		TSDcDft dcdft = null;
+
+		switch (type) {
+		case PERIOD_RANGE:
+			dcdft = new TSDcDft(obs, DcDftAnalysisType.PERIOD_RANGE);
+			dcdft.setLoPeriodValue(low);
+			dcdft.setHiPeriodValue(high);
+			dcdft.setResolutionValue(resolution);
+			break;
+
+		case FREQUENCY_RANGE:
+			dcdft = new TSDcDft(obs, low, high, resolution);
+			break;
+
+		case STANDARD_SCAN:
+			dcdft = new TSDcDft(obs);
+			break;
+		}
+
+		return dcdft;
+	}
+
+	/**
+	 * Create a WWZ algorithm.
+	 * 
+	 * @param obs
+	 *            The observations to be analysed.
+	 * @param type
+	 *            Is the range one of frequencies or periods?
+	 * @param min
+	 *            The low value of the range.
+	 * @param max
+	 *            The high value of the range.
+	 * @param step
+	 *            The step over the range.
+	 * @param decay
+	 *            The wavelet decay constant.
+	 * @param timeDivisions
+	 *            The number of time divisions.
+	 * @return The algorithm, ready to be executed.
+	 */
+	public static WeightedWaveletZTransform createWwz(
+			List<ValidObservation> obs, WWZCoordinateType type, double min,
+			double max, double step, double decay, double timeDivisions) {
+
+		WeightedWaveletZTransform wwz = new WeightedWaveletZTransform(obs,
+				decay, timeDivisions);
+
+		switch (type) {
+		case FREQUENCY:
+			wwz.make_freqs_from_freq_range(Math.min(min, max),
+					Math.max(min, max), step);
+			break;
+		case PERIOD:
+			wwz.make_freqs_from_period_range(Math.min(min, max),
+					Math.max(min, max), step);
+			break;
+		default:
+			throw new IllegalArgumentException(
+					"WWZ: only a period or frequency range is allowed");
+		}
+
+		return wwz;
+	}
+
+	// Modelling
+
+	/**
+	 * Create a model of a series via a model creator plug-in, making its fit
+	 * and residuals the model and residuals series.
+	 * 
+	 * @param plugin
+	 *            The model creator plug-in.
+	 * @param series
+	 *            The series to be modelled.
+	 * @param params
+	 *            The plug-in's parameters; may be null if it needs none.
+	 * @return The executed model.
+	 * @throws AlgorithmError
+	 *             If the model cannot be created.
+	 * @throws CancellationException
+	 *             If modelling was cancelled or the plug-in declined to
+	 *             create a model.
+	 */
+	public IModel model(ModelCreatorPluginBase plugin, SeriesType series,
+			Object[] params) throws AlgorithmError, CancellationException {
+
+		List<ValidObservation> obs = getObservations(series);
+
+		IModel model;
+
+		// Plug-ins hold their parameters, so one must not be shared by
+		// concurrent models.
+		synchronized (plugin) {
+			if (params != null) {
+				plugin.setParams(params);
+			}
+
+			model = plugin.getModel(obs);
+		}
+
+		if (model == null) {
+			throw new CancellationException();
+		}
+
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			model.execute(CancellationToken.current());
+			checkCancelled();
+
+			putSeries(SeriesType.Model, model.getFit());
+			putSeries(SeriesType.Residuals, model.getResiduals());
+
+			if (period != null) {
+				setPhases(SeriesType.Model, epoch, period);
+				setPhases(SeriesType.Residuals, epoch, period);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+
+		return model;
+	}
+
+	/**
+	 * Create a polynomial fit of a series.
+	 * 
+	 * @param series
+	 *            The series to be modelled.
+	 * @param degree
+	 *            The degree of the polynomial.
+	 * @return The executed model.
+	 * @throws AlgorithmError
+	 *             If the model cannot be created.
+	 * @throws CancellationException
+	 *             If modelling was cancelled.
+	 */
+	public IModel polyfit(SeriesType series, int degree)
+			throws AlgorithmError, CancellationException {
+		return model(new ApacheCommonsPolynomialFitCreatorPlugin(), series,
+				new Object[] { (double) degree });
+	}
+
+	/**
+	 * Asynchronously create a model of a series.
+	 * 
+	 * @see #model(ModelCreatorPluginBase, SeriesType, Object[])
+	 */
+	public CompletableFuture<IModel> modelAsync(ModelCreatorPluginBase plugin,
+			SeriesType series, Object[] params) {
+		return submit(() -> model(plugin, series, params));
+	}
+
+	// Saving
+
+	/**
+	 * Save the loaded observations via an observation sink plug-in.
+	 * 
+	 * @param plugin
+	 *            The observation sink plug-in.
+	 * @param file
+	 *            The file to which to save observations.
+	 * @param delimiter
+	 *            The field delimiter; may be null.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	public void save(ObservationSinkPluginBase plugin, File file,
+			String delimiter) throws IOException {
+		Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try (PrintWriter writer = new PrintWriter(file)) {
+			plugin.save(writer, getValidObservations(), delimiter);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Asynchronously save the loaded observations.
+	 * 
+	 * @see #save(ObservationSinkPluginBase, File, String)
+	 */
+	public CompletableFuture<AnalysisDocument> saveAsync(
+			ObservationSinkPluginBase plugin, File file, String delimiter) {
+		return submit(() -> {
+			save(plugin, file, delimiter);
+			return this;
+		});
+	}
+
+	/**
+	 * Run an arbitrary operation on this document asynchronously.
+	 * 
+	 * @param operation
+	 *            The operation.
+	 * @return The future result of the operation.
+	 * @see AnalysisEngine#submit(Callable)
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> operation) {
+		return engine.submit(operation);
+	}
+
+	// Helpers
+
+	private AbstractObservationRetriever createRetriever(
+			ObservationSourcePluginBase plugin, boolean isAdditive)
+			throws IOException, ObservationReadError, CancellationException {
+
+		plugin.setAdditive(isAdditive);
+
+		AbstractObservationRetriever retriever = plugin
+				.getObservationRetriever();
+
+		if (retriever == null) {
+			throw new CancellationException();
+		}
+
+		return retriever;
+	}
+
+	private void checkCancelled() throws CancellationException {
+		if (CancellationToken.current().isCancelled()) {
+			throw new CancellationException();
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.engine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aavso.tools.vstar.exception.CancellationException;
+import org.aavso.tools.vstar.util.CancellationToken;
+
+/**
+ * <p>
+ * A headless analysis engine, independent of the Swing user interface, from
+ * which analysis documents are created. Each document holds one dataset and
+ * supports loading, filtering, phasing, period analysis and modelling, either
+ * synchronously on the calling thread or asynchronously on the engine's
+ * threads. Documents are independent of one another, so several may be
+ * loaded and analysed at once, e.g. in batch processing.
+ * </p>
+ * <p>
+ * The desktop user interface is one client of an engine (see
+ * Mediator.getAnalysisEngine()); scripts and Java code in which VStar is
+ * embedded may create their own, e.g.
+ * </p>
+ * 
+ * <pre>
+ * AnalysisEngine engine = new AnalysisEngine();
+ * AnalysisDocument doc = engine.createDocument();
+ * doc.load(new TextFormatObservationSourcePlugin(),
+ * 		Collections.singletonList(file), false);
+ * TSDcDft dcdft = doc.dcdftStandardScan(SeriesType.Visual);
+ * </pre>
+ * <p>
+ * Computations within an operation, e.g. over frequencies, run in parallel on
+ * the shared compute service (see ComputeService), while asynchronous
+ * operations themselves run on threads owned by the engine, since they may
+ * block on I/O.
+ * </p>
+ */
+public final class AnalysisEngine {
+
+	private static final AtomicInteger engineCount = new AtomicInteger();
+
+	private final ExecutorService executor;
+
+	/**
+	 * Constructor
+	 */
+	public AnalysisEngine() {
+		final int engineNum = engineCount.incrementAndGet();
+
+		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger threadCount = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "VStar analysis " + engineNum
+						+ "-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Create a new, empty document.
+	 * 
+	 * @return The document.
+	 */
+	public AnalysisDocument createDocument() {
+		return new AnalysisDocument(this);
+	}
+
+	/**
+	 * Run an operation asynchronously on one of the engine's threads. The
+	 * operation runs with a new cancellation token current, so that
+	 * cancelling the returned future, via cancel(), asks the operation to
+	 * stop at its next checkpoint, in which case the future completes
+	 * exceptionally with a CancellationException.
+	 * 
+	 * @param operation
+	 *            The operation.
+	 * @return The future result of the operation.
+	 */
+	public <T> CompletableFuture<T> submit(final Callable<T> operation) {
+		final CancellationToken token = new CancellationToken();
+
+		final CompletableFuture<T> future = new CompletableFuture<T>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				token.cancel();
+				return super.cancel(mayInterruptIfRunning);
+			}
+		};
+
+		executor.execute(() -> {
+			if (token.isCancelled()) {
+				return;
+			}
+
+			CancellationToken.Scope scope = token.enter();
+			try {
+				T result = operation.call();
+
+				if (token.isCancelled()) {
+					throw new CancellationException();
+				}
+
+				future.complete(result);
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			} finally {
+				scope.close();
+			}
+		});
+
+		return future;
+	}
+
+	/**
+	 * Stop accepting asynchronous operations. Operations already submitted
+	 * run to completion.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
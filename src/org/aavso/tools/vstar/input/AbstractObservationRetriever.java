@@ -19,10 +19,8 @@
 package org.aavso.tools.vstar.input;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -40,12 +38,9 @@ import org.aavso.tools.vstar.ui.mediator.message.ProgressType;
 import org.aavso.tools.vstar.ui.mediator.message.StopRequestMessage;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
-import org.aavso.tools.vstar.vela.Operand;
-import org.aavso.tools.vstar.vela.Type;
 import org.aavso.tools.vstar.vela.VeLaEvalError;
-import org.aavso.tools.vstar.vela.VeLaInterpreter;
+import org.aavso.tools.vstar.vela.VeLaObservationFilter;
 import org.aavso.tools.vstar.vela.VeLaParseError;
-import org.aavso.tools.vstar.vela.VeLaValidObservationEnvironment;
 
 /**
  * This is the abstract base class for all observation retrieval classes,
@@ -59,12 +54,14 @@ public abstract class AbstractObservationRetriever {
 	public final static int DEFAULT_CAPACITY = -1;
 	public final static String NO_VELA_FILTER = "";
 
-	private final static boolean VERBOSE = false;
-	private final static boolean ADD_VSTAR_API = false;
-	
 	private String velaFilterStr;
 
-	private VeLaInterpreter vela;
+	// The compiled VeLa filter, if any, and the title and text of an error
+	// arising from its compilation, to be reported when the first
+	// observation is collected.
+	private VeLaObservationFilter velaFilter;
+	private String velaFilterErrorTitle;
+	private String velaFilterErrorMsg;
 
 	private boolean velaErrorReported;
 
@@ -113,7 +110,7 @@ public abstract class AbstractObservationRetriever {
 
 		this.velaFilterStr = velaFilterStr.trim();
 		velaErrorReported = false;
-		vela = new VeLaInterpreter(VERBOSE, ADD_VSTAR_API, Collections.emptyList());
+		compileVelaFilter();
 
 		// Create observation category map and add discrepant and excluded
 		// series list so these are available if needed.
@@ -340,7 +337,8 @@ public abstract class AbstractObservationRetriever {
 	 *            the velaFilterStr to set
 	 */
 	public void setVelaFilter(String velaFilterStr) {
-		this.velaFilterStr = velaFilterStr;
+		this.velaFilterStr = velaFilterStr.trim();
+		compileVelaFilter();
 	}
 
 	/**
@@ -388,14 +386,18 @@ public abstract class AbstractObservationRetriever {
 		// Add previously existing obs (those passed to this method).
 		Set<SeriesType> seriesToExclude = seriesToExcludeWhenAdditive();
 
+		List<ValidObservation> obsToCollect = new ArrayList<ValidObservation>();
+
 		for (ValidObservation ob : obs) {
 			// If there are no series to exclude or the observation's band is
 			// not in the list of series to be excluded, include it.
 			if (seriesToExclude == null
 					|| !seriesToExclude.contains(ob.getBand())) {
-				collectObservation(ob);
+				obsToCollect.add(ob);
 			}
 		}
+
+		collectObservationBatch(obsToCollect);
 	}
 
 	/**
@@ -482,41 +484,16 @@ public abstract class AbstractObservationRetriever {
 
 		boolean include = true;
 
-		// If a VeLa filter string is present, apply it to each observation.
+		// If a VeLa filter is present, apply it to the observation.
 		if (!NO_VELA_FILTER.equals(velaFilterStr)) {
-			vela.pushEnvironment(new VeLaValidObservationEnvironment(ob));
-			try {
-				Optional<Operand> value = vela.program(velaFilterStr);
-				if (value.isPresent()) {
-					// There may be no value present because everything
-					// is commented or because no expression has been
-					// evaluated (e.g. one or more functions or variables
-					// have been defined but no expression has been evaluated
-					// that uses them). In this case, there's nothing to do.
-					if (value.get().getType() == Type.BOOLEAN) {
-						include = value.get().booleanVal();
-					} else {
-						if (!velaErrorReported) {
-							MessageBox.showErrorDialog("Type Error",
-									"Expected a Boolean value");
-							velaErrorReported = true;
-						}
-					}
-				}
-			} catch (VeLaParseError e) {
-				if (!velaErrorReported) {
-					MessageBox.showErrorDialog("Parse Error",
-							messageFromException(e));
-					velaErrorReported = true;
-				}
-			} catch (VeLaEvalError e) {
-				if (!velaErrorReported) {
-					MessageBox.showErrorDialog("Evaluation Error",
-							messageFromException(e));
-					velaErrorReported = true;
+			reportVelaFilterCompilationError();
+
+			if (velaFilter != null) {
+				try {
+					include = velaFilter.accept(ob);
+				} catch (VeLaEvalError e) {
+					reportVelaFilterEvaluationError(e);
 				}
-			} finally {
-				vela.popEnvironment();
 			}
 		}
 
@@ -526,6 +503,60 @@ public abstract class AbstractObservationRetriever {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Add a batch of observations to the list of valid observations.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is equivalent to calling collectObservation() for each observation
+	 * in turn, except that any VeLa filter is applied to the whole batch,
+	 * in parallel for large batches, before the observations that satisfy it
+	 * are added in order. Observation source plugins that read many
+	 * observations before collecting them may prefer this method.
+	 * </p>
+	 * 
+	 * @param obs
+	 *            The valid observations to be added to collections.
+	 * 
+	 * @throws ObservationReadError
+	 *             if any observation has no date or magnitude, in which case
+	 *             no observations are added.
+	 */
+	protected void collectObservationBatch(List<ValidObservation> obs)
+			throws ObservationReadError {
+		for (ValidObservation ob : obs) {
+			if (ob.getDateInfo() == null) {
+				throw new ObservationReadError("Observation #"
+						+ ob.getRecordNumber() + " has no date.");
+			}
+
+			if (ob.getMagnitude() == null) {
+				throw new ObservationReadError("Observation #"
+						+ ob.getRecordNumber() + " has no magnitude.");
+			}
+		}
+
+		boolean[] include = null;
+
+		if (!NO_VELA_FILTER.equals(velaFilterStr) && !obs.isEmpty()) {
+			reportVelaFilterCompilationError();
+
+			if (velaFilter != null) {
+				include = velaFilter.accept(obs,
+						e -> reportVelaFilterEvaluationError(e));
+			}
+		}
+
+		for (int i = 0; i < obs.size(); i++) {
+			if (include == null || include[i]) {
+				ValidObservation ob = obs.get(i);
+				addValidObservation(ob);
+				categoriseValidObservation(ob);
+			}
+		}
+	}
+
 	/**
 	 * Add an observation to the list of invalid observations.
 	 * 
@@ -695,6 +726,43 @@ public abstract class AbstractObservationRetriever {
 		return msg;
 	}
 
+	// Compiles the VeLa filter string, if any, once.
+	private void compileVelaFilter() {
+		velaFilter = null;
+		velaFilterErrorTitle = null;
+		velaFilterErrorMsg = null;
+
+		if (!NO_VELA_FILTER.equals(velaFilterStr)) {
+			try {
+				velaFilter = new VeLaObservationFilter(velaFilterStr);
+			} catch (VeLaParseError e) {
+				velaFilterErrorTitle = "Parse Error";
+				velaFilterErrorMsg = messageFromException(e);
+			} catch (VeLaEvalError e) {
+				velaFilterErrorTitle = "Type Error";
+				velaFilterErrorMsg = messageFromException(e);
+			}
+		}
+	}
+
+	// Reports a VeLa filter compilation error, if any, once.
+	private void reportVelaFilterCompilationError() {
+		if (velaFilterErrorTitle != null && !velaErrorReported) {
+			MessageBox.showErrorDialog(velaFilterErrorTitle,
+					velaFilterErrorMsg);
+			velaErrorReported = true;
+		}
+	}
+
+	// Reports a VeLa filter evaluation error, once.
+	private void reportVelaFilterEvaluationError(VeLaEvalError e) {
+		if (!velaErrorReported) {
+			MessageBox.showErrorDialog("Evaluation Error",
+					messageFromException(e));
+			velaErrorReported = true;
+		}
+	}
+
 	// Creates a stop request listener.
 	private Listener<StopRequestMessage> createStopRequestListener() {
 		return new Listener<StopRequestMessage>() {
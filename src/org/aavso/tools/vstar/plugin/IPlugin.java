@@ -18,6 +18,7 @@
 package org.aavso.tools.vstar.plugin;
 
 import org.aavso.tools.vstar.ui.resources.LoginInfo;
+import org.aavso.tools.vstar.util.ComputeService;
 
 /**
  * <p>
@@ -80,6 +81,18 @@ public interface IPlugin {
 	 */
 	abstract public boolean additionalAuthenticationSatisfied(LoginInfo loginInfo);
 
+	/**
+	 * Get the service via which this plugin should perform parallel
+	 * computations rather than creating its own threads, so that the
+	 * computations of all plugins and of VStar itself share the available
+	 * cores.
+	 * 
+	 * @return The compute service.
+	 */
+	default public ComputeService getComputeService() {
+		return ComputeService.getInstance();
+	}
+
 	// Test methods
 
 	/**
@@ -33,6 +33,7 @@ import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
 import org.aavso.tools.vstar.ui.mediator.NewStarType;
 import org.aavso.tools.vstar.ui.resources.LoginInfo;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
 
 /**
  * <p>
@@ -96,6 +97,24 @@ public abstract class ObservationSourcePluginBase implements IPlugin {
 	 */
 	public abstract AbstractObservationRetriever getObservationRetriever() throws IOException, ObservationReadError;
 
+	/**
+	 * <p>
+	 * Get a task to be run in place of loading observations, e.g. one that
+	 * writes generated observations to a file, when the last call to
+	 * getObservationRetriever() returned null.
+	 * </p>
+	 * 
+	 * <p>
+	 * The task is submitted to the task scheduler once the new star operation
+	 * has ended. A given task should be returned only once.
+	 * </p>
+	 * 
+	 * @return The task, or null if there is none (the default).
+	 */
+	public ScheduledTask<?, ?> getDeferredTask() {
+		return null;
+	}
+
 	/**
 	 * Get the name of the star associated with the current observation dataset.
 	 * 
@@ -26,8 +26,10 @@ import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.util.Logic;
 import org.aavso.tools.vstar.util.Pair;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
+import org.aavso.tools.vstar.vela.AST;
 import org.aavso.tools.vstar.vela.Operand;
 import org.aavso.tools.vstar.vela.Type;
+import org.aavso.tools.vstar.vela.VeLaColumnEvaluator;
 import org.aavso.tools.vstar.vela.VeLaEvalError;
 import org.aavso.tools.vstar.vela.VeLaInterpreter;
 import org.aavso.tools.vstar.vela.VeLaParseError;
@@ -45,6 +47,7 @@ public class VeLaFilterPlugin extends CustomFilterPluginBase {
 
 	public VeLaFilterPlugin() {
 		vela = new VeLaInterpreter();
+		vela.setCompiledMode(true);
 	}
 
 	@Override
@@ -74,34 +77,63 @@ public class VeLaFilterPlugin extends CustomFilterPluginBase {
 			velaFilterExpr = dialog.getVeLaExpression();
 
 			try {
-				for (ValidObservation ob : obs) {
-					vela.pushEnvironment(new VeLaValidObservationEnvironment(ob));
-
-					Optional<Operand> result = vela.program(velaFilterExpr);
-					
-					boolean does_match = result.isPresent()
-							&& result.get().getType() == Type.BOOLEAN
-							&& result.get().booleanVal();
-
-					if (does_match) {
-						/**
-						 * Use logical implication, p => q, where p is the
-						 * observation's property and q is the inclusion
-						 * property relating to p, to check that our inclusion
-						 * criteria still permit a match for this observation.
-						 */
-						does_match &= Logic.imp(ob.getMagnitude()
-								.isFainterThan(), dialog.includeFainterThan());
-						does_match &= Logic.imp(ob.isDiscrepant(),
-								dialog.includeDiscrepant());
-						does_match &= Logic.imp(ob.isExcluded(),
-								dialog.includeExcluded());
+				// Compile the filter once, evaluating it a column at a time
+				// if possible, otherwise binding its observation symbols to
+				// an environment that is reused for each observation.
+				AST filterAST = vela.compile(velaFilterExpr);
+
+				boolean[] matches = null;
+
+				Optional<VeLaColumnEvaluator> columns = VeLaColumnEvaluator
+						.create(filterAST);
+				if (columns.isPresent() && columns.get().isPredicate()) {
+					matches = columns.get().accept(obs);
+				}
+
+				VeLaValidObservationEnvironment env = new VeLaValidObservationEnvironment();
+				AST ast = env.bindSlots(filterAST);
+
+				vela.pushEnvironment(env);
+
+				try {
+					for (int i = 0; i < obs.size(); i++) {
+						ValidObservation ob = obs.get(i);
+
+						boolean does_match;
+
+						if (matches != null) {
+							does_match = matches[i];
+						} else {
+							env.setObservation(ob);
+
+							Optional<Operand> result = vela.program(ast);
+
+							does_match = result.isPresent()
+									&& result.get().getType() == Type.BOOLEAN
+									&& result.get().booleanVal();
+						}
 
 						if (does_match) {
-							addToSubset(ob);
+							/**
+							 * Use logical implication, p => q, where p is the
+							 * observation's property and q is the inclusion
+							 * property relating to p, to check that our
+							 * inclusion criteria still permit a match for
+							 * this observation.
+							 */
+							does_match &= Logic.imp(ob.getMagnitude()
+									.isFainterThan(), dialog.includeFainterThan());
+							does_match &= Logic.imp(ob.isDiscrepant(),
+									dialog.includeDiscrepant());
+							does_match &= Logic.imp(ob.isExcluded(),
+									dialog.includeExcluded());
+
+							if (does_match) {
+								addToSubset(ob);
+							}
 						}
 					}
-
+				} finally {
 					vela.popEnvironment();
 				}
 
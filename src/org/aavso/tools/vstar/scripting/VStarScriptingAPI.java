@@ -28,7 +28,9 @@ import java.util.stream.Collectors;
 
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.engine.AnalysisDocument;
 import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.exception.CancellationException;
 import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.input.database.VSXWebServiceStarInfoSource;
 import org.aavso.tools.vstar.plugin.InputType;
@@ -266,6 +268,17 @@ public class VStarScriptingAPI {
 
 	// TODO: add loadFromAID(name) => all
 
+	/**
+	 * Create a new analysis document, independent of the currently loaded
+	 * dataset and of the user interface, e.g. so that several datasets may be
+	 * loaded and analysed by a script at once.
+	 * 
+	 * @return The document.
+	 */
+	public synchronized AnalysisDocument createDocument() {
+		return mediator.getAnalysisEngine().createDocument();
+	}
+
 	/**
 	 * Return a StarInfo object for named object.
 	 * 
@@ -489,10 +502,8 @@ public class VStarScriptingAPI {
 		Double[][] results = {};
 
 		if (obs.size() > 0) {
-			WeightedWaveletZTransform wwz = new WeightedWaveletZTransform(obs, decay, timeDivisions);
-
-			wwz.make_freqs_from_period_range(Math.min(minPeriod, maxPeriod), Math.max(minPeriod, maxPeriod),
-					periodStep);
+			WeightedWaveletZTransform wwz = AnalysisDocument.createWwz(obs, WWZCoordinateType.PERIOD, minPeriod,
+					maxPeriod, periodStep, decay, timeDivisions);
 
 			results = wwzCommon(wwz, WWZCoordinateType.PERIOD);
 		}
@@ -520,9 +531,8 @@ public class VStarScriptingAPI {
 		Double[][] results = {};
 
 		if (obs.size() > 0) {
-			WeightedWaveletZTransform wwz = new WeightedWaveletZTransform(obs, decay, timeDivisions);
-
-			wwz.make_freqs_from_freq_range(Math.min(minFreq, maxFreq), Math.max(minFreq, maxFreq), freqStep);
+			WeightedWaveletZTransform wwz = AnalysisDocument.createWwz(obs, WWZCoordinateType.FREQUENCY, minFreq,
+					maxFreq, freqStep, decay, timeDivisions);
 
 			results = wwzCommon(wwz, WWZCoordinateType.FREQUENCY);
 		}
@@ -894,27 +904,10 @@ public class VStarScriptingAPI {
 		List<ValidObservation> obs = getObsForSeries(seriesName);
 
 		if (obs.size() > 0) {
-			TSDcDft dcdft = null;
-
-			switch (analysisType) {
-			case PERIOD_RANGE:
-				dcdft = new TSDcDft(obs, DcDftAnalysisType.PERIOD_RANGE);
-				dcdft.setLoPeriodValue(low);
-				dcdft.setHiPeriodValue(high);
-				dcdft.setResolutionValue(resolution);
-				break;
-
-			case FREQUENCY_RANGE:
-				dcdft = new TSDcDft(obs, low, high, resolution);
-				break;
-
-			case STANDARD_SCAN:
-				dcdft = new TSDcDft(obs);
-				break;
-			}
+			TSDcDft dcdft = AnalysisDocument.createDcDft(obs, analysisType, low, high, resolution);
 
 			try {
-				dcdft.execute();
+				mediator.getAnalysisDocument().analyse(dcdft);
 
 				Map<PeriodAnalysisCoordinateType, List<Double>> topHits = dcdft.getTopHits();
 
@@ -931,6 +924,8 @@ public class VStarScriptingAPI {
 
 			} catch (AlgorithmError e) {
 				ScriptRunner.getInstance().setError(e.getMessage());
+			} catch (CancellationException e) {
+				ScriptRunner.getInstance().setError("DC DFT cancelled");
 			}
 		} else {
 			ScriptRunner.getInstance().setError("No observations in series " + seriesName);
@@ -953,7 +948,7 @@ public class VStarScriptingAPI {
 		Double[][] maximalStats = null;
 
 		try {
-			wwz.execute();
+			mediator.getAnalysisDocument().analyse(wwz);
 
 			List<WWZStatistic> maximalStatsList = wwz.getMaximalStats();
 
@@ -979,6 +974,8 @@ public class VStarScriptingAPI {
 			}
 		} catch (AlgorithmError e) {
 			ScriptRunner.getInstance().setError(e.getMessage());
+		} catch (CancellationException e) {
+			ScriptRunner.getInstance().setError("WWZ cancelled");
 		}
 
 		return maximalStats;
@@ -1021,17 +1018,9 @@ public class VStarScriptingAPI {
 
 		List<ValidObservation> obs = Collections.emptyList();
 
-		// Find the requested series...
-		SeriesType series = SeriesType.getSeriesFromShortName(seriesName);
-
-		if (series == SeriesType.getDefault()) {
-			series = SeriesType.getSeriesFromDescription(seriesName);
-		}
+		SeriesType series = AnalysisDocument.findSeries(seriesName);
 
-		// ...if the user wasn't really asking for the default series name but
-		// we got it anyway, we treat this as an error.
-		if (series == SeriesType.getDefault()
-				&& !SeriesType.getDefault().getDescription().equals(seriesName.toLowerCase())) {
+		if (series == null) {
 			ScriptRunner.getInstance().setError("Unknown series " + seriesName);
 		} else {
 			// ...otherwise, get the observations for the requested series.
@@ -74,7 +74,9 @@ import org.aavso.tools.vstar.ui.mediator.message.UndoableActionType;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomType;
 import org.aavso.tools.vstar.ui.model.plot.ObservationAndMeanPlotModel;
+import org.aavso.tools.vstar.ui.resources.PluginDescriptor;
 import org.aavso.tools.vstar.ui.resources.PluginLoader;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
 import org.aavso.tools.vstar.ui.vela.VeLaDialog;
 import org.aavso.tools.vstar.util.help.Help;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
@@ -152,13 +154,13 @@ public class MenuBar extends JMenuBar {
 	private Mediator mediator = Mediator.getInstance();
 
 	// Plug-in menu name to plug-in object maps.
-	private Map<String, ObservationSourcePluginBase> menuItemNameToObSourcePlugin;
-	private Map<String, CustomFilterPluginBase> menuItemNameToCustomFilterPlugin;
-	private Map<String, PeriodAnalysisPluginBase> menuItemNameToPeriodAnalysisPlugin;
-	private Map<String, ModelCreatorPluginBase> menuItemNameToModelCreatorPlugin;
-	private Map<String, ObservationToolPluginBase> menuItemNameToObsToolPlugin;
-	private Map<String, GeneralToolPluginBase> menuItemNameToGenToolPlugin;
-	private Map<String, ObservationTransformerPluginBase> menuItemNameToObsTransPlugin;
+	private Map<String, PluginDescriptor<ObservationSourcePluginBase>> menuItemNameToObSourcePlugin;
+	private Map<String, PluginDescriptor<CustomFilterPluginBase>> menuItemNameToCustomFilterPlugin;
+	private Map<String, PluginDescriptor<PeriodAnalysisPluginBase>> menuItemNameToPeriodAnalysisPlugin;
+	private Map<String, PluginDescriptor<ModelCreatorPluginBase>> menuItemNameToModelCreatorPlugin;
+	private Map<String, PluginDescriptor<ObservationToolPluginBase>> menuItemNameToObsToolPlugin;
+	private Map<String, PluginDescriptor<GeneralToolPluginBase>> menuItemNameToGenToolPlugin;
+	private Map<String, PluginDescriptor<ObservationTransformerPluginBase>> menuItemNameToObsTransPlugin;
 
 	// Keep track of analysis menu items for enabling/disabling.
 	private List<JMenuItem> analysisMenuItems;
@@ -277,22 +279,23 @@ public class MenuBar extends JMenuBar {
 	private void createFileMenu() {
 		JMenu fileMenu = new JMenu(LocaleProps.get("FILE_MENU"));
 
-		List<ObservationSourcePluginBase> obSourcePlugins = PluginLoader.getObservationSourcePlugins();
+		List<PluginDescriptor<ObservationSourcePluginBase>> obSourcePlugins = PluginLoader
+				.getObservationSourcePluginDescriptors();
 
 		if (!obSourcePlugins.isEmpty()) {
-			menuItemNameToObSourcePlugin = new TreeMap<String, ObservationSourcePluginBase>();
+			menuItemNameToObSourcePlugin = new TreeMap<String, PluginDescriptor<ObservationSourcePluginBase>>();
 
 			ActionListener obSourceListener = createObservationSourceListener();
 
 			int internalPluginCount = 0;
-			for (ObservationSourcePluginBase plugin : obSourcePlugins) {
+			for (PluginDescriptor<ObservationSourcePluginBase> plugin : obSourcePlugins) {
 				if ("Internal".equals(plugin.getGroup())) {
 					internalPluginCount++;
 				}
 			}
 
 			int internalPluginIndex = 1;
-			for (ObservationSourcePluginBase plugin : obSourcePlugins) {
+			for (PluginDescriptor<ObservationSourcePluginBase> plugin : obSourcePlugins) {
 				String itemName = plugin.getDisplayName();
 				if (plugin.getInputType() == InputType.NONE || plugin.getInputType() == InputType.URL
 						|| LocaleProps.get("FILE_MENU_NEW_STAR_FROM_FILE").equals(itemName)
@@ -492,10 +495,10 @@ public class MenuBar extends JMenuBar {
 
 		ActionListener customFilterListener = createCustomFilterListener();
 
-		menuItemNameToCustomFilterPlugin = new TreeMap<String, CustomFilterPluginBase>();
+		menuItemNameToCustomFilterPlugin = new TreeMap<String, PluginDescriptor<CustomFilterPluginBase>>();
 
-		for (CustomFilterPluginBase plugin : PluginLoader
-				.getCustomFilterPlugins()) {
+		for (PluginDescriptor<CustomFilterPluginBase> plugin : PluginLoader
+				.getCustomFilterPluginDescriptors()) {
 			String itemName = plugin.getDisplayName();
 
 			JMenuItem customFilterMenuItem = new JMenuItem(itemName);
@@ -541,22 +544,22 @@ public class MenuBar extends JMenuBar {
 		analysisMenuItems = new ArrayList<JMenuItem>();
 		String lastGroup = null;
 
-		menuItemNameToPeriodAnalysisPlugin = new TreeMap<String, PeriodAnalysisPluginBase>();
+		menuItemNameToPeriodAnalysisPlugin = new TreeMap<String, PluginDescriptor<PeriodAnalysisPluginBase>>();
 		lastGroup = addAnalysisPlugins(analysisMenu, createPeriodSearchListener(),
-				PluginLoader.getPeriodAnalysisPlugins(), menuItemNameToPeriodAnalysisPlugin, lastGroup);
+				PluginLoader.getPeriodAnalysisPluginDescriptors(), menuItemNameToPeriodAnalysisPlugin, lastGroup);
 
-		menuItemNameToModelCreatorPlugin = new TreeMap<String, ModelCreatorPluginBase>();
+		menuItemNameToModelCreatorPlugin = new TreeMap<String, PluginDescriptor<ModelCreatorPluginBase>>();
 		lastGroup = addAnalysisPlugins(analysisMenu, createModelCreatorListener(),
-				PluginLoader.getModelCreatorPlugins(), menuItemNameToModelCreatorPlugin, lastGroup);
+				PluginLoader.getModelCreatorPluginDescriptors(), menuItemNameToModelCreatorPlugin, lastGroup);
 
 		this.add(analysisMenu);
 	}
 
 	// Add items for analysis plug-ins of type P to the analysis menu.
-	private <P extends IPlugin> String addAnalysisPlugins(JMenu analysisMenu, ActionListener listener, List<P> plugins,
-			Map<String, P> menuItemToPluginMap, String lastGroup) {
+	private <P extends IPlugin> String addAnalysisPlugins(JMenu analysisMenu, ActionListener listener,
+			List<PluginDescriptor<P>> plugins, Map<String, PluginDescriptor<P>> menuItemToPluginMap, String lastGroup) {
 
-		for (P plugin : plugins) {
+		for (PluginDescriptor<P> plugin : plugins) {
 
 			if (plugin.getGroup() != null && !plugin.getGroup().equals(lastGroup)) {
 				lastGroup = plugin.getGroup();
@@ -597,16 +600,16 @@ public class MenuBar extends JMenuBar {
 		// toolMenu.addSeparator();
 		// }
 
-		List<ObservationToolPluginBase> obsToolPlugins = PluginLoader.getObservationToolPlugins();
+		List<PluginDescriptor<ObservationToolPluginBase>> obsToolPlugins = PluginLoader.getObservationToolPluginDescriptors();
 
 		if (!obsToolPlugins.isEmpty()) {
 			toolMenu.addSeparator();
 
 			ActionListener obsToolMenuItemListener = createObsToolMenuItemListener();
 
-			menuItemNameToObsToolPlugin = new TreeMap<String, ObservationToolPluginBase>();
+			menuItemNameToObsToolPlugin = new TreeMap<String, PluginDescriptor<ObservationToolPluginBase>>();
 
-			for (ObservationToolPluginBase plugin : obsToolPlugins) {
+			for (PluginDescriptor<ObservationToolPluginBase> plugin : obsToolPlugins) {
 				String itemName = plugin.getDisplayName() + "...";
 
 				JMenuItem toolMenuItem = new JMenuItem(itemName);
@@ -617,16 +620,16 @@ public class MenuBar extends JMenuBar {
 			}
 		}
 
-		List<GeneralToolPluginBase> genToolPlugins = PluginLoader.getGeneralToolPlugins();
+		List<PluginDescriptor<GeneralToolPluginBase>> genToolPlugins = PluginLoader.getGeneralToolPluginDescriptors();
 
 		if (!genToolPlugins.isEmpty()) {
 			toolMenu.addSeparator();
 
 			ActionListener genToolMenuItemListener = createGenToolMenuItemListener();
 
-			menuItemNameToGenToolPlugin = new TreeMap<String, GeneralToolPluginBase>();
+			menuItemNameToGenToolPlugin = new TreeMap<String, PluginDescriptor<GeneralToolPluginBase>>();
 
-			for (GeneralToolPluginBase plugin : genToolPlugins) {
+			for (PluginDescriptor<GeneralToolPluginBase> plugin : genToolPlugins) {
 				String itemName = plugin.getDisplayName() + "...";
 
 				JMenuItem toolMenuItem = new JMenuItem(itemName);
@@ -637,16 +640,16 @@ public class MenuBar extends JMenuBar {
 			}
 		}
 
-		List<ObservationTransformerPluginBase> obsTransPlugins = PluginLoader.getObservationTransformerPlugins();
+		List<PluginDescriptor<ObservationTransformerPluginBase>> obsTransPlugins = PluginLoader.getObservationTransformerPluginDescriptors();
 
 		if (!obsTransPlugins.isEmpty()) {
 			toolMenu.addSeparator();
 
 			ActionListener obsTransMenuItemListener = createObsTransMenuItemListener();
 
-			menuItemNameToObsTransPlugin = new TreeMap<String, ObservationTransformerPluginBase>();
+			menuItemNameToObsTransPlugin = new TreeMap<String, PluginDescriptor<ObservationTransformerPluginBase>>();
 
-			for (ObservationTransformerPluginBase plugin : obsTransPlugins) {
+			for (PluginDescriptor<ObservationTransformerPluginBase> plugin : obsTransPlugins) {
 				String itemName = plugin.getDisplayName() + "...";
 
 				JMenuItem toolMenuItem = new JMenuItem(itemName);
@@ -699,8 +702,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(item);
-				mediator.createObservationArtefactsFromObSourcePlugin(plugin);
+				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(item).getPlugin();
+				if (plugin != null) {
+					mediator.createObservationArtefactsFromObSourcePlugin(plugin);
+				}
 			}
 		};
 	}
@@ -714,8 +719,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 
-				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(obsSourceItemName);
-				mediator.createObservationArtefactsFromObSourcePlugin(plugin);
+				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(obsSourceItemName).getPlugin();
+				if (plugin != null) {
+					mediator.createObservationArtefactsFromObSourcePlugin(plugin);
+				}
 			}
 		};
 	}
@@ -983,8 +990,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				CustomFilterPluginBase plugin = menuItemNameToCustomFilterPlugin.get(item);
-				Mediator.getInstance().applyCustomFilterToCurrentObservations(plugin);
+				CustomFilterPluginBase plugin = menuItemNameToCustomFilterPlugin.get(item).getPlugin();
+				if (plugin != null) {
+					Mediator.getInstance().applyCustomFilterToCurrentObservations(plugin);
+				}
 			}
 		};
 	}
@@ -1069,8 +1078,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(item);
-				Mediator.getInstance().performPeriodAnalysis(plugin);
+				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(item).getPlugin();
+				if (plugin != null) {
+					Mediator.getInstance().performPeriodAnalysis(plugin);
+				}
 			}
 		};
 	}
@@ -1083,8 +1094,10 @@ public class MenuBar extends JMenuBar {
 	public ActionListener createPeriodSearchListener(final String periodSearchItemName) {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(periodSearchItemName);
-				Mediator.getInstance().performPeriodAnalysis(plugin);
+				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(periodSearchItemName).getPlugin();
+				if (plugin != null) {
+					Mediator.getInstance().performPeriodAnalysis(plugin);
+				}
 			}
 		};
 	}
@@ -1097,8 +1110,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(item);
-				Mediator.getInstance().performModellingOperation(plugin);
+				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(item).getPlugin();
+				if (plugin != null) {
+					Mediator.getInstance().performModellingOperation(plugin);
+				}
 			}
 		};
 	}
@@ -1111,8 +1126,10 @@ public class MenuBar extends JMenuBar {
 	public ActionListener createPolynomialFitListener(final String polyFitItemName) {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(polyFitItemName);
-				Mediator.getInstance().performModellingOperation(plugin);
+				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(polyFitItemName).getPlugin();
+				if (plugin != null) {
+					Mediator.getInstance().performModellingOperation(plugin);
+				}
 			}
 		};
 	}
@@ -1230,8 +1247,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ObservationToolPluginBase plugin = menuItemNameToObsToolPlugin.get(item);
-				Mediator.getInstance().invokeTool(plugin);
+				ObservationToolPluginBase plugin = menuItemNameToObsToolPlugin.get(item).getPlugin();
+				if (plugin != null) {
+					Mediator.getInstance().invokeTool(plugin);
+				}
 			}
 		};
 	}
@@ -1244,11 +1263,13 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				GeneralToolPluginBase plugin = menuItemNameToGenToolPlugin.get(item);
-				try {
-					plugin.invoke();
-				} catch (Throwable t) {
-					MessageBox.showErrorDialog("Tool Error", t);
+				GeneralToolPluginBase plugin = menuItemNameToGenToolPlugin.get(item).getPlugin();
+				if (plugin != null) {
+					try {
+						plugin.invoke();
+					} catch (Throwable t) {
+						MessageBox.showErrorDialog("Tool Error", t);
+					}
 				}
 			}
 		};
@@ -1262,11 +1283,13 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ObservationTransformerPluginBase plugin = menuItemNameToObsTransPlugin.get(item);
-				try {
-					Mediator.getInstance().performObservationTransformationOperation(plugin);
-				} catch (Throwable t) {
-					MessageBox.showErrorDialog("Observation Transformation Error", t);
+				ObservationTransformerPluginBase plugin = menuItemNameToObsTransPlugin.get(item).getPlugin();
+				if (plugin != null) {
+					try {
+						Mediator.getInstance().performObservationTransformationOperation(plugin);
+					} catch (Throwable t) {
+						MessageBox.showErrorDialog("Observation Transformation Error", t);
+					}
 				}
 			}
 		};
@@ -1352,10 +1375,18 @@ public class MenuBar extends JMenuBar {
 				case MAX_PROGRESS:
 					break;
 				case START_PROGRESS:
-					resetProgress(parent);
+					// Tasks that only read the document do not prevent
+					// further analysis of it.
+					if (!mediator.getTaskScheduler().isOnlyReading(
+							ScheduledTask.DOCUMENT)) {
+						resetProgress(parent);
+					}
 					break;
 				case COMPLETE_PROGRESS:
-					completeProgress();
+					if (!mediator.getTaskScheduler().isWritePending(
+							ScheduledTask.DOCUMENT)) {
+						completeProgress();
+					}
 					break;
 				case CLEAR_PROGRESS:
 					break;
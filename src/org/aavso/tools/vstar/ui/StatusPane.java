@@ -249,8 +249,8 @@ public class StatusPane extends JPanel {
 					break;
 				case COMPLETE_PROGRESS:
 					self.completeProgressBar();
-					self.stopButton.setEnabled(false);
-					mediator.clearCurrentTask();
+					self.stopButton.setEnabled(mediator.getTaskScheduler()
+							.hasActiveTasks());
 					break;
 				case INCREMENT_PROGRESS:
 					// Ensure the main window now has focus so we see
@@ -35,6 +35,7 @@ import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
 import org.aavso.tools.vstar.ui.resources.ResourceAccessor;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
 
@@ -432,10 +433,18 @@ public class ToolBar extends JPanel {
 				case MAX_PROGRESS:
 					break;
 				case START_PROGRESS:
-					setEnabledToolbarItems(false);
+					// Tasks that only read the document do not prevent
+					// further analysis of it.
+					if (!mediator.getTaskScheduler().isOnlyReading(
+							ScheduledTask.DOCUMENT)) {
+						setEnabledToolbarItems(false);
+					}
 					break;
 				case COMPLETE_PROGRESS:
-					setEnabledToolbarItems(true);
+					if (!mediator.getTaskScheduler().isWritePending(
+							ScheduledTask.DOCUMENT)) {
+						setEnabledToolbarItems(true);
+					}
 					break;
 				case CLEAR_PROGRESS:
 					break;
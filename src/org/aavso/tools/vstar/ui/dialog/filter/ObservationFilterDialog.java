@@ -23,9 +23,9 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -301,15 +301,15 @@ public class ObservationFilterDialog extends AbstractOkCancelDialog {
 				// of observations.
 				List<ValidObservation> obs = Mediator.getInstance().getValidObsList();
 
-				Set<ValidObservation> filteredObs = filter
-						.getFilteredObservations(obs,
+				BitSet filteredRows = filter
+						.getFilteredRows(obs,
 								includeFainterThanObservationCheckbox
 										.isSelected(),
 								includeDiscrepantObservationCheckbox
 										.isSelected(),
 								includeExcludedObservationCheckbox.isSelected());
 
-				if (filteredObs.size() != 0) {
+				if (!filteredRows.isEmpty()) {
 					// Send a message containing the observation subset.
 					IFilterDescription desc = new IFilterDescription() {
 						private final String filterName = nameField.getText();
@@ -332,7 +332,7 @@ public class ObservationFilterDialog extends AbstractOkCancelDialog {
 					};
 
 					FilteredObservationMessage msg = new FilteredObservationMessage(
-							this, desc, filteredObs);
+							this, desc, obs, filteredRows);
 
 					Mediator.getInstance().getFilteredObservationNotifier()
 							.notifyListeners(msg);
@@ -231,7 +231,7 @@ public class ObservationFiltersDialog extends JDialog implements
 				String desc = (String) filterListModel.get(selectedFilterIndex);
 				FilteredObservationMessage msg = filterMap.get(desc);
 				List<ValidObservation> obs = new ArrayList<ValidObservation>(
-						msg.getFilteredObs());
+						msg.getFilteredObsList());
 				SeriesTypeCreationDialog dlg = new SeriesTypeCreationDialog(obs);
 				dlg.showDialog();
 			}
@@ -20,6 +20,10 @@ package org.aavso.tools.vstar.ui.dialog.period.wwz;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -28,16 +32,20 @@ import javax.swing.JPanel;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.mediator.message.PeriodAnalysisSelectionMessage;
 import org.aavso.tools.vstar.ui.model.plot.WWZ2DPlotModel;
+import org.aavso.tools.vstar.ui.model.plot.WWZ3DPlotModel;
+import org.aavso.tools.vstar.ui.model.plot.WWZMatrix;
 import org.aavso.tools.vstar.util.IStartAndCleanup;
 import org.aavso.tools.vstar.util.Tolerance;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.period.IPeriodAnalysisDatum;
 import org.aavso.tools.vstar.util.period.wwz.WWZStatistic;
+import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.jfree.chart.ChartMouseEvent;
 import org.jfree.chart.ChartMouseListener;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.entity.XYItemEntity;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
 import org.jfree.data.Range;
 import org.jfree.data.general.DatasetChangeEvent;
@@ -53,6 +61,7 @@ public class WWZPlotPane extends JPanel implements ChartMouseListener,
 	private static int DEFAULT_CHART_PANEL_HEIGHT = 420;	
 	
 	private JFreeChart chart;
+	private ChartPanel chartPanel;
 	private WWZ2DPlotModel model;
 
 	private double minRange;
@@ -77,7 +86,14 @@ public class WWZPlotPane extends JPanel implements ChartMouseListener,
 		this.setLayout(new BoxLayout(this, BoxLayout.PAGE_AXIS));
 		this.setBorder(BorderFactory.createEtchedBorder());
 
-		ChartPanel chartPanel = new ChartPanel(chart);
+		chartPanel = new ChartPanel(chart) {
+			@Override
+			public String getToolTipText(MouseEvent e) {
+				int item = findRasterItem(e.getPoint());
+				return item >= 0 ? getRasterToolTipText(model.getStats().get(
+						item)) : super.getToolTipText(e);
+			}
+		};
 		this.add(chartPanel);
 
 		configureChart();
@@ -138,9 +154,17 @@ public class WWZPlotPane extends JPanel implements ChartMouseListener,
 
 	@Override
 	public void chartMouseClicked(ChartMouseEvent event) {
+		int item = -1;
+
 		if (event.getEntity() instanceof XYItemEntity) {
 			XYItemEntity entity = (XYItemEntity) event.getEntity();
-			int item = entity.getItem();
+			item = entity.getItem();
+		} else {
+			// Rasters have no entities.
+			item = findRasterItem(event.getTrigger().getPoint());
+		}
+
+		if (item >= 0) {
 			PeriodAnalysisSelectionMessage message = new PeriodAnalysisSelectionMessage(
 					this, model.getStats().get(item), item);
 			message.setTag(Mediator.getParentDialogName(this));
@@ -149,6 +173,54 @@ public class WWZPlotPane extends JPanel implements ChartMouseListener,
 		}
 	}
 
+	/**
+	 * Return the index of the statistic whose cell is under a point on the
+	 * chart panel if the chart is rendered as a raster (see
+	 * WWZRasterRenderer).
+	 * 
+	 * @param screenPoint
+	 *            The point.
+	 * @return The index, or -1 if the chart is not rendered as a raster or
+	 *         there is no cell under the point.
+	 */
+	protected int findRasterItem(Point screenPoint) {
+		int item = -1;
+
+		XYPlot plot = chart.getXYPlot();
+
+		if (model instanceof WWZ3DPlotModel
+				&& plot.getRenderer() instanceof WWZRasterRenderer) {
+			WWZMatrix matrix = ((WWZ3DPlotModel) model).getMatrix();
+
+			Point2D point = chartPanel.translateScreenToJava2D(screenPoint);
+			Rectangle2D dataArea = chartPanel.getChartRenderingInfo()
+					.getPlotInfo().getDataArea();
+
+			if (matrix != null && dataArea.contains(point)) {
+				double x = plot.getDomainAxis().java2DToValue(point.getX(),
+						dataArea, plot.getDomainAxisEdge());
+				double y = plot.getRangeAxis().java2DToValue(point.getY(),
+						dataArea, plot.getRangeAxisEdge());
+				item = matrix.itemAt(x, y);
+			}
+		}
+
+		return item;
+	}
+
+	// The tool-tip for a raster cell, with its three coordinates.
+	private String getRasterToolTipText(WWZStatistic stat) {
+		WWZ3DPlotModel model3D = (WWZ3DPlotModel) model;
+
+		return String.format("%s: %s, %s: %s, %s: %s", model3D
+				.getDomainType(), NumericPrecisionPrefs.formatOther(stat
+				.getValue(model3D.getDomainType())), model3D.getRangeType(),
+				NumericPrecisionPrefs.formatOther(stat.getValue(model3D
+						.getRangeType())), model3D.getZType(),
+				NumericPrecisionPrefs.formatOther(stat.getValue(model3D
+						.getZType())));
+	}
+
 	@Override
 	public void chartMouseMoved(ChartMouseEvent event) {
 		// Nothing to do: see period analysis 2D plot pane
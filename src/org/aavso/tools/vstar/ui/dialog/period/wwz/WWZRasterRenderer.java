@@ -0,0 +1,179 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.dialog.period.wwz;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.aavso.tools.vstar.ui.model.plot.WWZ3DPlotModel;
+import org.aavso.tools.vstar.ui.model.plot.WWZMatrix;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.PaintScale;
+import org.jfree.chart.renderer.xy.XYBlockRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A renderer for WWZ contour plots that paints the whole grid of statistics
+ * as a raster rather than one block shape (and chart entity) per statistic.
+ * The statistics' Z values are coloured into an image with one pixel per
+ * cell, which is recreated only when the data or paint scale changes, and
+ * which is scaled to the plot a row at a time, since rows (e.g. periods) need
+ * not be evenly spaced.<br/>
+ * Statistics that do not form a grid (see WWZMatrix) are drawn as blocks.
+ */
+@SuppressWarnings("serial")
+public class WWZRasterRenderer extends XYBlockRenderer {
+
+	private transient BufferedImage image;
+	private WWZMatrix imageMatrix;
+	private PaintScale imageScale;
+
+	// Is the raster still to be drawn in the current rendering pass? The plot
+	// only renders items within the visible domain, so it is drawn along
+	// with the first item rendered, whichever that is.
+	private transient boolean rasterPending;
+
+	public WWZRasterRenderer() {
+		super();
+	}
+
+	@Override
+	public XYItemRendererState initialise(Graphics2D g2, Rectangle2D dataArea,
+			XYPlot plot, XYDataset data, PlotRenderingInfo info) {
+		rasterPending = true;
+		return super.initialise(g2, dataArea, plot, data, info);
+	}
+
+	@Override
+	public void drawItem(Graphics2D g2, XYItemRendererState state,
+			Rectangle2D dataArea, PlotRenderingInfo info, XYPlot plot,
+			ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset,
+			int series, int item, CrosshairState crosshairState, int pass) {
+
+		WWZMatrix matrix = dataset instanceof WWZ3DPlotModel ? ((WWZ3DPlotModel) dataset)
+				.getMatrix() : null;
+
+		if (matrix == null
+				|| plot.getOrientation() != PlotOrientation.VERTICAL) {
+			super.drawItem(g2, state, dataArea, info, plot, domainAxis,
+					rangeAxis, dataset, series, item, crosshairState, pass);
+		} else if (rasterPending) {
+			rasterPending = false;
+			drawRaster(g2, dataArea, plot, domainAxis, rangeAxis, matrix);
+		}
+	}
+
+	/**
+	 * Return the image of the matrix coloured according to the current paint
+	 * scale, with one pixel per cell: columns from left to right and rows from
+	 * top to bottom.
+	 * 
+	 * @param matrix
+	 *            The matrix.
+	 * @return The image.
+	 */
+	public BufferedImage getImage(WWZMatrix matrix) {
+		if (image == null || matrix != imageMatrix
+				|| getPaintScale() != imageScale) {
+			PaintScale scale = getPaintScale();
+
+			int columns = matrix.getColumnCount();
+			int rows = matrix.getRowCount();
+
+			int[] pixels = new int[columns * rows];
+			for (int column = 0; column < columns; column++) {
+				for (int row = 0; row < rows; row++) {
+					Paint paint = scale.getPaint(matrix.getZ(column, row));
+					pixels[row * columns + column] = paint instanceof Color ? ((Color) paint)
+							.getRGB()
+							: 0;
+				}
+			}
+
+			image = new BufferedImage(columns, rows,
+					BufferedImage.TYPE_INT_ARGB);
+			image.setRGB(0, 0, columns, rows, pixels, 0, columns);
+
+			imageMatrix = matrix;
+			imageScale = scale;
+		}
+
+		return image;
+	}
+
+	// Helpers
+
+	private void drawRaster(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+			ValueAxis domainAxis, ValueAxis rangeAxis, WWZMatrix matrix) {
+
+		BufferedImage image = getImage(matrix);
+
+		RectangleEdge domainEdge = plot.getDomainAxisEdge();
+		RectangleEdge rangeEdge = plot.getRangeAxisEdge();
+
+		int columns = matrix.getColumnCount();
+		int rows = matrix.getRowCount();
+
+		int[] xEdges = new int[columns + 1];
+		for (int column = 0; column <= columns; column++) {
+			xEdges[column] = (int) Math.round(domainAxis.valueToJava2D(
+					WWZMatrix.edge(matrix.getXs(), column, getBlockWidth()),
+					dataArea, domainEdge));
+		}
+
+		int[] yEdges = new int[rows + 1];
+		for (int row = 0; row <= rows; row++) {
+			yEdges[row] = (int) Math.round(rangeAxis.valueToJava2D(
+					WWZMatrix.edge(matrix.getYs(), row, getBlockHeight()),
+					dataArea, rangeEdge));
+		}
+
+		double top = dataArea.getMinY();
+		double bottom = dataArea.getMaxY();
+
+		for (int row = 0; row < rows; row++) {
+			int y1 = yEdges[row];
+			int y2 = yEdges[row + 1];
+
+			if (Math.max(y1, y2) < top || Math.min(y1, y2) > bottom) {
+				continue;
+			}
+
+			if (matrix.hasUniformColumns()) {
+				// The whole row, scaled.
+				g2.drawImage(image, xEdges[0], y1, xEdges[columns], y2, 0,
+						row, columns, row + 1, null);
+			} else {
+				for (int column = 0; column < columns; column++) {
+					g2.drawImage(image, xEdges[column], y1,
+							xEdges[column + 1], y2, column, row, column + 1,
+							row + 1, null);
+				}
+			}
+		}
+	}
+}
@@ -282,7 +282,8 @@ public class WeightedWaveletZTransformResultDialog extends
 			WWZ3DPlotModel model, double minDomain, double maxDomain,
 			double minRange, double maxRange, double minZ, double maxZ) {
 
-		XYBlockRenderer renderer = new XYBlockRenderer();
+		// Rendered as a raster rather than as a block per statistic.
+		XYBlockRenderer renderer = new WWZRasterRenderer();
 		renderer.setBlockWidth(10);
 		// renderer.setBlockHeight(100);
 
@@ -40,6 +40,7 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 	private StarGroupManagementPane starGroupManagementPane;
 	private PluginSettingsPane pluginSettingsPane;
 	private LocaleSelectionPane localeSelectionPane;
+	private UndoSelectionPane undoSelectionPane;
 	
 	/**
 	 * Constructor.
@@ -85,6 +86,9 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 
 		localeSelectionPane = new LocaleSelectionPane();
 		tabs.addTab("Locale", localeSelectionPane);
+
+		undoSelectionPane = new UndoSelectionPane();
+		tabs.addTab("Undo", undoSelectionPane);
 		
 		return tabs;
 	}
@@ -107,6 +111,7 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 		starGroupManagementPane.update();
 		pluginSettingsPane.update();
 		localeSelectionPane.update();
+		undoSelectionPane.update();
 		
 		this.setVisible(false);
 	}
@@ -122,6 +127,7 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 		starGroupManagementPane.reset();
 		pluginSettingsPane.reset();
 		localeSelectionPane.reset();
+		undoSelectionPane.reset();
 	}
 
 	/**
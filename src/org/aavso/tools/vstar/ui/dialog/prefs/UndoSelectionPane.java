@@ -0,0 +1,150 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.dialog.prefs;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.JTextArea;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.aavso.tools.vstar.util.locale.LocaleProps;
+import org.aavso.tools.vstar.util.prefs.UndoPrefs;
+
+/**
+ * This preferences pane permits the selection of the memory that undoable
+ * actions may retain.
+ */
+@SuppressWarnings("serial")
+public class UndoSelectionPane extends JPanel implements IPreferenceComponent {
+
+	private JSpinner memoryBudgetSpinner;
+
+	private Integer changedMemoryBudgetValue = null;
+
+	/**
+	 * Constructor.
+	 */
+	public UndoSelectionPane() {
+		super();
+
+		JPanel undoPane = new JPanel();
+		undoPane.setLayout(new BoxLayout(undoPane, BoxLayout.PAGE_AXIS));
+		undoPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+		JTextArea infoText = new JTextArea(
+				"Specify the memory that undoable actions may retain.\n"
+						+ "The oldest actions are discarded when the next\n"
+						+ "action would exceed it.");
+		infoText.setEditable(false);
+		infoText.setBorder(BorderFactory.createEtchedBorder());
+		undoPane.add(infoText);
+
+		undoPane.add(Box.createRigidArea(new Dimension(10, 50)));
+
+		SpinnerNumberModel memoryBudgetSpinnerModel = new SpinnerNumberModel(
+				UndoPrefs.getMemoryBudgetMB(), 1, 4096, 8);
+		memoryBudgetSpinner = new JSpinner(memoryBudgetSpinnerModel);
+		memoryBudgetSpinner.setBorder(BorderFactory
+				.createTitledBorder("Undo/redo memory (MB)"));
+		undoPane.add(memoryBudgetSpinner);
+		memoryBudgetSpinner.addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				changedMemoryBudgetValue = (Integer) memoryBudgetSpinner
+						.getValue();
+			}
+		});
+
+		undoPane.add(Box.createRigidArea(new Dimension(10, 10)));
+
+		// Add a local context button pane.
+		undoPane.add(createButtonPane());
+
+		this.add(undoPane);
+	}
+
+	protected JPanel createButtonPane() {
+		JPanel panel = new JPanel(new BorderLayout());
+
+		JButton setDefaultsButton = new JButton("Set Default Memory");
+		setDefaultsButton
+				.addActionListener(createSetDefaultsButtonActionListener());
+		panel.add(setDefaultsButton, BorderLayout.LINE_START);
+
+		JButton applyButton = new JButton(LocaleProps.get("APPLY_BUTTON"));
+		applyButton.addActionListener(createApplyButtonActionListener());
+		panel.add(applyButton, BorderLayout.LINE_END);
+
+		return panel;
+	}
+
+	// Set defaults action button listener.
+	private ActionListener createSetDefaultsButtonActionListener() {
+		return new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				UndoPrefs.setDefaultUndoPrefs();
+				reset();
+			}
+		};
+	}
+
+	// Set apply button listener.
+	private ActionListener createApplyButtonActionListener() {
+		return new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				update();
+			}
+		};
+	}
+
+	/**
+	 * Updates the undo preferences with any changed values.
+	 */
+	@Override
+	public void update() {
+		if (changedMemoryBudgetValue != null) {
+			UndoPrefs.setMemoryBudgetMB(changedMemoryBudgetValue);
+			UndoPrefs.storeUndoPrefs();
+			changedMemoryBudgetValue = null;
+		}
+	}
+
+	/**
+	 * Prepare this pane for use by resetting whatever needs to be, namely no
+	 * value is to be considered as having changed and the spinner needs to be
+	 * updated from the preference value.
+	 */
+	@Override
+	public void reset() {
+		// Setting the spinner's value notifies its change listener.
+		memoryBudgetSpinner.setValue(UndoPrefs.getMemoryBudgetMB());
+
+		changedMemoryBudgetValue = null;
+	}
+}
@@ -34,17 +34,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.concurrent.ExecutionException;
 
 import javax.swing.JDialog;
 import javax.swing.JTable.PrintMode;
-import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import org.aavso.tools.vstar.data.InvalidObservation;
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
+import org.aavso.tools.vstar.engine.AnalysisDocument;
+import org.aavso.tools.vstar.engine.AnalysisEngine;
 import org.aavso.tools.vstar.exception.AuthenticationError;
 import org.aavso.tools.vstar.exception.CancellationException;
 import org.aavso.tools.vstar.exception.ConnectionException;
@@ -137,6 +137,8 @@ import org.aavso.tools.vstar.ui.task.ObsListFileSaveTask;
 import org.aavso.tools.vstar.ui.task.PeriodAnalysisTask;
 import org.aavso.tools.vstar.ui.task.PhasePlotTask;
 import org.aavso.tools.vstar.ui.task.PluginManagerOperationTask;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
+import org.aavso.tools.vstar.ui.task.TaskScheduler;
 import org.aavso.tools.vstar.ui.undo.IUndoableAction;
 import org.aavso.tools.vstar.ui.undo.UndoableActionManager;
 import org.aavso.tools.vstar.util.Triple;
@@ -156,7 +158,6 @@ import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.notification.Notifier;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.aavso.tools.vstar.util.stats.BinningResult;
-import org.aavso.tools.vstar.util.stats.PhaseCalcs;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
@@ -176,14 +177,14 @@ public class Mediator {
 
     private static IMainUI ui;
 
-    // Valid and invalid observation lists and series category maps.
-    private List<ValidObservation> validObsList;
-    private List<InvalidObservation> invalidObsList;
+    // The analysis engine and the document holding the valid and invalid
+    // observation lists and series category map of the loaded dataset.
+    // Note: it would be useful to update the document's map with mean obs,
+    // excluded obs etc so it could be used in places where currently the
+    // model must be consulted instead, e.g. for period analysis.
+    private AnalysisEngine engine;
+    private AnalysisDocument document;
 
-    // Note: it would be useful to update these with mean obs, excluded obs etc
-    // so they could be used in places where currently the model must be
-    // consulted instead; especially the first map, e.g. for period analysis.
-    private Map<SeriesType, List<ValidObservation>> validObservationCategoryMap;
     private Map<SeriesType, List<ValidObservation>> phasedValidObservationCategoryMap;
 
     // Current observation and mean plot model.
@@ -278,8 +279,8 @@ public class Mediator {
 
     private UndoableActionManager undoableActionManager;
 
-    // Currently active task.
-    private SwingWorker currTask;
+    // Schedules long-running tasks according to their use of the document.
+    private TaskScheduler taskScheduler;
 
     // Singleton fields, constructor, getter.
 
@@ -315,6 +316,8 @@ public class Mediator {
         this.harmonicSearchNotifier = new Notifier<HarmonicSearchResultMessage>();
         this.seriesCreationNotifier = new Notifier<SeriesCreationMessage>();
 
+        this.taskScheduler = new TaskScheduler();
+
         this.obsListFileSaveDialog = new DelimitedFieldFileSaveChooser();
         this.imageSaveDialog = new PNGImageFileSaveChooser();
         {
@@ -332,9 +335,8 @@ public class Mediator {
         }
 
         // These (among other things) are created for each new star.
-        this.validObsList = null;
-        this.invalidObsList = null;
-        this.validObservationCategoryMap = null;
+        this.engine = new AnalysisEngine();
+        this.document = engine.createDocument();
         this.phasedValidObservationCategoryMap = null;
         this.obsAndMeanPlotModel = null;
 
@@ -381,7 +383,21 @@ public class Mediator {
      * @return The current list of valid observations
      */
     public List<ValidObservation> getValidObsList() {
-        return validObsList;
+        return document.isLoaded() ? document.getValidObservations() : null;
+    }
+
+    /**
+     * @return The analysis engine of which the user interface is a client.
+     */
+    public AnalysisEngine getAnalysisEngine() {
+        return engine;
+    }
+
+    /**
+     * @return The analysis document holding the loaded dataset.
+     */
+    public AnalysisDocument getAnalysisDocument() {
+        return document;
     }
 
     /**
@@ -405,10 +421,10 @@ public class Mediator {
     }
 
     /**
-     * @return the validObservationCategoryMap
+     * @return The valid observations of each series, or null if none are loaded
      */
     public Map<SeriesType, List<ValidObservation>> getValidObservationCategoryMap() {
-        return validObservationCategoryMap;
+        return document.isLoaded() ? document.getCategoryMap() : null;
     }
 
     /**
@@ -789,8 +805,7 @@ public class Mediator {
         PhasePlotTask task = new PhasePlotTask(period, epoch, seriesVisibilityMap);
 
         try {
-            currTask = task;
-            task.execute();
+            taskScheduler.submit(task);
         } catch (Exception e) {
             Mediator.getUI().setCursor(null);
             MessageBox.showErrorDialog(Mediator.getUI().getComponent(), "New Phase Plot", e);
@@ -804,8 +819,7 @@ public class Mediator {
         PluginManagerOperationTask task = new PluginManagerOperationTask(op);
 
         try {
-            currTask = task;
-            task.execute();
+            taskScheduler.submit(task);
         } catch (Exception e) {
             Mediator.getUI().setCursor(null);
             MessageBox.showErrorDialog(Mediator.getUI().getComponent(), "Plugin Manager", e.getLocalizedMessage());
@@ -827,9 +841,9 @@ public class Mediator {
         return new Listener<ModelSelectionMessage>() {
             @Override
             public void update(ModelSelectionMessage info) {
-                validObservationCategoryMap.put(SeriesType.Model, info.getModel().getFit());
+                document.putSeries(SeriesType.Model, info.getModel().getFit());
 
-                validObservationCategoryMap.put(SeriesType.Residuals, info.getModel().getResiduals());
+                document.putSeries(SeriesType.Residuals, info.getModel().getResiduals());
 
                 modelSelectionMessage = info;
             }
@@ -848,14 +862,11 @@ public class Mediator {
             @Override
             public void update(FilteredObservationMessage info) {
                 if (info == FilteredObservationMessage.NO_FILTER) {
-                    validObservationCategoryMap.remove(SeriesType.Filtered);
+                    document.removeSeries(SeriesType.Filtered);
                 } else {
-                    // First, copy the set of filtered observations to a list.
-                    List<ValidObservation> obs = new ArrayList<ValidObservation>();
-                    for (ValidObservation ob : info.getFilteredObs()) {
-                        obs.add(ob);
-                    }
-                    validObservationCategoryMap.put(SeriesType.Filtered, obs);
+                    // First, copy the filtered observations to a list.
+                    List<ValidObservation> obs = new ArrayList<ValidObservation>(info.getFilteredObsList());
+                    document.putSeries(SeriesType.Filtered, obs);
                 }
             }
 
@@ -1104,12 +1115,19 @@ public class Mediator {
         this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
         NewStarFromObSourcePluginTask task = new NewStarFromObSourcePluginTask(obSourcePlugin);
-        this.currTask = task;
         task.configure();
         if (task.isConfigured()) {
-            task.execute();
+            taskScheduler.submit(task);
+        }
+        task.finished();
+
+        // A plug-in may supply a task to run instead, e.g. to write the
+        // observations it generates to a file. Submitting it only now means
+        // its progress is not cleared by finished() above.
+        ScheduledTask<?, ?> deferredTask = task.getDeferredTask();
+        if (deferredTask != null) {
+            taskScheduler.submit(deferredTask);
         }
-        task.done();
     }
 
     /**
@@ -1128,8 +1146,7 @@ public class Mediator {
 
         NewStarFromObSourcePluginWithSuppliedFileTask task = new NewStarFromObSourcePluginWithSuppliedFileTask(
                 obSourcePlugin, file, isAdditive);
-        this.currTask = task;
-        task.execute();
+        taskScheduler.submit(task);
     }
 
     /**
@@ -1148,8 +1165,7 @@ public class Mediator {
 
         NewStarFromObSourcePluginWithSuppliedURLTask task = new NewStarFromObSourcePluginWithSuppliedURLTask(
                 obSourcePlugin, url, isAdditive);
-        this.currTask = task;
-        task.execute();
+        taskScheduler.submit(task);
     }
 
     /**
@@ -1178,9 +1194,10 @@ public class Mediator {
         if (addObs && getLatestNewStarMessage() != null) {
             // convertObsToHJD(starInfo);
 
-            starInfo.getRetriever().collectAllObservations(validObsList, starInfo.getRetriever().getSourceName());
+            starInfo.getRetriever().collectAllObservations(document.getValidObservations(),
+                    starInfo.getRetriever().getSourceName());
 
-            starInfo.getRetriever().addAllInvalidObservations(invalidObsList);
+            starInfo.getRetriever().addAllInvalidObservations(document.getInvalidObservations());
 
             // If any loaded data source type is different from the current data
             // source type, use arbitrary data source type that accommodates any
@@ -1331,17 +1348,7 @@ public class Mediator {
             // TODO: It would be worth considering doing this at the start
             // of this method, not at the end, so more memory is free.
 
-            if (this.validObsList != null) {
-                this.validObsList.clear();
-            }
-
-            if (this.invalidObsList != null) {
-                this.invalidObsList.clear();
-            }
-
-            if (this.validObservationCategoryMap != null) {
-                this.validObservationCategoryMap.clear();
-            }
+            document.clear();
 
             if (this.phasedValidObservationCategoryMap != null) {
                 // In case we did a phase plot, free this up.
@@ -1358,9 +1365,7 @@ public class Mediator {
             System.gc();
 
             // Store new data.
-            this.validObsList = validObsList;
-            this.invalidObsList = invalidObsList;
-            this.validObservationCategoryMap = newObsCategoryMap;
+            document.setContents(starInfo, newStarType, validObsList, invalidObsList, newObsCategoryMap);
 
             // Notify listeners of new star and analysis type.
             newStarNotifier.notifyListeners(getLatestNewStarMessage());
@@ -1454,19 +1459,30 @@ public class Mediator {
      * @return The number of observations converted.
      */
     public int convertObsToHJD(List<ValidObservation> obs, RAInfo ra, DecInfo dec) {
-        int count = 0;
-
-        AbstractHJDConverter converter = AbstractHJDConverter.getInstance(ra.getEpoch());
+        List<ValidObservation> jdObs = new ArrayList<ValidObservation>();
 
         for (ValidObservation ob : obs) {
             if (ob.getJDflavour() == JDflavour.JD) {
-                ob.setJD(converter.convert(ob.getJD(), ra, dec));
-                ob.setJDflavour(JDflavour.HJD);
-                count++;
+                jdObs.add(ob);
             }
         }
 
-        return count;
+        double[] jds = new double[jdObs.size()];
+        for (int i = 0; i < jds.length; i++) {
+            jds[i] = jdObs.get(i).getJD();
+        }
+
+        AbstractHJDConverter converter = AbstractHJDConverter.getInstance(ra.getEpoch());
+
+        double[] hjds = converter.convert(jds, ra, dec);
+
+        for (int i = 0; i < hjds.length; i++) {
+            ValidObservation ob = jdObs.get(i);
+            ob.setJD(hjds[i]);
+            ob.setJDflavour(JDflavour.HJD);
+        }
+
+        return jdObs.size();
     }
 
     /**
@@ -1496,13 +1512,8 @@ public class Mediator {
         }
 
         // Here we modify the underlying ValidObservation objects which will
-        // affect both validObsList and validObservationCategoryMap. Some
-        // series are not in the main observation list, only in the map
-        // (e.g. model, residuals, filtered obs), so we handle those separately.
-        PhaseCalcs.setPhases(validObsList, epoch, period);
-        setPhasesForSeries(SeriesType.Model, epoch, period);
-        setPhasesForSeries(SeriesType.Residuals, epoch, period);
-        setPhasesForSeries(SeriesType.Filtered, epoch, period);
+        // affect both the document's observation list and its category map.
+        document.phase(period, epoch);
 
         // We duplicate the valid observation category map
         // so that it can vary from the main plot's over time.
@@ -1510,6 +1521,8 @@ public class Mediator {
         // duplicate and sort means?
         Map<SeriesType, List<ValidObservation>> phasedValidObservationCategoryMap = new TreeMap<SeriesType, List<ValidObservation>>();
 
+        Map<SeriesType, List<ValidObservation>> validObservationCategoryMap = document.getCategoryMap();
+
         for (SeriesType series : validObservationCategoryMap.keySet()) {
             List<ValidObservation> obs = validObservationCategoryMap.get(series);
 
@@ -1526,7 +1539,7 @@ public class Mediator {
 
         // Table and plot models.
         ValidObservationTableModel validObsTableModel = new ValidObservationTableModel(
-                phasedValidObservationCategoryMap, validObsList, // TODO: phased obs?
+                phasedValidObservationCategoryMap, document.getValidObservations(), // TODO: phased obs?
                 getLatestNewStarMessage().getNewStarType().getPhasePlotTableColumnInfoSource());
 
         // Observation-and-mean plot and table.
@@ -1631,42 +1644,29 @@ public class Mediator {
      * @param period The period to use for the phase calculation.
      */
     public void setPhasesForSeries(SeriesType type, double epoch, double period) {
-        if (validObservationCategoryMap.containsKey(type)) {
-            List<ValidObservation> obs = validObservationCategoryMap.get(type);
-            PhaseCalcs.setPhases(obs, epoch, period);
-        }
+        document.setPhases(type, epoch, period);
     }
 
     /**
-     * Block, waiting for a job to complete. We only want to block if there is a
-     * concurrent task in progress.
+     * @return The scheduler of long-running tasks.
      */
-    public void waitForJobCompletion() {
-        if (currTask != null && !currTask.isDone()) {
-            try {
-                currTask.get();
-            } catch (InterruptedException e) {
-            } catch (ExecutionException e) {
-            }
-        }
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
     }
 
     /**
-     * Attempt to stop the current task.
+     * Block, waiting for jobs to complete. We only want to block if there are
+     * concurrent tasks in progress.
      */
-    public void stopCurrentTask() {
-        if (this.currTask != null) {
-            this.currTask.cancel(true);
-        }
+    public void waitForJobCompletion() {
+        taskScheduler.awaitCompletion();
     }
 
     /**
-     * Clear the current task if not already cleared.
+     * Attempt to stop the current tasks.
      */
-    public void clearCurrentTask() {
-        if (this.currTask != null) {
-            this.currTask = null;
-        }
+    public void stopCurrentTask() {
+        taskScheduler.cancelAll();
     }
 
     /**
@@ -1709,7 +1709,7 @@ public class Mediator {
      */
     public void performPeriodAnalysis(PeriodAnalysisPluginBase plugin) {
         try {
-            if (getLatestNewStarMessage() != null && validObsList != null) {
+            if (getLatestNewStarMessage() != null && document.isLoaded()) {
                 SingleSeriesSelectionDialog dialog = new SingleSeriesSelectionDialog(obsAndMeanPlotModel);
 
                 if (!dialog.isCancelled()) {
@@ -1717,13 +1717,12 @@ public class Mediator {
 
                     List<ValidObservation> obs = getSeriesInfoProvider().getObservations(type);
 
-                    this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
-                    this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
-
                     PeriodAnalysisTask task = new PeriodAnalysisTask(plugin, type, obs);
 
-                    this.currTask = task;
-                    task.execute();
+                    taskScheduler.submit(task);
+
+                    this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
+                    this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
                 }
             }
         } catch (Exception e) {
@@ -1786,7 +1785,7 @@ public class Mediator {
      */
     public void performModellingOperation(ModelCreatorPluginBase plugin) {
         try {
-            if (getLatestNewStarMessage() != null && validObsList != null) {
+            if (getLatestNewStarMessage() != null && document.isLoaded()) {
                 SingleSeriesSelectionDialog seriesDialog = new SingleSeriesSelectionDialog(obsAndMeanPlotModel);
 
                 if (!seriesDialog.isCancelled()) {
@@ -1802,12 +1801,10 @@ public class Mediator {
                     if (model != null) {
                         ModellingTask task = new ModellingTask(model);
 
-                        this.currTask = task;
+                        taskScheduler.submit(task);
 
                         this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
                         this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
-
-                        task.execute();
                     }
                 }
             }
@@ -1830,12 +1827,10 @@ public class Mediator {
         try {
             ModellingTask task = new ModellingTask(model);
 
-            this.currTask = task;
+            taskScheduler.submit(task);
 
             this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
             this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
-
-            task.execute();
         } catch (Exception e) {
             MessageBox.showErrorDialog(Mediator.getUI().getComponent(), "Modelling Error", e);
 
@@ -1850,7 +1845,7 @@ public class Mediator {
      */
     public void performObservationTransformationOperation(ObservationTransformerPluginBase plugin) {
         try {
-            if (getLatestNewStarMessage() != null && validObsList != null) {
+            if (getLatestNewStarMessage() != null && document.isLoaded()) {
                 SeriesVisibilityPane seriesVisibilityPane = new SeriesVisibilityPane(obsAndMeanPlotModel,
                         this.getAnalysisType(), false, false, false);
 
@@ -1860,7 +1855,7 @@ public class Mediator {
                     IUndoableAction action = plugin.createAction(Mediator.getInstance().getSeriesInfoProvider(),
                             seriesDialog.getSelectedSeries());
 
-                    currTask = getUndoableActionManager().performUndoableAction(action, UndoableActionType.DO);
+                    getUndoableActionManager().performUndoableAction(action, UndoableActionType.DO);
                 }
             }
         } catch (Exception e) {
@@ -1894,7 +1889,7 @@ public class Mediator {
      * @param plugin The tool plugin to be invoked.
      */
     public void invokeTool(ObservationToolPluginBase plugin) {
-        if (validObservationCategoryMap != null) {
+        if (document.isLoaded()) {
             try {
                 // getSeriesInfoProvider() always returns series info for RAW_DATA.
                 // PHASE_PLOT can have other series visibility, so it is more logical to pass
@@ -1918,9 +1913,9 @@ public class Mediator {
      * @param plugin The tool plug-in to be invoked.
      */
     public void applyCustomFilterToCurrentObservations(CustomFilterPluginBase plugin) {
-        if (validObsList != null) {
+        if (document.isLoaded()) {
             try {
-                plugin.apply(validObsList);
+                plugin.apply(document.getValidObservations());
             } catch (Throwable t) {
                 MessageBox.showErrorDialog("Custom Filter Error", t);
             }
@@ -2006,14 +2001,13 @@ public class Mediator {
         List<ValidObservation> obs = this.analysisTypeMap.get(analysisType).getObsListPane().getObservationsInView();
 
         if (!obs.isEmpty()) {
-            this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
+            ObsListFileSaveTask task = new ObsListFileSaveTask(plugin, obs, path, delimiter);
 
-            this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
+            taskScheduler.submit(task);
 
-            ObsListFileSaveTask task = new ObsListFileSaveTask(plugin, obs, path, delimiter);
+            this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
 
-            this.currTask = task;
-            task.execute();
+            this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
         } else {
             MessageBox.showMessageDialog(parent, "Save Observations", "There are no visible observations to save.");
         }
@@ -2064,18 +2058,17 @@ public class Mediator {
         }
 
         if (!obs.isEmpty()) {
-            this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
-
-            this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
-
             // We re-use the same observation list file save task as
             // elsewhere but specify simple file type to match the fact that
             // we are only going to save JD, magnitude, and uncertainty
             // (for means).
             ObsListFileSaveTask task = new ObsListFileSaveTask(plugin, obs, path, obsListFileSaveDialog.getDelimiter());
 
-            this.currTask = task;
-            task.execute();
+            taskScheduler.submit(task);
+
+            this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
+
+            this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
         } else {
             MessageBox.showMessageDialog(parent, "Save Observations", "There are no observations to save.");
         }
@@ -2127,15 +2120,14 @@ public class Mediator {
                     return;
                 }
 
-                this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
-
-                this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
-
                 ObsListFileSaveTask task = new ObsListFileSaveTask(obsListFileSaveDialog.getSelectedPlugin(), obs,
                         outFile, obsListFileSaveDialog.getDelimiter());
 
-                this.currTask = task;
-                task.execute();
+                taskScheduler.submit(task);
+
+                this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
+
+                this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
             }
         } else {
             MessageBox.showMessageDialog(parent, "Save Observations", "There are no visible observations to save.");
@@ -2161,10 +2153,6 @@ public class Mediator {
                     return;
                 }
 
-                this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
-
-                this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
-
                 // We re-use the same observation list file save task as
                 // above but specify simple file type to match the fact that
                 // we are only going to save JD, magnitude, and uncertainty
@@ -2172,8 +2160,11 @@ public class Mediator {
                 ObsListFileSaveTask task = new ObsListFileSaveTask(obsListFileSaveDialog.getSelectedPlugin(), obs,
                         outFile, obsListFileSaveDialog.getDelimiter());
 
-                this.currTask = task;
-                task.execute();
+                taskScheduler.submit(task);
+
+                this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
+
+                this.getProgressNotifier().notifyListeners(new ProgressInfo(ProgressType.MAX_PROGRESS, obs.size()));
             }
         } else {
             MessageBox.showMessageDialog(parent, "Save Observations", "There are no observations to save.");
@@ -17,6 +17,8 @@
  */
 package org.aavso.tools.vstar.ui.mediator.message;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 import org.aavso.tools.vstar.data.ValidObservation;
@@ -27,11 +29,18 @@ import org.aavso.tools.vstar.data.ValidObservation;
  * 
  * The message signals that a collection of observations should be considered to
  * be "excluded" or "included" (i.e. moved from being excluded to included).
+ * The observations may be given as rows of an observation list so that a mass
+ * exclusion need not be represented by a list of its own unless a recipient
+ * requires one.
  */
 public class ExcludedObservationMessage extends MessageBase {
 
 	private List<ValidObservation> observations;
-	
+
+	private List<ValidObservation> rowSource;
+	private BitSet rows;
+	private boolean excluded;
+
 	/**
 	 * Constructor.
 	 * 
@@ -42,12 +51,57 @@ public class ExcludedObservationMessage extends MessageBase {
 	public ExcludedObservationMessage(List<ValidObservation> observations, Object source) {
 		super(source);
 		this.observations = observations;
+		this.excluded = !observations.isEmpty()
+				&& observations.get(0).isExcluded();
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param rowSource
+	 *            The list of observations, e.g. of the current star, of which
+	 *            some have changed.
+	 * @param rows
+	 *            The indices in rowSource of the observations that have
+	 *            changed; not to be modified subsequently.
+	 * @param excluded
+	 *            Whether the observations are now excluded or included.
+	 * @param source
+	 *            The object that caused the change.
+	 */
+	public ExcludedObservationMessage(List<ValidObservation> rowSource,
+			BitSet rows, boolean excluded, Object source) {
+		super(source);
+		this.rowSource = rowSource;
+		this.rows = rows;
+		this.excluded = excluded;
 	}
 
 	/**
-	 * @return the observations
+	 * @return the observations, in row order if given as rows
 	 */
 	public List<ValidObservation> getObservations() {
+		if (observations == null) {
+			observations = new ArrayList<ValidObservation>(rows.cardinality());
+			for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+				observations.add(rowSource.get(i));
+			}
+		}
+
 		return observations;
 	}
+
+	/**
+	 * @return the number of observations that have changed
+	 */
+	public int getObservationCount() {
+		return observations != null ? observations.size() : rows.cardinality();
+	}
+
+	/**
+	 * @return whether the observations are now excluded or included
+	 */
+	public boolean isExcluded() {
+		return excluded;
+	}
 }
@@ -17,7 +17,10 @@
  */
 package org.aavso.tools.vstar.ui.mediator.message;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.aavso.tools.vstar.data.ValidObservation;
@@ -34,6 +37,12 @@ public class FilteredObservationMessage extends MessageBase {
 	private IFilterDescription filterDesc;
 	private Set<ValidObservation> filteredObs;
 
+	// Filtered observations may instead be given as rows of an observation
+	// list, from which copies are made on demand.
+	private List<ValidObservation> obs;
+	private BitSet rows;
+	private List<ValidObservation> filteredObsList;
+
 	/**
 	 * Constructor.
 	 * 
@@ -57,6 +66,27 @@ public class FilteredObservationMessage extends MessageBase {
 		this.filteredObs = newSeriesObs;
 	}
 
+	/**
+	 * Constructor.
+	 * 
+	 * @param source
+	 *            The source of the message.
+	 * @param filterDesc
+	 *            A description of the filter.
+	 * @param obs
+	 *            The observations that were filtered.
+	 * @param rows
+	 *            The indices in obs of the filtered observations, e.g. as
+	 *            returned by ObservationFilter.getFilteredRows().
+	 */
+	public FilteredObservationMessage(Object source, IFilterDescription filterDesc,
+			List<ValidObservation> obs, BitSet rows) {
+		super(source);
+		this.filterDesc = filterDesc;
+		this.obs = obs;
+		this.rows = (BitSet) rows.clone();
+	}
+
 	/**
 	 * @return the filterDesc
 	 */
@@ -65,9 +95,39 @@ public class FilteredObservationMessage extends MessageBase {
 	}
 
 	/**
-	 * @return the filteredObs
+	 * @return the filteredObs, for recipients that need to perform lookups
 	 */
 	public Set<ValidObservation> getFilteredObs() {
+		if (filteredObs == null) {
+			filteredObs = new LinkedHashSet<ValidObservation>(getFilteredObsList());
+		}
+
 		return filteredObs;
 	}
+
+	/**
+	 * @return the filtered observations in order, without requiring a set of
+	 *         them to be created
+	 */
+	public List<ValidObservation> getFilteredObsList() {
+		if (filteredObsList == null) {
+			if (rows != null) {
+				filteredObsList = new ArrayList<ValidObservation>(rows.cardinality());
+				for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+					filteredObsList.add(obs.get(i).copy());
+				}
+			} else {
+				filteredObsList = new ArrayList<ValidObservation>(filteredObs);
+			}
+		}
+
+		return filteredObsList;
+	}
+
+	/**
+	 * @return the number of filtered observations
+	 */
+	public int getFilteredObsCount() {
+		return rows != null ? rows.cardinality() : filteredObs.size();
+	}
 }
@@ -0,0 +1,155 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.ui.model.list;
+
+import java.util.Arrays;
+
+import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
+
+/**
+ * <p>
+ * A per-column cache of formatted table cell values, keyed by row index.
+ * </p>
+ * <p>
+ * Column arrays are allocated lazily, the first time a value in that column is
+ * cached, so only columns that are actually rendered or sorted consume
+ * memory. The whole cache is invalidated when numeric precision preferences
+ * (or the locale) change, and rows may be invalidated individually when the
+ * underlying observations are edited.
+ * </p>
+ * <p>
+ * This class is intended for use on the event dispatch thread only.
+ * </p>
+ */
+public class FormattedValueCache {
+
+	// Stands in for a cached null value.
+	private static final Object NULL_VALUE = new Object();
+
+	private final Object[][] columns;
+
+	private int rowCount;
+
+	private int prefsGeneration;
+
+	/**
+	 * Constructor
+	 *
+	 * @param columnCount The number of table columns.
+	 * @param rowCount    The number of table rows.
+	 */
+	public FormattedValueCache(int columnCount, int rowCount) {
+		this.columns = new Object[columnCount][];
+		this.rowCount = rowCount;
+		this.prefsGeneration = NumericPrecisionPrefs.getGeneration();
+	}
+
+	/**
+	 * Has a value been cached for the specified cell?
+	 *
+	 * @param rowIndex    The row index.
+	 * @param columnIndex The column index.
+	 * @return True if a value (possibly null) is cached, otherwise false.
+	 */
+	public boolean contains(int rowIndex, int columnIndex) {
+		checkPrefs();
+		Object[] column = columns[columnIndex];
+		return column != null && rowIndex < column.length && column[rowIndex] != null;
+	}
+
+	/**
+	 * Return the cached value for the specified cell. contains() should be
+	 * called first to distinguish a cached null value from a missing one.
+	 *
+	 * @param rowIndex    The row index.
+	 * @param columnIndex The column index.
+	 * @return The cached value or null.
+	 */
+	public Object get(int rowIndex, int columnIndex) {
+		checkPrefs();
+		Object[] column = columns[columnIndex];
+		Object value = column == null || rowIndex >= column.length ? null : column[rowIndex];
+		return value == NULL_VALUE ? null : value;
+	}
+
+	/**
+	 * Cache a value for the specified cell.
+	 *
+	 * @param rowIndex    The row index.
+	 * @param columnIndex The column index.
+	 * @param value       The value to cache; may be null.
+	 */
+	public void put(int rowIndex, int columnIndex, Object value) {
+		if (rowIndex >= rowCount) {
+			return;
+		}
+
+		Object[] column = columns[columnIndex];
+		if (column == null) {
+			column = new Object[rowCount];
+			columns[columnIndex] = column;
+		}
+
+		column[rowIndex] = value == null ? NULL_VALUE : value;
+	}
+
+	/**
+	 * Invalidate all cached values and set a new row count.
+	 *
+	 * @param rowCount The new number of table rows.
+	 */
+	public void reset(int rowCount) {
+		this.rowCount = rowCount;
+		Arrays.fill(columns, null);
+		prefsGeneration = NumericPrecisionPrefs.getGeneration();
+	}
+
+	/**
+	 * Invalidate all cached values.
+	 */
+	public void invalidate() {
+		reset(rowCount);
+	}
+
+	/**
+	 * Invalidate cached values for a range of rows.
+	 *
+	 * @param firstRow The first row to invalidate.
+	 * @param lastRow  The last row to invalidate (inclusive).
+	 */
+	public void invalidateRows(int firstRow, int lastRow) {
+		int from = Math.max(0, firstRow);
+		int to = Math.min(rowCount - 1, lastRow);
+
+		if (from <= to) {
+			for (Object[] column : columns) {
+				if (column != null) {
+					Arrays.fill(column, from, to + 1, null);
+				}
+			}
+		}
+	}
+
+	// Discard everything if numeric precision or locale has changed since
+	// values were cached.
+	private void checkPrefs() {
+		if (prefsGeneration != NumericPrecisionPrefs.getGeneration()) {
+			invalidate();
+		}
+	}
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.logging.Level;
 
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
 
 import org.aavso.tools.vstar.data.IOrderedObservationSource;
@@ -73,6 +74,11 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 	 */
 	private final int columnCount;
 
+	/**
+	 * Formatted cell values, keyed by column and row.
+	 */
+	private FormattedValueCache valueCache;
+
 	/**
 	 * Constructor
 	 * 
@@ -87,6 +93,7 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 		this.obsSourceListMap = obsSourceListMap;
 		this.columnInfoSource = columnInfoSource;
 		this.columnCount = columnInfoSource.getColumnCount();
+		this.valueCache = new FormattedValueCache(columnCount, 0);
 
 		this.obsInserter = new ObservationInserter();
 		updateObservationsList(observations);
@@ -160,8 +167,19 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 
 		try {
 			assert columnIndex < columnCount;
-			ValidObservation validOb = this.validObservations.get(rowIndex);
-			result = this.columnInfoSource.getTableColumnValue(columnIndex, validOb);
+
+			// The discrepant check box is editable, so is not cached.
+			boolean cacheable = columnIndex != columnInfoSource.getDiscrepantColumnIndex();
+
+			if (cacheable && valueCache.contains(rowIndex, columnIndex)) {
+				result = valueCache.get(rowIndex, columnIndex);
+			} else {
+				ValidObservation validOb = this.validObservations.get(rowIndex);
+				result = this.columnInfoSource.getTableColumnValue(columnIndex, validOb);
+				if (cacheable) {
+					valueCache.put(rowIndex, columnIndex, result);
+				}
+			}
 		} catch (IndexOutOfBoundsException e) {
 			// Sometimes the series-index, item-index pair will have
 			// changed or have become non-existent. Ignore but log.
@@ -213,6 +231,23 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 		}
 	}
 
+	/**
+	 * Invalidate cached values for changed rows before notifying listeners.
+	 * 
+	 * @see javax.swing.table.AbstractTableModel#fireTableChanged(javax.swing.event.TableModelEvent)
+	 */
+	public void fireTableChanged(TableModelEvent e) {
+		if (valueCache != null) {
+			if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+				valueCache.reset(getRowCount());
+			} else {
+				valueCache.invalidateRows(e.getFirstRow(), e.getLastRow());
+			}
+		}
+
+		super.fireTableChanged(e);
+	}
+
 	private void toggleDiscrepantStatus(ValidObservation ob) {
 		ob.setDiscrepant(!ob.isDiscrepant());
 	}
@@ -292,5 +327,8 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 		for (int i = 0; i < validObservations.size(); i++) {
 			validObservationToRowIndexMap.put(validObservations.get(i), i);
 		}
+
+		// row indices have changed
+		valueCache.reset(validObservations.size());
 	}
 }
@@ -21,8 +21,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
@@ -550,26 +553,44 @@ public class ObservationAndMeanPlotModel extends ObservationPlotModel {
 			@Override
 			public void update(ExcludedObservationMessage info) {
 				List<ValidObservation> obs = info.getObservations();
-				boolean excluded = obs.get(0).isExcluded();
+
+				if (obs.isEmpty()) {
+					return;
+				}
+
+				// The observations are moved between series in bulk: one pass
+				// over each series list from which they are removed, and one
+				// sort of each series list to which they are added.
+				Set<ValidObservation> movedObs = Collections
+						.newSetFromMap(new IdentityHashMap<ValidObservation, Boolean>());
+				movedObs.addAll(obs);
+
+				Map<SeriesType, List<ValidObservation>> obsByBand = new LinkedHashMap<SeriesType, List<ValidObservation>>();
+				for (ValidObservation ob : obs) {
+					List<ValidObservation> bandObs = obsByBand.get(ob.getBand());
+					if (bandObs == null) {
+						bandObs = new ArrayList<ValidObservation>();
+						obsByBand.put(ob.getBand(), bandObs);
+					}
+					bandObs.add(ob);
+				}
 
 				// Did we go to or from being excluded?
-				if (excluded) {
-					for (ValidObservation ob : info.getObservations()) {
-						// Now marked as excluded so move observation from
-						// its designated band to the excluded series.
-						removeObservationFromSeries(ob, ob.getBand());
+				if (info.isExcluded()) {
+					// Now marked as excluded so move observations from
+					// their designated bands to the excluded series.
+					for (SeriesType band : obsByBand.keySet()) {
+						removeObservationsFromSeries(movedObs, band);
 					}
-					// All are going to the same series, so we can do this
-					// en-masse. Note that we cannot do the reverse en-masse!
-					addObservationsToSeries(obs, SeriesType.Excluded);
+					addObservationsToSeries(new ArrayList<ValidObservation>(
+							obs), SeriesType.Excluded);
 				} else {
-					// Was previously marked as excluded, now is not, so move
-					// observation from the excluded series to its
-					// designated series. Reversing observation exclusion is
-					// less efficient than the initial exclusion.
-					for (ValidObservation ob : info.getObservations()) {
-						removeObservationFromSeries(ob, SeriesType.Excluded);
-						addObservationToSeries(ob, ob.getBand());
+					// Were previously marked as excluded, now are not, so
+					// move observations from the excluded series to their
+					// designated series.
+					removeObservationsFromSeries(movedObs, SeriesType.Excluded);
+					for (SeriesType band : obsByBand.keySet()) {
+						addObservationsToSeries(obsByBand.get(band), band);
 					}
 				}
 
@@ -577,12 +598,9 @@ public class ObservationAndMeanPlotModel extends ObservationPlotModel {
 
 				// If any of the excluded observations bands is the source of
 				// the means series, re-compute the means series.
-				for (ValidObservation ob : info.getObservations()) {
-					if (ob.getBand() == seriesNumToSrcTypeMap
-							.get(meanSourceSeriesNum)) {
-						model.setMeanSeries(false);
-						break;
-					}
+				if (obsByBand.containsKey(seriesNumToSrcTypeMap
+						.get(meanSourceSeriesNum))) {
+					model.setMeanSeries(false);
 				}
 			}
 
@@ -745,10 +763,10 @@ public class ObservationAndMeanPlotModel extends ObservationPlotModel {
 			@Override
 			public void update(FilteredObservationMessage info) {
 				if (!handleNoFilter(info)) {
-					// Convert set of filtered observations to list then add
+					// Copy the filtered observations to a list then add
 					// or replace the filter series.
 					List<ValidObservation> obs = new ArrayList<ValidObservation>(
-							info.getFilteredObs());
+							info.getFilteredObsList());
 
 					updateFilteredSeries(obs);
 
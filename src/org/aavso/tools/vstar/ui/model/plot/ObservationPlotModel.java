@@ -392,6 +392,31 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 		return removed;
 	}
 
+	/**
+	 * Remove a set of observations from a series list in a single pass over
+	 * the list.
+	 * 
+	 * @param obs
+	 *            The set of valid observations to be removed, e.g. one in
+	 *            which observations are compared by identity.
+	 * @param series
+	 *            The series from which the set is to be removed.
+	 * @return Whether or not any observations were removed.
+	 */
+	public boolean removeObservationsFromSeries(Set<ValidObservation> obs,
+			SeriesType series) {
+		boolean removed = false;
+
+		Integer seriesNum = this.srcTypeToSeriesNumMap.get(series);
+
+		if (seriesNum != null) {
+			removed = this.seriesNumToObSrcListMap.get(seriesNum).removeIf(
+					obs::contains);
+		}
+
+		return removed;
+	}
+
 	/**
 	 * Remove all observations from the specified series, but not the series
 	 * itself.
@@ -723,10 +748,12 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 			visible |= series == SeriesType.Unspecified;
 
 			// Finally, if observations come from an external source (via a
-			// plugin), make a series visible by default.
+			// plugin), make a series visible by default. There is no such
+			// message if the model was created before any star was loaded.
 			NewStarMessage msg = Mediator.getInstance()
 					.getLatestNewStarMessage();
-			visible |= msg.getNewStarType() == NewStarType.NEW_STAR_FROM_ARBITRARY_SOURCE;
+			visible |= msg != null
+					&& msg.getNewStarType() == NewStarType.NEW_STAR_FROM_ARBITRARY_SOURCE;
 		}
 
 		return visible;
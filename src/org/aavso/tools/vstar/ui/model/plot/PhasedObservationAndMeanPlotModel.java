@@ -122,10 +122,10 @@ public class PhasedObservationAndMeanPlotModel extends
 			@Override
 			public void update(FilteredObservationMessage info) {
 				if (!handleNoFilter(info)) {
-					// Convert set of filtered observations to list then add
+					// Copy the filtered observations to a list then add
 					// or replace the filter series.
 					List<ValidObservation> obs = new ArrayList<ValidObservation>(
-							info.getFilteredObs());
+							info.getFilteredObsList());
 					Collections.sort(obs, obComparator);
 
 					updateFilteredSeries(obs);
@@ -35,6 +35,9 @@ public class WWZ3DPlotModel extends WWZ2DPlotModel implements XYZDataset {
 
 	private WWZCoordinateType zType; // e.g. wwz
 
+	private WWZMatrix matrix;
+	private boolean matrixCreated;
+
 	/**
 	 * Constructor
 	 * 
@@ -61,6 +64,21 @@ public class WWZ3DPlotModel extends WWZ2DPlotModel implements XYZDataset {
 		return zType;
 	}
 
+	/**
+	 * Return the statistics packed into a matrix of Z values, e.g. for
+	 * rendering as a raster, creating it on first use.
+	 * 
+	 * @return The matrix, or null if the statistics do not form a grid.
+	 */
+	public WWZMatrix getMatrix() {
+		if (!matrixCreated) {
+			matrix = WWZMatrix.create(stats, domainType, rangeType, zType);
+			matrixCreated = true;
+		}
+
+		return matrix;
+	}
+
 	@Override
 	public Comparable getSeriesKey(int series) {
 		return rangeType.toString() + " vs " + domainType.toString() + " vs "
@@ -0,0 +1,264 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import java.util.List;
+
+import org.aavso.tools.vstar.util.Tolerance;
+import org.aavso.tools.vstar.util.period.wwz.WWZCoordinateType;
+import org.aavso.tools.vstar.util.period.wwz.WWZStatistic;
+
+/**
+ * WWZ statistics packed into a primitive matrix of Z values (e.g. WWZ) by
+ * column (e.g. tau) and row (e.g. frequency or period), for rendering as a
+ * raster. This requires the statistics to form a grid in column-major order,
+ * as the WWZ algorithm yields them: one statistic for each row's value for
+ * each column's value in turn.
+ */
+public class WWZMatrix {
+
+	private final double[] xs;
+	private final double[] ys;
+	private final double[][] zs;
+
+	private final boolean uniformColumns;
+
+	private WWZMatrix(double[] xs, double[] ys, double[][] zs) {
+		this.xs = xs;
+		this.ys = ys;
+		this.zs = zs;
+		uniformColumns = isUniform(xs);
+	}
+
+	/**
+	 * Pack WWZ statistics into a matrix.
+	 * 
+	 * @param stats
+	 *            The statistics.
+	 * @param domainType
+	 *            The column coordinate type (e.g. tau).
+	 * @param rangeType
+	 *            The row coordinate type (e.g. period).
+	 * @param zType
+	 *            The Z coordinate type (e.g. wwz).
+	 * @return The matrix, or null if the statistics do not form a grid.
+	 */
+	public static WWZMatrix create(List<WWZStatistic> stats,
+			WWZCoordinateType domainType, WWZCoordinateType rangeType,
+			WWZCoordinateType zType) {
+
+		if (stats.isEmpty()) {
+			return null;
+		}
+
+		// The number of rows is that of the statistics for the first column.
+		double firstX = stats.get(0).getValue(domainType);
+		int rows = 1;
+		while (rows < stats.size()
+				&& stats.get(rows).getValue(domainType) == firstX) {
+			rows++;
+		}
+
+		if (stats.size() % rows != 0) {
+			return null;
+		}
+
+		int columns = stats.size() / rows;
+
+		double[] xs = new double[columns];
+		double[] ys = new double[rows];
+		double[][] zs = new double[columns][rows];
+
+		for (int row = 0; row < rows; row++) {
+			ys[row] = stats.get(row).getValue(rangeType);
+		}
+
+		int item = 0;
+		for (int column = 0; column < columns; column++) {
+			xs[column] = stats.get(item).getValue(domainType);
+
+			if (column > 0 && !(xs[column] > xs[column - 1])) {
+				return null;
+			}
+
+			for (int row = 0; row < rows; row++) {
+				WWZStatistic stat = stats.get(item++);
+				if (stat.getValue(domainType) != xs[column]
+						|| stat.getValue(rangeType) != ys[row]) {
+					return null;
+				}
+				zs[column][row] = stat.getValue(zType);
+			}
+		}
+
+		return new WWZMatrix(xs, ys, zs);
+	}
+
+	/**
+	 * @return the number of columns
+	 */
+	public int getColumnCount() {
+		return xs.length;
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	public int getRowCount() {
+		return ys.length;
+	}
+
+	/**
+	 * @return the column (domain) value of the specified column, in
+	 *         ascending order
+	 */
+	public double getX(int column) {
+		return xs[column];
+	}
+
+	/**
+	 * @return the row (range) value of the specified row
+	 */
+	public double getY(int row) {
+		return ys[row];
+	}
+
+	/**
+	 * @return the Z value of the specified cell
+	 */
+	public double getZ(int column, int row) {
+		return zs[column][row];
+	}
+
+	/**
+	 * @return whether columns are evenly spaced, as they are for tau
+	 */
+	public boolean hasUniformColumns() {
+		return uniformColumns;
+	}
+
+	/**
+	 * @return the index of the statistic in the specified cell
+	 */
+	public int getItem(int column, int row) {
+		return column * ys.length + row;
+	}
+
+	/**
+	 * Return the index of the statistic in whose cell a point lies, each cell
+	 * extending half way to its neighbours.
+	 * 
+	 * @param x
+	 *            The point's domain value.
+	 * @param y
+	 *            The point's range value.
+	 * @return The index, or -1 if the point is outside the grid.
+	 */
+	public int itemAt(double x, double y) {
+		int column = nearest(xs, x);
+		int row = nearest(ys, y);
+		return column >= 0 && row >= 0 ? getItem(column, row) : -1;
+	}
+
+	/**
+	 * Return the boundary between a cell and the previous one in a
+	 * dimension, the outer boundaries being as far from the first and last
+	 * values as the inner ones.
+	 * 
+	 * @param values
+	 *            The column or row values.
+	 * @param index
+	 *            The index of the cell, or of the number of values for the
+	 *            last cell's far boundary.
+	 * @param extent
+	 *            The extent of a cell where there is only one.
+	 * @return The boundary value.
+	 */
+	public static double edge(double[] values, int index, double extent) {
+		int n = values.length;
+		double edge;
+
+		if (n == 1) {
+			edge = values[0] + (index == 0 ? -extent : extent) / 2;
+		} else if (index == 0) {
+			edge = values[0] - (values[1] - values[0]) / 2;
+		} else if (index == n) {
+			edge = values[n - 1] + (values[n - 1] - values[n - 2]) / 2;
+		} else {
+			edge = (values[index - 1] + values[index]) / 2;
+		}
+
+		return edge;
+	}
+
+	/**
+	 * @return the column values
+	 */
+	public double[] getXs() {
+		return xs;
+	}
+
+	/**
+	 * @return the row values
+	 */
+	public double[] getYs() {
+		return ys;
+	}
+
+	// Helpers
+
+	// Returns the index of the value nearest v, or -1 if v is beyond the
+	// outer cell boundaries. The values may be in either order.
+	private static int nearest(double[] values, double v) {
+		int nearest = -1;
+		double distance = Double.POSITIVE_INFINITY;
+
+		for (int i = 0; i < values.length; i++) {
+			double d = Math.abs(values[i] - v);
+			if (d < distance) {
+				distance = d;
+				nearest = i;
+			}
+		}
+
+		if (nearest >= 0 && values.length > 1) {
+			double lower = edge(values, 0, 0);
+			double upper = edge(values, values.length, 0);
+			if (v < Math.min(lower, upper) || v > Math.max(lower, upper)) {
+				nearest = -1;
+			}
+		}
+
+		return nearest;
+	}
+
+	private static boolean isUniform(double[] values) {
+		boolean uniform = true;
+
+		if (values.length > 2) {
+			double step = (values[values.length - 1] - values[0])
+					/ (values.length - 1);
+			for (int i = 1; i < values.length && uniform; i++) {
+				uniform = Tolerance.areClose(values[i] - values[i - 1], step,
+						Math.abs(step) * 1e-6, true);
+			}
+		}
+
+		return uniform;
+	}
+}
@@ -34,6 +34,7 @@ import javax.swing.table.TableRowSorter;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.ui.model.list.ValidObservationTableModel;
 import org.aavso.tools.vstar.util.Logic;
+import org.aavso.tools.vstar.vela.AST;
 import org.aavso.tools.vstar.vela.Operand;
 import org.aavso.tools.vstar.vela.Type;
 import org.aavso.tools.vstar.vela.VeLaInterpreter;
@@ -173,11 +174,19 @@ public class VeLaListSearchPane<S extends TableModel> extends JPanel {
 	class VeLaRowFilter extends RowFilter<Object, Object> {
 		private VeLaInterpreter vela;
 		private VeLaListSearchPane<? extends TableModel> searchPane;
+		private VeLaValidObservationEnvironment env;
+		private AST ast;
 
 		public VeLaRowFilter(VeLaInterpreter vela,
 				VeLaListSearchPane<? extends TableModel> searchPane) {
 			this.vela = vela;
+			this.vela.setCompiledMode(true);
 			this.searchPane = searchPane;
+
+			// Compile the expression once, binding its observation symbols to
+			// an environment that is reused for each row.
+			env = new VeLaValidObservationEnvironment();
+			ast = env.bindSlots(vela.compile(searchPane.getVeLaExpression()));
 		}
 
 		@Override
@@ -190,9 +199,9 @@ public class VeLaListSearchPane<S extends TableModel> extends JPanel {
 
 			if (rowIndex != null) {
 				ValidObservation ob = model.getObservations().get(rowIndex);
-				vela.pushEnvironment(new VeLaValidObservationEnvironment(ob));
-				Optional<Operand> value = vela.program(searchPane
-						.getVeLaExpression());
+				env.setObservation(ob);
+				vela.pushEnvironment(env);
+				Optional<Operand> value = vela.program(ast);
 				result = value.isPresent()
 						&& value.get().getType() == Type.BOOLEAN
 						&& value.get().booleanVal();
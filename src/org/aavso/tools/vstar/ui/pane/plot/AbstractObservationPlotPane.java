@@ -19,12 +19,12 @@ package org.aavso.tools.vstar.ui.pane.plot;
 
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.event.MouseEvent;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Level;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -36,7 +36,6 @@ import javax.swing.SwingUtilities;
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
-import org.aavso.tools.vstar.ui.VStar;
 import org.aavso.tools.vstar.ui.dialog.ObservationDetailsDialog;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
@@ -44,6 +43,8 @@ import org.aavso.tools.vstar.ui.mediator.message.PanRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomType;
 import org.aavso.tools.vstar.ui.model.plot.ObservationAndMeanPlotModel;
+import org.aavso.tools.vstar.ui.model.plot.ObservationPlotModel;
+import org.aavso.tools.vstar.ui.pane.plot.PlotPointIndex.PlotPoint;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.prefs.ChartPropertiesPrefs;
@@ -53,17 +54,18 @@ import org.jfree.chart.ChartMouseListener;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.NumberAxis;
-import org.jfree.chart.entity.EntityCollection;
-import org.jfree.chart.entity.XYItemEntity;
+import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.SeriesRenderingOrder;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYErrorRenderer;
 import org.jfree.chart.title.TextTitle;
 import org.jfree.data.Range;
 import org.jfree.data.general.Dataset;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * This class is the base class for chart panes containing a plot of a set of
@@ -102,6 +104,13 @@ abstract public class AbstractObservationPlotPane<T extends ObservationAndMeanPl
 
 	protected JButton visibilityButton;
 
+	// The maximum distance in pixels from the mouse of a point to which a
+	// double-click or tool-tip applies.
+	protected static final double PICK_DISTANCE = 5;
+
+	// Index of the plot's points, created on demand.
+	private PlotPointIndex pointIndex;
+
 	// Last selected point and observation.
 	protected Point2D lastPointClicked;
 	protected ValidObservation lastObSelected;
@@ -147,10 +156,22 @@ abstract public class AbstractObservationPlotPane<T extends ObservationAndMeanPl
 		this.showCrossHairs = true;
 
 		// Create a chart with legend, tooltips, and URLs showing
-		// and add it to the panel.
+		// and add it to the panel. Tool-tips are those of the point nearest
+		// to the mouse according to the point index.
 		this.chartPanel = new ChartPanel(ChartFactory.createScatterPlot(title,
 				domainTitle, rangeTitle, obsModel, PlotOrientation.VERTICAL,
-				true, true, true));
+				true, true, true)) {
+			@Override
+			public String getToolTipText(MouseEvent e) {
+				PlotPoint point = findNearestPoint(
+						translateScreenToJava2D(e.getPoint()), PICK_DISTANCE);
+				return point != null ? getPointToolTipText(point) : null;
+			}
+		};
+
+		// Points are found via the point index rather than via an entity
+		// per rendered point, so none are created.
+		this.chartPanel.getChartRenderingInfo().setEntityCollection(null);
 
 		this.chartPanel.setPreferredSize(bounds);
 
@@ -410,72 +431,27 @@ abstract public class AbstractObservationPlotPane<T extends ObservationAndMeanPl
 	}
 
 	// From ChartMouseListener interface.
-	// If the user double-clicks on a plot point, send a selection
-	// message and open an information dialog. Also record the selection.
+	// Select the observation nearest to the point clicked and send a
+	// selection message. If the user double-clicks on a plot point, also open
+	// an information dialog.
 	public void chartMouseClicked(ChartMouseEvent event) {
 
-		// Now, have we selected an observation?
-		if (event.getEntity() instanceof XYItemEntity) {
-			// The trigger point should correspond to the XYItemEntity's
-			// position.
-			lastPointClicked = event.getTrigger().getPoint();
+		// Where are the cross hairs pointing?
+		lastPointClicked = chartPanel.translateScreenToJava2D(event
+				.getTrigger().getPoint());
 
-			XYItemEntity entity = (XYItemEntity) event.getEntity();
-			lastDatasetSelected = entity.getDataset();
-			int series = entity.getSeriesIndex();
-			int item = entity.getItem();
-			lastObSelected = obsModel.getValidObservation(series, item);
+		PlotPoint point = findNearestPoint(lastPointClicked,
+				Double.POSITIVE_INFINITY);
 
-			if (event.getTrigger().getClickCount() == 2) {
-				new ObservationDetailsDialog(lastObSelected);
-			}
-		} else {
-			// ...else if not XYItemEntity as subject of the event, select a
-			// valid observation by asking: which XYItemEntity is closest to the
-			// cross hairs?
-
-			// Where are the cross hairs pointing?
-			lastPointClicked = chartPanel.getAnchor();
-
-			EntityCollection entities = chartPanel.getChartRenderingInfo()
-					.getEntityCollection();
-
-			double closestDist = Double.MAX_VALUE;
-
-			// Note: This operation is linear in the number of visible
-			// observations!
-			// Unfortunately, the list of XYItemEntities must always be searched
-			// exhaustively since we don't know which XYItemEntity will turn out
-			// to be closest to the mouse selection. Actually, this may not be
-			// the case if we can assume an ordering of XYItemEntities by domain
-			// (X). If so, once itemBounds.getCenterX() is greater than
-			// lastPointClicked.getX(), we could terminate the loop. But I don't
-			// know if we can make that assumption.
-			@SuppressWarnings("unchecked")
-			Iterator it = entities.iterator();
-			while (it.hasNext()) {
-				Object o = it.next();
-				if (o instanceof XYItemEntity) {
-					XYItemEntity entity = (XYItemEntity) o;
-					Rectangle2D itemBounds = entity.getArea().getBounds2D();
-					Point2D centerPt = new Point2D.Double(
-							itemBounds.getCenterX(), itemBounds.getCenterY());
-
-					double dist = centerPt.distance(lastPointClicked);
-					if (dist < closestDist) {
-						closestDist = dist;
-						lastDatasetSelected = entity.getDataset();
-						lastObSelected = obsModel.getValidObservation(
-								entity.getSeriesIndex(), entity.getItem());
-					}
+		if (point != null) {
+			renderer.setPinnedPoint(point);
+			lastDatasetSelected = point.getDataset();
+			lastObSelected = ((ObservationPlotModel) point.getDataset())
+					.getValidObservation(point.getSeries(), point.getItem());
 
-					// Note: The approach below definitely does not work.
-					// if (item.getArea().contains(lastPointClicked)) {
-					// lastObSelected = obsModel.getValidObservation(item
-					// .getSeriesIndex(), item.getItem());
-					//
-					// }
-				}
+			if (event.getTrigger().getClickCount() == 2
+					&& toJava2D(point).distance(lastPointClicked) <= PICK_DISTANCE) {
+				new ObservationDetailsDialog(lastObSelected);
 			}
 		}
 
@@ -489,6 +465,101 @@ abstract public class AbstractObservationPlotPane<T extends ObservationAndMeanPl
 		}
 	}
 
+	// From ChartMouseListener interface.
+	// Tool-tips are found via the point index; see getPointToolTipText().
+	public void chartMouseMoved(ChartMouseEvent event) {
+	}
+
+	/**
+	 * Return the tool-tip text for a point of one of this plot's observation
+	 * models.
+	 * 
+	 * @param point
+	 *            The point.
+	 * @return The text or null if there is to be no tool-tip.
+	 */
+	protected String getPointToolTipText(PlotPoint point) {
+		return null;
+	}
+
+	/**
+	 * @return the index of this plot's points, created on first use since
+	 *         subclasses may add datasets after construction
+	 */
+	protected PlotPointIndex getPointIndex() {
+		if (pointIndex == null) {
+			List<XYDataset> datasets = new ArrayList<XYDataset>();
+			XYPlot plot = chart.getXYPlot();
+			for (int i = 0; i < plot.getDatasetCount(); i++) {
+				if (plot.getDataset(i) instanceof ObservationPlotModel) {
+					datasets.add(plot.getDataset(i));
+				}
+			}
+			pointIndex = new PlotPointIndex(datasets);
+		}
+
+		return pointIndex;
+	}
+
+	/**
+	 * Find the point in a visible series nearest to a position in the plot's
+	 * data area.
+	 * 
+	 * @param java2DPoint
+	 *            The position in Java2D space.
+	 * @param maxDistance
+	 *            The maximum distance in pixels of the point from the
+	 *            position.
+	 * @return The point or null if there is none.
+	 */
+	protected PlotPoint findNearestPoint(Point2D java2DPoint, double maxDistance) {
+		PlotPoint point = null;
+
+		XYPlot plot = chart.getXYPlot();
+		Rectangle2D dataArea = chartPanel.getChartRenderingInfo().getPlotInfo()
+				.getDataArea();
+
+		if (dataArea.getWidth() > 0 && dataArea.getHeight() > 0) {
+			ValueAxis domainAxis = plot.getDomainAxis();
+			ValueAxis rangeAxis = plot.getRangeAxis();
+
+			double x = domainAxis.java2DToValue(java2DPoint.getX(), dataArea,
+					plot.getDomainAxisEdge());
+			double y = rangeAxis.java2DToValue(java2DPoint.getY(), dataArea,
+					plot.getRangeAxisEdge());
+
+			double xScale = dataArea.getWidth()
+					/ domainAxis.getRange().getLength();
+			double yScale = dataArea.getHeight()
+					/ rangeAxis.getRange().getLength();
+
+			point = getPointIndex().nearest(x, y, xScale, yScale,
+					domainAxis.getRange(), rangeAxis.getRange(), maxDistance,
+					(dataset, series, item) -> plot.getRendererForDataset(
+							dataset).isSeriesVisible(series));
+		}
+
+		return point;
+	}
+
+	/**
+	 * Return the position of a point in Java2D space.
+	 * 
+	 * @param point
+	 *            The point.
+	 * @return The position.
+	 */
+	protected Point2D toJava2D(PlotPoint point) {
+		XYPlot plot = chart.getXYPlot();
+		Rectangle2D dataArea = chartPanel.getChartRenderingInfo().getPlotInfo()
+				.getDataArea();
+
+		return new Point2D.Double(plot.getDomainAxis().valueToJava2D(
+				point.getX(), dataArea, plot.getDomainAxisEdge()), plot
+				.getRangeAxis().valueToJava2D(point.getY(), dataArea,
+						plot.getRangeAxisEdge()));
+	}
+
 	/**
 	 * @return The time axis label.
 	 */
@@ -524,55 +595,18 @@ abstract public class AbstractObservationPlotPane<T extends ObservationAndMeanPl
 	protected void updateSelectionFromObservation(ValidObservation ob) {
 		lastObSelected = ob;
 
-		EntityCollection entities = chartPanel.getChartRenderingInfo()
-				.getEntityCollection();
-
-		// Note: This operation is linear in the number of observations!
-		// However, the loop will on average terminate before exhaustively
-		// searching all entries, i.e. when the observation is matched up
-		// with the corresponding XYItemEntity. It's still O(n) though.
-		// TODO: Use RendererUtilities method to return a list of entity indices
-		// that lie in a given x (JD/phase) range; this would reduce n.
-		Iterator it = entities.iterator();
-		while (it.hasNext()) {
-			Object o = it.next();
-			if (o instanceof XYItemEntity) {
-				XYItemEntity item = (XYItemEntity) o;
-				// Dataset may not be same as primary observation model, e.g.
-				// could be model function dataset (continuous model).
-				if (item.getDataset() == obsModel) {
-					try {
-						double domainValue = obsModel.getXValue(
-								item.getSeriesIndex(), item.getItem());
-						double mag = obsModel.getYValue(item.getSeriesIndex(),
-								item.getItem());
-
-						// Since the data in the observations and in the
-						// XYItemEntities should be the same, using equality
-						// here ought to be safe.
-						List<ValidObservation> obs = obsModel
-								.getSeriesNumToObSrcListMap().get(
-										item.getSeriesIndex());
-						if (obsModel.getTimeElementEntity().getTimeElement(obs,
-								item.getItem()) == domainValue
-								&& ob.getMag() == mag) {
-							Rectangle2D itemBounds = item.getArea()
-									.getBounds2D();
-							Point2D centerPt = new Point2D.Double(
-									itemBounds.getCenterX(),
-									itemBounds.getCenterY());
-
-							lastPointClicked = centerPt;
-							break;
-						}
-					} catch (IndexOutOfBoundsException e) {
-						// Sometimes the series-index, item-index pair will have
-						// changed or have become non-existent. Ignore but log.
-						VStar.LOGGER.log(Level.WARNING,
-								"Observation selection error", e);
-					}
-				}
-			}
+		// The observation's point has its magnitude, so only points in the
+		// index's cells for that magnitude need be compared with it.
+		PlotPoint point = getPointIndex().find(obsModel, ob.getMag(),
+				(dataset, series, item) -> {
+					ValidObservation candidate = obsModel.getValidObservation(
+							series, item);
+					return candidate == ob || candidate.getJD() == ob.getJD();
+				});
+
+		if (point != null) {
+			renderer.setPinnedPoint(point);
+			lastPointClicked = toJava2D(point);
 		}
 	}
 
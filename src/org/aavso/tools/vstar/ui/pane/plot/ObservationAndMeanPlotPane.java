@@ -34,11 +34,10 @@ import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.PanRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomRequestMessage;
 import org.aavso.tools.vstar.ui.model.plot.ObservationAndMeanPlotModel;
+import org.aavso.tools.vstar.ui.model.plot.ObservationPlotModel;
+import org.aavso.tools.vstar.ui.pane.plot.PlotPointIndex.PlotPoint;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
-import org.jfree.chart.ChartMouseEvent;
-import org.jfree.chart.entity.ChartEntity;
-import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.SeriesRenderingOrder;
 import org.jfree.chart.plot.XYPlot;
@@ -190,23 +189,14 @@ public class ObservationAndMeanPlotPane extends AbstractObservationPlotPane<Obse
 	// }
 	// }
 
-	// From ChartMouseListener interface.
-	// If the mouse is over a data point, set its tool-tip with JD and
-	// magnitude.
-	public void chartMouseMoved(ChartMouseEvent event) {
-		ChartEntity entity = event.getEntity();
-		if (entity instanceof XYItemEntity) {
-			XYItemEntity item = (XYItemEntity) entity;
-			// Dataset may not be same as primary observation model, e.g.
-			// could be model function dataset (continuous model).
-			if (item.getDataset() == obsModel) {
-				ValidObservation ob = obsModel.getValidObservation(item.getSeriesIndex(), item.getItem());
-
-				String xyMsg = String.format(xyMsgFormat, NumericPrecisionPrefs.formatTime(ob.getJD()),
-						ob.getDateInfo().getCalendarDate(), NumericPrecisionPrefs.formatMag(ob.getMag()));
-				item.setToolTipText(xyMsg);
-			}
-		}
+	// The tool-tip for a data point, with JD and magnitude.
+	@Override
+	protected String getPointToolTipText(PlotPoint point) {
+		ValidObservation ob = ((ObservationPlotModel) point.getDataset()).getValidObservation(point.getSeries(),
+				point.getItem());
+
+		return String.format(xyMsgFormat, NumericPrecisionPrefs.formatTime(ob.getJD()),
+				ob.getDateInfo().getCalendarDate(), NumericPrecisionPrefs.formatMag(ob.getMag()));
 	}
 
 	// Returns an observation selection listener.
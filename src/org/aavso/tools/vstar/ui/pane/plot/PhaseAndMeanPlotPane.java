@@ -31,14 +31,13 @@ import org.aavso.tools.vstar.ui.mediator.message.PanRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.SeriesVisibilityChangeMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomRequestMessage;
 import org.aavso.tools.vstar.ui.model.plot.ObservationAndMeanPlotModel;
+import org.aavso.tools.vstar.ui.model.plot.ObservationPlotModel;
 import org.aavso.tools.vstar.ui.model.plot.PhasedObservationAndMeanPlotModel;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
+import org.aavso.tools.vstar.ui.pane.plot.PlotPointIndex.PlotPoint;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.aavso.tools.vstar.util.stats.BinningResult;
-import org.jfree.chart.ChartMouseEvent;
-import org.jfree.chart.entity.ChartEntity;
-import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.data.general.Dataset;
@@ -212,20 +211,15 @@ public class PhaseAndMeanPlotPane extends ObservationAndMeanPlotPane {
 	// }
 	// }
 
-	// From ChartMouseListener interface.
-	// If the mouse is over a data point, set its tool-tip with phase and
-	// magnitude.
-	public void chartMouseMoved(ChartMouseEvent event) {
-		ChartEntity entity = event.getEntity();
-		if (entity instanceof XYItemEntity) {
-			XYItemEntity item = (XYItemEntity) entity;
-			ValidObservation ob = obsModel.getValidObservation(item
-					.getSeriesIndex(), item.getItem());
-			String xyMsg = String.format(xyMsgFormat, NumericPrecisionPrefs
-					.formatTime(ob.getStandardPhase()), NumericPrecisionPrefs
-					.formatMag(ob.getMag()));
-			item.setToolTipText(xyMsg);
-		}
+	// The tool-tip for a data point, with phase and magnitude.
+	@Override
+	protected String getPointToolTipText(PlotPoint point) {
+		ValidObservation ob = ((ObservationPlotModel) point.getDataset())
+				.getValidObservation(point.getSeries(), point.getItem());
+
+		return String.format(xyMsgFormat, NumericPrecisionPrefs
+				.formatTime(ob.getStandardPhase()), NumericPrecisionPrefs
+				.formatMag(ob.getMag()));
 	}
 
 	// Returns a series visibility change listener to update the chart legends
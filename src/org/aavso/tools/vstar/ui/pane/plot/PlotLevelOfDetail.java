@@ -0,0 +1,394 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.pane.plot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A level-of-detail layer for plots of very large series. When more points are
+ * in view than can usefully be drawn, only visually distinct representatives
+ * are selected: for each pixel column, the points with the minimum and maximum
+ * range (magnitude) values, found via a pyramid of minima and maxima over the
+ * series' items, and, where those are more than a pixel apart, one point per
+ * pixel row between them. For datasets with intervals, the points whose error
+ * bars reach lowest and highest in each pixel column are also selected, so
+ * the extent of the error bars drawn is kept. Every representative is an
+ * actual point of the series, so selection and picking resolve to true
+ * observations.<br/>
+ * Decimation requires a series' domain values to be in ascending order; other
+ * series are always drawn in full, as are all series once the number of
+ * points in view falls below a threshold.<br/>
+ * A dataset's pyramids are discarded whenever the dataset fires a change
+ * event, e.g. after observations have been shifted or transformed in place.
+ */
+public class PlotLevelOfDetail implements DatasetChangeListener {
+
+	// Below this number of points in view, all points are drawn.
+	public static final int FULL_RESOLUTION_THRESHOLD = 20000;
+
+	// The height in pixels of the rows within a pixel column of which one
+	// point each is drawn; points are drawn as shapes a few pixels across.
+	private static final int ROW_PIXELS = 2;
+
+	private final Map<XYDataset, List<SeriesPyramid>> pyramids;
+
+	public PlotLevelOfDetail() {
+		pyramids = new IdentityHashMap<XYDataset, List<SeriesPyramid>>();
+	}
+
+	/**
+	 * Select the points of a dataset to be drawn.
+	 * 
+	 * @param dataset
+	 *            The dataset.
+	 * @param decimatable
+	 *            Which series may be decimated, e.g. those that are visible
+	 *            and whose points are not joined by lines.
+	 * @param xRange
+	 *            The domain range in view.
+	 * @param yRange
+	 *            The range (magnitude) range in view.
+	 * @param columns
+	 *            The width of the plot's data area in pixels.
+	 * @param rows
+	 *            The height of the plot's data area in pixels.
+	 * @return The items to be drawn by series number, a null element meaning
+	 *         all of a series' items, or null if all points are to be drawn.
+	 */
+	public BitSet[] select(XYDataset dataset, IntPredicate decimatable,
+			Range xRange, Range yRange, int columns, int rows) {
+		List<SeriesPyramid> seriesPyramids = update(dataset);
+
+		int inView = 0;
+		for (int series = 0; series < seriesPyramids.size(); series++) {
+			if (decimatable.test(series)) {
+				inView += seriesPyramids.get(series).countIn(xRange);
+			}
+		}
+
+		BitSet[] selection = null;
+
+		if (inView >= FULL_RESOLUTION_THRESHOLD && columns > 0 && rows > 0) {
+			selection = new BitSet[seriesPyramids.size()];
+			rows = Math.max(1, rows / ROW_PIXELS);
+			int[] rowStamps = new int[rows];
+
+			for (int series = 0; series < seriesPyramids.size(); series++) {
+				SeriesPyramid pyramid = seriesPyramids.get(series);
+				if (decimatable.test(series) && pyramid.isSorted()) {
+					selection[series] = pyramid.select(xRange, yRange,
+							columns, rows, rowStamps);
+				}
+			}
+		}
+
+		return selection;
+	}
+
+	/**
+	 * A dataset's points may have changed without its series' observation
+	 * lists or sizes changing, so discard its pyramids.
+	 * 
+	 * @see org.jfree.data.general.DatasetChangeListener#datasetChanged(org.jfree.data.general.DatasetChangeEvent)
+	 */
+	@Override
+	public void datasetChanged(DatasetChangeEvent event) {
+		pyramids.remove(event.getDataset());
+	}
+
+	// Helpers
+
+	private List<SeriesPyramid> update(XYDataset dataset) {
+		List<SeriesPyramid> seriesPyramids = pyramids.get(dataset);
+		if (seriesPyramids == null) {
+			seriesPyramids = new ArrayList<SeriesPyramid>();
+			pyramids.put(dataset, seriesPyramids);
+			// Adding an existing listener has no effect.
+			dataset.addChangeListener(this);
+		}
+
+		int seriesCount = dataset.getSeriesCount();
+
+		while (seriesPyramids.size() > seriesCount) {
+			seriesPyramids.remove(seriesPyramids.size() - 1);
+		}
+
+		for (int series = 0; series < seriesCount; series++) {
+			Object source = PlotPointIndex.getSource(dataset, series);
+			int n = dataset.getItemCount(series);
+
+			if (series == seriesPyramids.size()) {
+				seriesPyramids.add(new SeriesPyramid(dataset, series, source, n));
+			} else if (!seriesPyramids.get(series).isCurrent(source, n)) {
+				seriesPyramids.set(series, new SeriesPyramid(dataset, series, source, n));
+			}
+		}
+
+		return seriesPyramids;
+	}
+
+	/**
+	 * The items of a series with the items of minimum and maximum range
+	 * values in each aligned block of 2^k items, for each level k > 0, and
+	 * likewise for the lower and upper ends of the items' intervals (error
+	 * bars) if the dataset has them.
+	 */
+	static class SeriesPyramid {
+		private final Object source;
+		private final int n;
+
+		private final double[] xs;
+		private final double[] ys;
+		private final double[] lows;
+		private final double[] highs;
+
+		private final boolean sorted;
+
+		private final int[][] minItems;
+		private final int[][] maxItems;
+
+		// Null if the dataset has no intervals.
+		private final int[][] lowItems;
+		private final int[][] highItems;
+
+		SeriesPyramid(XYDataset dataset, int series, Object source, int n) {
+			this.source = source;
+			this.n = n;
+
+			xs = new double[n];
+			ys = new double[n];
+
+			IntervalXYDataset intervals = dataset instanceof IntervalXYDataset ? (IntervalXYDataset) dataset
+					: null;
+			lows = intervals != null ? new double[n] : ys;
+			highs = intervals != null ? new double[n] : ys;
+
+			boolean ascending = true;
+			for (int i = 0; i < n; i++) {
+				xs[i] = dataset.getXValue(series, i);
+				ys[i] = dataset.getYValue(series, i);
+				ascending &= i == 0 || xs[i - 1] <= xs[i];
+
+				if (intervals != null) {
+					lows[i] = intervals.getStartYValue(series, i);
+					highs[i] = intervals.getEndYValue(series, i);
+				}
+			}
+
+			sorted = ascending;
+
+			int levels = 1;
+			while ((1 << levels) < n) {
+				levels++;
+			}
+
+			minItems = pyramid(ys, true, levels);
+			maxItems = pyramid(ys, false, levels);
+
+			lowItems = intervals != null ? pyramid(lows, true, levels) : null;
+			highItems = intervals != null ? pyramid(highs, false, levels)
+					: null;
+		}
+
+		// Returns, for each level k > 0, the item of the least (or greatest)
+		// value in each aligned block of 2^k items.
+		private int[][] pyramid(double[] values, boolean least, int levels) {
+			int[][] items = new int[levels][];
+
+			for (int k = 1; k < levels; k++) {
+				int size = (n + (1 << k) - 1) >> k;
+				items[k] = new int[size];
+
+				for (int j = 0; j < size; j++) {
+					int left = 2 * j;
+					int right = 2 * j + 1;
+
+					if (k == 1) {
+						right = right < n ? right : -1;
+						items[k][j] = better(values, least,
+								present(values, left), present(values, right));
+					} else {
+						int childSize = items[k - 1].length;
+						items[k][j] = better(values, least, items[k - 1][left],
+								right < childSize ? items[k - 1][right] : -1);
+					}
+				}
+			}
+
+			return items;
+		}
+
+		boolean isCurrent(Object source, int n) {
+			return this.source == source && this.n == n;
+		}
+
+		boolean isSorted() {
+			return sorted;
+		}
+
+		int countIn(Range xRange) {
+			return sorted ? firstNotBefore(xRange.getUpperBound(), true)
+					- firstNotBefore(xRange.getLowerBound(), false) : n;
+		}
+
+		BitSet select(Range xRange, Range yRange, int columns, int rows,
+				int[] rowStamps) {
+			BitSet selected = new BitSet(n);
+
+			int start = firstNotBefore(xRange.getLowerBound(), false);
+			int end = firstNotBefore(xRange.getUpperBound(), true);
+
+			double columnWidth = xRange.getLength() / columns;
+			double rowHeight = yRange.getLength() / rows;
+
+			Arrays.fill(rowStamps, 0);
+
+			int a = start;
+			for (int column = 0; column < columns && a < end; column++) {
+				// Items [a, b) are in this pixel column.
+				int b = end;
+				if (column < columns - 1) {
+					double columnEnd = xRange.getLowerBound() + (column + 1)
+							* columnWidth;
+					b = firstNotBefore(columnEnd, false, a, end);
+				}
+
+				if (b - a <= 2) {
+					selected.set(a, b);
+				} else {
+					int minItem = extreme(minItems, ys, true, a, b);
+					int maxItem = extreme(maxItems, ys, false, a, b);
+
+					if (lowItems != null) {
+						// The ends of this column's error bars.
+						int lowItem = extreme(lowItems, lows, true, a, b);
+						int highItem = extreme(highItems, highs, false, a, b);
+						if (lowItem >= 0) {
+							selected.set(lowItem);
+							selected.set(highItem);
+						}
+					}
+
+					if (minItem >= 0) {
+						selected.set(minItem);
+						selected.set(maxItem);
+
+						int minRow = row(ys[minItem], yRange, rowHeight, rows);
+						int maxRow = row(ys[maxItem], yRange, rowHeight, rows);
+
+						if (maxRow - minRow > 1) {
+							// One item per pixel row between the extremes.
+							int stamp = column + 1;
+							rowStamps[minRow] = stamp;
+							rowStamps[maxRow] = stamp;
+							for (int i = a; i < b; i++) {
+								int row = row(ys[i], yRange, rowHeight, rows);
+								if (rowStamps[row] != stamp) {
+									rowStamps[row] = stamp;
+									selected.set(i);
+								}
+							}
+						}
+					}
+				}
+
+				a = b;
+			}
+
+			return selected;
+		}
+
+		// Returns the item of least (or greatest) value in [a, b), combining
+		// the largest aligned blocks of the pyramid that fit.
+		private int extreme(int[][] items, double[] values, boolean least,
+				int a, int b) {
+			int item = -1;
+
+			while (a < b) {
+				int k = 0;
+				while (k + 1 < items.length
+						&& (a & ((1 << (k + 1)) - 1)) == 0
+						&& a + (1 << (k + 1)) <= b) {
+					k++;
+				}
+
+				if (k == 0) {
+					item = better(values, least, item, present(values, a));
+				} else {
+					item = better(values, least, item, items[k][a >> k]);
+				}
+
+				a += 1 << k;
+			}
+
+			return item;
+		}
+
+		// Returns the item or -1 if it has no value.
+		private int present(double[] values, int item) {
+			return item >= 0 && !Double.isNaN(values[item]) ? item : -1;
+		}
+
+		// Returns the item of lesser (or greater) value, ignoring absent
+		// items.
+		private int better(double[] values, boolean least, int i, int j) {
+			return i < 0 ? j : j < 0 ? i : (least ? values[j] < values[i]
+					: values[j] > values[i]) ? j : i;
+		}
+
+		private int row(double y, Range yRange, double rowHeight, int rows) {
+			int row = (int) ((y - yRange.getLowerBound()) / rowHeight);
+			return row < 0 ? 0 : row >= rows ? rows - 1 : row;
+		}
+
+		private int firstNotBefore(double x, boolean inclusive) {
+			return firstNotBefore(x, inclusive, 0, n);
+		}
+
+		// Returns the first item in [from, to) whose domain value is not less
+		// than (or, if inclusive, greater than) x, or to if there is none.
+		private int firstNotBefore(double x, boolean inclusive, int from,
+				int to) {
+			int low = from;
+			int high = to;
+
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (xs[mid] < x || (inclusive && xs[mid] == x)) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+
+			return low;
+		}
+	}
+}
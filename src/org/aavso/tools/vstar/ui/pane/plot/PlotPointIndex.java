@@ -0,0 +1,433 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.pane.plot;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aavso.tools.vstar.ui.model.plot.ObservationPlotModel;
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A spatial index of the points of a plot's datasets in data (e.g. JD or
+ * phase vs magnitude) space. It is used to find the point closest to a mouse
+ * position or the point corresponding to an observation without searching
+ * every point, and without JFreeChart having to create an entity for every
+ * rendered point.<br/>
+ * Each series of each dataset has its own uniform grid. A dataset's grids are
+ * discarded whenever the dataset fires a change event, e.g. after observations
+ * have been shifted or transformed in place. The grids are brought up to date
+ * before each query, a series' grid only being rebuilt when it was discarded
+ * or the series' list of observations or number of points has changed.
+ */
+public class PlotPointIndex implements DatasetChangeListener {
+
+	/**
+	 * A point in a series of a dataset.
+	 */
+	public static class PlotPoint {
+		private final XYDataset dataset;
+		private final int series;
+		private final int item;
+		private final double x;
+		private final double y;
+
+		PlotPoint(XYDataset dataset, int series, int item, double x, double y) {
+			this.dataset = dataset;
+			this.series = series;
+			this.item = item;
+			this.x = x;
+			this.y = y;
+		}
+
+		public XYDataset getDataset() {
+			return dataset;
+		}
+
+		public int getSeries() {
+			return series;
+		}
+
+		public int getItem() {
+			return item;
+		}
+
+		public double getX() {
+			return x;
+		}
+
+		public double getY() {
+			return y;
+		}
+	}
+
+	/**
+	 * Decides whether a point is a candidate.
+	 */
+	public interface PointFilter {
+		boolean accept(XYDataset dataset, int series, int item);
+	}
+
+	// The mean number of points per grid cell.
+	private static final int POINTS_PER_CELL = 4;
+
+	private final List<XYDataset> datasets;
+
+	private final Map<XYDataset, List<SeriesGrid>> grids;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param datasets
+	 *            The datasets whose points are to be indexed.
+	 */
+	public PlotPointIndex(List<XYDataset> datasets) {
+		this.datasets = new ArrayList<XYDataset>(datasets);
+		grids = new IdentityHashMap<XYDataset, List<SeriesGrid>>();
+
+		for (XYDataset dataset : this.datasets) {
+			dataset.addChangeListener(this);
+		}
+	}
+
+	/**
+	 * A dataset's points may have changed without its series' observation
+	 * lists or sizes changing, so discard its grids.
+	 * 
+	 * @see org.jfree.data.general.DatasetChangeListener#datasetChanged(org.jfree.data.general.DatasetChangeEvent)
+	 */
+	@Override
+	public void datasetChanged(DatasetChangeEvent event) {
+		grids.remove(event.getDataset());
+	}
+
+	/**
+	 * Find the point nearest to a position, distance being measured in a
+	 * space in which each axis is scaled, e.g. to pixels, so that the point
+	 * nearest to a mouse position on the screen is found.
+	 * 
+	 * @param x
+	 *            The domain value of the position.
+	 * @param y
+	 *            The range value of the position.
+	 * @param xScale
+	 *            The scale of the domain, e.g. pixels per domain unit.
+	 * @param yScale
+	 *            The scale of the range, e.g. pixels per range unit.
+	 * @param xRange
+	 *            The domain values of candidate points.
+	 * @param yRange
+	 *            The range values of candidate points.
+	 * @param maxDistance
+	 *            The maximum scaled distance of a candidate from the
+	 *            position.
+	 * @param filter
+	 *            Which points are candidates, e.g. those in visible series.
+	 * @return The nearest candidate or null if there is none.
+	 */
+	public PlotPoint nearest(double x, double y, double xScale, double yScale,
+			Range xRange, Range yRange, double maxDistance, PointFilter filter) {
+		update();
+
+		xScale = Math.abs(xScale);
+		yScale = Math.abs(yScale);
+
+		PlotPoint nearest = null;
+		double[] nearestDistSq = { maxDistance * maxDistance };
+
+		for (XYDataset dataset : datasets) {
+			List<SeriesGrid> seriesGrids = grids.get(dataset);
+			for (int series = 0; series < seriesGrids.size(); series++) {
+				int item = seriesGrids.get(series).nearest(x, y, xScale,
+						yScale, xRange, yRange, nearestDistSq, dataset, filter);
+				if (item >= 0) {
+					SeriesGrid grid = seriesGrids.get(series);
+					nearest = new PlotPoint(dataset, series, item,
+							grid.xs[item], grid.ys[item]);
+				}
+			}
+		}
+
+		return nearest;
+	}
+
+	/**
+	 * Find a point of a dataset with the specified range value, e.g. the
+	 * point corresponding to an observation with a known magnitude.
+	 * 
+	 * @param dataset
+	 *            The dataset.
+	 * @param y
+	 *            The range value of the point.
+	 * @param filter
+	 *            Which points with the range value are to be found.
+	 * @return The first such point or null if there is none.
+	 */
+	public PlotPoint find(XYDataset dataset, double y, PointFilter filter) {
+		update();
+
+		PlotPoint point = null;
+
+		List<SeriesGrid> seriesGrids = grids.get(dataset);
+		if (seriesGrids != null) {
+			for (int series = 0; series < seriesGrids.size(); series++) {
+				SeriesGrid grid = seriesGrids.get(series);
+				int item = grid.find(y, dataset, filter);
+				if (item >= 0) {
+					point = new PlotPoint(dataset, series, item,
+							grid.xs[item], grid.ys[item]);
+					break;
+				}
+			}
+		}
+
+		return point;
+	}
+
+	// Helpers
+
+	private void update() {
+		for (XYDataset dataset : datasets) {
+			List<SeriesGrid> seriesGrids = grids.get(dataset);
+			if (seriesGrids == null) {
+				seriesGrids = new ArrayList<SeriesGrid>();
+				grids.put(dataset, seriesGrids);
+			}
+
+			int seriesCount = dataset.getSeriesCount();
+
+			while (seriesGrids.size() > seriesCount) {
+				seriesGrids.remove(seriesGrids.size() - 1);
+			}
+
+			for (int series = 0; series < seriesCount; series++) {
+				Object source = getSource(dataset, series);
+				int n = dataset.getItemCount(series);
+
+				if (series == seriesGrids.size()) {
+					seriesGrids.add(new SeriesGrid(dataset, series, source, n));
+				} else if (!seriesGrids.get(series).isCurrent(source, n)) {
+					seriesGrids.set(series, new SeriesGrid(dataset, series, source, n));
+				}
+			}
+		}
+	}
+
+	// Returns an object whose identity changes when a series' points do.
+	static Object getSource(XYDataset dataset, int series) {
+		Object source = dataset;
+
+		if (dataset instanceof ObservationPlotModel) {
+			source = ((ObservationPlotModel) dataset)
+					.getSeriesNumToObSrcListMap().get(series);
+		}
+
+		return source;
+	}
+
+	/**
+	 * A uniform grid over the points of a series. The items in each cell are
+	 * held contiguously, ordered by cell.
+	 */
+	static class SeriesGrid {
+		private final int series;
+		private final Object source;
+		private final int n;
+
+		final double[] xs;
+		final double[] ys;
+
+		private double minX;
+		private double minY;
+		private double cellWidth;
+		private double cellHeight;
+		private int columns;
+		private int rows;
+
+		// Items ordered by cell and the index in items of each cell's first.
+		private int[] items;
+		private int[] cellStarts;
+
+		SeriesGrid(XYDataset dataset, int series, Object source, int n) {
+			this.series = series;
+			this.source = source;
+			this.n = n;
+
+			xs = new double[n];
+			ys = new double[n];
+
+			minX = Double.POSITIVE_INFINITY;
+			minY = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY;
+			double maxY = Double.NEGATIVE_INFINITY;
+
+			for (int i = 0; i < n; i++) {
+				xs[i] = dataset.getXValue(series, i);
+				ys[i] = dataset.getYValue(series, i);
+				if (isIndexable(i)) {
+					minX = Math.min(minX, xs[i]);
+					maxX = Math.max(maxX, xs[i]);
+					minY = Math.min(minY, ys[i]);
+					maxY = Math.max(maxY, ys[i]);
+				}
+			}
+
+			int cellsPerSide = Math.max(1, (int) Math.sqrt(n / POINTS_PER_CELL));
+			columns = cellsPerSide;
+			rows = cellsPerSide;
+
+			if (minX > maxX) {
+				// No indexable points.
+				minX = minY = 0;
+				maxX = maxY = 1;
+			}
+
+			cellWidth = maxX > minX ? (maxX - minX) / columns : 1;
+			cellHeight = maxY > minY ? (maxY - minY) / rows : 1;
+
+			// Counting sort of items by cell.
+			cellStarts = new int[columns * rows + 1];
+			for (int i = 0; i < n; i++) {
+				if (isIndexable(i)) {
+					cellStarts[cell(column(xs[i]), row(ys[i])) + 1]++;
+				}
+			}
+
+			for (int c = 0; c < columns * rows; c++) {
+				cellStarts[c + 1] += cellStarts[c];
+			}
+
+			items = new int[cellStarts[columns * rows]];
+			int[] next = cellStarts.clone();
+			for (int i = 0; i < n; i++) {
+				if (isIndexable(i)) {
+					items[next[cell(column(xs[i]), row(ys[i]))]++] = i;
+				}
+			}
+		}
+
+		boolean isCurrent(Object source, int n) {
+			return this.source == source && this.n == n;
+		}
+
+		/**
+		 * Search outwards from the position's cell, ring by ring, until no
+		 * unsearched cell can contain a point nearer than the nearest so far.
+		 */
+		int nearest(double x, double y, double xScale, double yScale,
+				Range xRange, Range yRange, double[] nearestDistSq,
+				XYDataset dataset, PointFilter filter) {
+			int nearest = -1;
+
+			int column = column(x);
+			int row = row(y);
+
+			// A point in a cell outside ring r is at least r cells from the
+			// position along one axis.
+			double ringDist = Math.min(cellWidth * xScale, cellHeight * yScale);
+			int maxRing = Math.max(Math.max(column, columns - 1 - column),
+					Math.max(row, rows - 1 - row));
+
+			for (int ring = 0; ring <= maxRing; ring++) {
+				double bound = (ring - 1) * ringDist;
+				if (ring > 1 && bound * bound > nearestDistSq[0]) {
+					break;
+				}
+
+				for (int c = column - ring; c <= column + ring; c++) {
+					if (c < 0 || c >= columns) {
+						continue;
+					}
+
+					boolean edgeColumn = c == column - ring || c == column + ring;
+					// Only the top and bottom cells of inner columns are in
+					// the ring.
+					int step = edgeColumn ? 1 : 2 * ring;
+
+					for (int r = row - ring; r <= row + ring; r += step) {
+						if (r < 0 || r >= rows) {
+							continue;
+						}
+
+						int cell = cell(c, r);
+						for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+							int i = items[k];
+							double dx = (xs[i] - x) * xScale;
+							double dy = (ys[i] - y) * yScale;
+							double distSq = dx * dx + dy * dy;
+							if (distSq <= nearestDistSq[0]
+									&& xRange.contains(xs[i])
+									&& yRange.contains(ys[i])
+									&& filter.accept(dataset, series, i)) {
+								nearestDistSq[0] = distSq;
+								nearest = i;
+							}
+						}
+					}
+				}
+			}
+
+			return nearest;
+		}
+
+		int find(double y, XYDataset dataset, PointFilter filter) {
+			int found = -1;
+
+			if (y >= minY && y <= minY + rows * cellHeight) {
+				int row = row(y);
+				for (int c = 0; c < columns && found < 0; c++) {
+					int cell = cell(c, row);
+					for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+						int i = items[k];
+						if (ys[i] == y && filter.accept(dataset, series, i)) {
+							found = i;
+							break;
+						}
+					}
+				}
+			}
+
+			return found;
+		}
+
+		private boolean isIndexable(int i) {
+			return !Double.isNaN(xs[i]) && !Double.isNaN(ys[i]);
+		}
+
+		private int column(double x) {
+			return clamp((int) Math.floor((x - minX) / cellWidth), columns);
+		}
+
+		private int row(double y) {
+			return clamp((int) Math.floor((y - minY) / cellHeight), rows);
+		}
+
+		private int cell(int column, int row) {
+			return row * columns + column;
+		}
+
+		private static int clamp(int index, int size) {
+			return index < 0 ? 0 : index >= size ? size - 1 : index;
+		}
+	}
+}
@@ -17,22 +17,83 @@
  */
 package org.aavso.tools.vstar.ui.pane.plot;
 
+import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.BitSet;
 
+import org.aavso.tools.vstar.ui.pane.plot.PlotPointIndex.PlotPoint;
 import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYErrorRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * This is VStar's plot data-point renderer.
  * 
  * We subclass XYErrorRenderer in order to be able to plot error bars.<br/>
+ * When very many points are in view, only those selected by a level-of-detail
+ * layer (see PlotLevelOfDetail) are drawn, together with any selected point.<br/>
  * TODO: Should we instead use StatisticalLineAndShapeRenderer (at least for
  * means plot)?
  */
 @SuppressWarnings("serial")
 public class VStarPlotDataRenderer extends XYErrorRenderer {
 
+	private final PlotLevelOfDetail levelOfDetail = new PlotLevelOfDetail();
+
+	// The items to be drawn for the dataset being rendered, by series, or
+	// null if all are to be drawn.
+	private XYDataset selectionDataset;
+	private BitSet[] selection;
+
+	// A point to be drawn regardless of the level of detail.
+	private PlotPoint pinnedPoint;
+
+	/**
+	 * Set a point, e.g. that of the selected observation, to be drawn
+	 * regardless of the level of detail.
+	 * 
+	 * @param point
+	 *            The point, or null if none.
+	 */
+	public void setPinnedPoint(PlotPoint point) {
+		this.pinnedPoint = point;
+	}
+
+	@Override
+	public XYItemRendererState initialise(Graphics2D g2, Rectangle2D dataArea,
+			XYPlot plot, XYDataset dataset, PlotRenderingInfo info) {
+
+		// Series whose points are joined by lines are drawn in full.
+		selectionDataset = dataset;
+		selection = levelOfDetail.select(dataset,
+				series -> isSeriesVisible(series)
+						&& !getItemLineVisible(series, 0), plot
+						.getDomainAxis().getRange(), plot.getRangeAxis()
+						.getRange(), (int) Math.ceil(dataArea.getWidth()),
+				(int) Math.ceil(dataArea.getHeight()));
+
+		return super.initialise(g2, dataArea, plot, dataset, info);
+	}
+
+	@Override
+	public void drawItem(Graphics2D g2, XYItemRendererState state,
+			Rectangle2D dataArea, PlotRenderingInfo info, XYPlot plot,
+			ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset,
+			int series, int item, CrosshairState crosshairState, int pass) {
+
+		if (isDrawn(dataset, series, item)) {
+			super.drawItem(g2, state, dataArea, info, plot, domainAxis,
+					rangeAxis, dataset, series, item, crosshairState, pass);
+		}
+	}
+
 	/**
 	 * Set the size of the series.
 	 * 
@@ -63,4 +124,21 @@ public class VStarPlotDataRenderer extends XYErrorRenderer {
 		
 		return item;
 	}
+
+	// Helpers
+
+	private boolean isDrawn(XYDataset dataset, int series, int item) {
+		boolean drawn = true;
+
+		if (dataset == selectionDataset && selection != null
+				&& series < selection.length && selection[series] != null) {
+			drawn = selection[series].get(item)
+					|| (pinnedPoint != null
+							&& pinnedPoint.getDataset() == dataset
+							&& pinnedPoint.getSeries() == series && pinnedPoint
+							.getItem() == item);
+		}
+
+		return drawn;
+	}
 }
@@ -0,0 +1,246 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.resources;
+
+import java.io.File;
+
+import org.aavso.tools.vstar.plugin.IPlugin;
+import org.aavso.tools.vstar.plugin.InputType;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+
+/**
+ * A description of a plugin sufficient to add it to a menu, from which the
+ * plugin itself is created on first use. The descriptor of an external plugin
+ * is read from the plugin index unless its jar has changed since the index was
+ * written.
+ * 
+ * @param <P>
+ *            The plugin's category, e.g. PeriodAnalysisPluginBase.
+ */
+public final class PluginDescriptor<P extends IPlugin> {
+
+	private final Class<? extends IPlugin> category;
+	private final String className;
+	private final String displayName;
+	private final String group;
+	private final InputType inputType;
+
+	// The plugin's jar, or null for a plugin internal to VStar.
+	private final File jarFile;
+	private final long jarLength;
+	private final long jarLastModified;
+	private final String checksum;
+
+	private volatile P plugin;
+	private boolean failed;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param category
+	 *            The plugin's category.
+	 * @param className
+	 *            The plugin's qualified class name.
+	 * @param displayName
+	 *            The plugin's display name.
+	 * @param group
+	 *            The plugin's group; may be null.
+	 * @param inputType
+	 *            The input type of an observation source plugin, otherwise
+	 *            null.
+	 * @param jarFile
+	 *            The plugin's jar, or null for an internal plugin.
+	 * @param jarLength
+	 *            The length of the jar when its checksum was computed.
+	 * @param jarLastModified
+	 *            The modification time of the jar when its checksum was
+	 *            computed.
+	 * @param checksum
+	 *            The jar's checksum.
+	 * @param plugin
+	 *            The plugin, if it has already been created, otherwise null.
+	 */
+	PluginDescriptor(Class<? extends IPlugin> category, String className,
+			String displayName, String group, InputType inputType,
+			File jarFile, long jarLength, long jarLastModified,
+			String checksum, P plugin) {
+		this.category = category;
+		this.className = className;
+		this.displayName = displayName;
+		this.group = group;
+		this.inputType = inputType;
+		this.jarFile = jarFile;
+		this.jarLength = jarLength;
+		this.jarLastModified = jarLastModified;
+		this.checksum = checksum;
+		this.plugin = plugin;
+	}
+
+	/**
+	 * Return a descriptor of a plugin that has already been created, e.g. one
+	 * internal to VStar.
+	 * 
+	 * @param plugin
+	 *            The plugin.
+	 * @param jarFile
+	 *            The plugin's jar, or null for an internal plugin.
+	 * @param checksum
+	 *            The jar's checksum, or null for an internal plugin.
+	 * @return The descriptor.
+	 */
+	static <P extends IPlugin> PluginDescriptor<P> of(P plugin, File jarFile,
+			String checksum) {
+		Class<? extends IPlugin> category = PluginIndex.categoryOf(plugin);
+
+		InputType inputType = null;
+		if (plugin instanceof ObservationSourcePluginBase) {
+			inputType = ((ObservationSourcePluginBase) plugin)
+					.getInputType();
+		}
+
+		long length = jarFile != null ? jarFile.length() : 0;
+		long lastModified = jarFile != null ? jarFile.lastModified() : 0;
+
+		return new PluginDescriptor<P>(category, plugin.getClass().getName(),
+				plugin.getDisplayName(), plugin.getGroup(), inputType, jarFile,
+				length, lastModified, checksum, plugin);
+	}
+
+	/**
+	 * Return a descriptor of an internal plugin.
+	 * 
+	 * @param plugin
+	 *            The plugin.
+	 * @return The descriptor.
+	 */
+	static <P extends IPlugin> PluginDescriptor<P> of(P plugin) {
+		return of(plugin, null, null);
+	}
+
+	/**
+	 * Return a copy of this descriptor for the same jar content with a new
+	 * length and modification time, e.g. after the jar was copied.
+	 */
+	PluginDescriptor<P> withJar(File jarFile) {
+		return new PluginDescriptor<P>(category, className, displayName, group,
+				inputType, jarFile, jarFile.length(), jarFile.lastModified(),
+				checksum, plugin);
+	}
+
+	/**
+	 * Has the specified jar's length or modification time changed since this
+	 * descriptor was created?
+	 */
+	boolean isStale(File jarFile) {
+		return jarFile.length() != jarLength
+				|| jarFile.lastModified() != jarLastModified;
+	}
+
+	/**
+	 * Return the plugin, creating it if this is the first use.
+	 * 
+	 * @return The plugin, or null if it could not be created, in which case
+	 *         the error has been reported.
+	 */
+	@SuppressWarnings("unchecked")
+	public P getPlugin() {
+		P result = plugin;
+
+		if (result == null) {
+			synchronized (this) {
+				if (plugin == null && !failed) {
+					plugin = (P) PluginLoader.createPlugin(this);
+					failed = plugin == null;
+				}
+				result = plugin;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return Has the plugin been created?
+	 */
+	public boolean isLoaded() {
+		return plugin != null;
+	}
+
+	/**
+	 * @return The plugin's category, e.g. PeriodAnalysisPluginBase.
+	 */
+	public Class<? extends IPlugin> getCategory() {
+		return category;
+	}
+
+	/**
+	 * @return The plugin's qualified class name.
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * @return The plugin's display name.
+	 */
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	/**
+	 * @return The plugin's group; may be null.
+	 */
+	public String getGroup() {
+		return group;
+	}
+
+	/**
+	 * @return The input type of an observation source plugin, otherwise null.
+	 */
+	public InputType getInputType() {
+		return inputType;
+	}
+
+	/**
+	 * @return The plugin's jar, or null for a plugin internal to VStar.
+	 */
+	public File getJarFile() {
+		return jarFile;
+	}
+
+	long getJarLength() {
+		return jarLength;
+	}
+
+	long getJarLastModified() {
+		return jarLastModified;
+	}
+
+	/**
+	 * @return The checksum of the plugin's jar, or null for a plugin internal
+	 *         to VStar.
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+
+	@Override
+	public String toString() {
+		return displayName;
+	}
+}
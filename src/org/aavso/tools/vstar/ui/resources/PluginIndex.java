@@ -0,0 +1,293 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.resources;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.aavso.tools.vstar.plugin.CustomFilterPluginBase;
+import org.aavso.tools.vstar.plugin.GeneralToolPluginBase;
+import org.aavso.tools.vstar.plugin.IPlugin;
+import org.aavso.tools.vstar.plugin.InputType;
+import org.aavso.tools.vstar.plugin.ModelCreatorPluginBase;
+import org.aavso.tools.vstar.plugin.ObservationSinkPluginBase;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+import org.aavso.tools.vstar.plugin.ObservationToolPluginBase;
+import org.aavso.tools.vstar.plugin.ObservationTransformerPluginBase;
+import org.aavso.tools.vstar.plugin.period.PeriodAnalysisPluginBase;
+
+/**
+ * A persistent index of plugin jars, recording for each jar the plugin class
+ * it contains, the plugin's category, the details needed to add the plugin to
+ * a menu and the jar's checksum, so that plugins need not be loaded to build
+ * menus. An entry is trusted while its jar's length and modification time are
+ * unchanged; otherwise the jar's checksum is compared with the entry's.<br/>
+ * The index is a text file with one tab-separated line per jar.
+ */
+class PluginIndex {
+
+	private static final String HEADER = "# VStar plugin index 1";
+
+	private static final String NONE = "-";
+
+	/**
+	 * The plugin categories, each being a plugin base class.
+	 */
+	static final List<Class<? extends IPlugin>> CATEGORIES = Arrays
+			.<Class<? extends IPlugin>> asList(PeriodAnalysisPluginBase.class,
+					ModelCreatorPluginBase.class,
+					ObservationToolPluginBase.class,
+					GeneralToolPluginBase.class,
+					ObservationTransformerPluginBase.class,
+					CustomFilterPluginBase.class,
+					ObservationSourcePluginBase.class,
+					ObservationSinkPluginBase.class);
+
+	private final File file;
+
+	// A mapping from jar name to descriptor.
+	private final Map<String, PluginDescriptor<?>> descriptors;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            The index file, which need not exist.
+	 */
+	PluginIndex(File file) {
+		this.file = file;
+		descriptors = new TreeMap<String, PluginDescriptor<?>>();
+	}
+
+	/**
+	 * Return the category of a plugin.
+	 * 
+	 * @param plugin
+	 *            The plugin.
+	 * @return The category.
+	 * @throws ClassCastException
+	 *             if the plugin is not of a known category.
+	 */
+	static Class<? extends IPlugin> categoryOf(IPlugin plugin) {
+		for (Class<? extends IPlugin> category : CATEGORIES) {
+			if (category.isInstance(plugin)) {
+				return category;
+			}
+		}
+
+		throw new ClassCastException(plugin.getClass().getName()
+				+ " is not a plugin of a known category");
+	}
+
+	/**
+	 * Return the SHA-256 checksum of a file as a hexadecimal string.
+	 * 
+	 * @param file
+	 *            The file.
+	 * @return The checksum.
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 */
+	static String checksum(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+
+		byte[] buffer = new byte[8192];
+		try (InputStream in = new FileInputStream(file)) {
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				digest.update(buffer, 0, n);
+			}
+		}
+
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+
+		return hex.toString();
+	}
+
+	/**
+	 * Read the index file, if it exists. An index with a different header,
+	 * e.g. one written by a later version of VStar, or that cannot be read is
+	 * ignored, as are malformed entries and entries of unknown category.
+	 * 
+	 * @param pluginDir
+	 *            The directory containing the indexed jars.
+	 */
+	void read(File pluginDir) {
+		descriptors.clear();
+
+		if (!file.isFile()) {
+			return;
+		}
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), StandardCharsets.UTF_8))) {
+
+			if (!HEADER.equals(reader.readLine())) {
+				return;
+			}
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+				PluginDescriptor<?> descriptor = parse(pluginDir, line);
+				if (descriptor != null) {
+					descriptors.put(descriptor.getJarFile().getName(),
+							descriptor);
+				}
+			}
+		} catch (IOException e) {
+			descriptors.clear();
+		}
+	}
+
+	/**
+	 * Write the index file, replacing it atomically where possible.
+	 * 
+	 * @throws IOException
+	 *             if the index cannot be written.
+	 */
+	void write() throws IOException {
+		File tmp = new File(file.getPath() + ".tmp");
+
+		try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+				Files.newOutputStream(tmp.toPath()), StandardCharsets.UTF_8))) {
+			writer.println(HEADER);
+			for (PluginDescriptor<?> descriptor : descriptors.values()) {
+				writer.println(format(descriptor));
+			}
+			if (writer.checkError()) {
+				throw new IOException("Unable to write " + tmp);
+			}
+		}
+
+		try {
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Return the descriptor for a jar.
+	 * 
+	 * @param jarName
+	 *            The jar's name.
+	 * @return The descriptor, or null if the jar is not indexed.
+	 */
+	PluginDescriptor<?> get(String jarName) {
+		return descriptors.get(jarName);
+	}
+
+	/**
+	 * Add or replace the descriptor for a jar.
+	 */
+	void put(PluginDescriptor<?> descriptor) {
+		descriptors.put(descriptor.getJarFile().getName(), descriptor);
+	}
+
+	/**
+	 * Remove the entries for jars other than those specified, e.g. jars that
+	 * have been deleted.
+	 * 
+	 * @param jarNames
+	 *            The names of the jars to be retained.
+	 * @return Whether any entries were removed.
+	 */
+	boolean retainAll(Collection<String> jarNames) {
+		return descriptors.keySet().retainAll(jarNames);
+	}
+
+	// Helpers
+
+	private static String format(PluginDescriptor<?> descriptor) {
+		InputType inputType = descriptor.getInputType();
+
+		return String.join("\t", descriptor.getJarFile().getName(),
+				Long.toString(descriptor.getJarLength()),
+				Long.toString(descriptor.getJarLastModified()),
+				descriptor.getChecksum(), descriptor.getClassName(),
+				descriptor.getCategory().getSimpleName(),
+				inputType == null ? NONE : inputType.name(),
+				descriptor.getGroup() == null ? NONE
+						: clean(descriptor.getGroup()),
+				clean(descriptor.getDisplayName()));
+	}
+
+	private static PluginDescriptor<?> parse(File pluginDir, String line) {
+		String[] fields = line.split("\t", -1);
+
+		if (fields.length != 9) {
+			return null;
+		}
+
+		try {
+			Class<? extends IPlugin> category = null;
+			for (Class<? extends IPlugin> candidate : CATEGORIES) {
+				if (candidate.getSimpleName().equals(fields[5])) {
+					category = candidate;
+				}
+			}
+
+			if (category == null) {
+				return null;
+			}
+
+			InputType inputType = NONE.equals(fields[6]) ? null : InputType
+					.valueOf(fields[6]);
+			String group = NONE.equals(fields[7]) ? null : fields[7];
+
+			return new PluginDescriptor<IPlugin>(category, fields[4],
+					fields[8], group, inputType,
+					new File(pluginDir, fields[0]), Long.parseLong(fields[1]),
+					Long.parseLong(fields[2]), fields[3], null);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	// Tabs and line breaks would break an entry's line.
+	private static String clean(String str) {
+		return str == null ? "" : str.replaceAll("[\t\r\n]", " ");
+	}
+}
@@ -24,7 +24,12 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.aavso.tools.vstar.plugin.CustomFilterPluginBase;
 import org.aavso.tools.vstar.plugin.GeneralToolPluginBase;
@@ -48,78 +53,122 @@ import org.aavso.tools.vstar.plugin.period.impl.WeightedWaveletZTransformWithFre
 import org.aavso.tools.vstar.plugin.period.impl.WeightedWaveletZTransformWithPeriodRangePlugin;
 import org.aavso.tools.vstar.ui.VStar;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
+import org.aavso.tools.vstar.util.CancellationToken;
+import org.aavso.tools.vstar.util.ComputeService;
 
 /**
- * This class loads VStar plugins.
+ * This class loads VStar plugins.<br/>
+ * Plugin jars are described by a persistent index (see PluginIndex) so that
+ * menus can be built without opening jars, and each external plugin is
+ * created on first use via its descriptor. Only jars that are new or have
+ * changed since the index was written are opened at startup; they are
+ * verified in parallel in the background, and the descriptor lists wait for
+ * this to complete.
  */
 public class PluginLoader {
 
 	public final static String VSTAR_PLUGINS_DIR_NAME = "vstar_plugins";
 	public final static String VSTAR_PLUGIN_LIBS_DIR_NAME = "vstar_plugin_libs";
+	public final static String VSTAR_PLUGIN_INDEX_FILE_NAME = "vstar_plugin_index.txt";
 
-	// List to store plugins, if any exist.
-	private static List<IPlugin> plugins = new ArrayList<IPlugin>();
-	private static List<URLClassLoader> pluginLoaders = new ArrayList<URLClassLoader>();	
+	// Descriptors of external plugins, if any exist, in jar name order.
+	private static volatile List<PluginDescriptor<?>> plugins = Collections
+			.emptyList();
+	private static List<URLClassLoader> pluginLoaders = Collections
+			.synchronizedList(new ArrayList<URLClassLoader>());
+
+	// Libraries (as jars) on which plugins may be dependent.
+	private static volatile List<URL> depLibs = Collections.emptyList();
+
+	// Completion of the verification of new and changed jars.
+	private static volatile Future<?> pluginsVerified = CompletableFuture
+			.completedFuture(null);
+
+	// Errors that occurred during verification, to be reported once it is
+	// complete.
+	private static List<String> verificationErrors = new ArrayList<String>();
 
 	/**
-	 * Return a list of Period Analysis plugins, whether internal to VStar or
-	 * dynamically loaded.
+	 * Return a list of Period Analysis plugin descriptors, whether internal to
+	 * VStar or dynamically loaded.
 	 */
-	public static List<PeriodAnalysisPluginBase> getPeriodAnalysisPlugins() {
-		List<PeriodAnalysisPluginBase> periodAnalysisPlugins = new ArrayList<PeriodAnalysisPluginBase>();
+	public static List<PluginDescriptor<PeriodAnalysisPluginBase>> getPeriodAnalysisPluginDescriptors() {
+		List<PluginDescriptor<PeriodAnalysisPluginBase>> periodAnalysisPlugins = new ArrayList<PluginDescriptor<PeriodAnalysisPluginBase>>();
 
 		// First, add in-built DC DFT and WWZ plugins.
-		periodAnalysisPlugins.add(new DcDftStandardScanPeriodAnalysisPlugin());
-		periodAnalysisPlugins
-				.add(new DcDftFrequencyRangePeriodAnalysisPlugin());
-		periodAnalysisPlugins.add(new DcDftPeriodRangePeriodAnalysisPlugin());
+		periodAnalysisPlugins.add(PluginDescriptor.of(new DcDftStandardScanPeriodAnalysisPlugin()));
+		periodAnalysisPlugins.add(PluginDescriptor.of(new DcDftFrequencyRangePeriodAnalysisPlugin()));
+		periodAnalysisPlugins.add(PluginDescriptor.of(new DcDftPeriodRangePeriodAnalysisPlugin()));
 
-		periodAnalysisPlugins
-				.add(new WeightedWaveletZTransformWithFrequencyRangePlugin());
-		periodAnalysisPlugins
-				.add(new WeightedWaveletZTransformWithPeriodRangePlugin());
+		periodAnalysisPlugins.add(PluginDescriptor.of(new WeightedWaveletZTransformWithFrequencyRangePlugin()));
+		periodAnalysisPlugins.add(PluginDescriptor.of(new WeightedWaveletZTransformWithPeriodRangePlugin()));
 
 		// Next, add all external period analysis plugins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof PeriodAnalysisPluginBase) {
-				periodAnalysisPlugins.add((PeriodAnalysisPluginBase) plugin);
-			}
-		}
+		addExternalPluginDescriptors(PeriodAnalysisPluginBase.class,
+				periodAnalysisPlugins);
 
 		return periodAnalysisPlugins;
 	}
 
 	/**
-	 * Return a list of Model Creator plugins, whether internal to VStar or
+	 * Return a list of Period Analysis plugins, whether internal to VStar or
 	 * dynamically loaded.
 	 */
-	public static List<ModelCreatorPluginBase> getModelCreatorPlugins() {
-		List<ModelCreatorPluginBase> modelCreatorPlugins = new ArrayList<ModelCreatorPluginBase>();
+	public static List<PeriodAnalysisPluginBase> getPeriodAnalysisPlugins() {
+		return getPlugins(getPeriodAnalysisPluginDescriptors());
+	}
+
+	/**
+	 * Return a list of Model Creator plugin descriptors, whether internal to
+	 * VStar or dynamically loaded.
+	 */
+	public static List<PluginDescriptor<ModelCreatorPluginBase>> getModelCreatorPluginDescriptors() {
+		List<PluginDescriptor<ModelCreatorPluginBase>> modelCreatorPlugins = new ArrayList<PluginDescriptor<ModelCreatorPluginBase>>();
 
 		// First, add in-built polynomial fit plugin.
-		modelCreatorPlugins.add(new ApacheCommonsPolynomialFitCreatorPlugin());
+		modelCreatorPlugins.add(PluginDescriptor.of(new ApacheCommonsPolynomialFitCreatorPlugin()));
 
 		// Next, add all external model creator plugins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ModelCreatorPluginBase) {
-				modelCreatorPlugins.add((ModelCreatorPluginBase) plugin);
-			}
-		}
+		addExternalPluginDescriptors(ModelCreatorPluginBase.class,
+				modelCreatorPlugins);
 
 		return modelCreatorPlugins;
 	}
 
+	/**
+	 * Return a list of Model Creator plugins, whether internal to VStar or
+	 * dynamically loaded.
+	 */
+	public static List<ModelCreatorPluginBase> getModelCreatorPlugins() {
+		return getPlugins(getModelCreatorPluginDescriptors());
+	}
+
+	/**
+	 * Return a list of VStar Observation Tool plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationToolPluginBase>> getObservationToolPluginDescriptors() {
+		List<PluginDescriptor<ObservationToolPluginBase>> toolPlugins = new ArrayList<PluginDescriptor<ObservationToolPluginBase>>();
+
+		addExternalPluginDescriptors(ObservationToolPluginBase.class,
+				toolPlugins);
+
+		return toolPlugins;
+	}
+
 	/**
 	 * Return a list of VStar Observation Tool plugins.
 	 */
 	public static List<ObservationToolPluginBase> getObservationToolPlugins() {
-		List<ObservationToolPluginBase> toolPlugins = new ArrayList<ObservationToolPluginBase>();
+		return getPlugins(getObservationToolPluginDescriptors());
+	}
 
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationToolPluginBase) {
-				toolPlugins.add((ObservationToolPluginBase) plugin);
-			}
-		}
+	/**
+	 * Return a list of General VStar Tool plugin descriptors.
+	 */
+	public static List<PluginDescriptor<GeneralToolPluginBase>> getGeneralToolPluginDescriptors() {
+		List<PluginDescriptor<GeneralToolPluginBase>> toolPlugins = new ArrayList<PluginDescriptor<GeneralToolPluginBase>>();
+
+		addExternalPluginDescriptors(GeneralToolPluginBase.class, toolPlugins);
 
 		return toolPlugins;
 	}
@@ -128,96 +177,127 @@ public class PluginLoader {
 	 * Return a list of General VStar Tool plugins.
 	 */
 	public static List<GeneralToolPluginBase> getGeneralToolPlugins() {
-		List<GeneralToolPluginBase> toolPlugins = new ArrayList<GeneralToolPluginBase>();
+		return getPlugins(getGeneralToolPluginDescriptors());
+	}
 
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof GeneralToolPluginBase) {
-				toolPlugins.add((GeneralToolPluginBase) plugin);
-			}
-		}
+	/**
+	 * Return a list of VStar Observation Transformer plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationTransformerPluginBase>> getObservationTransformerPluginDescriptors() {
+		List<PluginDescriptor<ObservationTransformerPluginBase>> transformerPlugins = new ArrayList<PluginDescriptor<ObservationTransformerPluginBase>>();
 
-		return toolPlugins;
+		addExternalPluginDescriptors(ObservationTransformerPluginBase.class,
+				transformerPlugins);
+
+		return transformerPlugins;
 	}
 
 	/**
 	 * Return a list of VStar Observation Transformer plugins.
 	 */
 	public static List<ObservationTransformerPluginBase> getObservationTransformerPlugins() {
-		List<ObservationTransformerPluginBase> transformerPlugins = new ArrayList<ObservationTransformerPluginBase>();
-
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationTransformerPluginBase) {
-				transformerPlugins
-						.add((ObservationTransformerPluginBase) plugin);
-			}
-		}
-
-		return transformerPlugins;
+		return getPlugins(getObservationTransformerPluginDescriptors());
 	}
 
 	/**
-	 * Return a list of VStar Custom Filter plugins.
+	 * Return a list of VStar Custom Filter plugin descriptors.
 	 */
-	public static List<CustomFilterPluginBase> getCustomFilterPlugins() {
-		List<CustomFilterPluginBase> customFilterPlugins = new ArrayList<CustomFilterPluginBase>();
+	public static List<PluginDescriptor<CustomFilterPluginBase>> getCustomFilterPluginDescriptors() {
+		List<PluginDescriptor<CustomFilterPluginBase>> customFilterPlugins = new ArrayList<PluginDescriptor<CustomFilterPluginBase>>();
 
 		// First, add the VeLa filter plug-in.
-		customFilterPlugins.add(new VeLaFilterPlugin());
+		customFilterPlugins.add(PluginDescriptor.of(new VeLaFilterPlugin()));
 
 		// Next, add all external filter plug-ins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof CustomFilterPluginBase) {
-				customFilterPlugins.add((CustomFilterPluginBase) plugin);
-			}
-		}
+		addExternalPluginDescriptors(CustomFilterPluginBase.class,
+				customFilterPlugins);
 
 		return customFilterPlugins;
 	}
 
 	/**
-	 * Return a list of VStar Observation Source plugins.
+	 * Return a list of VStar Custom Filter plugins.
 	 */
-	public static List<ObservationSourcePluginBase> getObservationSourcePlugins() {
-		List<ObservationSourcePluginBase> obSourcePlugins = new ArrayList<ObservationSourcePluginBase>();
+	public static List<CustomFilterPluginBase> getCustomFilterPlugins() {
+		return getPlugins(getCustomFilterPluginDescriptors());
+	}
+
+	/**
+	 * Return a list of VStar Observation Source plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationSourcePluginBase>> getObservationSourcePluginDescriptors() {
+		List<PluginDescriptor<ObservationSourcePluginBase>> obSourcePlugins = new ArrayList<PluginDescriptor<ObservationSourcePluginBase>>();
 
 		// First, add AAVSO observation reader plug-ins.
-		obSourcePlugins.add(new AIDWebServiceCSV2ObservationSourcePlugin());
-		obSourcePlugins.add(new TextFormatObservationSourcePlugin());
+		obSourcePlugins.add(PluginDescriptor.of(new AIDWebServiceCSV2ObservationSourcePlugin()));
+		obSourcePlugins.add(PluginDescriptor.of(new TextFormatObservationSourcePlugin()));
 
 		// Next, add all external observation source plug-ins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationSourcePluginBase) {
-				obSourcePlugins.add((ObservationSourcePluginBase) plugin);
-			}
-		}
+		addExternalPluginDescriptors(ObservationSourcePluginBase.class,
+				obSourcePlugins);
 
 		return obSourcePlugins;
 	}
 
 	/**
-	 * Return a list of VStar Observation Sink plugins.
+	 * Return a list of VStar Observation Source plugins.
 	 */
-	public static List<ObservationSinkPluginBase> getObservationSinkPlugins() {
-		List<ObservationSinkPluginBase> obSinkPlugins = new ArrayList<ObservationSinkPluginBase>();
+	public static List<ObservationSourcePluginBase> getObservationSourcePlugins() {
+		return getPlugins(getObservationSourcePluginDescriptors());
+	}
+
+	/**
+	 * Return a list of VStar Observation Sink plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationSinkPluginBase>> getObservationSinkPluginDescriptors() {
+		List<PluginDescriptor<ObservationSinkPluginBase>> obSinkPlugins = new ArrayList<PluginDescriptor<ObservationSinkPluginBase>>();
 
 		// First, add simple and AAVSO download text format plug-ins.
-		obSinkPlugins.add(new SimpleFormatObservationSinkPlugin());
-		obSinkPlugins.add(new DownloadFormatObservationSinkPlugin());
+		obSinkPlugins.add(PluginDescriptor.of(new SimpleFormatObservationSinkPlugin()));
+		obSinkPlugins.add(PluginDescriptor.of(new DownloadFormatObservationSinkPlugin()));
 
 		// Next, add all external observation sink plug-ins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationSinkPluginBase) {
-				obSinkPlugins.add((ObservationSinkPluginBase) plugin);
-			}
-		}
+		addExternalPluginDescriptors(ObservationSinkPluginBase.class,
+				obSinkPlugins);
 
 		return obSinkPlugins;
 	}
-	
+
 	/**
-	 * Load all VStar plugins and create an instance of each.
+	 * Return a list of VStar Observation Sink plugins.
+	 */
+	public static List<ObservationSinkPluginBase> getObservationSinkPlugins() {
+		return getPlugins(getObservationSinkPluginDescriptors());
+	}
+
+	/**
+	 * Locate VStar plugins in the plugins directory in the user's home
+	 * directory and describe each, via the plugin index where possible.
 	 */
 	public static void loadPlugins() {
+		String home = System.getProperty("user.home");
+
+		loadPlugins(new File(home, VSTAR_PLUGINS_DIR_NAME), new File(home,
+				VSTAR_PLUGIN_LIBS_DIR_NAME), new File(home,
+				VSTAR_PLUGIN_INDEX_FILE_NAME));
+	}
+
+	/**
+	 * Locate VStar plugins and describe each, via the plugin index where
+	 * possible. Jars that are not indexed or whose length or modification
+	 * time has changed are verified against the index's checksums in parallel
+	 * in the background; a plugin is created to describe it only if its jar's
+	 * content has changed.
+	 * 
+	 * @param pluginPath
+	 *            The directory containing plugin jars.
+	 * @param pluginLibPath
+	 *            The directory containing jars on which plugins may depend.
+	 * @param indexFile
+	 *            The plugin index file.
+	 */
+	public static void loadPlugins(File pluginPath, File pluginLibPath,
+			File indexFile) {
 
 		FilenameFilter jarFilter = new FilenameFilter() {
 			public boolean accept(File dir, String name) {
@@ -227,15 +307,12 @@ public class PluginLoader {
 
 		// Locate additional libraries (as jars) on which plugins may be
 		// dependent.
-		List<URL> depLibs = new ArrayList<URL>();
-
-		File pluginLibPath = new File(System.getProperty("user.home")
-				+ File.separator + VSTAR_PLUGIN_LIBS_DIR_NAME);
+		List<URL> libs = new ArrayList<URL>();
 
 		if (pluginLibPath.exists() && pluginLibPath.isDirectory()) {
 			for (File file : pluginLibPath.listFiles(jarFilter)) {
 				try {
-					depLibs.add(file.toURI().toURL());
+					libs.add(file.toURI().toURL());
 				} catch (MalformedURLException e) {
 					MessageBox.showErrorDialog(
 							null,
@@ -250,70 +327,263 @@ public class PluginLoader {
 			}
 		}
 
-		// Locate and store plugins, if any exist.
+		depLibs = libs;
+
+		// Locate plugins, if any exist, and find those whose index entries
+		// may be stale.
 
-		File pluginPath = new File(System.getProperty("user.home")
-				+ File.separator + VSTAR_PLUGINS_DIR_NAME);
+		final PluginIndex index = new PluginIndex(indexFile);
+		index.read(pluginPath);
+
+		final List<PluginDescriptor<?>> current = new ArrayList<PluginDescriptor<?>>();
+		final List<File> stale = new ArrayList<File>();
+		List<String> jarNames = new ArrayList<String>();
 
 		if (pluginPath.exists() && pluginPath.isDirectory()) {
-			for (File file : pluginPath.listFiles(jarFilter)) {
-				// Note: Currently assume the jar file name is the same
-				// as the qualified class to be loaded. Instead, we could
-				// use reflection to find the class implementing one or more
-				// IPlugin methods.
-				String qualifiedClassName = file.getName().replace(".jar", "");
+			File[] files = pluginPath.listFiles(jarFilter);
+			Arrays.sort(files);
+
+			for (File file : files) {
+				jarNames.add(file.getName());
+
+				PluginDescriptor<?> descriptor = index.get(file.getName());
+				if (descriptor != null && !descriptor.isStale(file)) {
+					current.add(descriptor);
+				} else {
+					stale.add(file);
+				}
+			}
+		}
+
+		final boolean removed = index.retainAll(jarNames);
+
+		if (stale.isEmpty()) {
+			plugins = current;
+			pluginsVerified = CompletableFuture.completedFuture(null);
+			if (removed) {
+				writeIndex(index);
+			}
+		} else {
+			// Don't show errors while verifying, since the event dispatch
+			// thread may be waiting for verification to complete in order
+			// to build menus.
+			pluginsVerified = ComputeService.getInstance().submit(
+					new CancellationToken(), () -> {
+						final PluginDescriptor<?>[] verified = new PluginDescriptor<?>[stale
+								.size()];
+
+						ComputeService.getInstance().forEachIndex(
+								CancellationToken.current(), stale.size(),
+								i -> {
+									File file = stale.get(i);
+									verified[i] = verify(file,
+											index.get(file.getName()));
+								});
+
+						List<PluginDescriptor<?>> all = new ArrayList<PluginDescriptor<?>>(
+								current);
+
+						for (PluginDescriptor<?> descriptor : verified) {
+							if (descriptor != null) {
+								index.put(descriptor);
+								all.add(descriptor);
+							}
+						}
+
+						Collections.sort(all, (a, b) -> a.getJarFile()
+								.compareTo(b.getJarFile()));
+						plugins = all;
+
+						writeIndex(index);
+
+						return null;
+					});
+		}
+	}
+
+	/**
+	 * Wait for any jars being verified in the background to be described.
+	 */
+	public static void awaitPlugins() {
+		try {
+			pluginsVerified.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			addVerificationError("An error occurred during plugin loading: "
+					+ e.getCause().getLocalizedMessage());
+		}
+
+		List<String> errors;
+		synchronized (verificationErrors) {
+			errors = new ArrayList<String>(verificationErrors);
+			verificationErrors.clear();
+		}
+
+		for (String error : errors) {
+			MessageBox.showErrorDialog(null, "Plugin Loader", error);
+		}
+	}
+
+	public static void closePluginLoaders() {
+		// Max: closing ULRClassLoader:
+		// 	https://docs.oracle.com/javase/8/docs/technotes/guides/net/ClassLoader.html
+		boolean closePluginError = false;
+		synchronized (pluginLoaders) {
+			for (int i = pluginLoaders.size() - 1; i >= 0; i--) {
+				URLClassLoader cl = pluginLoaders.get(i);
 				try {
-					loadPluginClass(file, qualifiedClassName,	depLibs);
-				} catch (MalformedURLException e) {
-					MessageBox.showErrorDialog(
-							null,
-							"Plugin Loader",
-							"Invalid plugin jar file: "
-									+ file.getAbsolutePath());
-				} catch (ClassNotFoundException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							"Cannot load class: " + qualifiedClassName);
-				} catch (IllegalAccessException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							"Cannot access a parameterless constructor of: "
-									+ qualifiedClassName);
-				} catch (InstantiationException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							"Cannot create an instance of: "
-									+ qualifiedClassName);
-				} catch (ClassCastException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							qualifiedClassName
-									+ " is not an instance of IPlugin");
-				} catch (NoClassDefFoundError e) {
-					MessageBox.showErrorDialog(
-							null,
-							"Plugin Loader",
-							"A class required by " + qualifiedClassName
-									+ " was not found: "
-									+ e.getLocalizedMessage());
-				} catch (Throwable t) {
-					MessageBox.showErrorDialog(
-							null,
-							"Plugin Loader",
-							"An error occurred during plugin loading: "
-									+ t.getLocalizedMessage());
+					cl.close();
+					pluginLoaders.remove(i);
+				} catch (IOException ex) {
+					closePluginError = true;
 				}
 			}
 		}
+		if (closePluginError) {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					"Error closing ClassLoader");
+		}
+	}
+
+	/**
+	 * Create the plugin described by an external plugin descriptor.
+	 * 
+	 * @param descriptor
+	 *            The descriptor.
+	 * @return The plugin, or null if it could not be created, in which case
+	 *         the error has been reported.
+	 */
+	static IPlugin createPlugin(PluginDescriptor<?> descriptor) {
+		IPlugin plugin = null;
+
+		try {
+			plugin = loadPluginClass(descriptor.getJarFile(),
+					descriptor.getClassName());
+
+			if (!descriptor.getCategory().isInstance(plugin)) {
+				throw new ClassCastException();
+			}
+		} catch (Throwable t) {
+			plugin = null;
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					loadErrorMessage(descriptor.getJarFile(),
+							descriptor.getClassName(), t));
+		}
+
+		return plugin;
+	}
+
+	// Helpers
+
+	// Add the descriptors of external plugins of the specified category to a
+	// list.
+	@SuppressWarnings("unchecked")
+	private static <P extends IPlugin> void addExternalPluginDescriptors(
+			Class<P> category, List<PluginDescriptor<P>> descriptors) {
+		awaitPlugins();
+
+		for (PluginDescriptor<?> descriptor : plugins) {
+			if (category.isAssignableFrom(descriptor.getCategory())) {
+				descriptors.add((PluginDescriptor<P>) descriptor);
+			}
+		}
+	}
+
+	// Return the plugins described by a list of descriptors, creating them if
+	// necessary and omitting any that cannot be created.
+	private static <P extends IPlugin> List<P> getPlugins(
+			List<PluginDescriptor<P>> descriptors) {
+		List<P> plugins = new ArrayList<P>();
+
+		for (PluginDescriptor<P> descriptor : descriptors) {
+			P plugin = descriptor.getPlugin();
+			if (plugin != null) {
+				plugins.add(plugin);
+			}
+		}
+
+		return plugins;
+	}
+
+	// Return a descriptor for a jar that is not indexed or whose index entry
+	// may be stale, or null if the jar's plugin cannot be loaded.
+	private static PluginDescriptor<?> verify(File file,
+			PluginDescriptor<?> previous) {
+		// Note: Currently assume the jar file name is the same
+		// as the qualified class to be loaded. Instead, we could
+		// use reflection to find the class implementing one or more
+		// IPlugin methods.
+		String qualifiedClassName = file.getName().replace(".jar", "");
+
+		try {
+			String checksum = PluginIndex.checksum(file);
+
+			if (previous != null && checksum.equals(previous.getChecksum())) {
+				// The jar's content is unchanged, e.g. it was copied.
+				return previous.withJar(file);
+			} else {
+				return PluginDescriptor.of(
+						loadPluginClass(file, qualifiedClassName), file,
+						checksum);
+			}
+		} catch (Throwable t) {
+			addVerificationError(loadErrorMessage(file, qualifiedClassName, t));
+			return null;
+		}
+	}
+
+	private static String loadErrorMessage(File file,
+			String qualifiedClassName, Throwable t) {
+		String msg;
+
+		if (t instanceof MalformedURLException) {
+			msg = "Invalid plugin jar file: " + file.getAbsolutePath();
+		} else if (t instanceof ClassNotFoundException) {
+			msg = "Cannot load class: " + qualifiedClassName;
+		} else if (t instanceof IllegalAccessException) {
+			msg = "Cannot access a parameterless constructor of: "
+					+ qualifiedClassName;
+		} else if (t instanceof InstantiationException) {
+			msg = "Cannot create an instance of: " + qualifiedClassName;
+		} else if (t instanceof ClassCastException) {
+			msg = qualifiedClassName + " is not an instance of IPlugin";
+		} else if (t instanceof NoClassDefFoundError) {
+			msg = "A class required by " + qualifiedClassName
+					+ " was not found: " + t.getLocalizedMessage();
+		} else {
+			msg = "An error occurred during plugin loading: "
+					+ t.getLocalizedMessage();
+		}
+
+		return msg;
+	}
+
+	private static void addVerificationError(String error) {
+		synchronized (verificationErrors) {
+			verificationErrors.add(error);
+		}
+	}
+
+	private static void writeIndex(PluginIndex index) {
+		try {
+			index.write();
+		} catch (IOException e) {
+			// The index will be rebuilt next time.
+			VStar.LOGGER.warning("Unable to write plugin index: "
+					+ e.getLocalizedMessage());
+		}
 	}
 
 	/**
-	 * Load a class from the specified full-path to jar file.
+	 * Load a class from the specified full-path to jar file and create an
+	 * instance of it.
 	 * 
 	 * @param jarFile
 	 *            The full path to a jar file.
 	 * @param qualifiedClass
 	 *            A qualified class name.
-	 * @param depLibs
-	 *            The library (jar) files on which the jar plugin to be loaded
-	 *            may be dependent.
-	 * @return The loaded class.
+	 * @return The plugin.
 	 * @throws MalformedURLException
 	 *             If the jar path is not valid.
 	 * @throws ClassNotFoundException
@@ -322,9 +592,10 @@ public class PluginLoader {
 	 * 
 	 * @throws InstantiationException 
 	 */
-	private static void loadPluginClass(File jarFile, String qualifiedClassName,
-			List<URL> depLibs) throws MalformedURLException,
-			ClassNotFoundException, InstantiationException, IllegalAccessException {
+	private static IPlugin loadPluginClass(File jarFile,
+			String qualifiedClassName) throws MalformedURLException,
+			ClassNotFoundException, InstantiationException,
+			IllegalAccessException {
 		URL url = jarFile.toURI().toURL();
 		List<URL> urlList = new ArrayList<URL>();
 		urlList.add(url);
@@ -333,27 +604,7 @@ public class PluginLoader {
 		URLClassLoader cl = new URLClassLoader(urls, VStar.class.getClassLoader());
 		Class<?> clazz = cl.loadClass(qualifiedClassName);
 		Object plugin = clazz.newInstance();
-		plugins.add((IPlugin) plugin);
 		pluginLoaders.add(cl);
+		return (IPlugin) plugin;
 	}
-	
-	public static void closePluginLoaders() {
-		// Max: closing ULRClassLoader:
-		// 	https://docs.oracle.com/javase/8/docs/technotes/guides/net/ClassLoader.html
-		boolean closePluginError = false;
-		for (int i = pluginLoaders.size() - 1; i >= 0; i--) {
-			URLClassLoader cl = pluginLoaders.get(i);
-			try {
-				cl.close();
-				pluginLoaders.remove(i);
-			} catch (IOException ex) {
-				closePluginError = true;
-			}
-		}
-		if (closePluginError) {
-			MessageBox.showErrorDialog(null, "Plugin Loader",
-					"Error closing ClassLoader");
-		}
-	}
-	
 }
@@ -17,14 +17,13 @@
  */
 package org.aavso.tools.vstar.ui.task;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.mediator.message.ModelCreationMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ModelSelectionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
 import org.aavso.tools.vstar.ui.mediator.message.StopRequestMessage;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.model.IModel;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.stats.PhaseCalcs;
@@ -32,12 +31,13 @@ import org.aavso.tools.vstar.util.stats.PhaseCalcs;
 /**
  * A concurrent task in which a potentially long-running modelling is executed.
  */
-public class ModellingTask extends SwingWorker<Void, Void> {
+public class ModellingTask extends ScheduledTask<Void, Void> {
 
 	private String error;
 	private IModel model;
 
 	private Listener<StopRequestMessage> stopListener;
+	private CancellationToken token;
 
 	/**
 	 * Constructor
@@ -49,6 +49,7 @@ public class ModellingTask extends SwingWorker<Void, Void> {
 		this.error = null;
 		this.model = model;
 
+		token = createCancellationToken();
 		stopListener = createStopRequestListener();
 	}
 
@@ -66,7 +67,12 @@ public class ModellingTask extends SwingWorker<Void, Void> {
 		Mediator.getUI().getStatusPane().setMessage(
 				"Performing " + model.getKind() + "...");
 		try {
-			model.execute();
+			CancellationToken.Scope scope = token.enter();
+			try {
+				model.execute();
+			} finally {
+				scope.close();
+			}
 			// Is there a phase plot in effect?
 			// If so, set the model's phase values accordingly.
 			if (Mediator.getInstance().getDocumentManager().phasePlotExists()) {
@@ -90,7 +96,7 @@ public class ModellingTask extends SwingWorker<Void, Void> {
 	/**
 	 * Executed in event dispatching thread.
 	 */
-	public void done() {
+	protected void finished() {
 	    if (error != null) {
 	        MessageBox.showErrorDialog(model.getKind() + " Error", error);
 	    } else if (!isCancelled()) {
@@ -117,6 +123,7 @@ public class ModellingTask extends SwingWorker<Void, Void> {
 		return new Listener<StopRequestMessage>() {
 			@Override
 			public void update(StopRequestMessage info) {
+				token.cancel();
 				model.interrupt();
 			}
 
@@ -27,8 +27,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AuthenticationError;
 import org.aavso.tools.vstar.exception.CancellationException;
@@ -53,7 +51,7 @@ import org.aavso.tools.vstar.util.plugin.URLAuthenticator;
  * A concurrent task in which a new star from observation source plug-in request
  * is handled.
  */
-public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
+public class NewStarFromObSourcePluginTask extends ScheduledTask<Void, Void> {
 
 	private Mediator mediator = Mediator.getInstance();
 
@@ -67,6 +65,8 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 
 	private boolean cancelled;
 
+	private ScheduledTask<?, ?> deferredTask;
+
 	/**
 	 * Constructor.
 	 * 
@@ -256,8 +256,11 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 			//  that was canceled, getObservationRetriever() returns null.
 			//  It is essentially the same as CancellationException
 			//  that cannot be thrown from within getObservationRetriever()
-			if (retriever == null)
-				cancelled = true;
+			//  unless the plug-in has a task to run instead.
+			if (retriever == null) {
+				deferredTask = obSourcePlugin.getDeferredTask();
+				cancelled = deferredTask == null;
+			}
 		} catch (CancellationException ex) {
 			cancelled = true;
 		} catch (ConnectionException ex) {
@@ -287,6 +290,16 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 		return retriever != null;
 	}
 
+	/**
+	 * Get the task the plug-in supplied in place of an observation retriever,
+	 * to be submitted once this task has finished.
+	 * 
+	 * @return The task, or null if there is none.
+	 */
+	public ScheduledTask<?, ?> getDeferredTask() {
+		return deferredTask;
+	}
+
 	/**
 	 * Main task. Executed in background thread.
 	 */
@@ -360,10 +373,10 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 			}
 		} catch (InterruptedException e) {
 			ValidObservation.restore();
-			done();
+			finished();
 		} catch (Throwable t) {
 			ValidObservation.restore();
-			done();
+			finished();
 			MessageBox.showErrorDialog(
 					"Observation Source Read Error",
 					t.getLocalizedMessage());
@@ -373,7 +386,7 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 	/**
 	 * Executed in event dispatching thread.
 	 */
-	public void done() {
+	public void finished() {
 		if (cancelled
 				|| obsCount != 0
 				|| (obSourcePlugin.isAdditive() && !mediator
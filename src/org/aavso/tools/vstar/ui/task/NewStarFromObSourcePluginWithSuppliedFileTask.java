@@ -24,8 +24,6 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AuthenticationError;
 import org.aavso.tools.vstar.exception.CancellationException;
@@ -44,7 +42,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
  * (with a supplied file) is handled.
  */
 public class NewStarFromObSourcePluginWithSuppliedFileTask extends
-		SwingWorker<Void, Void> {
+		ScheduledTask<Void, Void> {
 
 	private Mediator mediator = Mediator.getInstance();
 
@@ -171,7 +169,7 @@ public class NewStarFromObSourcePluginWithSuppliedFileTask extends
 	/**
 	 * Executed in event dispatching thread.
 	 */
-	public void done() {
+	protected void finished() {
 		mediator.getProgressNotifier().notifyListeners(
 				ProgressInfo.COMPLETE_PROGRESS);
 
@@ -23,8 +23,6 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AuthenticationError;
 import org.aavso.tools.vstar.exception.CancellationException;
@@ -43,7 +41,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
  * (with a supplied URL) is handled.
  */
 public class NewStarFromObSourcePluginWithSuppliedURLTask extends
-		SwingWorker<Void, Void> {
+		ScheduledTask<Void, Void> {
 
 	private Mediator mediator = Mediator.getInstance();
 
@@ -173,7 +171,7 @@ public class NewStarFromObSourcePluginWithSuppliedURLTask extends
 	/**
 	 * Executed in event dispatching thread.
 	 */
-	public void done() {
+	protected void finished() {
 		mediator.getProgressNotifier().notifyListeners(
 				ProgressInfo.COMPLETE_PROGRESS);
 
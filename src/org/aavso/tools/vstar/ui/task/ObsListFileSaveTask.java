@@ -21,8 +21,6 @@ import java.io.File;
 import java.io.PrintWriter;
 import java.util.List;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.plugin.ObservationSinkPluginBase;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
@@ -35,7 +33,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
  * A concurrent task in which an observation list file save operation takes
  * place.
  */
-public class ObsListFileSaveTask extends SwingWorker<Void, Void> {
+public class ObsListFileSaveTask extends ScheduledTask<Void, Void> {
 
     private ObservationSinkPluginBase plugin;
     private List<ValidObservation> observations;
@@ -59,6 +57,10 @@ public class ObsListFileSaveTask extends SwingWorker<Void, Void> {
         this.outFile = outFile;
         this.delimiter = delimiter;
         this.error = null;
+
+        // Saving only reads the observations, but the plugin may hold state.
+        declare(DOCUMENT, Access.READ);
+        declare(plugin, Access.WRITE);
     }
 
     /**
@@ -82,7 +84,7 @@ public class ObsListFileSaveTask extends SwingWorker<Void, Void> {
     /**
      * Executed in event dispatching thread.
      */
-    public void done() {
+    protected void finished() {
         if (error != null) {
             MessageBox.showErrorDialog("Observation File Save Error", error);
         }
@@ -20,7 +20,6 @@ package org.aavso.tools.vstar.ui.task;
 import java.util.List;
 
 import javax.swing.JDialog;
-import javax.swing.SwingWorker;
 
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
@@ -30,6 +29,7 @@ import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
 import org.aavso.tools.vstar.ui.mediator.message.StopRequestMessage;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
 
@@ -37,7 +37,7 @@ import org.aavso.tools.vstar.util.notification.Listener;
  * A concurrent task in which a potentially long-running period analysis plugin
  * is executed.
  */
-public class PeriodAnalysisTask extends SwingWorker<Void, Void> {
+public class PeriodAnalysisTask extends ScheduledTask<Void, Void> {
 
     private String error;
 	private PeriodAnalysisPluginBase periodAnalysisPlugin;
@@ -45,6 +45,7 @@ public class PeriodAnalysisTask extends SwingWorker<Void, Void> {
 	private List<ValidObservation> obs;
 
 	private Listener<StopRequestMessage> stopListener;
+	private CancellationToken token;
 
 	private boolean successful;
 
@@ -67,7 +68,13 @@ public class PeriodAnalysisTask extends SwingWorker<Void, Void> {
 		this.error = null;
 		this.successful = true;
 
+		token = createCancellationToken();
 		stopListener = createStopRequestListener();
+
+		// Analyses of the observations may run concurrently, but not two
+		// with the same plugin, which holds the analysis' state.
+		declare(DOCUMENT, Access.READ);
+		declare(plugin, Access.WRITE);
 	}
 
 	/**
@@ -84,7 +91,12 @@ public class PeriodAnalysisTask extends SwingWorker<Void, Void> {
 		Mediator.getUI().getStatusPane().setMessage(
 				LocaleProps.get("STATUS_PANE_PERFORMING_PERIOD_ANALYSIS"));
 		try {
-			periodAnalysisPlugin.executeAlgorithm(obs);
+			CancellationToken.Scope scope = token.enter();
+			try {
+				periodAnalysisPlugin.executeAlgorithm(obs);
+			} finally {
+				scope.close();
+			}
 		} catch (CancellationException e) {
 			successful = false;
 		} catch (Throwable t) {
@@ -101,7 +113,7 @@ public class PeriodAnalysisTask extends SwingWorker<Void, Void> {
 	/**
 	 * Executed in event dispatching thread.
 	 */
-	public void done() {
+	protected void finished() {
 	    if (error != null) {
 	        MessageBox.showErrorDialog("Period Analysis Error", error);
 	    } else if (!isCancelled() && successful) {
@@ -125,6 +137,7 @@ public class PeriodAnalysisTask extends SwingWorker<Void, Void> {
 		return new Listener<StopRequestMessage>() {
 			@Override
 			public void update(StopRequestMessage info) {
+				token.cancel();
 				periodAnalysisPlugin.interrupt();
 			}
 
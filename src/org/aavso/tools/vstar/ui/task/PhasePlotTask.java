@@ -19,8 +19,6 @@ package org.aavso.tools.vstar.ui.task;
 
 import java.util.Map;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.ui.mediator.AnalysisType;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
@@ -29,7 +27,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
 /**
  * A concurrent task in which a phase plot operation is executed.
  */
-public class PhasePlotTask extends SwingWorker<Void, Void> {
+public class PhasePlotTask extends ScheduledTask<Void, Void> {
 
 	private double period;
 	private double epoch;
@@ -71,7 +69,7 @@ public class PhasePlotTask extends SwingWorker<Void, Void> {
 	/**
 	 * Executed in event dispatching thread.
 	 */
-	public void done() {
+	protected void finished() {
 		Mediator.getInstance().setAnalysisType(AnalysisType.PHASE_PLOT);
 		
 		Mediator.getInstance().setPhasePlotStatusMessage();
@@ -17,8 +17,6 @@
  */
 package org.aavso.tools.vstar.ui.task;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.dialog.plugin.manager.PluginManagementOperation;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
@@ -30,7 +28,7 @@ import org.aavso.tools.vstar.util.notification.Listener;
  * A concurrent task in which a potentially long-running plugin management
  * operation is executed.
  */
-public class PluginManagerOperationTask extends SwingWorker<Void, Void> {
+public class PluginManagerOperationTask extends ScheduledTask<Void, Void> {
 
     private String error;
 
@@ -78,7 +76,7 @@ public class PluginManagerOperationTask extends SwingWorker<Void, Void> {
     /**
      * Executed in event dispatching thread
      */
-    public void done() {
+    protected void finished() {
         if (error != null) {
             MessageBox.showErrorDialog("Plugin Manager: " + op.getMessage(), error);
         }
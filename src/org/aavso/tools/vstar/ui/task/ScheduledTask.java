@@ -0,0 +1,215 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.SwingWorker;
+
+import org.aavso.tools.vstar.ui.mediator.Mediator;
+import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
+import org.aavso.tools.vstar.ui.mediator.message.ProgressType;
+import org.aavso.tools.vstar.util.CancellationToken;
+
+/**
+ * A concurrent task that declares the resources it reads and writes so that a
+ * task scheduler can run it alongside other tasks with which it does not
+ * conflict. Unless otherwise declared, a task writes the current document.<br/>
+ * Subclasses override finished() rather than done(). When the task is
+ * executed by a scheduler, finished() is invoked in the event dispatching
+ * thread in the order in which tasks were submitted, otherwise as soon as the
+ * task is done.
+ * 
+ * @see TaskScheduler
+ */
+public abstract class ScheduledTask<T, V> extends SwingWorker<T, V> {
+
+	/**
+	 * The current document, i.e. the loaded observations and the series,
+	 * models and plots derived from them.
+	 */
+	public static final Object DOCUMENT = new Object() {
+		@Override
+		public String toString() {
+			return "document";
+		}
+	};
+
+	/**
+	 * The kind of access a task requires to a resource.
+	 */
+	public enum Access {
+		READ, WRITE;
+	}
+
+	private final Map<Object, Access> dependencies;
+
+	private TaskScheduler scheduler;
+	private long sequence;
+	private boolean complete;
+
+	/**
+	 * Constructor
+	 */
+	protected ScheduledTask() {
+		dependencies = new HashMap<Object, Access>();
+		dependencies.put(DOCUMENT, Access.WRITE);
+	}
+
+	/**
+	 * Declare the access this task requires to a resource, replacing any
+	 * previous declaration for the resource. This must be done before the task
+	 * is submitted.
+	 * 
+	 * @param resource
+	 *            The resource, e.g. DOCUMENT or a plugin that holds state.
+	 * @param access
+	 *            The access required.
+	 */
+	protected void declare(Object resource, Access access) {
+		dependencies.put(resource, access);
+	}
+
+	/**
+	 * @return The resources this task depends upon and the access it requires.
+	 */
+	public Map<Object, Access> getDependencies() {
+		return Collections.unmodifiableMap(dependencies);
+	}
+
+	/**
+	 * Does this task write the specified resource?
+	 * 
+	 * @param resource
+	 *            The resource.
+	 * @return True if so, otherwise false.
+	 */
+	public boolean writes(Object resource) {
+		return dependencies.get(resource) == Access.WRITE;
+	}
+
+	/**
+	 * May this task not run at the same time as another, i.e. do they have a
+	 * resource in common that at least one of them writes?
+	 * 
+	 * @param other
+	 *            The other task.
+	 * @return True if they conflict, otherwise false.
+	 */
+	public boolean conflictsWith(ScheduledTask<?, ?> other) {
+		for (Map.Entry<Object, Access> entry : dependencies.entrySet()) {
+			Access otherAccess = other.dependencies.get(entry.getKey());
+			if (otherAccess != null
+					&& (entry.getValue() == Access.WRITE || otherAccess == Access.WRITE)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Create a cancellation token for an algorithm executed by this task. The
+	 * token is cancelled when the task is cancelled, since its worker thread
+	 * is then interrupted, and the algorithm's progress is shown by the status
+	 * pane's progress bar as a percentage.
+	 * 
+	 * @return The token.
+	 */
+	protected CancellationToken createCancellationToken() {
+		CancellationToken token = new CancellationToken();
+
+		token.setProgressReporter((done, total) -> {
+			if (total > 0) {
+				setProgress((int) Math.max(0,
+						Math.min(100, 100 * done / total)));
+			}
+		});
+
+		addPropertyChangeListener(new PropertyChangeListener() {
+			private int shown = -1;
+
+			@Override
+			public void propertyChange(PropertyChangeEvent evt) {
+				if ("progress".equals(evt.getPropertyName())) {
+					int percent = (Integer) evt.getNewValue();
+
+					if (shown < 0) {
+						Mediator.getInstance().getProgressNotifier()
+								.notifyListeners(new ProgressInfo(
+										ProgressType.MAX_PROGRESS, 100));
+						shown = 0;
+					}
+
+					if (percent > shown) {
+						Mediator.getInstance().getProgressNotifier()
+								.notifyListeners(new ProgressInfo(
+										ProgressType.INCREMENT_PROGRESS,
+										percent - shown));
+						shown = percent;
+					}
+				}
+			}
+		});
+
+		return token;
+	}
+
+	/**
+	 * Executed in event dispatching thread once the task is done, whether
+	 * completed or cancelled.
+	 */
+	protected void finished() {
+	}
+
+	/**
+	 * Hands the task to its scheduler, if any, for in-order delivery of
+	 * finished().
+	 */
+	@Override
+	protected final void done() {
+		if (scheduler != null) {
+			scheduler.taskDone(this);
+		} else {
+			finished();
+		}
+	}
+
+	// Scheduler bookkeeping.
+
+	void schedule(TaskScheduler scheduler, long sequence) {
+		this.scheduler = scheduler;
+		this.sequence = sequence;
+	}
+
+	long getSequence() {
+		return sequence;
+	}
+
+	boolean isComplete() {
+		return complete;
+	}
+
+	void setComplete() {
+		complete = true;
+	}
+}
@@ -0,0 +1,383 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import org.aavso.tools.vstar.ui.task.ScheduledTask.Access;
+
+/**
+ * Runs scheduled tasks on a bounded pool of worker threads.<br/>
+ * Tasks are started in the order in which they are submitted, except that a
+ * task waits while it conflicts with a running task or with an earlier task
+ * that is still waiting, so that tasks that only read the current document
+ * (e.g. period analyses of different series) run concurrently while a task
+ * that writes it (e.g. loading or modelling) runs alone. A task holds its
+ * resources until its results have been delivered.<br/>
+ * Each task may be cancelled individually and has its own state and progress
+ * properties (see SwingWorker). The finished() methods of tasks are invoked in
+ * the event dispatching thread in submission order, a task's results being
+ * held back until those of all earlier tasks have been delivered.
+ */
+public class TaskScheduler {
+
+	private static final long KEEP_ALIVE_SECONDS = 30;
+	private static final long POLL_MILLIS = 50;
+
+	private final int maxRunning;
+	private final ThreadPoolExecutor executor;
+
+	// Tasks that have been submitted but whose results have not yet been
+	// delivered, by sequence number, along with those not yet started, those
+	// running, and those that have been started and hold their resources
+	// until they have both stopped running and had their results delivered.
+	private final Map<Long, ScheduledTask<?, ?>> active;
+	private final List<ScheduledTask<?, ?>> waiting;
+	private final List<ScheduledTask<?, ?>> running;
+	private final List<ScheduledTask<?, ?>> holding;
+
+	private long nextSequence;
+
+	/**
+	 * Constructor for a scheduler with a worker per processor, but at least
+	 * two so that a long-running analysis does not hold up a short one.
+	 */
+	public TaskScheduler() {
+		this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param maxRunning
+	 *            The maximum number of tasks that may run at once.
+	 */
+	public TaskScheduler(int maxRunning) {
+		if (maxRunning < 1) {
+			throw new IllegalArgumentException(
+					"At least one task must be able to run");
+		}
+
+		this.maxRunning = maxRunning;
+
+		executor = new ThreadPoolExecutor(maxRunning, maxRunning,
+				KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "VStar task "
+								+ count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+
+		active = new LinkedHashMap<Long, ScheduledTask<?, ?>>();
+		waiting = new LinkedList<ScheduledTask<?, ?>>();
+		running = new ArrayList<ScheduledTask<?, ?>>();
+		holding = new ArrayList<ScheduledTask<?, ?>>();
+	}
+
+	/**
+	 * @return The maximum number of tasks that may run at once.
+	 */
+	public int getMaxRunning() {
+		return maxRunning;
+	}
+
+	/**
+	 * Submit a task, to be started once it no longer conflicts with running or
+	 * earlier tasks. When submitted in the event dispatching thread, the task
+	 * is not started before the current event has been handled, so progress
+	 * notifications made after submission precede those of the task.
+	 * 
+	 * @param task
+	 *            The task, which must not have been executed.
+	 */
+	public void submit(ScheduledTask<?, ?> task) {
+		synchronized (this) {
+			task.schedule(this, nextSequence);
+			active.put(nextSequence++, task);
+			waiting.add(task);
+		}
+
+		if (SwingUtilities.isEventDispatchThread()) {
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					dispatch();
+				}
+			});
+		} else {
+			dispatch();
+		}
+	}
+
+	/**
+	 * Cancel a task, whether waiting or running. A running task is interrupted
+	 * but its resources are not released until it actually stops.
+	 * 
+	 * @param task
+	 *            The task.
+	 */
+	public void cancel(ScheduledTask<?, ?> task) {
+		task.cancel(true);
+		dispatch();
+	}
+
+	/**
+	 * Cancel all tasks whose results have not yet been delivered.
+	 */
+	public void cancelAll() {
+		for (ScheduledTask<?, ?> task : getActiveTasks()) {
+			task.cancel(true);
+		}
+		dispatch();
+	}
+
+	/**
+	 * @return The tasks whose results have not yet been delivered, in
+	 *         submission order.
+	 */
+	public synchronized List<ScheduledTask<?, ?>> getActiveTasks() {
+		return new ArrayList<ScheduledTask<?, ?>>(active.values());
+	}
+
+	/**
+	 * @return Are there tasks whose results have not yet been delivered?
+	 */
+	public synchronized boolean hasActiveTasks() {
+		return !active.isEmpty();
+	}
+
+	/**
+	 * Is there a task whose results have not yet been delivered that writes
+	 * the specified resource?
+	 * 
+	 * @param resource
+	 *            The resource, e.g. ScheduledTask.DOCUMENT
+	 * @return True if so, otherwise false.
+	 */
+	public synchronized boolean isWritePending(Object resource) {
+		for (ScheduledTask<?, ?> task : active.values()) {
+			if (task.writes(resource)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Do tasks whose results have not yet been delivered depend upon the
+	 * specified resource, none of them writing it?
+	 * 
+	 * @param resource
+	 *            The resource, e.g. ScheduledTask.DOCUMENT
+	 * @return True if so, otherwise false.
+	 */
+	public synchronized boolean isOnlyReading(Object resource) {
+		boolean reading = false;
+
+		for (ScheduledTask<?, ?> task : active.values()) {
+			Access access = task.getDependencies().get(resource);
+			if (access == Access.WRITE) {
+				return false;
+			} else if (access == Access.READ) {
+				reading = true;
+			}
+		}
+
+		return reading;
+	}
+
+	/**
+	 * Block until all tasks submitted so far are done, i.e. have completed or
+	 * been cancelled. This does not wait for their results to be delivered, so
+	 * may be called in the event dispatching thread.
+	 */
+	public void awaitCompletion() {
+		boolean onEDT = SwingUtilities.isEventDispatchThread();
+
+		for (ScheduledTask<?, ?> task : getActiveTasks()) {
+			try {
+				if (onEDT) {
+					// Results cannot be delivered while the event dispatching
+					// thread waits, so tasks that have stopped release their
+					// resources now and tasks whose start was deferred are
+					// started.
+					while (!task.isDone()) {
+						releaseStopped();
+						dispatch();
+						try {
+							task.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+						} catch (TimeoutException e) {
+							// Keep waiting.
+						}
+					}
+				}
+
+				task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				// The task reports its own errors.
+			} catch (java.util.concurrent.CancellationException e) {
+				// Nothing to wait for.
+			}
+		}
+	}
+
+	/**
+	 * Stop the worker threads, cancelling waiting and running tasks.
+	 */
+	public void shutdown() {
+		cancelAll();
+		executor.shutdownNow();
+	}
+
+	// Start waiting tasks that no longer conflict with tasks holding resources
+	// or earlier waiting tasks, up to the maximum number of running tasks.
+	// Since a task never waits for a later one, delivery in submission order
+	// cannot deadlock.
+	private synchronized void dispatch() {
+		List<ScheduledTask<?, ?>> blocked = new ArrayList<ScheduledTask<?, ?>>();
+
+		Iterator<ScheduledTask<?, ?>> iter = waiting.iterator();
+
+		while (iter.hasNext() && running.size() < maxRunning
+				&& !executor.isShutdown()) {
+			final ScheduledTask<?, ?> task = iter.next();
+
+			if (task.isDone()) {
+				// Cancelled before it was started.
+				iter.remove();
+			} else if (conflicts(task, holding) || conflicts(task, blocked)) {
+				blocked.add(task);
+			} else {
+				iter.remove();
+				running.add(task);
+				holding.add(task);
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							task.run();
+						} finally {
+							stopped(task);
+						}
+					}
+				});
+			}
+		}
+	}
+
+	private synchronized void releaseStopped() {
+		holding.retainAll(running);
+	}
+
+	private void stopped(ScheduledTask<?, ?> task) {
+		synchronized (this) {
+			running.remove(task);
+			if (!active.containsKey(task.getSequence())) {
+				holding.remove(task);
+			}
+		}
+		dispatch();
+	}
+
+	private static boolean conflicts(ScheduledTask<?, ?> task,
+			List<ScheduledTask<?, ?>> others) {
+		for (ScheduledTask<?, ?> other : others) {
+			if (task.conflictsWith(other)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Invoked in the event dispatching thread when a task is done. Delivers
+	 * its results along with those of any later tasks that were held back
+	 * waiting for it, then releases the resources of delivered tasks that
+	 * have stopped running.
+	 * 
+	 * @param task
+	 *            The task.
+	 */
+	void taskDone(ScheduledTask<?, ?> task) {
+		List<ScheduledTask<?, ?>> ready = new ArrayList<ScheduledTask<?, ?>>();
+
+		synchronized (this) {
+			task.setComplete();
+
+			Iterator<ScheduledTask<?, ?>> iter = active.values().iterator();
+			while (iter.hasNext()) {
+				ScheduledTask<?, ?> next = iter.next();
+				if (!next.isComplete()) {
+					break;
+				}
+				iter.remove();
+				ready.add(next);
+			}
+		}
+
+		RuntimeException failure = null;
+
+		for (ScheduledTask<?, ?> next : ready) {
+			try {
+				next.finished();
+			} catch (RuntimeException e) {
+				failure = e;
+			}
+		}
+
+		synchronized (this) {
+			for (ScheduledTask<?, ?> next : ready) {
+				if (!running.contains(next)) {
+					holding.remove(next);
+				}
+			}
+		}
+
+		dispatch();
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
@@ -17,8 +17,6 @@
  */
 package org.aavso.tools.vstar.ui.task;
 
-import javax.swing.SwingWorker;
-
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
@@ -29,7 +27,7 @@ import org.aavso.tools.vstar.ui.undo.IUndoableAction;
  * A concurrent task in which a potentially long-running observation task is
  * executed.
  */
-public class UndoableActionTask extends SwingWorker<Void, Void> {
+public class UndoableActionTask extends ScheduledTask<Void, Void> {
 
     private String error;
     private IUndoableAction action;
@@ -90,7 +88,7 @@ public class UndoableActionTask extends SwingWorker<Void, Void> {
     /**
      * Executed in event dispatching thread.
      */
-    public void done() {
+    protected void finished() {
         if (error != null) {
             MessageBox.showErrorDialog(action.getDisplayString() + " Error", error);
         }
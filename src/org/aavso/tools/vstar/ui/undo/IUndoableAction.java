@@ -40,4 +40,16 @@ public interface IUndoableAction {
 	 * @return The display string.
 	 */
 	public String getDisplayString();
+
+	/**
+	 * Returns an estimate of the memory in bytes retained by this action while
+	 * it is on the undo or redo stack, beyond that of the observations
+	 * themselves, so that the stacks can be kept within a budget (see
+	 * UndoPrefs).
+	 * 
+	 * @return The estimated size in bytes; 0 by default.
+	 */
+	default public long getMemorySize() {
+		return 0;
+	}
 }
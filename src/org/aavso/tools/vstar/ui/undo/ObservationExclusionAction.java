@@ -17,6 +17,7 @@
  */
 package org.aavso.tools.vstar.ui.undo;
 
+import java.util.BitSet;
 import java.util.List;
 
 import org.aavso.tools.vstar.data.ValidObservation;
@@ -25,11 +26,20 @@ import org.aavso.tools.vstar.ui.mediator.message.ExcludedObservationMessage;
 import org.aavso.tools.vstar.ui.mediator.message.UndoableActionType;
 
 /**
- * This class reverses an exclusion/inclusion operation.
+ * This class reverses an exclusion/inclusion operation.<br/>
+ * The affected observations are recorded as a set of rows of an observation
+ * list, normally the current star's, which is shared rather than copied, so
+ * the record is compact even for mass exclusions, and each do, undo or redo
+ * is announced by a single message.
  */
 public class ObservationExclusionAction implements IUndoableAction {
 
+	// Bytes per observation reference in a list owned by this action.
+	private static final int REFERENCE_SIZE = 8;
+
 	private List<ValidObservation> obs;
+	private BitSet rows;
+	private boolean ownsObs;
 	private boolean exclusionState;
 
 	/**
@@ -42,8 +52,28 @@ public class ObservationExclusionAction implements IUndoableAction {
 	 */
 	public ObservationExclusionAction(List<ValidObservation> obs,
 			boolean exclusionState) {
+		this(obs, allRows(obs.size()), exclusionState);
+		ownsObs = true;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param obs
+	 *            The list of observations, e.g. of the current star, some of
+	 *            which are to be included/excluded.
+	 * @param rows
+	 *            The indices in obs of the observations to be
+	 *            included/excluded; not to be modified subsequently.
+	 * @param exclusionState
+	 *            The exclusion/inclusion state.
+	 */
+	public ObservationExclusionAction(List<ValidObservation> obs, BitSet rows,
+			boolean exclusionState) {
 		super();
 		this.obs = obs;
+		this.rows = rows;
+		this.ownsObs = false;
 		this.exclusionState = exclusionState;
 	}
 
@@ -55,6 +85,13 @@ public class ObservationExclusionAction implements IUndoableAction {
 		this.exclusionState = exclusionState;
 	}
 
+	/**
+	 * @return the number of observations included/excluded
+	 */
+	public int getObservationCount() {
+		return rows.cardinality();
+	}
+
 	/**
 	 * @see org.aavso.tools.vstar.ui.undo.IUndoableAction#execute()
 	 */
@@ -67,15 +104,13 @@ public class ObservationExclusionAction implements IUndoableAction {
 		}
 
 		// Set the exclusion state of each observation.
-		int i;
-		for (i = 0; i < obs.size(); i++) {
-			ValidObservation ob = obs.get(i);
-			ob.setExcluded(exclusionState);
+		for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+			obs.get(i).setExcluded(exclusionState);
 		}
 
-		// Send an exclusion message.
+		// Send a single exclusion message for all of them.
 		ExcludedObservationMessage msg = new ExcludedObservationMessage(obs,
-				this);
+				rows, exclusionState, this);
 
 		Mediator.getInstance().getExcludedObservationNotifier()
 				.notifyListeners(msg);
@@ -87,4 +122,23 @@ public class ObservationExclusionAction implements IUndoableAction {
 	public String getDisplayString() {
 		return "observation exclusion";
 	}
+
+	@Override
+	public long getMemorySize() {
+		long size = rows.size() / Byte.SIZE;
+
+		if (ownsObs) {
+			size += (long) obs.size() * REFERENCE_SIZE;
+		}
+
+		return size;
+	}
+
+	// Helpers
+
+	private static BitSet allRows(int n) {
+		BitSet rows = new BitSet(n);
+		rows.set(0, n);
+		return rows;
+	}
 }
@@ -18,7 +18,9 @@
 package org.aavso.tools.vstar.ui.undo;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.Stack;
@@ -33,6 +35,7 @@ import org.aavso.tools.vstar.ui.mediator.message.UndoActionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.UndoableActionType;
 import org.aavso.tools.vstar.ui.task.UndoableActionTask;
 import org.aavso.tools.vstar.util.notification.Listener;
+import org.aavso.tools.vstar.util.prefs.UndoPrefs;
 
 /**
  * This class manages actions on behalf of other components.
@@ -48,7 +51,9 @@ public class UndoableActionManager {
 	 * Constructor.
 	 */
 	public UndoableActionManager() {
-		selectedObs = new HashSet<ValidObservation>();
+		// Observations are selected by identity, not value.
+		selectedObs = Collections
+				.newSetFromMap(new IdentityHashMap<ValidObservation, Boolean>());
 		undoStack = new Stack<IUndoableAction>();
 		redoStack = new Stack<IUndoableAction>();
 	}
@@ -69,6 +74,8 @@ public class UndoableActionManager {
 			redoStack.add(action);
 		}
 
+		trimToBudget(undoStack, redoStack, UndoPrefs.getMemoryBudget());
+
 		UndoActionMessage msg = new UndoActionMessage(this, action, type);
 		Mediator.getInstance().getUndoActionNotifier().notifyListeners(msg);
 	}
@@ -143,13 +150,13 @@ public class UndoableActionManager {
 
 		UndoableActionTask task = new UndoableActionTask(action, type);
 
+		Mediator.getInstance().getTaskScheduler().submit(task);
+
 		Mediator.getInstance().getProgressNotifier()
 				.notifyListeners(ProgressInfo.START_PROGRESS);
 		Mediator.getInstance().getProgressNotifier()
 				.notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
-		task.execute();
-
 		return task;
 	}
 
@@ -161,12 +168,23 @@ public class UndoableActionManager {
 	public void excludeCurrentSelection() {
 
 		if (!selectedObs.isEmpty()) {
-			// Create an undoable exclusion action.
-			List<ValidObservation> undoObs = new ArrayList<ValidObservation>();
-			undoObs.addAll(selectedObs);
-
-			ObservationExclusionAction action = new ObservationExclusionAction(
-					undoObs, true);
+			// Create an undoable exclusion action, recording the selected
+			// observations as rows of the current star's observations where
+			// possible.
+			ObservationExclusionAction action;
+
+			List<ValidObservation> validObs = Mediator.getInstance()
+					.getValidObsList();
+			BitSet rows = validObs != null ? getRows(selectedObs, validObs)
+					: null;
+
+			if (rows != null) {
+				action = new ObservationExclusionAction(validObs, rows, true);
+			} else {
+				List<ValidObservation> undoObs = new ArrayList<ValidObservation>();
+				undoObs.addAll(selectedObs);
+				action = new ObservationExclusionAction(undoObs, true);
+			}
 
 			// Perform the exclusion action, then add its opposite to the undo
 			// stack.
@@ -179,6 +197,55 @@ public class UndoableActionManager {
 		}
 	}
 
+	/**
+	 * Discard the oldest actions on the undo and redo stacks until the memory
+	 * they retain is within a budget, always keeping the most recent action
+	 * on each stack.
+	 * 
+	 * @param undoStack
+	 *            The undo stack.
+	 * @param redoStack
+	 *            The redo stack.
+	 * @param budget
+	 *            The budget in bytes.
+	 */
+	static void trimToBudget(Stack<IUndoableAction> undoStack,
+			Stack<IUndoableAction> redoStack, long budget) {
+
+		long size = 0;
+		for (IUndoableAction action : undoStack) {
+			size += action.getMemorySize();
+		}
+		for (IUndoableAction action : redoStack) {
+			size += action.getMemorySize();
+		}
+
+		while (size > budget && (undoStack.size() > 1 || redoStack.size() > 1)) {
+			// Discard from the larger stack first.
+			Stack<IUndoableAction> stack = undoStack.size() >= redoStack
+					.size() ? undoStack : redoStack;
+			size -= stack.remove(0).getMemorySize();
+		}
+	}
+
+	// Returns the rows of obs holding the selected observations, or null if
+	// not all are present.
+	private static BitSet getRows(Set<ValidObservation> selected,
+			List<ValidObservation> obs) {
+		BitSet rows = new BitSet(obs.size());
+		int found = 0;
+
+		for (int i = 0; i < obs.size() && found < selected.size(); i++) {
+			ValidObservation ob = obs.get(i);
+			if (selected.contains(ob)) {
+				rows.set(i);
+				found++;
+			}
+		}
+
+		return found == selected.size() ? rows : null;
+	}
+
 	// Returns a new star listener.
 	public Listener<NewStarMessage> createNewStarListener() {
 		return new Listener<NewStarMessage>() {
@@ -22,7 +22,7 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 	protected int numericallyMaxMagIndex;
 	protected Double extremeMag;
 	protected Double extremeTime;
-	protected boolean interrupt;
+	protected volatile boolean interrupt;
 
 	/**
 	 * Constructor
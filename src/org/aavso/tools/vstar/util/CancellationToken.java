@@ -0,0 +1,193 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A token shared by the parts of a long-running computation, e.g. an
+ * algorithm and any threads on which it does its work, via which the
+ * computation is asked to stop and reports its progress.<br/>
+ * The computation calls checkpoint() at fine-grained points, e.g. in inner
+ * loops, which throws an InterruptedException once the token has been
+ * cancelled so that the computation unwinds. Interrupting a thread that
+ * reaches a checkpoint also cancels the token.<br/>
+ * Code that executes a computation may make a token current for the calling
+ * thread (see enter()) so that algorithms it executes indirectly, e.g. via a
+ * plugin, use that token; otherwise current() yields a new token.
+ */
+public final class CancellationToken {
+
+	private static final ThreadLocal<CancellationToken> currentToken = new ThreadLocal<CancellationToken>();
+
+	private volatile boolean cancelled;
+	private volatile IProgressReporter progressReporter;
+
+	private final List<Runnable> cancellationListeners;
+
+	/**
+	 * Constructor
+	 */
+	public CancellationToken() {
+		this(null);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param progressReporter
+	 *            The reporter to which progress is passed; may be null.
+	 */
+	public CancellationToken(IProgressReporter progressReporter) {
+		this.progressReporter = progressReporter;
+		cancelled = false;
+		cancellationListeners = new CopyOnWriteArrayList<Runnable>();
+	}
+
+	/**
+	 * @return The token made current for the calling thread, if any, otherwise
+	 *         a new token.
+	 */
+	public static CancellationToken current() {
+		CancellationToken token = currentToken.get();
+		return token != null ? token : new CancellationToken();
+	}
+
+	/**
+	 * Make this token current for the calling thread until the returned scope
+	 * is closed, e.g. in a finally block.
+	 * 
+	 * @return The scope.
+	 */
+	public Scope enter() {
+		Scope scope = new Scope(currentToken.get());
+		currentToken.set(this);
+		return scope;
+	}
+
+	/**
+	 * Ask the computation to stop, invoking cancellation listeners the first
+	 * time this is called.
+	 */
+	public void cancel() {
+		if (!cancelled) {
+			cancelled = true;
+			for (Runnable listener : cancellationListeners) {
+				listener.run();
+			}
+		}
+	}
+
+	/**
+	 * Has the computation been asked to stop, either via this token or by
+	 * interrupting the calling thread, which cancels the token?
+	 * 
+	 * @return True if so, otherwise false.
+	 */
+	public boolean isCancelled() {
+		if (!cancelled && Thread.currentThread().isInterrupted()) {
+			cancel();
+		}
+
+		return cancelled;
+	}
+
+	/**
+	 * A point at which the computation stops if asked to.
+	 * 
+	 * @throws InterruptedException
+	 *             if the computation has been asked to stop.
+	 * @see #isCancelled()
+	 */
+	public void checkpoint() throws InterruptedException {
+		if (isCancelled()) {
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * Add a listener to be invoked when the token is cancelled, e.g. to
+	 * interrupt a computation that does not check this token. If the token
+	 * has already been cancelled, the listener is invoked immediately.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 */
+	public void addCancellationListener(Runnable listener) {
+		cancellationListeners.add(listener);
+		if (cancelled) {
+			listener.run();
+		}
+	}
+
+	/**
+	 * Remove a cancellation listener.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 */
+	public void removeCancellationListener(Runnable listener) {
+		cancellationListeners.remove(listener);
+	}
+
+	/**
+	 * @param progressReporter
+	 *            The reporter to which progress is passed; may be null.
+	 */
+	public void setProgressReporter(IProgressReporter progressReporter) {
+		this.progressReporter = progressReporter;
+	}
+
+	/**
+	 * Report the computation's progress, if there is a progress reporter.
+	 * 
+	 * @param done
+	 *            The number of units of work done so far.
+	 * @param total
+	 *            The total number of units of work.
+	 */
+	public void progress(long done, long total) {
+		IProgressReporter reporter = progressReporter;
+		if (reporter != null) {
+			reporter.progress(done, total);
+		}
+	}
+
+	/**
+	 * The extent of a token being current for a thread, restoring the
+	 * previously current token when closed.
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		private final CancellationToken previous;
+
+		private Scope(CancellationToken previous) {
+			this.previous = previous;
+		}
+
+		@Override
+		public void close() {
+			if (previous != null) {
+				currentToken.set(previous);
+			} else {
+				currentToken.remove();
+			}
+		}
+	}
+}
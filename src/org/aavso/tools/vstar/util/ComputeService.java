@@ -0,0 +1,385 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * The service via which core code and plugins (see IPlugin) perform parallel
+ * computations, e.g. over frequencies, tau values or observation rows.
+ * </p>
+ * <p>
+ * All such computations share one work-stealing fork/join pool so that
+ * overlapping analyses divide the available cores between them rather than
+ * each starting its own threads. The pool's parallelism defaults to the
+ * number of available processors and may be set via the
+ * vstar.compute.parallelism system property (ignored unless positive) or
+ * setParallelism().
+ * </p>
+ * <p>
+ * A range is recursively split into chunks that idle workers steal. Nested
+ * use from within a chunk, e.g. a model evaluated in parallel by a parallel
+ * algorithm, runs in the same pool.
+ * </p>
+ */
+public final class ComputeService {
+
+	public static final String PARALLELISM_PROPERTY = "vstar.compute.parallelism";
+
+	// The number of chunks per worker into which forEachIndex() splits a
+	// range, so that uneven costs per index are balanced by stealing.
+	private static final int CHUNKS_PER_WORKER = 8;
+
+	private static ComputeService instance;
+
+	private volatile ForkJoinPool pool;
+
+	/**
+	 * An action applied to a half-open index range.
+	 */
+	public interface RangeAction {
+		void apply(int from, int to) throws InterruptedException;
+	}
+
+	/**
+	 * An action applied to an index.
+	 */
+	public interface IndexAction {
+		void apply(int index) throws InterruptedException;
+	}
+
+	/**
+	 * An action applied to one frequency of an evenly spaced range.
+	 */
+	public interface FrequencyAction {
+		void apply(int index, double frequency) throws InterruptedException;
+	}
+
+	private ComputeService(int parallelism) {
+		pool = createPool(parallelism);
+	}
+
+	/**
+	 * @return The compute service.
+	 */
+	public static synchronized ComputeService getInstance() {
+		if (instance == null) {
+			instance = new ComputeService(defaultParallelism());
+		}
+
+		return instance;
+	}
+
+	/**
+	 * @return The parallelism given by the parallelism system property if it
+	 *         is positive, otherwise the number of available processors.
+	 */
+	static int defaultParallelism() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, processors);
+		return parallelism > 0 ? parallelism : processors;
+	}
+
+	/**
+	 * @return The maximum number of threads on which computations run at
+	 *         once.
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Set the maximum number of threads on which computations run at once.
+	 * Computations already in progress complete with the previous
+	 * parallelism.
+	 * 
+	 * @param parallelism
+	 *            The parallelism, which must be positive.
+	 */
+	public synchronized void setParallelism(int parallelism) {
+		if (parallelism != pool.getParallelism()) {
+			ForkJoinPool previous = pool;
+			pool = createPool(parallelism);
+			previous.shutdown();
+		}
+	}
+
+	/**
+	 * Apply an action to [0, n) in chunks of a specified size, in parallel
+	 * when there is more than one chunk.
+	 * 
+	 * @param n
+	 *            The size of the range.
+	 * @param chunkSize
+	 *            The size of each chunk.
+	 * @param action
+	 *            The action to apply to each chunk, which must not throw
+	 *            InterruptedException since no token can have been
+	 *            cancelled.
+	 */
+	public void forEachChunk(int n, int chunkSize, RangeAction action) {
+		try {
+			run(null, n, chunkSize, action);
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Apply an action to [0, n) in chunks of a specified size, in parallel
+	 * when there is more than one chunk, until the token is cancelled. The
+	 * token is current (see CancellationToken.enter()) while the action is
+	 * applied. Chunks not yet started when the token is cancelled are
+	 * skipped.
+	 * 
+	 * @param token
+	 *            The computation's cancellation token.
+	 * @param n
+	 *            The size of the range.
+	 * @param chunkSize
+	 *            The size of each chunk.
+	 * @param action
+	 *            The action to apply to each chunk.
+	 * @throws InterruptedException
+	 *             if the token was cancelled or the calling thread was
+	 *             interrupted, once all chunks have stopped.
+	 */
+	public void forEachChunk(CancellationToken token, int n, int chunkSize,
+			RangeAction action) throws InterruptedException {
+		run(token, n, chunkSize, action);
+	}
+
+	/**
+	 * Apply an action to each index of [0, n), where the cost per index is
+	 * high enough, as for frequencies or tau values, for the range to be split
+	 * into a few chunks per worker.
+	 * 
+	 * @param token
+	 *            The computation's cancellation token.
+	 * @param n
+	 *            The size of the range.
+	 * @param action
+	 *            The action to apply to each index.
+	 * @throws InterruptedException
+	 *             if the computation was cancelled.
+	 */
+	public void forEachIndex(CancellationToken token, int n,
+			IndexAction action) throws InterruptedException {
+		int chunkSize = Math.max(1, n / (getParallelism() * CHUNKS_PER_WORKER));
+
+		run(token, n, chunkSize, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				action.apply(i);
+			}
+		});
+	}
+
+	/**
+	 * Apply an action to each of n evenly spaced frequencies. The frequency
+	 * with index i is min + i * step rather than being accumulated, so it
+	 * does not depend upon how the range was split.
+	 * 
+	 * @param token
+	 *            The computation's cancellation token.
+	 * @param min
+	 *            The first frequency.
+	 * @param step
+	 *            The frequency step.
+	 * @param n
+	 *            The number of frequencies.
+	 * @param action
+	 *            The action to apply to each frequency.
+	 * @throws InterruptedException
+	 *             if the computation was cancelled.
+	 */
+	public void forEachFrequency(CancellationToken token, double min,
+			double step, int n, FrequencyAction action)
+			throws InterruptedException {
+		forEachIndex(token, n, i -> action.apply(i, min + i * step));
+	}
+
+	/**
+	 * Submit a task for execution in the pool, e.g. one of a series of chunks
+	 * whose results are consumed in order as they become available. The token
+	 * is current while the task runs, and the task is skipped if the token
+	 * has been cancelled by the time it would start.
+	 * 
+	 * @param token
+	 *            The computation's cancellation token.
+	 * @param task
+	 *            The task.
+	 * @return The future result of the task.
+	 */
+	public <T> Future<T> submit(CancellationToken token, Callable<T> task) {
+		return pool.submit(() -> {
+			token.checkpoint();
+			CancellationToken.Scope scope = token.enter();
+			try {
+				return task.call();
+			} finally {
+				scope.close();
+			}
+		});
+	}
+
+	// Helpers
+
+	private void run(CancellationToken token, int n, int chunkSize,
+			RangeAction action) throws InterruptedException {
+		if (n <= 0) {
+			return;
+		}
+
+		if (n <= chunkSize) {
+			// Not worth handing to the pool.
+			if (token != null) {
+				token.checkpoint();
+				CancellationToken.Scope scope = token.enter();
+				try {
+					action.apply(0, n);
+				} finally {
+					scope.close();
+				}
+			} else {
+				action.apply(0, n);
+			}
+			return;
+		}
+
+		int chunks = (n + chunkSize - 1) / chunkSize;
+		Chunks task = new Chunks(token, n, chunkSize, action, 0, chunks);
+
+		Thread thread = Thread.currentThread();
+		if (thread instanceof ForkJoinWorkerThread
+				&& ((ForkJoinWorkerThread) thread).getPool() == pool) {
+			// Nested use, so take part in the work rather than blocking.
+			task.invoke();
+		} else if (token == null) {
+			pool.invoke(task);
+		} else {
+			await(token, pool.submit(task));
+		}
+
+		if (token != null) {
+			token.checkpoint();
+		}
+	}
+
+	// Wait for a computation to finish. If the calling thread is interrupted,
+	// cancel the computation and wait for its chunks to stop so that none are
+	// still running once this returns.
+	private static void await(CancellationToken token, ForkJoinTask<?> task) {
+		boolean interrupted = false;
+
+		while (true) {
+			try {
+				task.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+				token.cancel();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new IllegalStateException(cause);
+				}
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static ForkJoinPool createPool(int parallelism) {
+		final AtomicInteger count = new AtomicInteger();
+
+		return new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+					.newThread(pool);
+			thread.setName("VStar compute " + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, null, false);
+	}
+
+	// Recursively splits a range of chunks in half until one chunk remains,
+	// which is applied unless the token has been cancelled.
+	@SuppressWarnings("serial")
+	private static final class Chunks extends RecursiveAction {
+
+		private final CancellationToken token;
+		private final int n;
+		private final int chunkSize;
+		private final RangeAction action;
+		private final int first;
+		private final int last;
+
+		Chunks(CancellationToken token, int n, int chunkSize,
+				RangeAction action, int first, int last) {
+			this.token = token;
+			this.n = n;
+			this.chunkSize = chunkSize;
+			this.action = action;
+			this.first = first;
+			this.last = last;
+		}
+
+		@Override
+		protected void compute() {
+			if (last - first > 1) {
+				int middle = (first + last) >>> 1;
+				invokeAll(new Chunks(token, n, chunkSize, action, first,
+						middle), new Chunks(token, n, chunkSize, action,
+						middle, last));
+			} else {
+				int from = first * chunkSize;
+				int to = Math.min(from + chunkSize, n);
+
+				try {
+					if (token == null) {
+						action.apply(from, to);
+					} else if (!token.isCancelled()) {
+						CancellationToken.Scope scope = token.enter();
+						try {
+							action.apply(from, to);
+						} finally {
+							scope.close();
+						}
+					}
+				} catch (InterruptedException e) {
+					if (token != null) {
+						token.cancel();
+					}
+				}
+			}
+		}
+	}
+}
@@ -31,4 +31,28 @@ public interface IAlgorithm extends IInteruptible {
 	 *             in case of an algorithm error.
 	 */
 	abstract public void execute() throws AlgorithmError;
+
+	/**
+	 * Executes the algorithm with the specified token current, so that the
+	 * algorithm stops at its next checkpoint once the token is cancelled and
+	 * reports its progress to the token. An algorithm that does not check the
+	 * current token is interrupted when the token is cancelled.
+	 * 
+	 * @param token
+	 *            The cancellation token.
+	 * @throws AlgorithmError
+	 *             in case of an algorithm error.
+	 */
+	default public void execute(CancellationToken token) throws AlgorithmError {
+		Runnable listener = this::interrupt;
+		token.addCancellationListener(listener);
+
+		CancellationToken.Scope scope = token.enter();
+		try {
+			execute();
+		} finally {
+			scope.close();
+			token.removeCancellationListener(listener);
+		}
+	}
 }
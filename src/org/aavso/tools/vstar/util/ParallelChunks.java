@@ -0,0 +1,57 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.util;
+
+/**
+ * Applies an action to an index range in fixed size chunks, in parallel when
+ * the range is large enough to make that worthwhile. Chunks are processed by
+ * the shared compute service.
+ * 
+ * @see ComputeService
+ */
+public class ParallelChunks {
+
+	// Ranges smaller than this are processed on the calling thread.
+	public static final int PARALLEL_THRESHOLD = 4096;
+
+	public static final int CHUNK_SIZE = 1024;
+
+	/**
+	 * An action applied to a half-open index range.
+	 */
+	public interface RangeAction {
+		void apply(int from, int to);
+	}
+
+	/**
+	 * Apply an action to [0, n) in chunks, in parallel for large n.
+	 *
+	 * @param n
+	 *            The size of the range.
+	 * @param action
+	 *            The action to apply to each chunk.
+	 */
+	public static void forEachChunk(final int n, final RangeAction action) {
+		if (n < PARALLEL_THRESHOLD) {
+			action.apply(0, n);
+		} else {
+			ComputeService.getInstance().forEachChunk(n, CHUNK_SIZE,
+					action::apply);
+		}
+	}
+}
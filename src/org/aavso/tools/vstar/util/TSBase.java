@@ -95,7 +95,7 @@ public class TSBase {
 	protected double wvec[];
 	protected double xvec[];
 
-	protected boolean interrupted;
+	protected volatile CancellationToken token;
 
 	/**
 	 * Constructor.
@@ -115,7 +115,7 @@ public class TSBase {
 		this.xvec = new double[sz];
 		this.wvec = new double[sz];
 
-		interrupted = false;
+		token = new CancellationToken();
 	}
 
 	// -------------------------------------------------------------------------------
@@ -315,9 +315,7 @@ public class TSBase {
 			}
 			dvec[ii] = 0.0;
 
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		ndim2 = npoly + (2 * nfre);
@@ -331,9 +329,7 @@ public class TSBase {
 				dmat[n1][n2] = 0.0;
 			}
 
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		for (nf = 1; nf <= nfre; nf++) {
@@ -351,9 +347,7 @@ public class TSBase {
 				}
 			}
 
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		dpow[0] = 1.0;
@@ -371,9 +365,7 @@ public class TSBase {
 					dpow[np] = dpow[np - 1] * dt;
 				}
 
-				if (interrupted) {
-					throw new InterruptedException();
-				}
+				token.checkpoint();
 
 				// compute trig functions
 				for (nf = 1; nf <= nfre; nf++) {
@@ -382,9 +374,7 @@ public class TSBase {
 					dss[nf] = Math.sin(dphase);
 				}
 
-				if (interrupted) {
-					throw new InterruptedException();
-				}
+				token.checkpoint();
 
 				// compute matrix coefficients for polynomials...
 				for (np = 0; np <= npoly; np++) {
@@ -407,9 +397,7 @@ public class TSBase {
 						dmat[np][n2] = dmat[np][n2] + (dpow[np] * dss[nf]);
 					}
 
-					if (interrupted) {
-						throw new InterruptedException();
-					}
+					token.checkpoint();
 				}
 
 				// compute matrix values for products of trig functions
@@ -430,9 +418,7 @@ public class TSBase {
 						dmat[n1][n2] = dmat[n1][n2] + (dss[nf] * dss[nf2]);
 					}
 
-					if (interrupted) {
-						throw new InterruptedException();
-					}
+					token.checkpoint();
 				}
 
 				// compute matrix entries for observer bias functions
@@ -453,9 +439,7 @@ public class TSBase {
 						}
 					}
 
-					if (interrupted) {
-						throw new InterruptedException();
-					}
+					token.checkpoint();
 				}
 			}
 		}
@@ -471,18 +455,14 @@ public class TSBase {
 			}
 		}
 
-		if (interrupted) {
-			throw new InterruptedException();
-		}
+		token.checkpoint();
 
 		for (n1 = 1; n1 <= npoly - 1; n1++) {
 			for (n2 = n1; n2 <= npoly - 1; n2++) {
 				dmat[n1][n2] = dmat[n1 - 1][n2 + 1];
 			}
 
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		for (n1 = 0; n1 <= ndim; n1++) {
@@ -491,9 +471,7 @@ public class TSBase {
 				dmat[n1][n2] = dmat[n1][n2] / dweight;
 			}
 
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		dmat[0][0] = 1.0;
@@ -502,9 +480,7 @@ public class TSBase {
 				dmat[n1][n2] = dmat[n2][n1];
 			}
 
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		matinv();
@@ -517,9 +493,7 @@ public class TSBase {
 			}
 			damp2 = damp2 + (dcoef[n1] * dvec[n1]);
 
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		damp2 = damp2 - (dave * dave);
@@ -46,8 +46,22 @@ public class B1950HJDConverter extends AbstractHJDConverter {
 	 */
 	@Override
 	public double convert(double jd, RAInfo ra, DecInfo dec) {
-		double hjd = 0;
-	
+		return jd + correction(jd, ra, dec);
+	}
+
+	/**
+	 * Given a JD, RA, and Dec, return the heliocentric correction.
+	 * 
+	 * @param jd
+	 *            The Julian Date.
+	 * @param ra
+	 *            The B1950 epoch right ascension coordinate.
+	 * @param dec
+	 *            The B1950 epoch declination coordinate.
+	 * @return The correction (HJD - JD) in days.
+	 */
+	@Override
+	public double correction(double jd, RAInfo ra, DecInfo dec) {
 		// TODO: use Math.toRadians(arg0)?
 	
 		double deg2rad = 3.1415926535 / 180.;
@@ -88,8 +102,6 @@ public class B1950HJDConverter extends AbstractHJDConverter {
 						* Math.sin(decRadians) + Math.cos(decRadians)
 						* Math.sin(raRadians)) * Y));
 	
-		hjd = jd + dt;
-	
-		return hjd;
+		return dt;
 	}
 }
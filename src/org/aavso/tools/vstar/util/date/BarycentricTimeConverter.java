@@ -0,0 +1,476 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.util.date;
+
+import org.aavso.tools.vstar.util.ParallelChunks;
+
+/**
+ * <p>
+ * An in-process converter from JD (UTC) or HJD (UTC) to BJD_TDB, providing
+ * an offline alternative to the astroutils.astronomy.osu.edu web service.
+ * </p>
+ * <p>
+ * The conversion consists of:<br/>
+ * - UTC to TT via a leap second table (TAI-UTC) plus 32.184s;<br/>
+ * - TT to TDB via the leading periodic terms of Fairhead &amp; Bretagnon;<br/>
+ * - the Roemer (light travel time) delay from the Earth's geocentre to the
+ * solar system barycentre along the line of sight to the target.
+ * </p>
+ * <p>
+ * The Earth's barycentric position is built from a low-precision series:
+ * the heliocentric Earth-Moon barycentre from the JPL approximate Keplerian
+ * elements (Standish, valid 1800-2050), a short lunar series (Meeus ch 47)
+ * to move from the Earth-Moon barycentre to the geocentre, and the Sun's
+ * reflex motion about the barycentre from the mean elements of all eight
+ * planets.
+ * </p>
+ * <p>
+ * Precision: the plug-in library's ConvertHelperTest requires agreement with
+ * the astroutils service (which uses the JPL DE ephemerides) to within 0.2s,
+ * for dates from 1800 to 2050 and targets in both hemispheres; it needs
+ * network access. The unit tests here check the result against Meeus' worked
+ * examples and his (less precise) heliocentric correction. The error is
+ * expected to be dominated by the approximate Earth-Moon barycentre elements
+ * (~20", i.e. ~0.05s) and the omission of the observatory's position relative
+ * to the geocentre (up to 21ms), the Shapiro delay and proper motion. The
+ * elements are only valid for 1800-2050. Where better accuracy matters, choose
+ * the web service in the BJD conversion plug-ins. Before 1961 (when UTC was
+ * introduced), the earliest UTC offset is assumed.
+ * </p>
+ * <p>
+ * Array conversions are split into chunks that are converted in parallel
+ * for large inputs.
+ * </p>
+ */
+public class BarycentricTimeConverter {
+
+	private static final BarycentricTimeConverter instance = new BarycentricTimeConverter();
+
+	// Light travel time for one AU, in days (IAU 2012: 499.00478384s).
+	public static final double AU_LIGHT_TIME_DAYS = 499.00478384 / 86400.0;
+
+	private static final double J2000 = 2451545.0;
+	private static final double DAYS_PER_CENTURY = 36525.0;
+	private static final double SECS_PER_DAY = 86400.0;
+
+	// Mean obliquity of the ecliptic at J2000.0 (IAU 1976).
+	private static final double OBLIQUITY_J2000 = Math.toRadians(23.43928);
+	private static final double COS_OBLIQ = Math.cos(OBLIQUITY_J2000);
+	private static final double SIN_OBLIQ = Math.sin(OBLIQUITY_J2000);
+
+	// Earth/Moon mass ratio.
+	private static final double EARTH_MOON_MASS_RATIO = 81.30057;
+
+	// Kilometres per AU.
+	private static final double KM_PER_AU = 149597870.7;
+
+	// JPL approximate Keplerian elements, J2000 ecliptic, 1800-2050 AD
+	// (Standish). For each planet: a (AU), e, I, L, long.peri, long.node
+	// (degrees) followed by the rates per Julian century. The third entry is
+	// the Earth-Moon barycentre.
+	private static final double[][] ELEMENTS = {
+			{ 0.38709927, 0.20563593, 7.00497902, 252.25032350, 77.45779628,
+					48.33076593, 0.00000037, 0.00001906, -0.00594749,
+					149472.67411175, 0.16047689, -0.12534081 },
+			{ 0.72333566, 0.00677672, 3.39467605, 181.97909950, 131.60246718,
+					76.67984255, 0.00000390, -0.00004107, -0.00078890,
+					58517.81538729, 0.00268329, -0.27769418 },
+			{ 1.00000261, 0.01671123, -0.00001531, 100.46457166,
+					102.93768193, 0.0, 0.00000562, -0.00004392, -0.01294668,
+					35999.37244981, 0.32327364, 0.0 },
+			{ 1.52371034, 0.09339410, 1.84969142, -4.55343205, -23.94362959,
+					49.55953891, 0.00001847, 0.00007882, -0.00813131,
+					19140.30268499, 0.44441088, -0.29257343 },
+			{ 5.20288700, 0.04838624, 1.30439695, 34.39644051, 14.72847983,
+					100.47390909, -0.00011607, -0.00013253, -0.00183714,
+					3034.74612775, 0.21252668, 0.20469106 },
+			{ 9.53667594, 0.05386179, 2.48599187, 49.95424423, 92.59887831,
+					113.66242448, -0.00125060, -0.00050991, 0.00193609,
+					1222.49362201, -0.41897216, -0.28867794 },
+			{ 19.18916464, 0.04725744, 0.77263783, 313.23810451,
+					170.95427630, 74.01692503, -0.00196176, -0.00004397,
+					-0.00242939, 428.48202785, 0.40805281, 0.04240589 },
+			{ 30.06992276, 0.00859048, 1.77004347, -55.12002969, 44.96476227,
+					131.78422574, 0.00026291, 0.00005105, 0.00035372,
+					218.45945325, -0.32241464, -0.00508664 } };
+
+	private static final int EMB = 2;
+
+	// Sun/planet mass ratios (IAU 2009), in the same order as ELEMENTS.
+	private static final double[] SUN_PLANET_MASS_RATIOS = { 6023600.0,
+			408523.719, 328900.56, 3098703.59, 1047.348644, 3497.9018,
+			22902.98, 19412.26 };
+
+	// Planet/Sun mass ratios and their sum, derived from the above.
+	private static final double[] PLANET_MASSES;
+	private static final double TOTAL_MASS;
+
+	static {
+		PLANET_MASSES = new double[SUN_PLANET_MASS_RATIOS.length];
+		double total = 1.0;
+		for (int i = 0; i < SUN_PLANET_MASS_RATIOS.length; i++) {
+			PLANET_MASSES[i] = 1.0 / SUN_PLANET_MASS_RATIOS[i];
+			total += PLANET_MASSES[i];
+		}
+		TOTAL_MASS = total;
+	}
+
+	// Leap second table: UTC JD at which each TAI-UTC value took effect.
+	private static final double[] LEAP_SECOND_JDS = { 2441317.5, 2441499.5,
+			2441683.5, 2442048.5, 2442413.5, 2442778.5, 2443144.5, 2443509.5,
+			2443874.5, 2444239.5, 2444786.5, 2445151.5, 2445516.5, 2446247.5,
+			2447161.5, 2447892.5, 2448257.5, 2448804.5, 2449169.5, 2449534.5,
+			2450083.5, 2450630.5, 2451179.5, 2453736.5, 2454832.5, 2456109.5,
+			2457204.5, 2457754.5 };
+
+	// TAI-UTC for 1961-1971: UTC JD of validity, offset (s), reference MJD
+	// and rate (s/day), i.e. TAI-UTC = offset + (MJD - refMJD) * rate.
+	private static final double[][] EARLY_UTC = {
+			{ 2437300.5, 1.4228180, 37300, 0.001296 },
+			{ 2437512.5, 1.3728180, 37300, 0.001296 },
+			{ 2437665.5, 1.8458580, 37665, 0.0011232 },
+			{ 2438334.5, 1.9458580, 37665, 0.0011232 },
+			{ 2438395.5, 3.2401300, 38761, 0.001296 },
+			{ 2438486.5, 3.3401300, 38761, 0.001296 },
+			{ 2438639.5, 3.4401300, 38761, 0.001296 },
+			{ 2438761.5, 3.5401300, 38761, 0.001296 },
+			{ 2438820.5, 3.6401300, 38761, 0.001296 },
+			{ 2438942.5, 3.7401300, 38761, 0.001296 },
+			{ 2439004.5, 3.8401300, 38761, 0.001296 },
+			{ 2439126.5, 4.3131700, 39126, 0.002592 },
+			{ 2439887.5, 4.2131700, 39126, 0.002592 } };
+
+	/**
+	 * @return The singleton instance.
+	 */
+	public static BarycentricTimeConverter getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Convert a single JD (UTC) to BJD_TDB.
+	 *
+	 * @param jd
+	 *            The Julian Date (UTC).
+	 * @param raDegs
+	 *            The target's J2000 right ascension in decimal degrees.
+	 * @param decDegs
+	 *            The target's J2000 declination in decimal degrees.
+	 * @return The corresponding BJD_TDB.
+	 */
+	public double utcToBJD(double jd, double raDegs, double decDegs) {
+		return utcToBJD(jd, targetVector(raDegs, decDegs), new double[3]);
+	}
+
+	/**
+	 * Convert a single HJD (UTC) to BJD_TDB.
+	 *
+	 * @param hjd
+	 *            The Heliocentric Julian Date (UTC).
+	 * @param raDegs
+	 *            The target's J2000 right ascension in decimal degrees.
+	 * @param decDegs
+	 *            The target's J2000 declination in decimal degrees.
+	 * @return The corresponding BJD_TDB.
+	 */
+	public double hjdToBJD(double hjd, double raDegs, double decDegs) {
+		return hjdToBJD(hjd, targetVector(raDegs, decDegs), new double[3]);
+	}
+
+	/**
+	 * Convert an array of JDs (UTC) to BJD_TDB.
+	 *
+	 * @param jds
+	 *            The Julian Dates (UTC).
+	 * @param raDegs
+	 *            The target's J2000 right ascension in decimal degrees.
+	 * @param decDegs
+	 *            The target's J2000 declination in decimal degrees.
+	 * @return A new array of the corresponding BJD_TDB values.
+	 */
+	public double[] utcToBJD(final double[] jds, double raDegs, double decDegs) {
+		final double[] target = targetVector(raDegs, decDegs);
+		final double[] bjds = new double[jds.length];
+
+		ParallelChunks.forEachChunk(jds.length, (from, to) -> {
+			double[] pos = new double[3];
+			for (int i = from; i < to; i++) {
+				bjds[i] = utcToBJD(jds[i], target, pos);
+			}
+		});
+
+		return bjds;
+	}
+
+	/**
+	 * Convert an array of HJDs (UTC) to BJD_TDB.
+	 *
+	 * @param hjds
+	 *            The Heliocentric Julian Dates (UTC).
+	 * @param raDegs
+	 *            The target's J2000 right ascension in decimal degrees.
+	 * @param decDegs
+	 *            The target's J2000 declination in decimal degrees.
+	 * @return A new array of the corresponding BJD_TDB values.
+	 */
+	public double[] hjdToBJD(final double[] hjds, double raDegs, double decDegs) {
+		final double[] target = targetVector(raDegs, decDegs);
+		final double[] bjds = new double[hjds.length];
+
+		ParallelChunks.forEachChunk(hjds.length, (from, to) -> {
+			double[] pos = new double[3];
+			for (int i = from; i < to; i++) {
+				bjds[i] = hjdToBJD(hjds[i], target, pos);
+			}
+		});
+
+		return bjds;
+	}
+
+	/**
+	 * Return TT - UTC in seconds for a given UTC JD.
+	 *
+	 * @param jd
+	 *            The Julian Date (UTC).
+	 * @return TT - UTC in seconds.
+	 */
+	public double ttMinusUTC(double jd) {
+		return taiMinusUTC(jd) + 32.184;
+	}
+
+	/**
+	 * Return TAI - UTC in seconds for a given UTC JD.
+	 *
+	 * @param jd
+	 *            The Julian Date (UTC).
+	 * @return TAI - UTC in seconds.
+	 */
+	public double taiMinusUTC(double jd) {
+		if (jd >= LEAP_SECOND_JDS[0]) {
+			int i = LEAP_SECOND_JDS.length - 1;
+			while (jd < LEAP_SECOND_JDS[i]) {
+				i--;
+			}
+			return 10 + i;
+		} else {
+			int i = EARLY_UTC.length - 1;
+			while (i > 0 && jd < EARLY_UTC[i][0]) {
+				i--;
+			}
+			double[] entry = EARLY_UTC[i];
+			double mjd = Math.max(jd, EARLY_UTC[0][0]) - 2400000.5;
+			return entry[1] + (mjd - entry[2]) * entry[3];
+		}
+	}
+
+	/**
+	 * Return TDB - TT in seconds for a given TT JD, from the leading terms of
+	 * Fairhead &amp; Bretagnon (1990). Accurate to ~30 microseconds.
+	 *
+	 * @param jdTT
+	 *            The Julian Date (TT).
+	 * @return TDB - TT in seconds.
+	 */
+	public double tdbMinusTT(double jdTT) {
+		double g = Math.toRadians(357.53 + 0.98560028 * (jdTT - J2000));
+		return 0.001657 * Math.sin(g) + 0.000014 * Math.sin(2 * g);
+	}
+
+	/**
+	 * Compute the Earth's (geocentre) position relative to the solar system
+	 * barycentre in AU, in the J2000 equatorial frame.
+	 *
+	 * @param jdTDB
+	 *            The Julian Date (TDB).
+	 * @param pos
+	 *            A 3 element array into which x, y, z are written.
+	 */
+	public void earthBarycentricPosition(double jdTDB, double[] pos) {
+		double T = (jdTDB - J2000) / DAYS_PER_CENTURY;
+
+		double x = 0, y = 0, z = 0;
+		double sx = 0, sy = 0, sz = 0;
+		double[] planet = new double[3];
+
+		for (int i = 0; i < ELEMENTS.length; i++) {
+			heliocentricEclipticPosition(ELEMENTS[i], T, planet);
+			sx -= PLANET_MASSES[i] * planet[0];
+			sy -= PLANET_MASSES[i] * planet[1];
+			sz -= PLANET_MASSES[i] * planet[2];
+			if (i == EMB) {
+				x = planet[0];
+				y = planet[1];
+				z = planet[2];
+			}
+		}
+
+		// Move from the Earth-Moon barycentre to the geocentre.
+		moonGeocentricEclipticPosition(T, planet);
+		double f = 1.0 / (1.0 + EARTH_MOON_MASS_RATIO);
+		x = x - f * planet[0] + sx / TOTAL_MASS;
+		y = y - f * planet[1] + sy / TOTAL_MASS;
+		z = z - f * planet[2] + sz / TOTAL_MASS;
+
+		eclipticToEquatorial(x, y, z, pos);
+	}
+
+	/**
+	 * Compute the Earth's (geocentre) position relative to the Sun in AU, in
+	 * the J2000 equatorial frame.
+	 *
+	 * @param jdTDB
+	 *            The Julian Date (TDB).
+	 * @param pos
+	 *            A 3 element array into which x, y, z are written.
+	 */
+	public void earthHeliocentricPosition(double jdTDB, double[] pos) {
+		double T = (jdTDB - J2000) / DAYS_PER_CENTURY;
+
+		double[] emb = new double[3];
+		heliocentricEclipticPosition(ELEMENTS[EMB], T, emb);
+
+		moonGeocentricEclipticPosition(T, pos);
+		double f = 1.0 / (1.0 + EARTH_MOON_MASS_RATIO);
+
+		eclipticToEquatorial(emb[0] - f * pos[0], emb[1] - f * pos[1], emb[2]
+				- f * pos[2], pos);
+	}
+
+	// Helpers
+
+	/**
+	 * Convert a JD (UTC) to BJD_TDB given the target unit vector and a scratch
+	 * array.
+	 */
+	private double utcToBJD(double jd, double[] target, double[] pos) {
+		double jdTT = jd + ttMinusUTC(jd) / SECS_PER_DAY;
+		double jdTDB = jdTT + tdbMinusTT(jdTT) / SECS_PER_DAY;
+
+		earthBarycentricPosition(jdTDB, pos);
+
+		return jdTDB + dot(pos, target) * AU_LIGHT_TIME_DAYS;
+	}
+
+	/**
+	 * Convert an HJD (UTC) to BJD_TDB given the target unit vector and a
+	 * scratch array. The HJD is first inverted to the JD (UTC) of the
+	 * observation by fixed point iteration, since the heliocentric correction
+	 * depends upon the (unknown) time of observation.
+	 */
+	private double hjdToBJD(double hjd, double[] target, double[] pos) {
+		double jd = hjd;
+		for (int i = 0; i < 3; i++) {
+			double jdTT = jd + ttMinusUTC(jd) / SECS_PER_DAY;
+			earthHeliocentricPosition(jdTT, pos);
+			jd = hjd - dot(pos, target) * AU_LIGHT_TIME_DAYS;
+		}
+
+		return utcToBJD(jd, target, pos);
+	}
+
+	/**
+	 * Compute a heliocentric J2000 ecliptic position from approximate
+	 * Keplerian elements.
+	 */
+	private static void heliocentricEclipticPosition(double[] elts, double T,
+			double[] pos) {
+		double a = elts[0] + elts[6] * T;
+		double e = elts[1] + elts[7] * T;
+		double I = Math.toRadians(elts[2] + elts[8] * T);
+		double L = elts[3] + elts[9] * T;
+		double varpi = elts[4] + elts[10] * T;
+		double Omega = elts[5] + elts[11] * T;
+
+		double omega = Math.toRadians(varpi - Omega);
+		double M = Math.toRadians(L - varpi);
+		M = Math.IEEEremainder(M, 2 * Math.PI);
+		Omega = Math.toRadians(Omega);
+
+		// Kepler's equation by Newton's method.
+		double E = M + e * Math.sin(M);
+		for (int i = 0; i < 10; i++) {
+			double dE = (E - e * Math.sin(E) - M) / (1 - e * Math.cos(E));
+			E -= dE;
+			if (Math.abs(dE) < 1e-12) {
+				break;
+			}
+		}
+
+		double xp = a * (Math.cos(E) - e);
+		double yp = a * Math.sqrt(1 - e * e) * Math.sin(E);
+
+		double cosw = Math.cos(omega), sinw = Math.sin(omega);
+		double cosO = Math.cos(Omega), sinO = Math.sin(Omega);
+		double cosI = Math.cos(I), sinI = Math.sin(I);
+
+		pos[0] = (cosw * cosO - sinw * sinO * cosI) * xp
+				+ (-sinw * cosO - cosw * sinO * cosI) * yp;
+		pos[1] = (cosw * sinO + sinw * cosO * cosI) * xp
+				+ (-sinw * sinO + cosw * cosO * cosI) * yp;
+		pos[2] = (sinw * sinI) * xp + (cosw * sinI) * yp;
+	}
+
+	/**
+	 * Compute the Moon's geocentric ecliptic position in AU from the principal
+	 * terms of Meeus ch 47. Only used to displace the Earth from the Earth-Moon
+	 * barycentre (~4700 km), so low precision suffices.
+	 */
+	private static void moonGeocentricEclipticPosition(double T, double[] pos) {
+		double Lp = Math.toRadians(218.3164477 + 481267.88123421 * T);
+		double D = Math.toRadians(297.8501921 + 445267.1114034 * T);
+		double M = Math.toRadians(357.5291092 + 35999.0502909 * T);
+		double Mp = Math.toRadians(134.9633964 + 477198.8675055 * T);
+		double F = Math.toRadians(93.2720950 + 483202.0175233 * T);
+
+		double lambda = Lp
+				+ Math.toRadians(6.289 * Math.sin(Mp) + 1.274
+						* Math.sin(2 * D - Mp) + 0.658 * Math.sin(2 * D)
+						+ 0.214 * Math.sin(2 * Mp) - 0.186 * Math.sin(M)
+						- 0.114 * Math.sin(2 * F));
+
+		double beta = Math.toRadians(5.128 * Math.sin(F) + 0.281
+				* Math.sin(Mp + F) + 0.278 * Math.sin(Mp - F) + 0.173
+				* Math.sin(2 * D - F));
+
+		double r = (385000.56 - 20905.355 * Math.cos(Mp) - 3699.111
+				* Math.cos(2 * D - Mp) - 2955.968 * Math.cos(2 * D))
+				/ KM_PER_AU;
+
+		pos[0] = r * Math.cos(beta) * Math.cos(lambda);
+		pos[1] = r * Math.cos(beta) * Math.sin(lambda);
+		pos[2] = r * Math.sin(beta);
+	}
+
+	private static void eclipticToEquatorial(double x, double y, double z,
+			double[] pos) {
+		pos[0] = x;
+		pos[1] = COS_OBLIQ * y - SIN_OBLIQ * z;
+		pos[2] = SIN_OBLIQ * y + COS_OBLIQ * z;
+	}
+
+	private static double[] targetVector(double raDegs, double decDegs) {
+		double ra = Math.toRadians(raDegs);
+		double dec = Math.toRadians(decDegs);
+		return new double[] { Math.cos(dec) * Math.cos(ra),
+				Math.cos(dec) * Math.sin(ra), Math.sin(dec) };
+	}
+
+	private static double dot(double[] a, double[] b) {
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+	}
+}
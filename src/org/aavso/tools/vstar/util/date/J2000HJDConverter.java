@@ -71,7 +71,30 @@ public class J2000HJDConverter extends AbstractHJDConverter {
 
 		SolarCoords coords = solarCoords(T, year);
 
-		return hjd(jd, T, coords, ra, dec);
+		return jd + correction(T, coords, ra, dec);
+	}
+
+	/**
+	 * Given a JD and a target's RA and Dec, return the heliocentric
+	 * correction.
+	 * 
+	 * @param jd
+	 *            The Julian Date.
+	 * @param ra
+	 *            The J2000 epoch right ascension coordinate in decimal degrees.
+	 * @param dec
+	 *            The J2000 epoch declination coordinate in decimal degrees.
+	 * @return The correction (HJD - JD) in days.
+	 */
+	@Override
+	public double correction(double jd, RAInfo ra, DecInfo dec) {
+		double T = julianCenturies(jd);
+
+		int year = AbstractDateUtil.getInstance().jdToYMD(jd).getYear();
+
+		SolarCoords coords = solarCoords(T, year);
+
+		return correction(T, coords, ra, dec);
 	}
 
 	/**
@@ -91,10 +114,8 @@ public class J2000HJDConverter extends AbstractHJDConverter {
 	}
 
 	/**
-	 * Compute and return the Heliocentric JD of the target.
+	 * Compute and return the heliocentric correction for the target.
 	 * 
-	 * @param jd
-	 *            The Julian Date to be converted.
 	 * @param T
 	 *            The time in Julian centuries.
 	 * @param coords
@@ -103,9 +124,9 @@ public class J2000HJDConverter extends AbstractHJDConverter {
 	 *            The J2000 epoch right ascension coordinate in decimal degrees.
 	 * @param dec
 	 *            The J2000 epoch declination coordinate in decimal degrees.
-	 * @return The corresponding Heliocentric Julian Date.
+	 * @return The correction (HJD - JD) in days.
 	 */
-	protected double hjd(double jd, double T, SolarCoords coords, RAInfo ra,
+	protected double correction(double T, SolarCoords coords, RAInfo ra,
 			DecInfo dec) {
 
 		double R = radiusVector(T, coords.getTrueAnomaly(),
@@ -123,8 +144,7 @@ public class J2000HJDConverter extends AbstractHJDConverter {
 		double solarRARads = Math.toRadians(coords.getRA());
 		double solarDecRads = Math.toRadians(coords.getDec());
 
-		return jd
-				- (R / c)
+		return -(R / c)
 				* (Math.sin(targetDecRads) * Math.sin(solarDecRads) + Math
 						.cos(targetDecRads)
 						* Math.cos(solarDecRads)
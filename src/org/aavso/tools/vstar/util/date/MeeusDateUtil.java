@@ -23,32 +23,59 @@ package org.aavso.tools.vstar.util.date;
  */
 public class MeeusDateUtil extends AbstractDateUtil {
 
+	// A direct-mapped cache from day number (the integer part of JD + 0.5)
+	// to calendar date string. Entries are immutable, so unsynchronised
+	// access from multiple threads is safe: at worst an entry is recomputed.
+	private static final int CALENDAR_CACHE_SIZE = 1 << 14;
+	private static final CalendarDay[] calendarCache = new CalendarDay[CALENDAR_CACHE_SIZE];
+
 	/**
 	 * Method to convert the integer part of a JD into an ISO-8601 calendar date.
 	 * 
 	 * This method determines the Calendar day given the Julian Day. It is not valid
 	 * for negative Julian Days (but is valid for negative year results).
 	 * 
+	 * Since the result depends only upon the day number, it is cached per day
+	 * such that repeated requests for the same night (e.g. when rendering or
+	 * sorting an observation table) avoid recomputation.
+	 * 
 	 * @param jd Julian Day (double)
 	 * @return calendar date string of the form "YYYY-MM-DD" (ISO-8601 format)
 	 */
 	public String jdToCalendar(double jd) throws IllegalArgumentException {
+		int dayNumber = (int) (jd + 0.5);
+		int slot = dayNumber & (CALENDAR_CACHE_SIZE - 1);
+
+		CalendarDay entry = calendarCache[slot];
+
+		if (entry == null || entry.dayNumber != dayNumber) {
+			entry = new CalendarDay(dayNumber, formatCalendarDate(jdToYMD(jd)));
+			calendarCache[slot] = entry;
+		}
 
-		YMD ymd = jdToYMD(jd);
+		return entry.date;
+	}
 
-		StringBuffer yyyymmddBuf = new StringBuffer();
+	/**
+	 * Format a year, month, day as an ISO-8601 calendar date string.
+	 * 
+	 * @param ymd The year, month, day.
+	 * @return calendar date string of the form "YYYY-MM-DD" (ISO-8601 format)
+	 */
+	protected String formatCalendarDate(YMD ymd) {
+		StringBuilder yyyymmddBuf = new StringBuilder(10);
 		yyyymmddBuf.append(ymd.getYear());
 
-		yyyymmddBuf.append("-");
+		yyyymmddBuf.append('-');
 
 		int month = ymd.getMonth();
-		if (month < 10) yyyymmddBuf.append("0");
+		if (month < 10) yyyymmddBuf.append('0');
 		yyyymmddBuf.append(month);
 
-		yyyymmddBuf.append("-");
+		yyyymmddBuf.append('-');
 
 		int day = (int) ymd.getDay();
-		if (day < 10) yyyymmddBuf.append("0");
+		if (day < 10) yyyymmddBuf.append('0');
 		yyyymmddBuf.append(day);
 
 		return yyyymmddBuf.toString();
@@ -158,4 +185,17 @@ public class MeeusDateUtil extends AbstractDateUtil {
 		else
 			return false;
 	}
+
+	/**
+	 * A day number and its calendar date string.
+	 */
+	private static final class CalendarDay {
+		final int dayNumber;
+		final String date;
+
+		CalendarDay(int dayNumber, String date) {
+			this.dayNumber = dayNumber;
+			this.date = date;
+		}
+	}
 }
@@ -28,6 +28,7 @@ import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
 import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.TSBase;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
@@ -112,7 +113,7 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 		// Load the observation data and perform a polynomial fitting operation
 		// of the specified degree.
 		load_raw();
-		interrupted = false;
+		token = CancellationToken.current();
 		try {
 			polymast(degree);
 
@@ -130,7 +131,7 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 	}
 
 	public void interrupt() {
-		interrupted = true;
+		token.cancel();
 	}
 
 	/**
@@ -28,6 +28,7 @@ import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
 import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.comparator.JDComparator;
 import org.aavso.tools.vstar.util.period.wwz.WWZStatistic;
 import org.aavso.tools.vstar.util.period.wwz.WeightedWaveletZTransform;
@@ -47,7 +48,7 @@ public class WWZMultiperiodicModel implements IModel {
 
 	private String desc;
 
-	private boolean interrupted;
+	private volatile CancellationToken token;
 
 	/**
 	 * Constructor
@@ -68,7 +69,7 @@ public class WWZMultiperiodicModel implements IModel {
 		fit = new ArrayList<ValidObservation>();
 		residuals = new ArrayList<ValidObservation>();
 
-		interrupted = false;
+		token = new CancellationToken();
 	}
 
 	/**
@@ -76,7 +77,7 @@ public class WWZMultiperiodicModel implements IModel {
 	 */
 	@Override
 	public void execute() throws AlgorithmError {
-		interrupted = false;
+		token = CancellationToken.current();
 
 		// TODO: For multiple periods, do we need instead to average the
 		// best-fit and residual values?
@@ -84,54 +85,57 @@ public class WWZMultiperiodicModel implements IModel {
 		// TODO: pass in wwt object so we can always use the full stats list and
 		// get observations
 
-		for (double period : periods) {
-			// Iterate over each statistic, looking for entries for which the
-			// period is the same as our target. When one is found, create a fit
-			// observation. For all observations since the previous period was
-			// found, create residuals from the observations in that range.
-			int i = 0;
-
-			// Always use all statistcs vs maximal statistics to create model.
-			// TODO: sanity check that!
-			for (WWZStatistic stat : wwt.getStats()) {
-
-				if (stat.getPeriod() == period) {
-
-					String comment = "From WWZ, period "
-							+ NumericPrecisionPrefs.formatOther(period);
-
-					// Create a fit observation from the average magnitude for
-					// this time-frequency/period combination.
-					ValidObservation fitOb = new ValidObservation();
-					fitOb.setDateInfo(new DateInfo(stat.getTau()));
-					fitOb.setMagnitude(new Magnitude(stat.getMave(), 0));
-					fitOb.setBand(SeriesType.Model);
-					fitOb.setComments(comment);
-					fit.add(fitOb);
-
-					// Create a residual observation for each observation since
-					// the previous period. TODO: sanity check this approach,
-					// i.e. does it actually make sense for a tau value to
-					// represent a range of observation time values for the
-					// purpose of residual creation?
-					while (i < obs.size()
-							&& obs.get(i).getJD() <= stat.getTau()) {
-						double residual = obs.get(i).getMag() - stat.getMave();
-						ValidObservation residualOb = new ValidObservation();
-						residualOb
-								.setDateInfo(new DateInfo(obs.get(i).getJD()));
-						residualOb.setMagnitude(new Magnitude(residual, 0));
-						residualOb.setBand(SeriesType.Residuals);
-						residualOb.setComments(comment);
-						residuals.add(residualOb);
-						i++;
+		try {
+			for (double period : periods) {
+				// Iterate over each statistic, looking for entries for which the
+				// period is the same as our target. When one is found, create a fit
+				// observation. For all observations since the previous period was
+				// found, create residuals from the observations in that range.
+				int i = 0;
+
+				// Always use all statistcs vs maximal statistics to create model.
+				// TODO: sanity check that!
+				for (WWZStatistic stat : wwt.getStats()) {
+
+					if (stat.getPeriod() == period) {
+
+						String comment = "From WWZ, period "
+								+ NumericPrecisionPrefs.formatOther(period);
+
+						// Create a fit observation from the average magnitude for
+						// this time-frequency/period combination.
+						ValidObservation fitOb = new ValidObservation();
+						fitOb.setDateInfo(new DateInfo(stat.getTau()));
+						fitOb.setMagnitude(new Magnitude(stat.getMave(), 0));
+						fitOb.setBand(SeriesType.Model);
+						fitOb.setComments(comment);
+						fit.add(fitOb);
+
+						// Create a residual observation for each observation since
+						// the previous period. TODO: sanity check this approach,
+						// i.e. does it actually make sense for a tau value to
+						// represent a range of observation time values for the
+						// purpose of residual creation?
+						while (i < obs.size()
+								&& obs.get(i).getJD() <= stat.getTau()) {
+							double residual = obs.get(i).getMag() - stat.getMave();
+							ValidObservation residualOb = new ValidObservation();
+							residualOb
+									.setDateInfo(new DateInfo(obs.get(i).getJD()));
+							residualOb.setMagnitude(new Magnitude(residual, 0));
+							residualOb.setBand(SeriesType.Residuals);
+							residualOb.setComments(comment);
+							residuals.add(residualOb);
+							i++;
+						}
 					}
-				}
 
-				if (interrupted) {
-					return;
+					token.checkpoint();
 				}
 			}
+		} catch (InterruptedException e) {
+			// Do nothing; just return.
+			return;
 		}
 
 		// For multiple periods, observations will be out of time order, so sort
@@ -195,7 +199,7 @@ public class WWZMultiperiodicModel implements IModel {
 
 	@Override
 	public void interrupt() {
-		interrupted = true;
+		token.cancel();
 	}
 
 	@Override
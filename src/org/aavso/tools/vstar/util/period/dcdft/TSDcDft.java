@@ -27,6 +27,7 @@ import org.aavso.tools.vstar.data.Magnitude;
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.TSBase;
 import org.aavso.tools.vstar.util.model.Harmonic;
 import org.aavso.tools.vstar.util.model.PeriodAnalysisDerivedMultiPeriodicModel;
@@ -164,7 +165,7 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 	// -------------------------------------------------------------------------------
 
 	public void interrupt() {
-		interrupted = true;
+		token.cancel();
 	}
 
 	// -------------------------------------------------------------------------------
@@ -315,7 +316,7 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 	 */
 	@Override
 	public void execute() throws AlgorithmError {
-		interrupted = false;
+		token = CancellationToken.current();
 
 		try {
 			dcdft();
@@ -333,6 +334,7 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 			List<Double> variablePeriods, List<Double> lockedPeriods)
 			throws AlgorithmError, InterruptedException {
 
+		token = CancellationToken.current();
 		deltaTopHits.clear();
 		cleanest(freqs, variablePeriods, lockedPeriods);
 
@@ -423,6 +425,7 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 		for (nj = 1 + npoly; nj <= numact; nj++) {
 			ff = (double) nj * dang0;
 			fft(ff);
+			token.progress(nj - npoly, numact - npoly);
 			// TODO: nbrake is never set to anything other than 0!!
 			if (nbrake < 0) {
 				statcomp();
@@ -466,6 +469,7 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 			for (ixx = 1; ixx <= iff; ixx++) {
 				ff = xlofre + (double) (ixx - 1) * res;
 				fft(ff);
+				token.progress(ixx, iff);
 				if (nbrake < 0) {
 					statcomp();
 					return;
@@ -527,6 +531,7 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 				}
 
 				fft(ff);
+				token.progress(ixx, ipp);
 
 				if (nbrake < 0) {
 					statcomp();
@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.util.CancellationToken;
 import org.aavso.tools.vstar.util.IAlgorithm;
 
 /**
@@ -55,6 +56,9 @@ import org.aavso.tools.vstar.util.IAlgorithm;
  */
 public class WeightedWaveletZTransform implements IAlgorithm {
 
+	// Check for cancellation every 1024 observations within a window.
+	private static final int CHECKPOINT_MASK = 0x3FF;
+
 	// Observations to be analysed.
 	private List<ValidObservation> obs;
 
@@ -82,7 +86,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 	private int numdat;
 	private double tau[];
 
-	private boolean interrupted;
+	private volatile CancellationToken token;
 
 	/**
 	 * Constructor
@@ -115,7 +119,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 
 		maketau(timeDivisions);
 
-		interrupted = false;
+		token = new CancellationToken();
 	}
 
 	/**
@@ -144,7 +148,13 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 	 */
 	@Override
 	public void execute() throws AlgorithmError {
-		interrupted = false;
+		// Keep a cancellation made by interrupt() before execution.
+		CancellationToken previous = token;
+		token = CancellationToken.current();
+		if (previous.isCancelled()) {
+			token.cancel();
+		}
+
 		try {
 			wwt();
 			computeMinAndMaxValues();
@@ -154,7 +164,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 	}
 
 	public void interrupt() {
-		interrupted = true;
+		token.cancel();
 	}
 
 	/**
@@ -413,9 +423,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 			}
 			dsol[i][i] = 1.0;
 			
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 
 		for (int i = 0; i <= ndim; i++) {
@@ -431,9 +439,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 					}
 				}
 				
-				if (interrupted) {
-					throw new InterruptedException();
-				}
+				token.checkpoint();
 			}
 			
 			dfac = dmat[i][i];
@@ -449,9 +455,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 						dsol[j][k] = dsol[j][k] - (dsol[i][k] * dfac);
 					}
 					
-					if (interrupted) {
-						throw new InterruptedException();
-					}
+					token.checkpoint();
 				}
 			}
 		}
@@ -460,9 +464,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 				dmat[i][j] = dsol[i][j];
 			}
 			
-			if (interrupted) {
-				throw new InterruptedException();
-			}
+			token.checkpoint();
 		}
 	}
 
@@ -518,13 +520,15 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 						dmat[i][j] = 0.0;
 					}
 
-					if (interrupted) {
-						throw new InterruptedException();
-					}
+					token.checkpoint();
 				}
 				dweight2 = 0.0;
 
 				for (idat = nstart; idat <= numdat; idat++) {
+					if ((idat & CHECKPOINT_MASK) == 0) {
+						token.checkpoint();
+					}
+
 					dz = domega * (dt[idat] - dtau);
 					dweight = Math.exp(-1.0 * dcon * dz * dz);
 					if (dweight > 1.0e-9) {
@@ -551,9 +555,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 					}
 				}
 
-				if (interrupted) {
-					throw new InterruptedException();
-				}
+				token.checkpoint();
 
 				dpower = 0.0;
 				damp = 0.0;
@@ -572,9 +574,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 							dmat[n1][n2] = dmat[n1][n2] / dmat[0][0];
 						}
 
-						if (interrupted) {
-							throw new InterruptedException();
-						}
+						token.checkpoint();
 					}
 					if (dmat[0][0] > 0.0) {
 						dvarw = dvarw / dmat[0][0];
@@ -591,9 +591,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 							dmat[n1][n2] = dmat[n2][n1];
 						}
 
-						if (interrupted) {
-							throw new InterruptedException();
-						}
+						token.checkpoint();
 					}
 
 					matinv();
@@ -604,9 +602,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 						}
 						dpower = dpower + (dcoef[n1] * dvec[n1]);
 
-						if (interrupted) {
-							throw new InterruptedException();
-						}
+						token.checkpoint();
 					}
 					dpower = dpower - (davew * davew);
 					dpowz = (dneff - 3.0) * dpower / (dvarw - dpower) / 2.0;
@@ -622,9 +618,7 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 						dneff = 0.0;
 				}
 
-				if (interrupted) {
-					throw new InterruptedException();
-				}
+				token.checkpoint();
 
 				if (damp < 1.0e-9)
 					damp = 0.0;
@@ -657,6 +651,8 @@ public class WeightedWaveletZTransform implements IAlgorithm {
 					dmamp, dmcon, dmneff);
 
 			maximalStats.add(maximalStat);
+
+			token.progress(itau - itau1 + 1, itau2 - itau1 + 1);
 		}
 	}
 }
@@ -78,6 +78,10 @@ public class NumericPrecisionPrefs {
 	private static int timeDecimalPlaces = DEFAULT_TIME_DECIMAL_PLACES;
 	private static int magDecimalPlaces = DEFAULT_MAG_DECIMAL_PLACES;
 	private static int otherDecimalPlaces = DEFAULT_OTHER_DECIMAL_PLACES;
+
+	// Incremented whenever a change is made that could alter formatted
+	// output, allowing caches of formatted values to detect staleness.
+	private static volatile int generation = 0;
 	
 	/**
 	 * Clears stored locale-dependent formats (i.e. after locale change)
@@ -86,6 +90,15 @@ public class NumericPrecisionPrefs {
 		timeOutputFormats.clear();
 		magOutputFormats.clear();
 		otherOutputFormats.clear();
+		generation++;
+	}
+
+	/**
+	 * @return a value that changes whenever decimal places or locale-dependent
+	 *         formats change
+	 */
+	public static int getGeneration() {
+		return generation;
 	}
 	
 	/**
@@ -101,6 +114,7 @@ public class NumericPrecisionPrefs {
 	 */
 	public static void setTimeDecimalPlaces(int timeDecimalPlaces) {
 		NumericPrecisionPrefs.timeDecimalPlaces = timeDecimalPlaces;
+		generation++;
 	}
 
 	/**
@@ -116,6 +130,7 @@ public class NumericPrecisionPrefs {
 	 */
 	public static void setMagDecimalPlaces(int magDecimalPlaces) {
 		NumericPrecisionPrefs.magDecimalPlaces = magDecimalPlaces;
+		generation++;
 	}
 
 	/**
@@ -131,6 +146,7 @@ public class NumericPrecisionPrefs {
 	 */
 	public static void setOtherDecimalPlaces(int otherDecimalPlaces) {
 		NumericPrecisionPrefs.otherDecimalPlaces = otherDecimalPlaces;
+		generation++;
 	}
 
 	// Time (JD, phase)
@@ -375,6 +391,7 @@ public class NumericPrecisionPrefs {
 		timeDecimalPlaces = DEFAULT_TIME_DECIMAL_PLACES;
 		magDecimalPlaces = DEFAULT_MAG_DECIMAL_PLACES;
 		otherDecimalPlaces = DEFAULT_OTHER_DECIMAL_PLACES;
+		generation++;
 		storeDecimalPlacesPrefs();
 	}
 }
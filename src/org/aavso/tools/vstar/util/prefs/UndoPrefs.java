@@ -0,0 +1,84 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.prefs;
+
+import java.util.prefs.Preferences;
+
+/**
+ * Undo/redo preferences.
+ */
+public class UndoPrefs {
+
+	private static int DEFAULT_MEMORY_BUDGET_MB = 64;
+
+	// The memory in megabytes that undoable actions on the undo and redo
+	// stacks may retain before the oldest are discarded.
+	private static int memoryBudgetMB = DEFAULT_MEMORY_BUDGET_MB;
+
+	public static int getMemoryBudgetMB() {
+		return memoryBudgetMB;
+	}
+
+	public static void setMemoryBudgetMB(int megabytes) {
+		memoryBudgetMB = megabytes;
+	}
+
+	/**
+	 * @return the memory budget in bytes
+	 */
+	public static long getMemoryBudget() {
+		return memoryBudgetMB * 1024L * 1024L;
+	}
+
+	// Preferences members.
+
+	private final static String PREFS_PREFIX = "UNDO_";
+
+	private static Preferences prefs;
+
+	static {
+		// Create preferences node for undo preferences.
+		try {
+			prefs = Preferences.userNodeForPackage(UndoPrefs.class);
+			retrieveUndoPrefs();
+		} catch (Throwable t) {
+			// We need VStar to function in the absence of prefs.
+		}
+	}
+
+	private static void retrieveUndoPrefs() {
+		memoryBudgetMB = prefs.getInt(PREFS_PREFIX + "memory_budget_mb", DEFAULT_MEMORY_BUDGET_MB);
+		if (memoryBudgetMB < 1) {
+			memoryBudgetMB = DEFAULT_MEMORY_BUDGET_MB;
+		}
+	}
+
+	public static void storeUndoPrefs() {
+		try {
+			prefs.putInt(PREFS_PREFIX + "memory_budget_mb", memoryBudgetMB);
+			prefs.flush();
+		} catch (Throwable t) {
+			// We need VStar to function in the absence of prefs.
+		}
+	}
+
+	public static void setDefaultUndoPrefs() {
+		memoryBudgetMB = DEFAULT_MEMORY_BUDGET_MB;
+		storeUndoPrefs();
+	}
+}
@@ -19,6 +19,7 @@ package org.aavso.tools.vstar.vela;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.aavso.tools.vstar.util.Pair;
 
@@ -34,6 +35,13 @@ public class AST {
 	private Operation op;
 	private LinkedList<AST> children;
 
+	// A pre-resolved source of this symbol's value, if any, and its type.
+	private Supplier<Operand> slot;
+	private Type slotType;
+
+	// The closure compiled from this AST, if any.
+	private volatile VeLaCompiler.Node compiled;
+
 	private static int nodeIndex = 0;
 
 	public AST() {
@@ -91,6 +99,45 @@ public class AST {
 		return token;
 	}
 
+	/**
+	 * @return the pre-resolved value source for this symbol, or null if the
+	 *         symbol must be looked up by name
+	 */
+	public Supplier<Operand> getSlot() {
+		return slot;
+	}
+
+	/**
+	 * @return the type of the values yielded by this symbol's slot, or NONE
+	 *         if not known
+	 */
+	public Type getSlotType() {
+		return slotType;
+	}
+
+	/**
+	 * Bind this symbol to a value source ahead of evaluation. If the source
+	 * yields null, the symbol is looked up by name as usual.
+	 * 
+	 * @param slot
+	 *            The value source.
+	 * @param slotType
+	 *            The type of the values yielded by the source, or NONE if not
+	 *            known.
+	 */
+	public void setSlot(Supplier<Operand> slot, Type slotType) {
+		this.slot = slot;
+		this.slotType = slotType;
+	}
+
+	VeLaCompiler.Node getCompiled() {
+		return compiled;
+	}
+
+	void setCompiled(VeLaCompiler.Node compiled) {
+		this.compiled = compiled;
+	}
+
 	public Operand getOperand() {
 		return literal;
 	}
@@ -147,6 +194,25 @@ public class AST {
 		return children == null;
 	}
 
+	/**
+	 * Return a copy of this AST with its own node structure. Literal operands
+	 * are shared, slots and compiled closures are not copied.
+	 * 
+	 * @return The copy.
+	 */
+	public AST copy() {
+		AST ast = new AST(token, op);
+		ast.literal = literal;
+
+		if (children != null) {
+			for (AST child : children) {
+				ast.addChild(child.copy());
+			}
+		}
+
+		return ast;
+	}
+
 	public boolean isLiteral() {
 		return literal != null;
 	}
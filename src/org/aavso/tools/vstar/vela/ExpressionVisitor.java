@@ -95,7 +95,9 @@ public class ExpressionVisitor extends VeLaBaseVisitor<AST> {
 
     @Override
     public AST visitNamedFundef(NamedFundefContext ctx) {
-        AST ast = new AST(Operation.FUNDEF);
+        // The token of a memoised function's definition is its annotation.
+        AST ast = ctx.MEMO() != null ? new AST(UserDefinedFunctionExecutor.MEMO_ANNOTATION, Operation.FUNDEF)
+                : new AST(Operation.FUNDEF);
         ast.addChild(ctx.symbol().accept(this));
         ctx.formalParameter().forEach(param -> ast.addChild(param.accept(this)));
         if (ctx.type() != null) {
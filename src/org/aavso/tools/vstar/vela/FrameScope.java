@@ -0,0 +1,180 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.Optional;
+
+/**
+ * The scope of a user-defined function applied via a frame on a primitive
+ * stack. The function's parameters are held in the frame's slots rather than
+ * being bound in this scope, but may still be looked up and bound by name,
+ * e.g. by functions that the function calls or by interpreted code, as for
+ * any other scope. Other bindings made while the function is applied are
+ * held in the scope as usual.<br/>
+ * Frame scopes are reused, so a frame scope must not be retained once the
+ * function has returned; snapshot() yields a scope that may be.
+ */
+class FrameScope extends VeLaScope {
+
+	private static final String[] NO_NAMES = new String[0];
+
+	private final PrimitiveStack stack;
+
+	private int first;
+	private int previousBase;
+	private String[] names;
+	private Type[] types;
+
+	FrameScope(PrimitiveStack stack) {
+		this.stack = stack;
+		names = NO_NAMES;
+	}
+
+	void enter(int first, int previousBase, String[] names, Type[] types) {
+		this.first = first;
+		this.previousBase = previousBase;
+		this.names = names;
+		this.types = types;
+	}
+
+	void leave() {
+		names = NO_NAMES;
+		types = null;
+		reset();
+	}
+
+	/**
+	 * Discard bindings and functions other than the parameters, e.g. before
+	 * the function's body is evaluated again for a tail call.
+	 */
+	void reset() {
+		if (!cache.isEmpty()) {
+			cache.clear();
+			constants.clear();
+		}
+
+		if (!getFunctions().isEmpty()) {
+			getFunctions().clear();
+		}
+	}
+
+	int getFirst() {
+		return first;
+	}
+
+	int getPreviousBase() {
+		return previousBase;
+	}
+
+	@Override
+	public Optional<Operand> lookup(String name) {
+		int index = indexOf(name);
+
+		if (index >= 0) {
+			return Optional.of(parameter(index));
+		} else {
+			return super.lookup(name);
+		}
+	}
+
+	@Override
+	public void bind(String name, Operand value, boolean isConstant) {
+		int index = indexOf(name);
+
+		if (index < 0) {
+			super.bind(name, value, isConstant);
+		} else if (isConstant) {
+			throw new VeLaEvalError("'" + name
+					+ "' is a constant binding in this environment.");
+		} else {
+			Operand convertedVal = value.convert(types[index]);
+
+			switch (convertedVal.getType() == types[index] ? types[index]
+					: Type.NONE) {
+			case REAL:
+				stack.setReal(first + index, convertedVal.doubleVal());
+				break;
+			case INTEGER:
+				stack.setInteger(first + index, convertedVal.intVal());
+				break;
+			case BOOLEAN:
+				stack.setInteger(first + index,
+						convertedVal.booleanVal() ? 1 : 0);
+				break;
+			default:
+				throw new VeLaEvalError(
+						String.format(
+								"The type of the value (%s) is not compatible with the bound type of %s.",
+								value, name));
+			}
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return names.length == 0 && super.isEmpty();
+	}
+
+	/**
+	 * Return a scope with the same bindings and functions as this one,
+	 * including the parameters' current values, e.g. for capture by a
+	 * function defined while this scope is active.
+	 *
+	 * @return The new scope.
+	 */
+	VeLaScope snapshot() {
+		VeLaScope scope = new VeLaScope();
+
+		for (int i = 0; i < names.length; i++) {
+			scope.bind(names[i], parameter(i), false);
+		}
+
+		scope.addAll(this);
+
+		return scope;
+	}
+
+	private Operand parameter(int index) {
+		Operand value;
+
+		switch (types[index]) {
+		case REAL:
+			value = new Operand(Type.REAL, stack.getReal(first + index));
+			break;
+		case INTEGER:
+			value = new Operand(Type.INTEGER, stack.getInteger(first + index));
+			break;
+		default:
+			value = new Operand(Type.BOOLEAN,
+					stack.getInteger(first + index) != 0);
+			break;
+		}
+
+		return value;
+	}
+
+	private int indexOf(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+}
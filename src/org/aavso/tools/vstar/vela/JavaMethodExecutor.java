@@ -0,0 +1,306 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * <p>
+ * A function executor for a Java method (e.g. from java.lang.Math or
+ * java.lang.String) that is bound at construction rather than being looked up
+ * and invoked reflectively on each call.
+ * </p>
+ * <p>
+ * Frequently used Math functions of one or two real parameters are bound
+ * directly to lambdas and may be applied to primitive values, without
+ * operands being boxed, via applyAsDouble(). Other methods are bound to a
+ * method handle. Methods that cannot be bound in either way (e.g. those for
+ * which some parameter types are not supported by VeLa) are invoked
+ * reflectively, as before.
+ * </p>
+ */
+class JavaMethodExecutor extends FunctionExecutor {
+
+    private static final Map<String, DoubleUnaryOperator> MATH_UNARY_OPERATORS = new HashMap<String, DoubleUnaryOperator>();
+    private static final Map<String, DoubleBinaryOperator> MATH_BINARY_OPERATORS = new HashMap<String, DoubleBinaryOperator>();
+
+    static {
+        MATH_UNARY_OPERATORS.put("sin", Math::sin);
+        MATH_UNARY_OPERATORS.put("cos", Math::cos);
+        MATH_UNARY_OPERATORS.put("tan", Math::tan);
+        MATH_UNARY_OPERATORS.put("asin", Math::asin);
+        MATH_UNARY_OPERATORS.put("acos", Math::acos);
+        MATH_UNARY_OPERATORS.put("atan", Math::atan);
+        MATH_UNARY_OPERATORS.put("sinh", Math::sinh);
+        MATH_UNARY_OPERATORS.put("cosh", Math::cosh);
+        MATH_UNARY_OPERATORS.put("tanh", Math::tanh);
+        MATH_UNARY_OPERATORS.put("exp", Math::exp);
+        MATH_UNARY_OPERATORS.put("log", Math::log);
+        MATH_UNARY_OPERATORS.put("log10", Math::log10);
+        MATH_UNARY_OPERATORS.put("sqrt", Math::sqrt);
+        MATH_UNARY_OPERATORS.put("cbrt", Math::cbrt);
+        MATH_UNARY_OPERATORS.put("abs", Math::abs);
+        MATH_UNARY_OPERATORS.put("floor", Math::floor);
+        MATH_UNARY_OPERATORS.put("ceil", Math::ceil);
+        MATH_UNARY_OPERATORS.put("rint", Math::rint);
+        MATH_UNARY_OPERATORS.put("signum", Math::signum);
+        MATH_UNARY_OPERATORS.put("toRadians", Math::toRadians);
+        MATH_UNARY_OPERATORS.put("toDegrees", Math::toDegrees);
+
+        MATH_BINARY_OPERATORS.put("pow", Math::pow);
+        MATH_BINARY_OPERATORS.put("atan2", Math::atan2);
+        MATH_BINARY_OPERATORS.put("hypot", Math::hypot);
+        MATH_BINARY_OPERATORS.put("max", Math::max);
+        MATH_BINARY_OPERATORS.put("min", Math::min);
+    }
+
+    private final Object instance;
+
+    // The Java types of the actual parameters, including the object on which
+    // the method is invoked if that is passed as the first parameter.
+    private final Class<?>[] javaTypes;
+
+    private final DoubleUnaryOperator unaryOperator;
+    private final DoubleBinaryOperator binaryOperator;
+
+    // Takes an array of actual parameters and returns an object; null if the
+    // method could not be bound to a handle.
+    private final MethodHandle handle;
+
+    /**
+     * Constructor
+     *
+     * @param funcName       The function's name.
+     * @param method         The corresponding Java method object.
+     * @param instance       The object on which a non-static method is to be
+     *                       invoked; if null, this is the first actual
+     *                       parameter.
+     * @param parameterTypes The function's parameter types.
+     * @param returnType     The function's return type.
+     */
+    public JavaMethodExecutor(String funcName, Method method, Object instance, List<Type> parameterTypes,
+            Type returnType) {
+        super(Optional.of(funcName), method, parameterTypes, Optional.of(returnType));
+
+        this.instance = instance;
+
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        if (!isStatic && instance == null) {
+            types.add(method.getDeclaringClass());
+        }
+        types.addAll(Arrays.asList(method.getParameterTypes()));
+        javaTypes = types.toArray(new Class<?>[0]);
+
+        boolean isMath = method.getDeclaringClass() == Math.class && isStatic
+                && method.getReturnType() == double.class;
+
+        if (isMath && javaTypes.length == 1 && javaTypes[0] == double.class) {
+            unaryOperator = MATH_UNARY_OPERATORS.get(method.getName());
+        } else {
+            unaryOperator = null;
+        }
+
+        if (isMath && javaTypes.length == 2 && javaTypes[0] == double.class && javaTypes[1] == double.class) {
+            binaryOperator = MATH_BINARY_OPERATORS.get(method.getName());
+        } else {
+            binaryOperator = null;
+        }
+
+        handle = javaTypes.length == parameterTypes.size() ? bind(method, isStatic, instance) : null;
+    }
+
+    /**
+     * Can the function be applied to primitive real values via
+     * applyAsDouble()?
+     *
+     * @return Whether the function is bound to a unary or binary operator.
+     */
+    public boolean isDoubleOperator() {
+        return unaryOperator != null || binaryOperator != null;
+    }
+
+    /**
+     * Apply a function of one real parameter.
+     *
+     * @param x The actual parameter.
+     * @return The result.
+     */
+    public double applyAsDouble(double x) {
+        return unaryOperator.applyAsDouble(x);
+    }
+
+    /**
+     * Apply a function of two real parameters.
+     *
+     * @param x The first actual parameter.
+     * @param y The second actual parameter.
+     * @return The result.
+     */
+    public double applyAsDouble(double x, double y) {
+        return binaryOperator.applyAsDouble(x, y);
+    }
+
+    /**
+     * Does the method narrow any integer actual parameter to an int? If so,
+     * whether actual parameters conform depends upon their values, not only
+     * their types.
+     *
+     * @return Whether the method has an int parameter.
+     */
+    public boolean narrowsIntegers() {
+        return Arrays.asList(javaTypes).contains(int.class);
+    }
+
+    /**
+     * As for other functions, but since VeLa integers are held as longs, an
+     * integer actual parameter only conforms to an int parameter if its value
+     * fits in an int. Otherwise another overload (e.g. of real parameters) may
+     * be chosen.
+     */
+    @Override
+    public boolean conforms(List<Operand> actualParameters) {
+        boolean result = super.conforms(actualParameters);
+
+        if (result && javaTypes.length == actualParameters.size()) {
+            for (int i = 0; i < javaTypes.length && result; i++) {
+                Operand operand = actualParameters.get(i);
+                if (javaTypes[i] == int.class && operand.getType() == Type.INTEGER) {
+                    long value = operand.intVal();
+                    result = value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public Optional<Operand> apply(List<Operand> operands) throws VeLaEvalError {
+        Optional<Operand> result;
+
+        if (unaryOperator != null) {
+            result = Optional.of(new Operand(Type.REAL, unaryOperator.applyAsDouble(operands.get(0).doubleVal())));
+        } else if (binaryOperator != null) {
+            result = Optional.of(new Operand(Type.REAL,
+                    binaryOperator.applyAsDouble(operands.get(0).doubleVal(), operands.get(1).doubleVal())));
+        } else if (handle != null) {
+            result = invokeHandle(operands);
+        } else {
+            result = invokeMethod(operands);
+        }
+
+        return result;
+    }
+
+    // Helpers
+
+    private Optional<Operand> invokeHandle(List<Operand> operands) {
+        Object[] args = new Object[javaTypes.length];
+
+        for (int i = 0; i < args.length; i++) {
+            Operand operand = operands.get(i);
+            if (javaTypes[i] == int.class && operand.getType() == Type.INTEGER) {
+                // VeLa integers are held as longs; conforming values fit.
+                args[i] = Math.toIntExact(operand.intVal());
+            } else {
+                args[i] = operand.toObject();
+            }
+        }
+
+        Object obj;
+
+        try {
+            obj = (Object) handle.invokeExact(args);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new VeLaEvalError(t.getLocalizedMessage());
+        }
+
+        return toResult(obj);
+    }
+
+    private Optional<Operand> invokeMethod(List<Operand> operands) {
+        try {
+            Object obj = null;
+
+            if (!Modifier.isStatic(method.getModifiers())) {
+                // For non-static methods, if instance is null, assume the first
+                // operand is an object instance.
+                if (instance == null) {
+                    obj = operands.get(0).toObject();
+                    operands.remove(0);
+                } else {
+                    // ...otherwise, use what's been passed in.
+                    obj = instance;
+                }
+            }
+
+            // obj is null for static methods
+            return toResult(method.invoke(obj, operands.stream().map(op -> op.toObject()).toArray()));
+
+        } catch (InvocationTargetException e) {
+            throw new VeLaEvalError(e.getLocalizedMessage());
+        } catch (IllegalAccessException e) {
+            throw new VeLaEvalError(e.getLocalizedMessage());
+        }
+    }
+
+    private Optional<Operand> toResult(Object obj) {
+        Operand result = Operand.object2Operand(returnType.get(), obj);
+        return Optional.of(result != null ? result : Operand.NO_VALUE);
+    }
+
+    /**
+     * Bind a method to a handle that takes an array of actual parameters and
+     * returns an object, or null if the method is not accessible.
+     */
+    private static MethodHandle bind(Method method, boolean isStatic, Object instance) {
+        MethodHandle handle;
+
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+
+            if (!isStatic && instance != null) {
+                handle = handle.bindTo(instance);
+            }
+
+            handle = handle.asSpreader(Object[].class, handle.type().parameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            handle = null;
+        }
+
+        return handle;
+    }
+}
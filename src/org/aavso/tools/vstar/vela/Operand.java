@@ -105,11 +105,7 @@ public class Operand {
             break;
         case LIST:
             if (obj.getClass() == Type.DBL_ARR.getClass()) {
-                List<Operand> arr = new ArrayList<Operand>();
-                for (double n : (double[]) obj) {
-                    arr.add(new Operand(Type.REAL, n));
-                }
-                obj = arr;
+                obj = new RealList(((double[]) obj).clone());
             } else if (obj.getClass() == Type.DBL_CLASS_ARR.getClass()) {
                 List<Operand> arr = new ArrayList<Operand>();
                 for (Double n : (Double[]) obj) {
@@ -155,6 +151,10 @@ public class Operand {
             obj = booleanVal;
             break;
         case LIST:
+            if (listVal instanceof RealList) {
+                obj = ((RealList) listVal).toDoubleArray();
+                break;
+            }
             for (Type type : Type.values()) {
                 if (listVal.stream().allMatch(op -> op.type == type)) {
                     int i = 0;
@@ -485,6 +485,11 @@ public class Operand {
             operand.stringVal = stringVal;
             break;
         case LIST:
+            if (listVal instanceof RealList) {
+                // Packed lists are immutable.
+                operand.listVal = listVal;
+                break;
+            }
             List<Operand> list = new ArrayList<Operand>();
             for (Operand op : listVal) {
                 list.add(op.copy());
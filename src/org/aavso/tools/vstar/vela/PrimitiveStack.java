@@ -0,0 +1,262 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * VeLa: VStar expression Language
+ * </p>
+ * <p>
+ * The unboxed counterpart of an interpreter's operand stack, used by compiled
+ * code (see VeLaCompiler) so that numeric and Boolean evaluation need not
+ * create operands:
+ * </p>
+ * <ul>
+ * <li>The actual parameters of user-defined functions are held in frames of
+ * slots rather than being bound to operands in a new scope. Real values are
+ * held in one array and integer and Boolean values in another, indexed by the
+ * same slot.</li>
+ * <li>A node's value is yielded via registers: one for each primitive type and
+ * one for operands of other types.</li>
+ * </ul>
+ * <p>
+ * Like the interpreter to which it belongs, a primitive stack must only be
+ * used by one thread at a time.
+ * </p>
+ */
+final class PrimitiveStack {
+
+    // Registers holding the most recently yielded value according to its type.
+    double real;
+    long integer;
+    boolean bool;
+    Operand operand;
+
+    private double[] reals = new double[32];
+    private long[] integers = new long[32];
+
+    // The first free slot and the first slot of the current frame.
+    private int top;
+    private int base;
+
+    // Scopes through which frames' parameters may be looked up by name,
+    // reused by depth.
+    private final List<FrameScope> scopes = new ArrayList<FrameScope>();
+    private int depth;
+
+    // The user-defined function whose body is being evaluated in compiled
+    // mode, and whether a call to it in tail position has been made by
+    // setting its actual parameters, either in the current frame or, if
+    // boxed, in tailCallParameters. The function re-evaluates its body
+    // rather than the call being made (see UserDefinedFunctionExecutor).
+    UserDefinedFunctionExecutor callee;
+    boolean tailCall;
+    List<Operand> tailCallParameters;
+
+    /**
+     * Reserve slots for actual parameters at the top of the stack.
+     *
+     * @param n The number of slots.
+     * @return The first of the reserved slots.
+     */
+    int reserve(int n) {
+        int first = top;
+        top += n;
+
+        if (top > reals.length) {
+            int length = Math.max(top, reals.length * 2);
+            reals = Arrays.copyOf(reals, length);
+            integers = Arrays.copyOf(integers, length);
+        }
+
+        return first;
+    }
+
+    /**
+     * Release slots reserved at the top of the stack.
+     *
+     * @param first The first slot to be released.
+     */
+    void release(int first) {
+        top = first;
+    }
+
+    /**
+     * Store the value in the registers of the specified type in a slot.
+     *
+     * @param slot The slot.
+     * @param type The type, which must be primitive.
+     */
+    void store(int slot, Type type) {
+        switch (type) {
+        case REAL:
+            reals[slot] = real;
+            break;
+        case INTEGER:
+            integers[slot] = integer;
+            break;
+        default:
+            integers[slot] = bool ? 1 : 0;
+            break;
+        }
+    }
+
+    void setReal(int slot, double value) {
+        reals[slot] = value;
+    }
+
+    void setInteger(int slot, long value) {
+        integers[slot] = value;
+    }
+
+    double getReal(int slot) {
+        return reals[slot];
+    }
+
+    long getInteger(int slot) {
+        return integers[slot];
+    }
+
+    /**
+     * Enter a frame whose actual parameters are in reserved slots.
+     *
+     * @param first The first slot of the frame.
+     * @param names The names of the function's parameters.
+     * @param types The types of the function's parameters.
+     * @return The scope through which the parameters may be looked up by name.
+     */
+    FrameScope enter(int first, String[] names, Type[] types) {
+        if (depth == scopes.size()) {
+            scopes.add(new FrameScope(this));
+        }
+
+        FrameScope scope = scopes.get(depth++);
+        scope.enter(first, base, names, types);
+        base = first;
+
+        return scope;
+    }
+
+    /**
+     * Leave the current frame, releasing its slots.
+     *
+     * @param scope The scope returned on entry to the frame.
+     */
+    void leave(FrameScope scope) {
+        depth--;
+        top = scope.getFirst();
+        base = scope.getPreviousBase();
+        scope.leave();
+    }
+
+    /**
+     * Replace the current frame's parameters with values in slots reserved at
+     * the top of the stack, releasing them.
+     *
+     * @param first The first of the slots.
+     */
+    void moveToFrame(int first) {
+        int n = top - first;
+        System.arraycopy(reals, first, reals, base, n);
+        System.arraycopy(integers, first, integers, base, n);
+        top = first;
+    }
+
+    // Parameters of the current frame.
+
+    double frameReal(int index) {
+        return reals[base + index];
+    }
+
+    long frameInteger(int index) {
+        return integers[base + index];
+    }
+
+    /**
+     * Set the registers from an operand.
+     *
+     * @param value The operand.
+     * @return The operand's type.
+     */
+    Type unbox(Operand value) {
+        Type type = value.getType();
+
+        switch (type) {
+        case REAL:
+            real = value.doubleVal();
+            break;
+        case INTEGER:
+            integer = value.intVal();
+            break;
+        case BOOLEAN:
+            bool = value.booleanVal();
+            break;
+        default:
+            operand = value;
+            break;
+        }
+
+        return type;
+    }
+
+    /**
+     * Create an operand from the registers.
+     *
+     * @param type The type of the value held in the registers.
+     * @return The operand.
+     */
+    Operand box(Type type) {
+        return box(type, real, integer, bool, operand);
+    }
+
+    /**
+     * Create an operand from a value of a specified type previously taken from
+     * the registers.
+     */
+    static Operand box(Type type, double real, long integer, boolean bool, Operand operand) {
+        Operand value;
+
+        switch (type) {
+        case REAL:
+            value = new Operand(Type.REAL, real);
+            break;
+        case INTEGER:
+            value = new Operand(Type.INTEGER, integer);
+            break;
+        case BOOLEAN:
+            value = new Operand(Type.BOOLEAN, bool);
+            break;
+        default:
+            value = operand;
+            break;
+        }
+
+        return value;
+    }
+
+    /**
+     * Can values of a type be held in slots?
+     */
+    static boolean isPrimitive(Type type) {
+        return type == Type.REAL || type == Type.INTEGER || type == Type.BOOLEAN;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * VeLa: VStar expression Language
+ * </p>
+ * <p>
+ * An immutable VeLa list of real values packed into an array rather than held
+ * as one operand per element. Operands are created only when elements are
+ * accessed as operands, e.g. by intrinsic functions that are not aware of
+ * packed lists; arithmetic, negation and mapping of real functions over such
+ * lists yield packed lists directly.
+ * </p>
+ */
+public final class RealList extends AbstractList<Operand> implements RandomAccess {
+
+    private final double[] values;
+
+    /**
+     * Constructor
+     *
+     * @param values The values, which are not copied and so must not be
+     *               subsequently modified.
+     */
+    public RealList(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Return a real list of the elements of the specified list if each is
+     * real, otherwise null.
+     *
+     * @param list The list.
+     * @return The real list or null.
+     */
+    public static RealList of(List<Operand> list) {
+        RealList realList = null;
+
+        if (list instanceof RealList) {
+            realList = (RealList) list;
+        } else {
+            double[] values = new double[list.size()];
+            int i = 0;
+            for (Operand operand : list) {
+                if (operand.getType() != Type.REAL) {
+                    return null;
+                }
+                values[i++] = operand.doubleVal();
+            }
+            realList = new RealList(values);
+        }
+
+        return realList;
+    }
+
+    /**
+     * Return the real value of an element without creating an operand.
+     *
+     * @param index The element's index.
+     * @return The value.
+     */
+    public double getReal(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return a copy of the values
+     */
+    public double[] toDoubleArray() {
+        return values.clone();
+    }
+
+    @Override
+    public Operand get(int index) {
+        return new Operand(Type.REAL, values[index]);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof RealList) {
+            return Arrays.equals(values, ((RealList) obj).values);
+        } else {
+            return super.equals(obj);
+        }
+    }
+}
@@ -17,7 +17,10 @@
  */
 package org.aavso.tools.vstar.vela;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,11 +28,26 @@ import java.util.Optional;
  */
 public class UserDefinedFunctionExecutor extends FunctionExecutor {
 
+	/**
+	 * The annotation of a named function definition requesting that the
+	 * function's results be memoised; also the token of its AST.
+	 */
+	public static final String MEMO_ANNOTATION = "@memo";
+
+	/**
+	 * The maximum number of results retained for a memoised function, the
+	 * least recently used being discarded first.
+	 */
+	public static final int MAX_MEMO_ENTRIES = 1000;
+
 	private VeLaInterpreter vela;
 	private List<String> parameterNames;
 	private Optional<AST> ast;
 	private VeLaScope env;
 
+	// Results by actual parameters if the function is memoised, else null.
+	private Map<List<Operand>, Optional<Operand>> memo;
+
 	/**
 	 * Construct a named function definition
 	 * 
@@ -51,11 +69,56 @@ public class UserDefinedFunctionExecutor extends FunctionExecutor {
 			Optional<String> funcName, List<String> parameterNames,
 			List<Type> parameterTypes, Optional<Type> returnType,
 			Optional<AST> ast) {
+		this(vela, funcName, parameterNames, parameterTypes, returnType, ast,
+				false);
+	}
+
+	/**
+	 * Construct a named function definition, optionally memoised.
+	 * 
+	 * @param vela
+	 *            The interpreter instance from which this object is being
+	 *            created.
+	 * @param funcName
+	 *            The function's name.
+	 * @param parameterNames
+	 *            The function's formal parameter names.
+	 * @param parameterTypes
+	 *            The function's formal parameter types.
+	 * @param returnType
+	 *            The function's return type.
+	 * @param ast
+	 *            The AST corresponding to the body of the function.
+	 * @param memoised
+	 *            Whether the function's results are to be retained by actual
+	 *            parameter values and returned when it is next applied to
+	 *            equal values rather than the body being evaluated. This is
+	 *            only appropriate if the function is pure, i.e. its result
+	 *            depends upon nothing but its parameters and it has no side
+	 *            effects.
+	 */
+	public UserDefinedFunctionExecutor(VeLaInterpreter vela,
+			Optional<String> funcName, List<String> parameterNames,
+			List<Type> parameterTypes, Optional<Type> returnType,
+			Optional<AST> ast, boolean memoised) {
 		super(funcName, parameterTypes, returnType);
 		this.vela = vela;
 		this.parameterNames = parameterNames;
 		this.ast = ast;
 
+		if (memoised) {
+			memo = new LinkedHashMap<List<Operand>, Optional<Operand>>(16,
+					0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<List<Operand>, Optional<Operand>> eldest) {
+					return size() > MAX_MEMO_ENTRIES;
+				}
+			};
+		}
+
 		// Capture current environment by coalescing all but the global scope
 		// into one environment, starting from the first to the last such that
 		// newer definitions override older ones.
@@ -90,32 +153,100 @@ public class UserDefinedFunctionExecutor extends FunctionExecutor {
 
 	@Override
 	public Optional<Operand> apply(List<Operand> operands) throws VeLaEvalError {
+		Optional<Operand> result;
+
+		if (memo != null) {
+			// The actual parameters have been converted to the formal
+			// parameters' types, so are copied to form the key.
+			List<Operand> key = new ArrayList<Operand>(operands.size());
+			for (Operand operand : operands) {
+				key.add(operand.copy());
+			}
+
+			result = memo.get(key);
+
+			if (result == null) {
+				result = evaluate(operands);
+				memo.put(key, result);
+			}
+		} else {
+			result = evaluate(operands);
+		}
+
+		return result;
+	}
+
+	private Optional<Operand> evaluate(List<Operand> operands)
+			throws VeLaEvalError {
 		// If the function has a body, push a new scope and the environment if
 		// non-empty, bind the actual parameters to the formal parameters,
 		// evaluate the body AST and pop the scope and the environment if
 		// non-empty.
 		int initialStackSize = vela.getStack().size();
 
-		if (ast.isPresent()) {
-			
-			if (!isTailRecursive()) {
-				if (!env.isEmpty()) {
-					vela.pushEnvironment(env);
-				}
-				vela.pushEnvironment(new VeLaScope());
+		VeLaCompiler.FunctionBodyNode body = getFrameBody(vela);
+
+		if (body != null) {
+			// In compiled mode, the actual parameters are held in a frame on
+			// the primitive stack instead.
+			PrimitiveStack stack = vela.getPrimitiveStack();
+			int first = stack.reserve(operands.size());
+
+			try {
+				store(stack, body, operands, first);
+			} catch (VeLaEvalError e) {
+				stack.release(first);
+				throw e;
 			}
 
+			Type type = applyUnboxed(body, first);
+
+			return type != null ? Optional.of(stack.box(type)) : Optional
+					.empty();
+		} else if (ast.isPresent()) {
+			if (!env.isEmpty()) {
+				vela.pushEnvironment(env);
+			}
+			vela.pushEnvironment(new VeLaScope());
+
 			for (int i = 0; i < operands.size(); i++) {
 				vela.peekEnvironment().bind(parameterNames.get(i), operands.get(i), false);
 			}
 
-			vela.eval(ast.get());
+			// In compiled mode, a call to this function in tail position
+			// sets the actual parameters for the body to be evaluated again
+			// in a new scope.
+			PrimitiveStack stack = vela.getPrimitiveStack();
+			UserDefinedFunctionExecutor caller = stack.callee;
+			stack.callee = this;
+
+			try {
+				vela.eval(ast.get());
+
+				while (stack.tailCall) {
+					stack.tailCall = false;
+					vela.getStack().setSize(initialStackSize);
 
-			if (!isTailRecursive()) {
-				vela.popEnvironment();
-				if (!env.isEmpty()) {
 					vela.popEnvironment();
+					vela.pushEnvironment(new VeLaScope());
+
+					List<Operand> parameters = stack.tailCallParameters;
+					stack.tailCallParameters = null;
+					for (int i = 0; i < parameters.size(); i++) {
+						vela.peekEnvironment().bind(parameterNames.get(i), parameters.get(i), false);
+					}
+
+					vela.eval(ast.get());
 				}
+			} finally {
+				stack.callee = caller;
+				stack.tailCall = false;
+				stack.tailCallParameters = null;
+			}
+
+			vela.popEnvironment();
+			if (!env.isEmpty()) {
+				vela.popEnvironment();
 			}
 		}
 
@@ -130,21 +261,123 @@ public class UserDefinedFunctionExecutor extends FunctionExecutor {
 	}
 
 	/**
-	 * Is the function body tail recursive?
+	 * Store actual parameters in slots of a frame, converting them to the
+	 * formal parameters' types.
 	 */
-	private boolean isTailRecursive() {
-		boolean isTailRecursive = false;
+	private static void store(PrimitiveStack stack,
+			VeLaCompiler.FunctionBodyNode body, List<Operand> operands,
+			int first) throws VeLaEvalError {
+		for (int i = 0; i < operands.size(); i++) {
+			Operand operand = operands.get(i).convert(body.types[i]);
+			if (operand.getType() != body.types[i]) {
+				throw new VeLaEvalError(String.format(
+						"Expected a value of type %s but found %s",
+						body.types[i], operand.getType()));
+			}
+			stack.store(first + i, stack.unbox(operand));
+		}
+	}
 
-		AST lastChild = ast.get().lastChild();
+	/**
+	 * @return Whether the function's results are memoised.
+	 */
+	public boolean isMemoised() {
+		return memo != null;
+	}
 
-		if (lastChild.getOp() == Operation.FUNCALL) {
-			if (getFuncName().isPresent()
-					&& getFuncName().get().equalsIgnoreCase(
-							lastChild.getToken())) {
-				isTailRecursive = true;
+	/**
+	 * Return the compiled body of this function if it is to be applied by the
+	 * specified interpreter in compiled mode with its parameters held in a
+	 * frame on the interpreter's primitive stack, otherwise null.
+	 * 
+	 * @param vela
+	 *            The interpreter applying the function.
+	 * @return The compiled body or null.
+	 */
+	VeLaCompiler.FunctionBodyNode getFrameBody(VeLaInterpreter vela) {
+		VeLaCompiler.FunctionBodyNode body = null;
+
+		if (vela == this.vela && vela.isCompiledMode() && ast.isPresent()) {
+			VeLaCompiler.Node node = VeLaCompiler.compile(ast.get());
+			if (node instanceof VeLaCompiler.FunctionBodyNode
+					&& ((VeLaCompiler.FunctionBodyNode) node).types.length == parameterTypes
+							.size()) {
+				body = (VeLaCompiler.FunctionBodyNode) node;
 			}
 		}
 
-		return isTailRecursive;
+		return body;
+	}
+
+	/**
+	 * Apply the function to actual parameters held in slots reserved on the
+	 * interpreter's primitive stack, releasing them. The parameters are read
+	 * by the compiled body from the slots and may be looked up by name via a
+	 * frame scope that takes the place of the scope that would otherwise be
+	 * pushed.
+	 * 
+	 * @param body
+	 *            The function's compiled body, as returned by getFrameBody().
+	 * @param first
+	 *            The first of the slots, whose values are of the function's
+	 *            parameter types.
+	 * @return The type of the result, which is left in the primitive stack's
+	 *         registers, or null if there is no result.
+	 * @throws VeLaEvalError
+	 *             If an evaluation error occurs.
+	 */
+	Type applyUnboxed(VeLaCompiler.FunctionBodyNode body, int first)
+			throws VeLaEvalError {
+		PrimitiveStack stack = vela.getPrimitiveStack();
+		int initialStackSize = vela.getStack().size();
+
+		if (!env.isEmpty()) {
+			vela.pushEnvironment(env);
+		}
+
+		FrameScope scope = stack.enter(first, body.names, body.types);
+		vela.pushEnvironment(scope);
+
+		UserDefinedFunctionExecutor caller = stack.callee;
+		stack.callee = this;
+
+		try {
+			Type type = body.evalUnboxed(vela);
+
+			// A call to this function in tail position replaces the frame's
+			// parameters for the body to be evaluated again.
+			while (stack.tailCall) {
+				stack.tailCall = false;
+				vela.getStack().setSize(initialStackSize);
+				scope.reset();
+
+				if (stack.tailCallParameters != null) {
+					List<Operand> parameters = stack.tailCallParameters;
+					stack.tailCallParameters = null;
+					store(stack, body, parameters, scope.getFirst());
+				}
+
+				type = body.evalUnboxed(vela);
+			}
+
+			// The result, if any, may instead be on the stack.
+			if (type == null && vela.getStack().size() > initialStackSize) {
+				type = stack.unbox(vela.getStack().pop());
+			}
+
+			return type;
+		} finally {
+			stack.callee = caller;
+			stack.tailCall = false;
+			stack.tailCallParameters = null;
+
+			// Also discard any environments left by an error.
+			while (vela.popEnvironment() != scope) {
+			}
+			if (!env.isEmpty()) {
+				vela.popEnvironment();
+			}
+			stack.leave(scope);
+		}
 	}
 }
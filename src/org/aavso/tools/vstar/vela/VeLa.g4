@@ -51,9 +51,13 @@ binding
 // the latter could/should be primary from the viewpoint of
 // everything being an expression; the "e" in VeLa!
 
+// A named function definition may be annotated with @memo to request
+// that its results be cached by actual parameter values. This is only
+// appropriate for pure functions.
+
 namedFundef
 :
-    symbol LPAREN formalParameter?
+    MEMO? symbol LPAREN formalParameter?
     (
         formalParameter
     )* RPAREN
@@ -295,6 +299,11 @@ block
 
 // ** Lexer rules **
 
+MEMO
+:
+    '@' [Mm] [Ee] [Mm] [Oo]
+;
+
 BACK_ARROW
 :
     '<-'
@@ -0,0 +1,865 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+import java.util.function.DoubleBinaryOperator;
+import java.util.regex.Pattern;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.ParallelChunks;
+import org.aavso.tools.vstar.vela.VeLaCompiler.RealPredicate;
+
+/**
+ * <p>
+ * Evaluates a VeLa expression over a list of observations a column at a time
+ * rather than an observation at a time.
+ * </p>
+ * <p>
+ * Expressions made up of observation symbols with real, integer, string or
+ * Boolean values (e.g. time, magnitude, uncertainty, band), literals, and
+ * arithmetic, comparison and logical operations can be evaluated in this way.
+ * Observations are processed in batches, in parallel for large lists. For each
+ * batch, the values of each symbol are gathered into a primitive array,
+ * numeric sub-expressions are evaluated over whole arrays, and Boolean
+ * sub-expressions narrow a selection vector of the batch's row indices.
+ * </p>
+ * <p>
+ * The results are those that evaluation an observation at a time would yield.
+ * Where this cannot be guaranteed for a list of observations (e.g. some
+ * observation has no value for a symbol, or a division by zero occurs), no
+ * result is returned and the caller should evaluate an observation at a time
+ * instead, so that errors are reported as usual.
+ * </p>
+ */
+public class VeLaColumnEvaluator {
+
+	// Signals that an expression or list of observations cannot be evaluated
+	// a column at a time.
+	private static class Unsupported extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		public Unsupported() {
+			super(null, null, false, false);
+		}
+	}
+
+	private static final Unsupported UNSUPPORTED = new Unsupported();
+
+	private final List<VeLaObservationAccessor> columns;
+
+	private final Expression expression;
+
+	private VeLaColumnEvaluator(List<VeLaObservationAccessor> columns,
+			Expression expression) {
+		this.columns = columns;
+		this.expression = expression;
+	}
+
+	/**
+	 * Create a column evaluator for a program if it consists of a single
+	 * expression that can be evaluated a column at a time.
+	 *
+	 * @param ast
+	 *            The program's AST; may be null.
+	 * @return The optional column evaluator.
+	 */
+	public static Optional<VeLaColumnEvaluator> create(AST ast) {
+		VeLaColumnEvaluator evaluator = null;
+
+		while (ast != null && ast.getOp() == Operation.SEQUENCE) {
+			ast = ast.hasChildren() && ast.getChildren().size() == 1 ? ast
+					.head() : null;
+		}
+
+		if (ast != null) {
+			List<VeLaObservationAccessor> columns = new ArrayList<VeLaObservationAccessor>();
+			try {
+				Expression expression = build(ast, columns);
+				evaluator = new VeLaColumnEvaluator(columns, expression);
+			} catch (Unsupported e) {
+				// Evaluate an observation at a time.
+			}
+		}
+
+		return Optional.ofNullable(evaluator);
+	}
+
+	/**
+	 * @return whether the expression yields a Boolean value per observation,
+	 *         as required by accept()
+	 */
+	public boolean isPredicate() {
+		return expression instanceof Predicate;
+	}
+
+	/**
+	 * @return whether the expression yields a numeric value per observation,
+	 *         as required by evaluate()
+	 */
+	public boolean isNumeric() {
+		return expression instanceof NumericExpression;
+	}
+
+	/**
+	 * Apply a Boolean expression to a list of observations.
+	 *
+	 * @param obs
+	 *            The observations.
+	 * @return An array of results, one per observation, in order, or null if
+	 *         the observations must be evaluated one at a time.
+	 */
+	public boolean[] accept(final List<ValidObservation> obs) {
+		final Predicate predicate = (Predicate) expression;
+		final boolean[] results = new boolean[obs.size()];
+		final AtomicBoolean failed = new AtomicBoolean(false);
+
+		ParallelChunks.forEachChunk(obs.size(), (from, to) -> {
+			if (!failed.get()) {
+				try {
+					Batch batch = new Batch(obs, from, to);
+					int[] selection = batch.all();
+					int n = predicate.select(batch, selection, selection.length);
+					for (int i = 0; i < n; i++) {
+						results[from + selection[i]] = true;
+					}
+				} catch (Unsupported | VeLaEvalError e) {
+					failed.set(true);
+				}
+			}
+		});
+
+		return failed.get() ? null : results;
+	}
+
+	/**
+	 * Evaluate a numeric expression over a list of observations.
+	 *
+	 * @param obs
+	 *            The observations.
+	 * @return An array of real values, one per observation, in order, or null
+	 *         if the observations must be evaluated one at a time.
+	 */
+	public double[] evaluate(final List<ValidObservation> obs) {
+		final NumericExpression numeric = (NumericExpression) expression;
+		final double[] results = new double[obs.size()];
+		final AtomicBoolean failed = new AtomicBoolean(false);
+
+		ParallelChunks.forEachChunk(obs.size(), (from, to) -> {
+			if (!failed.get()) {
+				try {
+					double[] values = numeric.values(new Batch(obs, from, to));
+					System.arraycopy(values, 0, results, from, to - from);
+				} catch (Unsupported | VeLaEvalError e) {
+					failed.set(true);
+				}
+			}
+		});
+
+		return failed.get() ? null : results;
+	}
+
+	// Expression building
+
+	private static Expression build(AST ast, List<VeLaObservationAccessor> columns) {
+		Expression expression = null;
+
+		if (ast.isLiteral()) {
+			Operand value = ast.getOperand();
+			switch (value.getType()) {
+			case INTEGER:
+				expression = new NumericConstant(Type.INTEGER, value.intVal());
+				break;
+			case REAL:
+				expression = new NumericConstant(Type.REAL, value.doubleVal());
+				break;
+			case STRING:
+				expression = new StringConstant(value.stringVal());
+				break;
+			case BOOLEAN:
+				expression = new BooleanConstant(value.booleanVal());
+				break;
+			default:
+				throw UNSUPPORTED;
+			}
+		} else {
+			Operation op = ast.getOp();
+
+			switch (op) {
+			case SYMBOL:
+				expression = column(ast.getToken(), columns);
+				break;
+
+			case ADD:
+			case SUB:
+			case MUL:
+			case DIV:
+			case POW:
+				expression = arithmetic(op, build(ast.left(), columns),
+						build(ast.right(), columns));
+				break;
+
+			case NEG:
+				Expression operand = build(ast.head(), columns);
+				if (operand instanceof NumericExpression) {
+					expression = new Negation((NumericExpression) operand);
+				}
+				break;
+
+			case EQUAL:
+			case NOT_EQUAL:
+			case GREATER_THAN:
+			case LESS_THAN:
+			case GREATER_THAN_OR_EQUAL:
+			case LESS_THAN_OR_EQUAL:
+			case APPROXIMATELY_EQUAL:
+			case IN:
+				expression = comparison(op, build(ast.left(), columns),
+						build(ast.right(), columns));
+				break;
+
+			case AND:
+			case OR:
+			case XOR:
+				Expression left = build(ast.left(), columns);
+				Expression right = build(ast.right(), columns);
+				if (left instanceof Predicate && right instanceof Predicate) {
+					expression = logical(op, (Predicate) left,
+							(Predicate) right);
+				}
+				break;
+
+			case NOT:
+				Expression negated = build(ast.head(), columns);
+				if (negated instanceof Predicate) {
+					expression = new Not((Predicate) negated);
+				}
+				break;
+
+			default:
+				break;
+			}
+		}
+
+		if (expression == null) {
+			throw UNSUPPORTED;
+		}
+
+		return expression;
+	}
+
+	private static Expression column(String name,
+			List<VeLaObservationAccessor> columns) {
+		Optional<VeLaObservationAccessor> accessor = VeLaValidObservationEnvironment
+				.accessor(name);
+
+		if (!accessor.isPresent()) {
+			throw UNSUPPORTED;
+		}
+
+		int index = -1;
+		for (int i = 0; i < columns.size() && index == -1; i++) {
+			if (columns.get(i).getName().equals(accessor.get().getName())) {
+				index = i;
+			}
+		}
+		if (index == -1) {
+			index = columns.size();
+			columns.add(accessor.get());
+		}
+
+		Expression expression;
+
+		switch (accessor.get().getType()) {
+		case INTEGER:
+		case REAL:
+			expression = new NumericColumn(accessor.get().getType(), index);
+			break;
+		case STRING:
+			expression = new StringColumn(index);
+			break;
+		case BOOLEAN:
+			expression = new BooleanColumn(index);
+			break;
+		default:
+			throw UNSUPPORTED;
+		}
+
+		return expression;
+	}
+
+	private static Expression arithmetic(Operation op, Expression left,
+			Expression right) {
+		// Only operations yielding real values are evaluated as columns, since
+		// integer arithmetic (e.g. division) differs.
+		if (left instanceof NumericExpression
+				&& right instanceof NumericExpression
+				&& (left.type == Type.REAL || right.type == Type.REAL)) {
+			return new Arithmetic((NumericExpression) left,
+					(NumericExpression) right, VeLaCompiler.realOperator(op));
+		} else {
+			throw UNSUPPORTED;
+		}
+	}
+
+	private static Expression comparison(Operation op, Expression left,
+			Expression right) {
+		Expression expression = null;
+
+		if (left instanceof NumericExpression
+				&& right instanceof NumericExpression) {
+			RealPredicate predicate = VeLaCompiler.realPredicate(op);
+			if (predicate != null) {
+				expression = new NumericComparison((NumericExpression) left,
+						(NumericExpression) right, predicate);
+			}
+		} else if (left instanceof StringExpression
+				&& right instanceof StringExpression) {
+			BiPredicate<String, String> predicate;
+			if (op == Operation.APPROXIMATELY_EQUAL
+					&& right instanceof StringConstant) {
+				Pattern pattern = VeLaRuntime
+						.pattern(((StringConstant) right).value);
+				predicate = (a, b) -> pattern.matcher(a).matches();
+			} else {
+				predicate = VeLaCompiler.stringPredicate(op);
+			}
+			if (predicate != null) {
+				expression = new StringComparison((StringExpression) left,
+						(StringExpression) right, predicate);
+			}
+		} else if (left instanceof Predicate && right instanceof Predicate) {
+			if (op == Operation.NOT_EQUAL) {
+				expression = new Xor((Predicate) left, (Predicate) right);
+			} else if (op == Operation.EQUAL) {
+				expression = new Not(new Xor((Predicate) left,
+						(Predicate) right));
+			}
+		}
+
+		if (expression == null) {
+			throw UNSUPPORTED;
+		}
+
+		return expression;
+	}
+
+	private static Expression logical(Operation op, Predicate left,
+			Predicate right) {
+		Expression expression;
+
+		switch (op) {
+		case AND:
+			expression = new And(left, right);
+			break;
+		case OR:
+			expression = new Or(left, right);
+			break;
+		default:
+			expression = new Xor(left, right);
+			break;
+		}
+
+		return expression;
+	}
+
+	// Batches
+
+	/**
+	 * A contiguous range of observations whose column values are gathered on
+	 * demand.
+	 */
+	private class Batch {
+		final List<ValidObservation> obs;
+		final int from;
+		final int size;
+		final Object[] values;
+
+		Batch(List<ValidObservation> obs, int from, int to) {
+			this.obs = obs;
+			this.from = from;
+			this.size = to - from;
+			this.values = new Object[columns.size()];
+		}
+
+		int[] all() {
+			int[] selection = new int[size];
+			for (int i = 0; i < size; i++) {
+				selection[i] = i;
+			}
+			return selection;
+		}
+
+		double[] reals(int column) {
+			double[] reals = (double[]) values[column];
+
+			if (reals == null) {
+				VeLaObservationAccessor accessor = columns.get(column);
+				reals = new double[size];
+				if (accessor.hasRealValue()) {
+					for (int i = 0; i < size; i++) {
+						reals[i] = accessor.getReal(obs.get(from + i));
+					}
+				} else {
+					for (int i = 0; i < size; i++) {
+						Operand value = value(accessor, i);
+						reals[i] = value.getType() == Type.INTEGER ? value
+								.intVal() : value.doubleVal();
+					}
+				}
+				values[column] = reals;
+			}
+
+			return reals;
+		}
+
+		String[] strings(int column) {
+			String[] strings = (String[]) values[column];
+
+			if (strings == null) {
+				VeLaObservationAccessor accessor = columns.get(column);
+				strings = new String[size];
+				for (int i = 0; i < size; i++) {
+					strings[i] = value(accessor, i).stringVal();
+				}
+				values[column] = strings;
+			}
+
+			return strings;
+		}
+
+		boolean[] booleans(int column) {
+			boolean[] booleans = (boolean[]) values[column];
+
+			if (booleans == null) {
+				VeLaObservationAccessor accessor = columns.get(column);
+				booleans = new boolean[size];
+				for (int i = 0; i < size; i++) {
+					booleans[i] = value(accessor, i).booleanVal();
+				}
+				values[column] = booleans;
+			}
+
+			return booleans;
+		}
+
+		private Operand value(VeLaObservationAccessor accessor, int i) {
+			Operand value = accessor.get(obs.get(from + i));
+
+			if (value == null || value.getType() != accessor.getType()) {
+				throw UNSUPPORTED;
+			}
+
+			return value;
+		}
+	}
+
+	// Expressions
+
+	private abstract static class Expression {
+		final Type type;
+
+		Expression(Type type) {
+			this.type = type;
+		}
+	}
+
+	/**
+	 * A real or integer valued expression, evaluated to an array of reals per
+	 * batch.
+	 */
+	private abstract static class NumericExpression extends Expression {
+		NumericExpression(Type type) {
+			super(type);
+		}
+
+		abstract double[] values(Batch batch);
+	}
+
+	private static class NumericConstant extends NumericExpression {
+		final double value;
+
+		NumericConstant(Type type, double value) {
+			super(type);
+			this.value = value;
+		}
+
+		@Override
+		double[] values(Batch batch) {
+			double[] values = new double[batch.size];
+			Arrays.fill(values, value);
+			return values;
+		}
+	}
+
+	private static class NumericColumn extends NumericExpression {
+		final int column;
+
+		NumericColumn(Type type, int column) {
+			super(type);
+			this.column = column;
+		}
+
+		@Override
+		double[] values(Batch batch) {
+			return batch.reals(column);
+		}
+	}
+
+	private static class Arithmetic extends NumericExpression {
+		final NumericExpression left;
+		final NumericExpression right;
+		final DoubleBinaryOperator operator;
+
+		Arithmetic(NumericExpression left, NumericExpression right,
+				DoubleBinaryOperator operator) {
+			super(Type.REAL);
+			this.left = left;
+			this.right = right;
+			this.operator = operator;
+		}
+
+		@Override
+		double[] values(Batch batch) {
+			double[] result = new double[batch.size];
+
+			if (right instanceof NumericConstant) {
+				double[] a = left.values(batch);
+				double b = ((NumericConstant) right).value;
+				for (int i = 0; i < result.length; i++) {
+					result[i] = operator.applyAsDouble(a[i], b);
+				}
+			} else if (left instanceof NumericConstant) {
+				double a = ((NumericConstant) left).value;
+				double[] b = right.values(batch);
+				for (int i = 0; i < result.length; i++) {
+					result[i] = operator.applyAsDouble(a, b[i]);
+				}
+			} else {
+				double[] a = left.values(batch);
+				double[] b = right.values(batch);
+				for (int i = 0; i < result.length; i++) {
+					result[i] = operator.applyAsDouble(a[i], b[i]);
+				}
+			}
+
+			return result;
+		}
+	}
+
+	private static class Negation extends NumericExpression {
+		final NumericExpression operand;
+
+		Negation(NumericExpression operand) {
+			super(operand.type);
+			this.operand = operand;
+		}
+
+		@Override
+		double[] values(Batch batch) {
+			double[] a = operand.values(batch);
+			double[] result = new double[a.length];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = -a[i];
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A string valued expression: a column or a constant.
+	 */
+	private abstract static class StringExpression extends Expression {
+		StringExpression() {
+			super(Type.STRING);
+		}
+
+		abstract String value(Batch batch, int i);
+	}
+
+	private static class StringConstant extends StringExpression {
+		final String value;
+
+		StringConstant(String value) {
+			this.value = value;
+		}
+
+		@Override
+		String value(Batch batch, int i) {
+			return value;
+		}
+	}
+
+	private static class StringColumn extends StringExpression {
+		final int column;
+
+		StringColumn(int column) {
+			this.column = column;
+		}
+
+		@Override
+		String value(Batch batch, int i) {
+			return batch.strings(column)[i];
+		}
+	}
+
+	/**
+	 * A Boolean valued expression that narrows a selection vector: an
+	 * ascending array of row indices within a batch.
+	 */
+	private abstract static class Predicate extends Expression {
+		Predicate() {
+			super(Type.BOOLEAN);
+		}
+
+		/**
+		 * Retain, in order, those of the first n selected rows for which the
+		 * predicate holds.
+		 *
+		 * @return The number of rows retained.
+		 */
+		abstract int select(Batch batch, int[] selection,
+				int n);
+	}
+
+	private static class BooleanConstant extends Predicate {
+		final boolean value;
+
+		BooleanConstant(boolean value) {
+			this.value = value;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			return value ? n : 0;
+		}
+	}
+
+	private static class BooleanColumn extends Predicate {
+		final int column;
+
+		BooleanColumn(int column) {
+			this.column = column;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			boolean[] values = batch.booleans(column);
+			int m = 0;
+			for (int k = 0; k < n; k++) {
+				int i = selection[k];
+				if (values[i]) {
+					selection[m++] = i;
+				}
+			}
+			return m;
+		}
+	}
+
+	private static class NumericComparison extends Predicate {
+		final NumericExpression left;
+		final NumericExpression right;
+		final RealPredicate predicate;
+
+		NumericComparison(NumericExpression left, NumericExpression right,
+				RealPredicate predicate) {
+			this.left = left;
+			this.right = right;
+			this.predicate = predicate;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			// Both operands are evaluated for all rows, as they would be an
+			// observation at a time, so that any error is detected.
+			int m = 0;
+
+			if (right instanceof NumericConstant) {
+				double[] a = left.values(batch);
+				double b = ((NumericConstant) right).value;
+				for (int k = 0; k < n; k++) {
+					int i = selection[k];
+					if (predicate.test(a[i], b)) {
+						selection[m++] = i;
+					}
+				}
+			} else {
+				double[] a = left.values(batch);
+				double[] b = right.values(batch);
+				for (int k = 0; k < n; k++) {
+					int i = selection[k];
+					if (predicate.test(a[i], b[i])) {
+						selection[m++] = i;
+					}
+				}
+			}
+
+			return m;
+		}
+	}
+
+	private static class StringComparison extends Predicate {
+		final StringExpression left;
+		final StringExpression right;
+		final BiPredicate<String, String> predicate;
+
+		StringComparison(StringExpression left, StringExpression right,
+				BiPredicate<String, String> predicate) {
+			this.left = left;
+			this.right = right;
+			this.predicate = predicate;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			int m = 0;
+			for (int k = 0; k < n; k++) {
+				int i = selection[k];
+				if (predicate.test(left.value(batch, i), right.value(batch, i))) {
+					selection[m++] = i;
+				}
+			}
+			return m;
+		}
+	}
+
+	private static class And extends Predicate {
+		final Predicate left;
+		final Predicate right;
+
+		And(Predicate left, Predicate right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			return right.select(batch, selection, left.select(batch,
+					selection, n));
+		}
+	}
+
+	private static class Or extends Predicate {
+		final Predicate left;
+		final Predicate right;
+
+		Or(Predicate left, Predicate right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			int[] a = Arrays.copyOf(selection, n);
+			int na = left.select(batch, a, n);
+
+			// Rows for which the left operand does not hold.
+			int[] b = new int[n - na];
+			int nb = difference(selection, n, a, na, b);
+			nb = right.select(batch, b, nb);
+
+			// Merge, retaining order.
+			int i = 0, j = 0, m = 0;
+			while (i < na || j < nb) {
+				if (j == nb || (i < na && a[i] < b[j])) {
+					selection[m++] = a[i++];
+				} else {
+					selection[m++] = b[j++];
+				}
+			}
+
+			return m;
+		}
+	}
+
+	private static class Xor extends Predicate {
+		final Predicate left;
+		final Predicate right;
+
+		Xor(Predicate left, Predicate right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			int[] a = Arrays.copyOf(selection, n);
+			int na = left.select(batch, a, n);
+			int[] b = Arrays.copyOf(selection, n);
+			int nb = right.select(batch, b, n);
+
+			// Rows in exactly one of a and b.
+			int i = 0, j = 0, m = 0;
+			while (i < na || j < nb) {
+				if (j == nb || (i < na && a[i] < b[j])) {
+					selection[m++] = a[i++];
+				} else if (i == na || b[j] < a[i]) {
+					selection[m++] = b[j++];
+				} else {
+					i++;
+					j++;
+				}
+			}
+
+			return m;
+		}
+	}
+
+	private static class Not extends Predicate {
+		final Predicate operand;
+
+		Not(Predicate operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		int select(Batch batch, int[] selection, int n) {
+			int[] a = Arrays.copyOf(selection, n);
+			int na = operand.select(batch, a, n);
+			return difference(selection, n, a, na, selection);
+		}
+	}
+
+	/**
+	 * Write those of the first n rows of a selection that are not among the
+	 * first m rows of a subset of it to a result array, which may be the
+	 * selection itself.
+	 *
+	 * @return The number of rows written.
+	 */
+	private static int difference(int[] selection, int n, int[] subset, int m,
+			int[] result) {
+		int j = 0, count = 0;
+
+		for (int k = 0; k < n; k++) {
+			int i = selection[k];
+			if (j < m && subset[j] == i) {
+				j++;
+			} else {
+				result[count++] = i;
+			}
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,1884 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * VeLa: VStar expression Language
+ * </p>
+ * <p>
+ * Compiles an AST into a tree of closures (nodes) that yield the same results
+ * as VeLaInterpreter's tree-walking interpretation of the AST but with less
+ * work per evaluation:
+ * </p>
+ * <ul>
+ * <li>Operations whose operands are all literals are folded into literals.</li>
+ * <li>Arithmetic, comparison and logical operations whose operand types are
+ * known statically (from literals, typed observation slots, function
+ * parameter types or the results of other such operations) are specialised,
+ * passing primitive values between nodes rather than operands.</li>
+ * <li>Other binary operations take a fast path when their operands' run-time
+ * types are numeric or Boolean.</li>
+ * <li>Each function call site caches the overload it resolved to for given
+ * actual parameter types; intrinsic math functions are applied to primitive
+ * values.</li>
+ * <li>Operands are returned from nodes rather than being pushed onto and
+ * popped from the interpreter's stack.</li>
+ * </ul>
+ * <p>
+ * Nodes hold no interpreter state, so a compiled AST may be evaluated by any
+ * interpreter. Special forms that capture interpreter state (e.g. function
+ * definition) are delegated to the interpreter.
+ * </p>
+ */
+class VeLaCompiler {
+
+    private VeLaCompiler() {
+    }
+
+    /**
+     * Return the compiled form of an AST, compiling and retaining it the first
+     * time this is requested.
+     *
+     * @param ast The AST to compile.
+     * @return The root node of the compiled AST.
+     */
+    static Node compile(AST ast) {
+        Node node = ast.getCompiled();
+
+        if (node == null) {
+            node = compile(ast, Collections.emptyMap(), null);
+            ast.setCompiled(node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Compile an AST given the types of symbols known within it.
+     *
+     * @param ast   The AST to compile.
+     * @param types A mapping from symbol names to known types.
+     * @param frame The names of the parameters held in the frame of the
+     *              function whose body is being compiled; null if none.
+     * @return The root node of the compiled AST.
+     */
+    private static Node compile(AST ast, Map<String, Type> types, String[] frame) {
+        Node node;
+
+        if (ast.isLiteral()) {
+            node = new LiteralNode(ast.getOperand());
+        } else {
+            Operation op = ast.getOp();
+
+            if (op.arity() == 2) {
+                node = binary(op, compile(ast.left(), types, frame), compile(ast.right(), types, frame));
+            } else if (op.arity() == 1) {
+                node = unary(ast, compile(ast.head(), types, frame));
+            } else {
+                switch (op) {
+                case SYMBOL:
+                    String name = ast.getToken().toUpperCase();
+                    int index = ast.getSlot() == null ? indexOf(frame, name) : -1;
+                    if (index >= 0) {
+                        node = new FrameSlotNode(index, types.get(name));
+                    } else {
+                        Type type = ast.getSlot() != null ? ast.getSlotType() : types.get(name);
+                        node = new SymbolNode(ast, type);
+                    }
+                    break;
+
+                case LIST:
+                    node = new ListNode(compileChildren(ast, 0, types, frame));
+                    break;
+
+                case SEQUENCE:
+                    node = new SequenceNode(compileChildren(ast, 0, types, frame));
+                    break;
+
+                case BIND:
+                case IS:
+                    node = new BindNode(ast.left().getToken(), compile(ast.right(), types, frame), op == Operation.IS);
+                    break;
+
+                case FUNCALL:
+                    node = new FunctionCallNode(ast, compile(ast.head(), types, frame),
+                            compileChildren(ast, 1, types, frame));
+                    break;
+
+                case IF:
+                    node = new IfNode(compileChildren(ast, 0, types, frame));
+                    break;
+
+                case WHEN:
+                    List<AST> pairs = ast.getChildren();
+                    Node[] antecedents = new Node[pairs.size()];
+                    Node[] consequents = new Node[pairs.size()];
+                    for (int i = 0; i < pairs.size(); i++) {
+                        antecedents[i] = compile(pairs.get(i).left(), types, frame);
+                        consequents[i] = compile(pairs.get(i).right(), types, frame);
+                    }
+                    node = new WhenNode(antecedents, consequents);
+                    break;
+
+                case WHILE:
+                    node = new WhileNode(compile(ast.left(), types, frame), compile(ast.right(), types, frame));
+                    break;
+
+                case FUNDEF:
+                    compileFunctionBody(ast);
+                    node = new InterpretedNode(ast);
+                    break;
+
+                default:
+                    node = new InterpretedNode(ast);
+                    break;
+                }
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Compile the body of a function definition, retaining the result in the
+     * body's AST. Within the body, the types of the function's parameters are
+     * known since actual parameters are converted to these types before the
+     * body is evaluated. If all parameters are numeric or Boolean, they are
+     * held in a frame on the primitive stack (see FunctionBodyNode). Calls by
+     * a named function to itself in tail position are made by evaluating the
+     * body again rather than via a nested call, so need not grow the stack.
+     *
+     * @param ast The function definition's AST.
+     */
+    private static void compileFunctionBody(AST ast) {
+        Map<String, Type> types = new HashMap<String, Type>();
+        List<String> names = new ArrayList<String>();
+        List<Type> frameTypes = new ArrayList<Type>();
+        boolean isFrame = true;
+        AST body = null;
+
+        for (AST child : ast.getChildren()) {
+            if (child.getOp() == Operation.PAIR) {
+                String name = child.left().getToken().toUpperCase();
+                Type type = Type.name2Vela(child.right().getToken());
+                if (type == Type.INTEGER || type == Type.REAL || type == Type.BOOLEAN || type == Type.STRING) {
+                    types.put(name, type);
+                }
+                isFrame &= PrimitiveStack.isPrimitive(type) && !names.contains(name);
+                names.add(name);
+                frameTypes.add(type);
+            } else if (child.getOp() == Operation.SEQUENCE) {
+                body = child;
+            }
+        }
+
+        if (body != null) {
+            Node node = compile(body, types, isFrame ? names.toArray(new String[0]) : null);
+
+            // Only a named function may call itself.
+            if (ast.head().getOp() == Operation.SYMBOL) {
+                node.markTailCalls(ast.head().getToken().toUpperCase());
+            }
+
+            if (isFrame) {
+                body.setCompiled(new FunctionBodyNode(node, names.toArray(new String[0]),
+                        frameTypes.toArray(new Type[0])));
+            } else {
+                body.setCompiled(node);
+            }
+        }
+    }
+
+    private static int indexOf(String[] frame, String name) {
+        if (frame != null) {
+            for (int i = 0; i < frame.length; i++) {
+                if (frame[i].equals(name)) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private static Node[] compileChildren(AST ast, int first, Map<String, Type> types, String[] frame) {
+        int n = ast.hasChildren() ? ast.getChildren().size() - first : 0;
+        Node[] nodes = new Node[Math.max(n, 0)];
+
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = compile(ast.getChildren().get(first + i), types, frame);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Create a node for a binary operation, specialised according to the
+     * operands' static types where possible and folded to a literal if both
+     * operands are literals.
+     */
+    private static Node binary(Operation op, Node left, Node right) {
+        Node node = null;
+
+        Type leftType = left.type;
+        Type rightType = right.type;
+
+        if (isNumeric(leftType) && isNumeric(rightType)) {
+            if (leftType == Type.INTEGER && rightType == Type.INTEGER) {
+                LongBinaryOperator operator = integerOperator(op);
+                IntegerPredicate predicate = integerPredicate(op);
+                if (operator != null) {
+                    node = new IntegerOperationNode(left, right, operator);
+                } else if (predicate != null) {
+                    node = new IntegerComparisonNode(left, right, predicate);
+                }
+            } else {
+                DoubleBinaryOperator operator = realOperator(op);
+                RealPredicate predicate = realPredicate(op);
+                if (operator != null) {
+                    node = new RealOperationNode(left, right, operator);
+                } else if (predicate != null) {
+                    node = new RealComparisonNode(left, right, predicate);
+                }
+            }
+        } else if (leftType == Type.BOOLEAN && rightType == Type.BOOLEAN) {
+            BooleanOperator operator = booleanOperator(op);
+            if (operator != null) {
+                node = new BooleanOperationNode(left, right, operator);
+            }
+        } else if (leftType == Type.STRING && rightType == Type.STRING) {
+            if (op == Operation.ADD) {
+                node = new StringConcatenationNode(left, right);
+            } else if (op == Operation.APPROXIMATELY_EQUAL && right instanceof LiteralNode) {
+                Pattern pattern = VeLaRuntime.pattern(((LiteralNode) right).value.stringVal());
+                node = new StringComparisonNode(left, right, (a, b) -> pattern.matcher(a).matches());
+            } else {
+                BiPredicate<String, String> predicate = stringPredicate(op);
+                if (predicate != null) {
+                    node = new StringComparisonNode(left, right, predicate);
+                }
+            }
+        }
+
+        if (node == null) {
+            node = new BinaryOperationNode(op, left, right);
+        } else if (left instanceof LiteralNode && right instanceof LiteralNode) {
+            node = fold(node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Create a node for a unary operation, specialised according to the
+     * operand's static type where possible and folded to a literal if the
+     * operand is a literal.
+     */
+    private static Node unary(AST ast, Node operand) {
+        Node node = null;
+
+        switch (ast.getOp()) {
+        case NEG:
+            if (operand.type == Type.INTEGER) {
+                node = new IntegerOperationNode(operand, null, (a, b) -> -a);
+            } else if (operand.type == Type.REAL) {
+                node = new RealOperationNode(operand, null, (a, b) -> -a);
+            }
+            break;
+        case NOT:
+            if (operand.type == Type.INTEGER) {
+                node = new IntegerOperationNode(operand, null, (a, b) -> ~a);
+            } else if (operand.type == Type.BOOLEAN) {
+                node = new BooleanOperationNode(operand, null, (a, b) -> !a);
+            }
+            break;
+        default:
+            break;
+        }
+
+        if (node == null) {
+            node = new InterpretedNode(ast);
+        } else if (operand instanceof LiteralNode) {
+            node = fold(node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Evaluate a specialised node with literal operands ahead of time, unless
+     * this results in an error, which is left to be reported on evaluation.
+     */
+    private static Node fold(Node node) {
+        try {
+            return new LiteralNode(node.eval(null));
+        } catch (VeLaEvalError e) {
+            return node;
+        }
+    }
+
+    // Operators by operation and type; null if not applicable.
+
+    private static boolean isNumeric(Type type) {
+        return type == Type.INTEGER || type == Type.REAL;
+    }
+
+    private static LongBinaryOperator integerOperator(Operation op) {
+        LongBinaryOperator operator = null;
+
+        switch (op) {
+        case ADD:
+            operator = (a, b) -> a + b;
+            break;
+        case SUB:
+            operator = (a, b) -> a - b;
+            break;
+        case MUL:
+            operator = (a, b) -> a * b;
+            break;
+        case DIV:
+            operator = (a, b) -> {
+                if (b != 0) {
+                    return a / b;
+                } else {
+                    throw new VeLaEvalError(String.format("%s/%s: division by zero error", a, b));
+                }
+            };
+            break;
+        case POW:
+            operator = (base, exponent) -> {
+                long result = base;
+                if (exponent == 0) {
+                    result = 1;
+                } else {
+                    // multiply base by itself n-1 times
+                    for (int i = 1; i <= exponent - 1; i++) {
+                        result *= base;
+                    }
+                }
+                return result;
+            };
+            break;
+        case AND:
+            operator = (a, b) -> a & b;
+            break;
+        case XOR:
+            operator = (a, b) -> a ^ b;
+            break;
+        case OR:
+            operator = (a, b) -> a | b;
+            break;
+        case SHL:
+            operator = (a, b) -> a << b;
+            break;
+        case SHR:
+            operator = (a, b) -> a >> b;
+            break;
+        default:
+            break;
+        }
+
+        return operator;
+    }
+
+    private static IntegerPredicate integerPredicate(Operation op) {
+        IntegerPredicate predicate = null;
+
+        switch (op) {
+        case EQUAL:
+            predicate = (a, b) -> a == b;
+            break;
+        case NOT_EQUAL:
+            predicate = (a, b) -> a != b;
+            break;
+        case GREATER_THAN:
+            predicate = (a, b) -> a > b;
+            break;
+        case LESS_THAN:
+            predicate = (a, b) -> a < b;
+            break;
+        case GREATER_THAN_OR_EQUAL:
+            predicate = (a, b) -> a >= b;
+            break;
+        case LESS_THAN_OR_EQUAL:
+            predicate = (a, b) -> a <= b;
+            break;
+        default:
+            break;
+        }
+
+        return predicate;
+    }
+
+    static DoubleBinaryOperator realOperator(Operation op) {
+        DoubleBinaryOperator operator = null;
+
+        switch (op) {
+        case ADD:
+            operator = (a, b) -> a + b;
+            break;
+        case SUB:
+            operator = (a, b) -> a - b;
+            break;
+        case MUL:
+            operator = (a, b) -> a * b;
+            break;
+        case DIV:
+            operator = (a, b) -> {
+                double result = a / b;
+                if (!Double.isInfinite(result)) {
+                    return result;
+                } else {
+                    throw new VeLaEvalError(String.format("%s/%s: division by zero error", a, b));
+                }
+            };
+            break;
+        case POW:
+            operator = Math::pow;
+            break;
+        default:
+            break;
+        }
+
+        return operator;
+    }
+
+    static RealPredicate realPredicate(Operation op) {
+        RealPredicate predicate = null;
+
+        switch (op) {
+        case EQUAL:
+            predicate = (a, b) -> a == b;
+            break;
+        case NOT_EQUAL:
+            predicate = (a, b) -> a != b;
+            break;
+        case GREATER_THAN:
+            predicate = (a, b) -> a > b;
+            break;
+        case LESS_THAN:
+            predicate = (a, b) -> a < b;
+            break;
+        case GREATER_THAN_OR_EQUAL:
+            predicate = (a, b) -> a >= b;
+            break;
+        case LESS_THAN_OR_EQUAL:
+            predicate = (a, b) -> a <= b;
+            break;
+        default:
+            break;
+        }
+
+        return predicate;
+    }
+
+    // Note that both operands of and, or and xor are always evaluated.
+    private static BooleanOperator booleanOperator(Operation op) {
+        BooleanOperator operator = null;
+
+        switch (op) {
+        case AND:
+            operator = (a, b) -> a & b;
+            break;
+        case XOR:
+            operator = (a, b) -> a ^ b;
+            break;
+        case OR:
+            operator = (a, b) -> a | b;
+            break;
+        case EQUAL:
+            operator = (a, b) -> a == b;
+            break;
+        case NOT_EQUAL:
+            operator = (a, b) -> a != b;
+            break;
+        default:
+            break;
+        }
+
+        return operator;
+    }
+
+    static BiPredicate<String, String> stringPredicate(Operation op) {
+        BiPredicate<String, String> predicate = null;
+
+        switch (op) {
+        case EQUAL:
+            predicate = (a, b) -> a.equals(b);
+            break;
+        case NOT_EQUAL:
+            predicate = (a, b) -> !a.equals(b);
+            break;
+        case GREATER_THAN:
+            predicate = (a, b) -> a.compareTo(b) > 0;
+            break;
+        case LESS_THAN:
+            predicate = (a, b) -> a.compareTo(b) < 0;
+            break;
+        case GREATER_THAN_OR_EQUAL:
+            predicate = (a, b) -> a.compareTo(b) >= 0;
+            break;
+        case LESS_THAN_OR_EQUAL:
+            predicate = (a, b) -> a.compareTo(b) <= 0;
+            break;
+        case APPROXIMATELY_EQUAL:
+            predicate = (a, b) -> VeLaRuntime.pattern(b).matcher(a).matches();
+            break;
+        case IN:
+            predicate = (a, b) -> b.contains(a);
+            break;
+        default:
+            break;
+        }
+
+        return predicate;
+    }
+
+    interface IntegerPredicate {
+        boolean test(long a, long b);
+    }
+
+    interface RealPredicate {
+        boolean test(double a, double b);
+    }
+
+    interface BooleanOperator {
+        boolean apply(boolean a, boolean b);
+    }
+
+    // Nodes
+
+    /**
+     * A compiled AST node. Evaluation yields the value that interpretation of
+     * the corresponding AST would leave on top of the interpreter's stack, or
+     * null if interpretation would push no value. Other values that
+     * interpretation would leave on the stack (e.g. by a sequence) are pushed
+     * onto the stack.
+     */
+    abstract static class Node {
+
+        // The static type of the node's value; null if not known.
+        final Type type;
+
+        Node(Type type) {
+            this.type = type;
+        }
+
+        /**
+         * Evaluate the node.
+         *
+         * @param vela The interpreter on whose behalf evaluation takes place.
+         * @return The value or null if no value is yielded.
+         * @throws VeLaEvalError If an evaluation error occurs.
+         */
+        abstract Operand eval(VeLaInterpreter vela) throws VeLaEvalError;
+
+        /**
+         * Mark calls to the named function in tail position within this node
+         * as tail calls (see FunctionCallNode).
+         *
+         * @param canonicalFuncName The function's canonical name.
+         */
+        void markTailCalls(String canonicalFuncName) {
+        }
+
+        /**
+         * Evaluate the node, taking the value from the interpreter's stack if
+         * none is yielded, as interpretation would.
+         */
+        Operand value(VeLaInterpreter vela) {
+            Operand value = eval(vela);
+            return value != null ? value : vela.getStack().pop();
+        }
+
+        /**
+         * Evaluate the node, yielding a numeric or Boolean value via the
+         * interpreter's primitive stack registers rather than an operand.
+         * Values of other types are yielded via the operand register.
+         *
+         * @param vela The interpreter on whose behalf evaluation takes place.
+         * @return The type of the value or null if no value is yielded.
+         * @throws VeLaEvalError If an evaluation error occurs.
+         */
+        Type evalUnboxed(VeLaInterpreter vela) {
+            Operand value = eval(vela);
+            return value != null ? vela.getPrimitiveStack().unbox(value) : null;
+        }
+
+        /**
+         * Evaluate the node unboxed, taking the value from the interpreter's
+         * stack if none is yielded, as interpretation would.
+         */
+        Type unboxedValue(VeLaInterpreter vela) {
+            Type type = evalUnboxed(vela);
+            return type != null ? type : vela.getPrimitiveStack().unbox(vela.getStack().pop());
+        }
+
+        // Typed evaluation; used only where the static type is known.
+
+        double realVal(VeLaInterpreter vela) {
+            Type type = unboxedValue(vela);
+            switch (type) {
+            case REAL:
+                return vela.getPrimitiveStack().real;
+            case INTEGER:
+                return vela.getPrimitiveStack().integer;
+            default:
+                throw typeError(type, Type.REAL);
+            }
+        }
+
+        long intVal(VeLaInterpreter vela) {
+            Type type = unboxedValue(vela);
+            if (type == Type.INTEGER) {
+                return vela.getPrimitiveStack().integer;
+            } else {
+                throw typeError(type, Type.INTEGER);
+            }
+        }
+
+        boolean booleanVal(VeLaInterpreter vela) {
+            Type type = unboxedValue(vela);
+            if (type == Type.BOOLEAN) {
+                return vela.getPrimitiveStack().bool;
+            } else {
+                throw typeError(type, Type.BOOLEAN);
+            }
+        }
+
+        /**
+         * Evaluate the node as the condition of a selection: true if the value
+         * is Boolean and true, as interpretation would.
+         */
+        boolean conditionVal(VeLaInterpreter vela) {
+            Type type = unboxedValue(vela);
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            return type == Type.BOOLEAN ? stack.bool : stack.box(type).booleanVal();
+        }
+
+        String stringVal(VeLaInterpreter vela) {
+            Operand value = value(vela);
+            if (value.getType() == Type.STRING) {
+                return value.stringVal();
+            } else {
+                throw typeError(value.getType(), Type.STRING);
+            }
+        }
+
+        private VeLaEvalError typeError(Type actual, Type expected) {
+            return new VeLaEvalError(String.format("Expected a value of type %s but found %s", expected, actual));
+        }
+    }
+
+    /**
+     * A literal value.
+     */
+    static class LiteralNode extends Node {
+        final Operand value;
+
+        LiteralNode(Operand value) {
+            super(value.getType());
+            this.value = value;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return value;
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            return vela.getPrimitiveStack().unbox(value);
+        }
+
+        // Literals are also evaluated without an interpreter when folded.
+
+        @Override
+        double realVal(VeLaInterpreter vela) {
+            switch (type) {
+            case REAL:
+                return value.doubleVal();
+            case INTEGER:
+                return value.intVal();
+            default:
+                return super.realVal(vela);
+            }
+        }
+
+        @Override
+        long intVal(VeLaInterpreter vela) {
+            return type == Type.INTEGER ? value.intVal() : super.intVal(vela);
+        }
+
+        @Override
+        boolean booleanVal(VeLaInterpreter vela) {
+            return type == Type.BOOLEAN ? value.booleanVal() : super.booleanVal(vela);
+        }
+    }
+
+    /**
+     * A symbol whose value is taken from its slot if present, and otherwise
+     * looked up by name.
+     */
+    static class SymbolNode extends Node {
+        final String token;
+        final String name;
+        final Supplier<Operand> slot;
+
+        SymbolNode(AST ast, Type type) {
+            super(type == Type.NONE ? null : type);
+            token = ast.getToken();
+            name = token.toUpperCase();
+            slot = ast.getSlot();
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            Operand value = slot != null ? slot.get() : null;
+
+            if (value == null) {
+                Optional<Operand> result = vela.lookupBinding(name);
+                if (result.isPresent()) {
+                    value = result.get();
+                } else {
+                    Optional<List<FunctionExecutor>> funList = vela.lookupFunctions(name);
+                    if (funList.isPresent()) {
+                        // The first function in the list is chosen in the
+                        // absence of parameter type information.
+                        value = new Operand(Type.FUNCTION, funList.get().get(0));
+                    } else {
+                        throw new VeLaEvalError("Unknown binding \"" + token + "\"");
+                    }
+                }
+            }
+
+            return value;
+        }
+    }
+
+    /**
+     * A parameter of the function whose body is being evaluated, held in the
+     * current frame of the primitive stack.
+     */
+    static class FrameSlotNode extends Node {
+        final int index;
+
+        FrameSlotNode(int index, Type type) {
+            super(type);
+            this.index = index;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return vela.getPrimitiveStack().box(evalUnboxed(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+
+            switch (type) {
+            case REAL:
+                stack.real = stack.frameReal(index);
+                break;
+            case INTEGER:
+                stack.integer = stack.frameInteger(index);
+                break;
+            default:
+                stack.bool = stack.frameInteger(index) != 0;
+                break;
+            }
+
+            return type;
+        }
+
+        @Override
+        double realVal(VeLaInterpreter vela) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            return type == Type.REAL ? stack.frameReal(index) : super.realVal(vela);
+        }
+
+        @Override
+        long intVal(VeLaInterpreter vela) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            return type == Type.INTEGER ? stack.frameInteger(index) : super.intVal(vela);
+        }
+
+        @Override
+        boolean booleanVal(VeLaInterpreter vela) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            return type == Type.BOOLEAN ? stack.frameInteger(index) != 0 : super.booleanVal(vela);
+        }
+    }
+
+    /**
+     * An integer operation with integer operands; unary if right is null.
+     */
+    static class IntegerOperationNode extends Node {
+        final Node left;
+        final Node right;
+        final LongBinaryOperator operator;
+
+        IntegerOperationNode(Node left, Node right, LongBinaryOperator operator) {
+            super(Type.INTEGER);
+            this.left = left;
+            this.right = right;
+            this.operator = operator;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.INTEGER, intVal(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            long value = intVal(vela);
+            vela.getPrimitiveStack().integer = value;
+            return Type.INTEGER;
+        }
+
+        @Override
+        long intVal(VeLaInterpreter vela) {
+            long a = left.intVal(vela);
+            long b = right != null ? right.intVal(vela) : 0;
+            return operator.applyAsLong(a, b);
+        }
+
+        @Override
+        double realVal(VeLaInterpreter vela) {
+            return intVal(vela);
+        }
+    }
+
+    /**
+     * A real operation with numeric operands; unary if right is null.
+     */
+    static class RealOperationNode extends Node {
+        final Node left;
+        final Node right;
+        final DoubleBinaryOperator operator;
+
+        RealOperationNode(Node left, Node right, DoubleBinaryOperator operator) {
+            super(Type.REAL);
+            this.left = left;
+            this.right = right;
+            this.operator = operator;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.REAL, realVal(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            double value = realVal(vela);
+            vela.getPrimitiveStack().real = value;
+            return Type.REAL;
+        }
+
+        @Override
+        double realVal(VeLaInterpreter vela) {
+            double a = left.realVal(vela);
+            double b = right != null ? right.realVal(vela) : 0;
+            return operator.applyAsDouble(a, b);
+        }
+    }
+
+    /**
+     * A comparison of integer operands.
+     */
+    static class IntegerComparisonNode extends Node {
+        final Node left;
+        final Node right;
+        final IntegerPredicate predicate;
+
+        IntegerComparisonNode(Node left, Node right, IntegerPredicate predicate) {
+            super(Type.BOOLEAN);
+            this.left = left;
+            this.right = right;
+            this.predicate = predicate;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.BOOLEAN, booleanVal(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            boolean value = booleanVal(vela);
+            vela.getPrimitiveStack().bool = value;
+            return Type.BOOLEAN;
+        }
+
+        @Override
+        boolean booleanVal(VeLaInterpreter vela) {
+            long a = left.intVal(vela);
+            long b = right.intVal(vela);
+            return predicate.test(a, b);
+        }
+    }
+
+    /**
+     * A comparison of numeric operands, at least one of which is real.
+     */
+    static class RealComparisonNode extends Node {
+        final Node left;
+        final Node right;
+        final RealPredicate predicate;
+
+        RealComparisonNode(Node left, Node right, RealPredicate predicate) {
+            super(Type.BOOLEAN);
+            this.left = left;
+            this.right = right;
+            this.predicate = predicate;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.BOOLEAN, booleanVal(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            boolean value = booleanVal(vela);
+            vela.getPrimitiveStack().bool = value;
+            return Type.BOOLEAN;
+        }
+
+        @Override
+        boolean booleanVal(VeLaInterpreter vela) {
+            double a = left.realVal(vela);
+            double b = right.realVal(vela);
+            return predicate.test(a, b);
+        }
+    }
+
+    /**
+     * A Boolean operation with Boolean operands; unary if right is null.
+     */
+    static class BooleanOperationNode extends Node {
+        final Node left;
+        final Node right;
+        final BooleanOperator operator;
+
+        BooleanOperationNode(Node left, Node right, BooleanOperator operator) {
+            super(Type.BOOLEAN);
+            this.left = left;
+            this.right = right;
+            this.operator = operator;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.BOOLEAN, booleanVal(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            boolean value = booleanVal(vela);
+            vela.getPrimitiveStack().bool = value;
+            return Type.BOOLEAN;
+        }
+
+        @Override
+        boolean booleanVal(VeLaInterpreter vela) {
+            boolean a = left.booleanVal(vela);
+            boolean b = right != null ? right.booleanVal(vela) : false;
+            return operator.apply(a, b);
+        }
+    }
+
+    /**
+     * A comparison of string operands.
+     */
+    static class StringComparisonNode extends Node {
+        final Node left;
+        final Node right;
+        final BiPredicate<String, String> predicate;
+
+        StringComparisonNode(Node left, Node right, BiPredicate<String, String> predicate) {
+            super(Type.BOOLEAN);
+            this.left = left;
+            this.right = right;
+            this.predicate = predicate;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.BOOLEAN, booleanVal(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            boolean value = booleanVal(vela);
+            vela.getPrimitiveStack().bool = value;
+            return Type.BOOLEAN;
+        }
+
+        @Override
+        boolean booleanVal(VeLaInterpreter vela) {
+            String a = left.stringVal(vela);
+            String b = right.stringVal(vela);
+            return predicate.test(a, b);
+        }
+    }
+
+    /**
+     * Concatenation of string operands.
+     */
+    static class StringConcatenationNode extends Node {
+        final Node left;
+        final Node right;
+
+        StringConcatenationNode(Node left, Node right) {
+            super(Type.STRING);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.STRING, stringVal(vela));
+        }
+
+        @Override
+        String stringVal(VeLaInterpreter vela) {
+            String a = left.stringVal(vela);
+            String b = right.stringVal(vela);
+            return a + b;
+        }
+    }
+
+    /**
+     * A binary operation whose operand types are not known statically. Numeric
+     * and Boolean operands are handled directly and unboxed; other operands
+     * (e.g. strings requiring conversion, lists) are handled by the
+     * interpreter.
+     */
+    static class BinaryOperationNode extends Node {
+        final Operation op;
+        final Node left;
+        final Node right;
+        final LongBinaryOperator integerOperator;
+        final IntegerPredicate integerPredicate;
+        final DoubleBinaryOperator realOperator;
+        final RealPredicate realPredicate;
+        final BooleanOperator booleanOperator;
+
+        BinaryOperationNode(Operation op, Node left, Node right) {
+            super(null);
+            this.op = op;
+            this.left = left;
+            this.right = right;
+            integerOperator = integerOperator(op);
+            integerPredicate = integerPredicate(op);
+            realOperator = realOperator(op);
+            realPredicate = realPredicate(op);
+            booleanOperator = booleanOperator(op);
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return vela.getPrimitiveStack().box(evalUnboxed(vela));
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            Type type = null;
+
+            // Take the first operand from the registers before evaluating the
+            // second.
+            Type typeA = left.evalUnboxed(vela);
+            double x = stack.real;
+            long m = stack.integer;
+            boolean p = stack.bool;
+            Operand a = stack.operand;
+
+            Type typeB = right.evalUnboxed(vela);
+
+            if (typeA == Type.INTEGER && typeB == Type.INTEGER) {
+                if (integerOperator != null) {
+                    stack.integer = integerOperator.applyAsLong(m, stack.integer);
+                    type = Type.INTEGER;
+                } else if (integerPredicate != null) {
+                    stack.bool = integerPredicate.test(m, stack.integer);
+                    type = Type.BOOLEAN;
+                }
+            } else if (isNumeric(typeA) && isNumeric(typeB)) {
+                double u = typeA == Type.REAL ? x : m;
+                double v = typeB == Type.REAL ? stack.real : stack.integer;
+                if (realOperator != null) {
+                    stack.real = realOperator.applyAsDouble(u, v);
+                    type = Type.REAL;
+                } else if (realPredicate != null) {
+                    stack.bool = realPredicate.test(u, v);
+                    type = Type.BOOLEAN;
+                }
+            } else if (typeA == Type.BOOLEAN && typeB == Type.BOOLEAN) {
+                if (booleanOperator != null) {
+                    stack.bool = booleanOperator.apply(p, stack.bool);
+                    type = Type.BOOLEAN;
+                }
+            }
+
+            if (type == null) {
+                Operand b = typeB != null ? stack.box(typeB) : null;
+                if (typeA != null) {
+                    vela.getStack().push(PrimitiveStack.box(typeA, x, m, p, a));
+                }
+                if (b != null) {
+                    vela.getStack().push(b);
+                }
+                vela.applyBinaryOperation(op);
+                type = stack.unbox(vela.getStack().pop());
+            }
+
+            return type;
+        }
+    }
+
+    /**
+     * A list whose elements are evaluated last to first, as by the
+     * interpreter.
+     */
+    static class ListNode extends Node {
+        final Node[] elements;
+
+        ListNode(Node[] elements) {
+            super(Type.LIST);
+            this.elements = elements;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return new Operand(Type.LIST, evalReversed(elements, vela));
+        }
+    }
+
+    /**
+     * A sequence of nodes, the value of the last of which is yielded.
+     */
+    static class SequenceNode extends Node {
+        final Node[] children;
+
+        SequenceNode(Node[] children) {
+            super(children.length == 1 ? children[0].type : null);
+            this.children = children;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            Operand result = null;
+
+            for (int i = 0; i < children.length; i++) {
+                if (result != null) {
+                    vela.getStack().push(result);
+                }
+                result = children[i].eval(vela);
+            }
+
+            return result;
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            Operand result = null;
+
+            for (int i = 0; i < children.length - 1; i++) {
+                if (result != null) {
+                    vela.getStack().push(result);
+                }
+                result = children[i].eval(vela);
+            }
+
+            if (result != null) {
+                vela.getStack().push(result);
+            }
+
+            return children.length > 0 ? children[children.length - 1].evalUnboxed(vela) : null;
+        }
+
+        @Override
+        void markTailCalls(String canonicalFuncName) {
+            if (children.length > 0) {
+                children[children.length - 1].markTailCalls(canonicalFuncName);
+            }
+        }
+    }
+
+    /**
+     * A variable or constant binding.
+     */
+    static class BindNode extends Node {
+        final String name;
+        final Node value;
+        final boolean isConstant;
+        final String msg;
+
+        BindNode(String name, Node value, boolean isConstant) {
+            super(null);
+            this.name = name;
+            this.value = value;
+            this.isConstant = isConstant;
+            msg = "No value to bind to \"" + name + "\"";
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            Operand operand = value.eval(vela);
+            if (operand != null) {
+                vela.getStack().push(operand);
+            }
+            vela.bind(name, vela.pop(msg), isConstant);
+            return null;
+        }
+    }
+
+    /**
+     * A selection between one or two consequents.
+     */
+    static class IfNode extends Node {
+        final Node condition;
+        final Node consequent;
+        final Node alternative;
+
+        IfNode(Node[] children) {
+            super(null);
+            condition = children[0];
+            consequent = children[1];
+            alternative = children.length == 3 ? children[2] : null;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            Operand result = null;
+
+            if (condition.conditionVal(vela)) {
+                result = consequent.eval(vela);
+            } else if (alternative != null) {
+                result = alternative.eval(vela);
+            }
+
+            return result;
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            Type result = null;
+
+            if (condition.conditionVal(vela)) {
+                result = consequent.evalUnboxed(vela);
+            } else if (alternative != null) {
+                result = alternative.evalUnboxed(vela);
+            }
+
+            return result;
+        }
+
+        @Override
+        void markTailCalls(String canonicalFuncName) {
+            consequent.markTailCalls(canonicalFuncName);
+            if (alternative != null) {
+                alternative.markTailCalls(canonicalFuncName);
+            }
+        }
+    }
+
+    /**
+     * A selection of the first consequent whose antecedent is true.
+     */
+    static class WhenNode extends Node {
+        final Node[] antecedents;
+        final Node[] consequents;
+
+        WhenNode(Node[] antecedents, Node[] consequents) {
+            super(null);
+            this.antecedents = antecedents;
+            this.consequents = consequents;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            Operand result = null;
+
+            for (int i = 0; i < antecedents.length; i++) {
+                if (antecedents[i].conditionVal(vela)) {
+                    result = consequents[i].eval(vela);
+                    break;
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            Type result = null;
+
+            for (int i = 0; i < antecedents.length; i++) {
+                if (antecedents[i].conditionVal(vela)) {
+                    result = consequents[i].evalUnboxed(vela);
+                    break;
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        void markTailCalls(String canonicalFuncName) {
+            for (Node consequent : consequents) {
+                consequent.markTailCalls(canonicalFuncName);
+            }
+        }
+    }
+
+    /**
+     * A loop; values yielded by the body are left on the stack, as by the
+     * interpreter.
+     */
+    static class WhileNode extends Node {
+        final Node condition;
+        final Node body;
+
+        WhileNode(Node condition, Node body) {
+            super(null);
+            this.condition = condition;
+            this.body = body;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            while (true) {
+                Operand value = condition.eval(vela);
+                if (value != null) {
+                    vela.getStack().push(value);
+                }
+                if (!vela.getStack().isEmpty() && vela.getStack().peek().getType() == Type.BOOLEAN
+                        && vela.getStack().pop().booleanVal()) {
+                    value = body.eval(vela);
+                    if (value != null) {
+                        vela.getStack().push(value);
+                    }
+                } else {
+                    break;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * A function call. For named functions, the overload chosen for a given
+     * list of functions and actual parameter types is cached, so that
+     * subsequent calls with the same parameter types need not test each
+     * overload in turn. Where the overload is a Math intrinsic of real
+     * parameters or a user-defined function whose parameters are held in a
+     * frame, subsequent calls pass it unboxed values directly.
+     */
+    static class FunctionCallNode extends Node {
+        final String funcName;
+        final String canonicalFuncName;
+        final Node function;
+        final Node[] parameters;
+
+        // Is this a call in tail position within the body of a function of
+        // the same name? If the call resolves to the function being applied,
+        // the actual parameters replace its parameters and its body is
+        // evaluated again rather than the call being made.
+        private boolean tail;
+
+        private volatile CallSite callSite;
+
+        FunctionCallNode(AST ast, Node function, Node[] parameters) {
+            super(null);
+            if (ast.head().getOp() == Operation.SYMBOL) {
+                funcName = ast.head().getToken();
+                canonicalFuncName = funcName.toUpperCase();
+            } else {
+                funcName = null;
+                canonicalFuncName = null;
+            }
+            this.function = function;
+            this.parameters = parameters;
+        }
+
+        @Override
+        void markTailCalls(String canonicalFuncName) {
+            tail |= canonicalFuncName.equals(this.canonicalFuncName);
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            CallSite site = callSite;
+
+            if (site != null && site.isUnboxed()) {
+                Type type = applyUnboxed(vela, site);
+                return type != null ? vela.getPrimitiveStack().box(type) : null;
+            } else {
+                return call(vela, evalReversed(parameters, vela));
+            }
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            CallSite site = callSite;
+
+            if (site != null && site.isUnboxed()) {
+                return applyUnboxed(vela, site);
+            } else {
+                return callUnboxed(vela, evalReversed(parameters, vela));
+            }
+        }
+
+        /**
+         * Apply the overload chosen at the call site to unboxed actual
+         * parameters held in slots reserved on the primitive stack, unless the
+         * actual parameters' types or the call site's choice of overload no
+         * longer hold, in which case the parameters are boxed and the call is
+         * made as usual.
+         */
+        private Type applyUnboxed(VeLaInterpreter vela, CallSite site) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            int first = stack.reserve(parameters.length);
+
+            for (int i = parameters.length - 1; i >= 0; i--) {
+                Type type = parameters[i].unboxedValue(vela);
+                if (type == site.types[i]) {
+                    stack.store(first + i, type);
+                } else {
+                    Operand value = stack.box(type);
+                    return callUnboxed(vela, box(vela, site, first, i, value));
+                }
+            }
+
+            Optional<List<FunctionExecutor>> functions = vela.lookupFunctions(canonicalFuncName);
+
+            if (!functions.isPresent() || !site.resolves(functions.get())) {
+                return callUnboxed(vela, box(vela, site, first, -1, null));
+            }
+
+            Type type;
+
+            if (site.body != null) {
+                // Convert integer to real parameters as conformance would.
+                for (int i = 0; i < parameters.length; i++) {
+                    if (site.body.types[i] == Type.REAL && site.types[i] == Type.INTEGER) {
+                        stack.setReal(first + i, stack.getInteger(first + i));
+                    }
+                }
+
+                UserDefinedFunctionExecutor udf = (UserDefinedFunctionExecutor) site.function;
+
+                if (tail && udf == stack.callee) {
+                    stack.moveToFrame(first);
+                    stack.tailCall = true;
+                    type = null;
+                } else {
+                    type = returnUnboxed(stack, udf, udf.applyUnboxed(site.body, first));
+                }
+            } else {
+                JavaMethodExecutor intrinsic = (JavaMethodExecutor) site.function;
+
+                double x = realSlot(stack, site, first, 0);
+                double y = parameters.length == 2 ? realSlot(stack, site, first, 1) : 0;
+
+                stack.release(first);
+
+                stack.real = parameters.length == 2 ? intrinsic.applyAsDouble(x, y) : intrinsic.applyAsDouble(x);
+                type = Type.REAL;
+            }
+
+            return type;
+        }
+
+        private static double realSlot(PrimitiveStack stack, CallSite site, int first, int index) {
+            return site.types[index] == Type.REAL ? stack.getReal(first + index) : stack.getInteger(first + index);
+        }
+
+        /**
+         * Box actual parameters, releasing their slots and evaluating any not
+         * yet evaluated.
+         *
+         * @param first The first slot.
+         * @param index The index of the last parameter to have been evaluated,
+         *              whose value is supplied if its type differed from that
+         *              expected by the call site; -1 if all parameters were
+         *              evaluated and stored.
+         * @param value The value of the parameter at index.
+         */
+        private List<Operand> box(VeLaInterpreter vela, CallSite site, int first, int index, Operand value) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            Operand[] values = new Operand[parameters.length];
+
+            for (int i = parameters.length - 1; i > index; i--) {
+                switch (site.types[i]) {
+                case REAL:
+                    values[i] = new Operand(Type.REAL, stack.getReal(first + i));
+                    break;
+                case INTEGER:
+                    values[i] = new Operand(Type.INTEGER, stack.getInteger(first + i));
+                    break;
+                default:
+                    values[i] = new Operand(Type.BOOLEAN, stack.getInteger(first + i) != 0);
+                    break;
+                }
+            }
+
+            stack.release(first);
+
+            if (index >= 0) {
+                values[index] = value;
+                for (int i = index - 1; i >= 0; i--) {
+                    values[i] = parameters[i].value(vela);
+                }
+            }
+
+            List<Operand> params = new ArrayList<Operand>(values.length);
+            for (Operand param : values) {
+                params.add(param);
+            }
+
+            return params;
+        }
+
+        private Type callUnboxed(VeLaInterpreter vela, List<Operand> params) {
+            Operand value = call(vela, params);
+            return value != null ? vela.getPrimitiveStack().unbox(value) : null;
+        }
+
+        private Operand call(VeLaInterpreter vela, List<Operand> params) {
+            int initialStackSize = vela.getStack().size();
+
+            if (funcName != null) {
+                Optional<List<FunctionExecutor>> functions = vela.lookupFunctions(canonicalFuncName);
+
+                if (functions.isPresent()) {
+                    apply(vela, functions.get(), params);
+                } else {
+                    vela.applyFunction(funcName, params);
+                }
+            } else {
+                FunctionExecutor anon = function.value(vela).functionVal();
+
+                if (!vela.applyFunction(anon, params)) {
+                    throw new VeLaEvalError("Invalid parameters for function \"" + anon + "\"");
+                }
+            }
+
+            return vela.getStack().size() > initialStackSize ? vela.getStack().pop() : null;
+        }
+
+        private void apply(VeLaInterpreter vela, List<FunctionExecutor> functions, List<Operand> params) {
+            CallSite site = callSite;
+
+            if (site != null && site.matches(functions, params)) {
+                if (!applyTailCall(vela, site.function, params) && !vela.applyFunction(site.function, params)) {
+                    // The overload's conformance depends upon the actual
+                    // parameters' values (see JavaMethodExecutor), so
+                    // choose again.
+                    resolve(vela, functions, params);
+                }
+            } else {
+                resolve(vela, functions, params);
+            }
+        }
+
+        /**
+         * Choose the overload to which the actual parameters conform and
+         * apply it, caching the choice where this does not depend upon the
+         * actual parameters' values.
+         */
+        private void resolve(VeLaInterpreter vela, List<FunctionExecutor> functions, List<Operand> params) {
+            Type[] types = CallSite.types(params);
+            boolean converted = false;
+            boolean match = false;
+
+            for (int i = 0; i < functions.size() && !match; i++) {
+                FunctionExecutor candidate = functions.get(i);
+                List<Operand> originalParams = converted ? null : new ArrayList<Operand>(params);
+
+                if (tail && candidate == vela.getPrimitiveStack().callee) {
+                    match = applyTailCall(vela, candidate, params);
+                } else {
+                    match = vela.applyFunction(candidate, params);
+                }
+
+                if (match) {
+                    // Only cache a choice that does not depend upon
+                    // conversions made by non-conforming overloads or upon
+                    // the actual parameters' values.
+                    if (!converted) {
+                        callSite = new CallSite(functions, i, candidate, types, isPrimitive(candidate, types),
+                                frameBody(vela, candidate, types));
+                    }
+                } else if (!converted) {
+                    // A Java method may have rejected an integer too
+                    // large for an int parameter.
+                    converted = candidate instanceof JavaMethodExecutor
+                            && ((JavaMethodExecutor) candidate).narrowsIntegers();
+
+                    for (int j = 0; j < params.size() && !converted; j++) {
+                        if (params.get(j) != originalParams.get(j)) {
+                            converted = true;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if (!match) {
+                // Report the error as the interpreter would.
+                vela.applyFunction(funcName, params);
+            }
+        }
+
+        /**
+         * If this is a tail call and the function is the one being applied,
+         * set the actual parameters for its body to be evaluated again.
+         *
+         * @return Whether the parameters conformed to those of the function
+         *         and were set; false if this is not such a call.
+         */
+        private boolean applyTailCall(VeLaInterpreter vela, FunctionExecutor function, List<Operand> params) {
+            PrimitiveStack stack = vela.getPrimitiveStack();
+            boolean applied = false;
+
+            if (tail && function == stack.callee && function.conforms(params)) {
+                stack.tailCallParameters = params;
+                stack.tailCall = true;
+                applied = true;
+            }
+
+            return applied;
+        }
+
+        /**
+         * Can a call to the chosen overload be made with primitive values?
+         * This requires an intrinsic of real parameters and numeric actual
+         * parameters.
+         */
+        private boolean isPrimitive(FunctionExecutor function, Type[] types) {
+            boolean primitive = function instanceof JavaMethodExecutor
+                    && ((JavaMethodExecutor) function).isDoubleOperator() && types.length == parameters.length;
+
+            for (int i = 0; i < types.length && primitive; i++) {
+                primitive = isNumeric(types[i]);
+            }
+
+            return primitive;
+        }
+
+        /**
+         * Return the compiled body of the chosen overload if it is a
+         * user-defined function of this interpreter whose parameters may be
+         * held in a frame given the actual parameters' types, otherwise null.
+         */
+        private FunctionBodyNode frameBody(VeLaInterpreter vela, FunctionExecutor function, Type[] types) {
+            FunctionBodyNode body = null;
+
+            if (function instanceof UserDefinedFunctionExecutor && vela.isCompiledMode()
+                    && types.length == parameters.length && !((UserDefinedFunctionExecutor) function).isMemoised()) {
+                body = ((UserDefinedFunctionExecutor) function).getFrameBody(vela);
+
+                for (int i = 0; body != null && i < types.length; i++) {
+                    if (types[i] != body.types[i] && (types[i] != Type.INTEGER || body.types[i] != Type.REAL)) {
+                        body = null;
+                    }
+                }
+            }
+
+            return body;
+        }
+    }
+
+    /**
+     * An immutable record of the overload chosen at a call site.
+     */
+    static class CallSite {
+        final List<FunctionExecutor> functions;
+        final int index;
+        final FunctionExecutor function;
+        final Type[] types;
+
+        // Whether the function may be applied to primitive values.
+        final boolean primitive;
+
+        // The body of a user-defined function whose parameters may be held in
+        // a frame; null if not applicable.
+        final FunctionBodyNode body;
+
+        CallSite(List<FunctionExecutor> functions, int index, FunctionExecutor function, Type[] types,
+                boolean primitive, FunctionBodyNode body) {
+            this.functions = functions;
+            this.index = index;
+            this.function = function;
+            this.types = types;
+            this.primitive = primitive;
+            this.body = body;
+        }
+
+        boolean isUnboxed() {
+            return primitive || body != null;
+        }
+
+        boolean resolves(List<FunctionExecutor> functions) {
+            return functions == this.functions && index < functions.size() && functions.get(index) == function;
+        }
+
+        boolean matches(List<FunctionExecutor> functions, List<Operand> params) {
+            boolean matches = resolves(functions) && params.size() == types.length;
+
+            for (int i = 0; i < types.length && matches; i++) {
+                matches = params.get(i).getType() == types[i];
+            }
+
+            return matches;
+        }
+
+        static Type[] types(List<Operand> params) {
+            Type[] types = new Type[params.size()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = params.get(i).getType();
+            }
+            return types;
+        }
+    }
+
+    /**
+     * The body of a user-defined function whose parameters are all numeric or
+     * Boolean. Its actual parameters are held in a frame on the primitive
+     * stack (see UserDefinedFunctionExecutor.applyUnboxed()) rather than being
+     * bound to operands in a new scope, and are read from the frame by the
+     * body.
+     */
+    static class FunctionBodyNode extends Node {
+        final Node body;
+        final String[] names;
+        final Type[] types;
+
+        FunctionBodyNode(Node body, String[] names, Type[] types) {
+            super(body.type);
+            this.body = body;
+            this.names = names;
+            this.types = types;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            return body.eval(vela);
+        }
+
+        @Override
+        Type evalUnboxed(VeLaInterpreter vela) {
+            return body.evalUnboxed(vela);
+        }
+    }
+
+    /**
+     * Check the value yielded by a function against its return type as the
+     * interpreter would, converting it if necessary.
+     *
+     * @param stack    The primitive stack whose registers hold the value.
+     * @param function The function.
+     * @param type     The type of the value or null if none was yielded.
+     * @return The type of the value, which is left in the registers.
+     * @throws VeLaEvalError If the value is not of the function's return type.
+     */
+    static Type returnUnboxed(PrimitiveStack stack, FunctionExecutor function, Type type) {
+        Optional<Type> returnType = function.getReturnType();
+
+        if (type != null) {
+            if (!returnType.isPresent()) {
+                throw new VeLaEvalError(String.format("%s has no return type but a value " + "of type %s was returned.",
+                        function, type));
+            } else if (type != returnType.get()) {
+                Operand result = stack.box(type);
+                Operand convertedResult = result.convert(returnType.get());
+                if (convertedResult.getType() == returnType.get()) {
+                    type = stack.unbox(convertedResult);
+                } else {
+                    throw new VeLaEvalError(String.format(
+                            "The expected return type of %s does not match " + "the actual return type of %s.",
+                            function, type));
+                }
+            }
+        } else if (returnType.isPresent()) {
+            throw new VeLaEvalError(String.format("No value was returned by %s.", function));
+        }
+
+        return type;
+    }
+
+    /**
+     * An AST evaluated by the interpreter, e.g. a function definition.
+     */
+    static class InterpretedNode extends Node {
+        final AST ast;
+
+        InterpretedNode(AST ast) {
+            super(null);
+            this.ast = ast;
+        }
+
+        @Override
+        Operand eval(VeLaInterpreter vela) {
+            int initialStackSize = vela.getStack().size();
+            vela.interpret(ast);
+            return vela.getStack().size() > initialStackSize ? vela.getStack().pop() : null;
+        }
+    }
+
+    /**
+     * Evaluate nodes from last to first, returning their values in first to
+     * last order, as the interpreter does for list elements and actual
+     * parameters.
+     */
+    private static List<Operand> evalReversed(Node[] nodes, VeLaInterpreter vela) {
+        Operand[] values = new Operand[nodes.length];
+
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            values[i] = nodes[i].value(vela);
+        }
+
+        List<Operand> list = new ArrayList<Operand>(values.length);
+        for (Operand value : values) {
+            list.add(value);
+        }
+
+        return list;
+    }
+}
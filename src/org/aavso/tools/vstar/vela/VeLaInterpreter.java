@@ -19,18 +19,12 @@ package org.aavso.tools.vstar.vela;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -38,10 +32,9 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.function.DoubleBinaryOperator;
 import java.util.stream.Stream;
 
-import org.aavso.tools.vstar.scripting.VStarScriptingAPI;
 import org.aavso.tools.vstar.ui.VStar;
 import org.aavso.tools.vstar.util.Pair;
 import org.aavso.tools.vstar.util.date.AbstractDateUtil;
@@ -56,21 +49,24 @@ import org.antlr.v4.runtime.ParserRuleContext;
  */
 public class VeLaInterpreter {
 
-    private boolean verbose;
+    private final VeLaRuntime runtime;
 
-    private List<File> sourceDirectories;
+    private boolean verbose;
 
     private Stack<Operand> stack;
 
-    private Stack<VeLaEnvironment<Operand>> environments;
+    // Unboxed values used in compiled mode.
+    private final PrimitiveStack primitiveStack = new PrimitiveStack();
 
-    // AST and result caches.
-    private static Map<String, AST> exprToAST = new HashMap<String, AST>();
+    // The most recent function name passed to applyAsDouble() and its
+    // canonical form, since a function is typically applied many times.
+    private String appliedFuncName;
+    private String canonicalAppliedFuncName;
 
-    // Regular expression pattern cache.
-    private static Map<String, Pattern> regexPatterns = new HashMap<String, Pattern>();
+    private Stack<VeLaEnvironment<Operand>> environments;
 
-    private static List<FunctionExecutor> javaClassFunctionExecutors = null;
+    // Evaluate ASTs via compiled closures rather than tree-walking?
+    private boolean compiledMode;
 
     private VeLaErrorListener errorListener;
 
@@ -83,8 +79,22 @@ public class VeLaInterpreter {
      *                          files (ending in ".vl" or ".vela") to be loaded.
      */
     public VeLaInterpreter(boolean verbose, boolean addVStarAPI, List<File> sourceDirectories) {
+        // User code is loaded afresh unless there is none, in which case a
+        // shared runtime suffices.
+        this(sourceDirectories.isEmpty() ? VeLaRuntime.getInstance(addVStarAPI)
+                : new VeLaRuntime(addVStarAPI, sourceDirectories), verbose);
+    }
+
+    /**
+     * Construct a VeLa interpreter, i.e. an evaluation context, that uses the
+     * intrinsic functions, user code and caches of the specified runtime.
+     * 
+     * @param runtime The runtime, which may be shared with other interpreters.
+     * @param verbose Verbose mode?
+     */
+    public VeLaInterpreter(VeLaRuntime runtime, boolean verbose) {
+        this.runtime = runtime;
         this.verbose = verbose;
-        this.sourceDirectories = sourceDirectories;
 
         errorListener = new VeLaErrorListener();
 
@@ -93,34 +103,6 @@ public class VeLaInterpreter {
 
         environments.push(new VeLaScope());
 
-        // Collect functions from reflection over Java classes
-        Set<Class<?>> permittedTypes = new HashSet<Class<?>>();
-        permittedTypes.add(int.class);
-        permittedTypes.add(double.class);
-        permittedTypes.add(boolean.class);
-        permittedTypes.add(String.class);
-        permittedTypes.add(CharSequence.class);
-        permittedTypes.add(void.class);
-        permittedTypes.add(Type.DBL_ARR.getClass());
-        permittedTypes.add(Type.DBL_CLASS_ARR.getClass());
-        if (addVStarAPI) {
-            // TODO: really needed here?
-            permittedTypes.add(VStarScriptingAPI.class);
-        }
-
-        if (javaClassFunctionExecutors == null) {
-            javaClassFunctionExecutors = new ArrayList<FunctionExecutor>();
-            addFunctionExecutorsFromClass(Math.class, null, permittedTypes, Collections.emptySet());
-
-            addFunctionExecutorsFromClass(String.class, null, permittedTypes,
-                    new HashSet<String>(Arrays.asList("JOIN", "FORMAT")));
-
-            if (addVStarAPI) {
-                addFunctionExecutorsFromClass(VStarScriptingAPI.class, VStarScriptingAPI.getInstance(), permittedTypes,
-                        Collections.emptySet());
-            }
-        }
-
         initBindings();
         initFunctionExecutors();
         // allows user to override intrinsic code
@@ -145,6 +127,13 @@ public class VeLaInterpreter {
         this(false, true, Collections.emptyList());
     }
 
+    /**
+     * @return the runtime used by this interpreter
+     */
+    public VeLaRuntime getRuntime() {
+        return runtime;
+    }
+
     /**
      * @param verbose the verbose to set
      */
@@ -152,6 +141,25 @@ public class VeLaInterpreter {
         this.verbose = verbose;
     }
 
+    /**
+     * @return whether ASTs are evaluated via compiled closures
+     */
+    public boolean isCompiledMode() {
+        return compiledMode;
+    }
+
+    /**
+     * Set whether ASTs should be evaluated via compiled closures (see
+     * VeLaCompiler) rather than by tree-walking interpretation. The results
+     * are the same either way; compiled mode is faster for programs or
+     * functions that are evaluated many times, e.g. over observations.
+     * 
+     * @param compiledMode Compiled mode?
+     */
+    public void setCompiledMode(boolean compiledMode) {
+        this.compiledMode = compiledMode;
+    }
+
     /**
      * Push an environment onto the stack.
      * 
@@ -187,7 +195,10 @@ public class VeLaInterpreter {
         List<VeLaScope> scopes = new ArrayList<VeLaScope>();
 
         for (VeLaEnvironment<Operand> env : environments) {
-            if (env instanceof VeLaScope) {
+            if (env instanceof FrameScope) {
+                // Frame scopes are reused.
+                scopes.add(((FrameScope) env).snapshot());
+            } else if (env instanceof VeLaScope) {
                 scopes.add((VeLaScope) env);
             }
         }
@@ -202,6 +213,13 @@ public class VeLaInterpreter {
         return stack;
     }
 
+    /**
+     * @return the primitive stack used in compiled mode
+     */
+    PrimitiveStack getPrimitiveStack() {
+        return primitiveStack;
+    }
+
     /**
      * Pop and return an operand from the stack if not empty.
      * 
@@ -228,6 +246,23 @@ public class VeLaInterpreter {
      * @throws VeLaEvalError  If an evaluation error occurs.
      */
     public Optional<Operand> program(File path) throws VeLaParseError, VeLaEvalError {
+        return program(read(path));
+    }
+
+    /**
+     * Compile a VeLa program in a file to an AST without evaluating it.
+     * 
+     * @param path A path to a file containing a VeLa program string to be
+     *             compiled.
+     * @return The abstract syntax tree; may be null if the program is empty.
+     * @throws VeLaParseError If a parse error occurs.
+     * @throws VeLaEvalError  If the file cannot be read.
+     */
+    public AST compile(File path) throws VeLaParseError, VeLaEvalError {
+        return compile(read(path));
+    }
+
+    private String read(File path) throws VeLaEvalError {
         StringBuffer code = new StringBuffer();
 
         try {
@@ -241,7 +276,7 @@ public class VeLaInterpreter {
             throw new VeLaEvalError("Error when attempting to read VeLa file " + path.getAbsolutePath());
         }
 
-        return program(code.toString());
+        return code.toString();
     }
 
     /**
@@ -268,8 +303,127 @@ public class VeLaInterpreter {
      * @throws VeLaEvalError  If an evaluation error occurs.
      */
     public Pair<Optional<Operand>, AST> veLaToResultASTPair(String prog) throws VeLaParseError, VeLaEvalError {
-        VeLaParser.SequenceContext tree = getParser(prog).sequence();
-        return commonInterpreter(prog, tree);
+        return commonInterpreter(prog, ParseRule.SEQUENCE);
+    }
+
+    /**
+     * Compile a VeLa program to an AST without evaluating it. The AST may then
+     * be evaluated any number of times via program(AST), avoiding repeated
+     * parsing.
+     * 
+     * @param prog The VeLa program string to be compiled.
+     * @return The abstract syntax tree; may be null if the program is empty.
+     * @throws VeLaParseError If a parse error occurs.
+     */
+    public AST compile(String prog) throws VeLaParseError {
+        return commonParseTreeWalker(prog, ParseRule.SEQUENCE);
+    }
+
+    /**
+     * VeLa program interpreter entry point for a previously compiled program.
+     * Any values left on the stack by the program other than the result are
+     * discarded.
+     * 
+     * @param ast The AST of the program to be evaluated; may be null.
+     * @return An optional result, depending upon whether a value was left on the
+     *         stack.
+     * @throws VeLaEvalError If an evaluation error occurs.
+     */
+    public Optional<Operand> program(AST ast) throws VeLaEvalError {
+        Optional<Operand> result = Optional.empty();
+
+        if (ast != null) {
+            int initialStackSize = stack.size();
+            int initialPrimitiveStackSize = primitiveStack.reserve(0);
+
+            try {
+                eval(ast);
+
+                if (stack.size() > initialStackSize) {
+                    result = Optional.of(stack.pop());
+                }
+            } finally {
+                if (stack.size() > initialStackSize) {
+                    stack.setSize(initialStackSize);
+                }
+                primitiveStack.release(initialPrimitiveStackSize);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Apply a named function to a real value, yielding a numeric value, e.g. to
+     * evaluate a model function at many time points without a program being
+     * parsed for each. In compiled mode, a user-defined function whose
+     * parameter is real is applied without operands being created.
+     * 
+     * @param funcName The name of the function.
+     * @param x        The actual parameter.
+     * @return The result.
+     * @throws VeLaEvalError If the function cannot be applied to a real value
+     *                       or does not return a numeric value.
+     */
+    public double applyAsDouble(String funcName, double x) throws VeLaEvalError {
+        int initialStackSize = stack.size();
+        int initialPrimitiveStackSize = primitiveStack.reserve(0);
+
+        try {
+            Type type = null;
+
+            // Find the first overload to which a real value conforms, as
+            // applyFunction() would.
+            FunctionExecutor function = null;
+            if (!funcName.equals(appliedFuncName)) {
+                appliedFuncName = funcName;
+                canonicalAppliedFuncName = funcName.toUpperCase();
+            }
+            Optional<List<FunctionExecutor>> functions = lookupFunctions(canonicalAppliedFuncName);
+            if (functions.isPresent()) {
+                for (FunctionExecutor candidate : functions.get()) {
+                    List<Type> types = candidate.getParameterTypes();
+                    if (types == FunctionExecutor.ANY_FORMALS
+                            || (types.size() == 1 && (types.get(0) == Type.REAL || types.get(0) == Type.STRING))) {
+                        function = candidate;
+                        break;
+                    }
+                }
+            }
+
+            VeLaCompiler.FunctionBodyNode body = function instanceof UserDefinedFunctionExecutor
+                    && !((UserDefinedFunctionExecutor) function).isMemoised()
+                            ? ((UserDefinedFunctionExecutor) function).getFrameBody(this)
+                            : null;
+
+            if (body != null && body.types.length == 1 && body.types[0] == Type.REAL) {
+                int first = primitiveStack.reserve(1);
+                primitiveStack.setReal(first, x);
+                type = VeLaCompiler.returnUnboxed(primitiveStack, function,
+                        ((UserDefinedFunctionExecutor) function).applyUnboxed(body, first));
+            } else {
+                List<Operand> params = new ArrayList<Operand>();
+                params.add(new Operand(Type.REAL, x));
+                applyFunction(funcName, params);
+                if (stack.size() > initialStackSize) {
+                    type = primitiveStack.unbox(stack.pop());
+                }
+            }
+
+            if (type == Type.REAL) {
+                return primitiveStack.real;
+            } else if (type == Type.INTEGER) {
+                return primitiveStack.integer;
+            } else {
+                throw new VeLaEvalError(String.format("Expected a numeric value from %s but found %s", funcName,
+                        type != null ? type : "none"));
+            }
+        } finally {
+            if (stack.size() > initialStackSize) {
+                stack.setSize(initialStackSize);
+            }
+            primitiveStack.release(initialPrimitiveStackSize);
+        }
     }
 
     /**
@@ -313,9 +467,7 @@ public class VeLaInterpreter {
 
         // TODO: why?
 
-        VeLaParser.ExpressionContext tree = getParser(expr).expression();
-
-        Optional<Operand> result = commonInterpreter(expr, tree).first;
+        Optional<Operand> result = commonInterpreter(expr, ParseRule.EXPRESSION).first;
 
         if (result.isPresent()) {
             return result.get();
@@ -335,9 +487,7 @@ public class VeLaInterpreter {
      */
     public boolean booleanExpression(String expr) throws VeLaParseError, VeLaEvalError {
 
-        VeLaParser.BooleanExpressionContext tree = getParser(expr).booleanExpression();
-
-        Optional<Operand> result = commonInterpreter(expr, tree).first;
+        Optional<Operand> result = commonInterpreter(expr, ParseRule.BOOLEAN_EXPRESSION).first;
 
         if (result.isPresent()) {
             return result.get().booleanVal();
@@ -370,45 +520,51 @@ public class VeLaInterpreter {
     }
 
     /**
-     * Common parse tree walker and AST generator.
+     * The grammar rules by which programs or expressions may be parsed.
+     */
+    private enum ParseRule {
+        SEQUENCE, EXPRESSION, BOOLEAN_EXPRESSION;
+    }
+
+    /**
+     * Common parser and AST generator. ASTs are cached by the runtime, by
+     * program string and grammar rule, so a program is parsed only once.
      * 
-     * @param prog The VeLa program to be interpreted.
-     * @param tree The parse tree resulting from parsing the VeLa expression.
+     * @param prog The VeLa program to be parsed.
+     * @param rule The grammar rule by which to parse the program.
      * @return The abstract syntax tree created by walking the parse tree.
      * @throws VeLaParseError If a parse error occurs.
      */
-    protected AST commonParseTreeWalker(String prog, ParserRuleContext tree) throws VeLaParseError {
+    private AST commonParseTreeWalker(String prog, ParseRule rule) throws VeLaParseError {
+        String key = rule.ordinal() + prog;
 
-        AST ast = null;
+        AST ast = runtime.getProgram(key);
 
-        // Remove whitespace and change to uppercase to ensure a canonical
-        // expression string for caching purposes.
-        prog = prog.replace(" ", "").replace("\t", "").toUpperCase();
+        if (ast == null) {
+            VeLaParser parser = getParser(prog);
+
+            ParserRuleContext tree;
+            switch (rule) {
+            case EXPRESSION:
+                tree = parser.expression();
+                break;
+            case BOOLEAN_EXPRESSION:
+                tree = parser.booleanExpression();
+                break;
+            default:
+                tree = parser.sequence();
+                break;
+            }
 
-        // We cache abstract syntax trees by top-level program string
-        // to improve performance.
-        // boolean astCached = false;
-        if (exprToAST.containsKey(prog)) {
-            ast = exprToAST.get(prog);
-            // astCached = true;
-        } else {
             ExpressionVisitor visitor = new ExpressionVisitor(this);
             ast = visitor.visit(tree);
 
             if (ast != null) {
                 // This relates a VeLa program or expression to an AST.
-                exprToAST.put(prog, ast);
+                ast = runtime.putProgram(key, ast);
             }
         }
 
-//		if (verbose && ast != null) {
-//			if (astCached) {
-//				System.out.println(String.format("%s [AST cached]", ast));
-//			} else {
-//				System.out.println(ast);
-//			}
-//		}
-
         return ast;
     }
 
@@ -422,11 +578,11 @@ public class VeLaInterpreter {
      *         stack and the AST that was constructed and evaluated.
      * @throws VeLaEvalError If an evaluation error occurs.
      */
-    public Pair<Optional<Operand>, AST> commonInterpreter(String prog, ParserRuleContext tree) throws VeLaEvalError {
+    private Pair<Optional<Operand>, AST> commonInterpreter(String prog, ParseRule rule) throws VeLaEvalError {
 
         Optional<Operand> result = Optional.empty();
 
-        AST ast = commonParseTreeWalker(prog, tree);
+        AST ast = commonParseTreeWalker(prog, rule);
 
         if (ast != null) {
             // Evaluate the abstract syntax tree and cache the result.
@@ -458,6 +614,24 @@ public class VeLaInterpreter {
      * @throws VeLaEvalError If an evaluation error occurs.
      */
     public void eval(AST ast) throws VeLaEvalError {
+        if (compiledMode) {
+            Operand value = VeLaCompiler.compile(ast).eval(this);
+            if (value != null) {
+                stack.push(value);
+            }
+        } else {
+            interpret(ast);
+        }
+    }
+
+    /**
+     * Interpret an AST via a depth first traversal, leaving the result of
+     * evaluation on the stack. Child ASTs are evaluated via eval().
+     * 
+     * @param ast An abstract syntax tree.
+     * @throws VeLaEvalError If an evaluation error occurs.
+     */
+    void interpret(AST ast) throws VeLaEvalError {
         if (ast.isLiteral()) {
             stack.push(ast.getOperand());
         } else {
@@ -486,6 +660,15 @@ public class VeLaInterpreter {
                         stack.push(new Operand(Type.REAL, -operand.doubleVal()));
                         break;
                     case LIST:
+                        if (operand.listVal() instanceof RealList) {
+                            RealList reals = (RealList) operand.listVal();
+                            double[] negValues = new double[reals.size()];
+                            for (int i = 0; i < negValues.length; i++) {
+                                negValues[i] = -reals.getReal(i);
+                            }
+                            stack.push(new Operand(Type.LIST, new RealList(negValues)));
+                            break;
+                        }
                         List<Operand> negResult = new ArrayList<Operand>();
                         for (int i = 0; i < operand.listVal().size(); i++) {
                             Operand scalar = operand.listVal().get(i);
@@ -544,21 +727,27 @@ public class VeLaInterpreter {
                 // Look up variable or function in the environment stack,
                 // pushing it onto the operand stack if it exists, looking for
                 // and evaluating a function if not, throwing an exception
-                // otherwise.
-                String name = ast.getToken().toUpperCase();
-                // Bound symbol?
-                Optional<Operand> result = lookupBinding(name);
-                if (result.isPresent()) {
-                    stack.push(result.get());
+                // otherwise. A symbol bound to a slot ahead of time requires
+                // no lookup unless the slot yields no value.
+                Operand slotValue = ast.getSlot() != null ? ast.getSlot().get() : null;
+                if (slotValue != null) {
+                    stack.push(slotValue);
                 } else {
-                    // Function?
-                    Optional<List<FunctionExecutor>> funList = lookupFunctions(name);
-                    if (funList.isPresent()) {
-                        // The first function in the list is chosen in the
-                        // absence of parameter type information.
-                        stack.push(new Operand(Type.FUNCTION, funList.get().get(0)));
+                    String name = ast.getToken().toUpperCase();
+                    // Bound symbol?
+                    Optional<Operand> result = lookupBinding(name);
+                    if (result.isPresent()) {
+                        stack.push(result.get());
                     } else {
-                        throw new VeLaEvalError("Unknown binding \"" + ast.getToken() + "\"");
+                        // Function?
+                        Optional<List<FunctionExecutor>> funList = lookupFunctions(name);
+                        if (funList.isPresent()) {
+                            // The first function in the list is chosen in the
+                            // absence of parameter type information.
+                            stack.push(new Operand(Type.FUNCTION, funList.get().get(0)));
+                        } else {
+                            throw new VeLaEvalError("Unknown binding \"" + ast.getToken() + "\"");
+                        }
                     }
                 }
             } else if (ast.getOp() == Operation.LIST) {
@@ -645,8 +834,10 @@ public class VeLaInterpreter {
 
             // Add the named function to the top-most scope's function namespace
             // or the push the anonymous function to the operand stack.
+            boolean memoised = UserDefinedFunctionExecutor.MEMO_ANNOTATION.equals(ast.getToken());
+
             UserDefinedFunctionExecutor function = new UserDefinedFunctionExecutor(this, name, parameterNames,
-                    parameterTypes, returnType, functionBody);
+                    parameterTypes, returnType, functionBody, memoised);
 
             if (name.isPresent()) {
                 addFunctionExecutor(function);
@@ -734,7 +925,7 @@ public class VeLaInterpreter {
      * 
      * @param op The operation to be applied.
      */
-    private void applyBinaryOperation(Operation op) {
+    void applyBinaryOperation(Operation op) {
         Operand operand2 = stack.pop();
         Operand operand1 = stack.pop();
 
@@ -989,13 +1180,7 @@ public class VeLaInterpreter {
                 break;
             case APPROXIMATELY_EQUAL:
                 if (type == Type.STRING) {
-                    Pattern pattern;
-                    String regex = operand2.stringVal();
-                    if (!regexPatterns.containsKey(regex)) {
-                        pattern = Pattern.compile(regex);
-                        regexPatterns.put(regex, pattern);
-                    }
-                    pattern = regexPatterns.get(regex);
+                    Pattern pattern = VeLaRuntime.pattern(operand2.stringVal());
                     stack.push(new Operand(Type.BOOLEAN, pattern.matcher(operand1.stringVal()).matches()));
                 } else {
                     binaryOpError(op, Type.STRING);
@@ -1064,6 +1249,12 @@ public class VeLaInterpreter {
             break;
 
         default:
+            RealList realResult = applyRealListOperation(op, operand1, operand2);
+            if (realResult != null) {
+                stack.push(new Operand(Type.LIST, realResult));
+                break;
+            }
+
             List<Operand> result = new ArrayList<Operand>();
 
             if (operand1.getType() == Type.LIST && operand2.getType() == Type.LIST) {
@@ -1101,6 +1292,61 @@ public class VeLaInterpreter {
         }
     }
 
+    /**
+     * Apply an arithmetic operation to a packed list of real values and either
+     * another such list or a numeric value, yielding a packed list.
+     * 
+     * @param op       The operation to be applied.
+     * @param operand1 The first operand.
+     * @param operand2 The second operand.
+     * @return The resulting list or null if the operands are not of these
+     *         types or the operation is not arithmetic.
+     */
+    private RealList applyRealListOperation(Operation op, Operand operand1, Operand operand2) {
+        DoubleBinaryOperator operator = VeLaCompiler.realOperator(op);
+
+        RealList list1 = realListOrNull(operand1);
+        RealList list2 = realListOrNull(operand2);
+
+        boolean isScalar1 = operand1.getType() == Type.REAL || operand1.getType() == Type.INTEGER;
+        boolean isScalar2 = operand2.getType() == Type.REAL || operand2.getType() == Type.INTEGER;
+
+        RealList result = null;
+
+        if (operator != null) {
+            if (list1 != null && list2 != null) {
+                if (list1.size() == list2.size()) {
+                    double[] values = new double[list1.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = operator.applyAsDouble(list1.getReal(i), list2.getReal(i));
+                    }
+                    result = new RealList(values);
+                }
+            } else if (list1 != null && isScalar2) {
+                double y = operand2.getType() == Type.REAL ? operand2.doubleVal() : operand2.intVal();
+                double[] values = new double[list1.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = operator.applyAsDouble(list1.getReal(i), y);
+                }
+                result = new RealList(values);
+            } else if (isScalar1 && list2 != null) {
+                double x = operand1.getType() == Type.REAL ? operand1.doubleVal() : operand1.intVal();
+                double[] values = new double[list2.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = operator.applyAsDouble(x, list2.getReal(i));
+                }
+                result = new RealList(values);
+            }
+        }
+
+        return result;
+    }
+
+    private static RealList realListOrNull(Operand operand) {
+        return operand.getType() == Type.LIST && operand.listVal() instanceof RealList ? (RealList) operand.listVal()
+                : null;
+    }
+
     /**
      * Throw a VeLa evaluation error for the given operation and types.
      * 
@@ -1210,21 +1456,13 @@ public class VeLaInterpreter {
     }
 
     /**
-     * Read and interpret user-defined code.<br/>
-     * A VeLa error should not bring VStar down.<br/>
-     * Ignore all but VeLa files (e.g. could be README files) and directories.
+     * Interpret user-defined code, parsed by the runtime.<br/>
+     * A VeLa error should not bring VStar down.
      */
     private void loadUserCode() {
-        for (File dir : sourceDirectories) {
+        for (AST ast : runtime.getUserCode()) {
             try {
-                if (dir.isDirectory()) {
-                    for (File file : dir.listFiles()) {
-                        if (file.getName().endsWith(".vl") || file.getName().endsWith(".vela")) {
-                            program(file);
-                        }
-                    }
-                } else {
-                }
+                program(ast);
             } catch (Throwable t) {
                 VStar.LOGGER.warning("Error when sourcing VeLa code: " + t.getLocalizedMessage());
             }
@@ -1274,7 +1512,7 @@ public class VeLaInterpreter {
      * @param params   The parameter list.
      * @throws VeLaEvalError If a function evaluation error occurs.
      */
-    private void applyFunction(String funcName, List<Operand> params) throws VeLaEvalError {
+    void applyFunction(String funcName, List<Operand> params) throws VeLaEvalError {
 
         String canonicalFuncName = funcName.toUpperCase();
 
@@ -1329,7 +1567,7 @@ public class VeLaInterpreter {
      * @return Does the function conform to the actual parameters?
      * @throws VeLaEvalError If a function evaluation error occurs.
      */
-    private boolean applyFunction(FunctionExecutor function, List<Operand> params) throws VeLaEvalError {
+    boolean applyFunction(FunctionExecutor function, List<Operand> params) throws VeLaEvalError {
 
         boolean conforms = function.conforms(params);
 
@@ -1426,7 +1664,7 @@ public class VeLaInterpreter {
         }
 
         // Collect functions from reflection over Java classes
-        for (FunctionExecutor function : javaClassFunctionExecutors) {
+        for (FunctionExecutor function : runtime.getJavaClassFunctionExecutors()) {
             addFunctionExecutor(function);
             if (verbose && function != null) {
                 System.out.println(function.toString());
@@ -1725,14 +1963,20 @@ public class VeLaInterpreter {
                 Optional.of(Type.LIST)) {
             @Override
             public Optional<Operand> apply(List<Operand> operands) {
-                Double first = operands.get(0).doubleVal();
-                Double last = operands.get(1).doubleVal();
-                Double step = operands.get(2).doubleVal();
-                List<Operand> resultList = new ArrayList<Operand>();
+                double first = operands.get(0).doubleVal();
+                double last = operands.get(1).doubleVal();
+                double step = operands.get(2).doubleVal();
+                // Count the values as the loop that generates them would.
+                int n = 0;
                 for (double i = first; i <= last; i += step) {
-                    resultList.add(new Operand(Type.REAL, i));
+                    n++;
                 }
-                return Optional.of(new Operand(Type.LIST, resultList));
+                double[] values = new double[n];
+                n = 0;
+                for (double i = first; i <= last; i += step) {
+                    values[n++] = i;
+                }
+                return Optional.of(new Operand(Type.LIST, new RealList(values)));
             }
         });
     }
@@ -1745,6 +1989,12 @@ public class VeLaInterpreter {
             public Optional<Operand> apply(List<Operand> operands) {
                 FunctionExecutor fun = operands.get(0).functionVal();
                 List<Operand> list = operands.get(1).listVal();
+
+                RealList realResult = mapReal(fun, list);
+                if (realResult != null) {
+                    return Optional.of(new Operand(Type.LIST, realResult));
+                }
+
                 List<Operand> resultList = new ArrayList<Operand>();
                 for (Operand item : list) {
                     List<Operand> params = null;
@@ -1772,6 +2022,42 @@ public class VeLaInterpreter {
         });
     }
 
+    /**
+     * In compiled mode, map a user-defined function of a real parameter whose
+     * return type is real over a packed list of real values, yielding a packed
+     * list without operands being created.
+     * 
+     * @param fun  The function.
+     * @param list The list.
+     * @return The resulting list or null if the function or list are not of
+     *         this kind.
+     */
+    private RealList mapReal(FunctionExecutor fun, List<Operand> list) {
+        RealList result = null;
+
+        if (list instanceof RealList && fun instanceof UserDefinedFunctionExecutor && fun.getReturnType().isPresent()
+                && fun.getReturnType().get() == Type.REAL) {
+            UserDefinedFunctionExecutor udf = (UserDefinedFunctionExecutor) fun;
+            VeLaCompiler.FunctionBodyNode body = udf.isMemoised() ? null : udf.getFrameBody(this);
+
+            if (body != null && body.types.length == 1 && body.types[0] == Type.REAL) {
+                RealList reals = (RealList) list;
+                double[] values = new double[reals.size()];
+
+                for (int i = 0; i < values.length; i++) {
+                    int first = primitiveStack.reserve(1);
+                    primitiveStack.setReal(first, reals.getReal(i));
+                    VeLaCompiler.returnUnboxed(primitiveStack, udf, udf.applyUnboxed(body, first));
+                    values[i] = primitiveStack.real;
+                }
+
+                result = new RealList(values);
+            }
+        }
+
+        return result;
+    }
+
     private void addListFilterFunction() {
         // Return type will always be LIST here.
         addFunctionExecutor(new FunctionExecutor(Optional.of("FILTER"), Arrays.asList(Type.FUNCTION, Type.LIST),
@@ -1780,6 +2066,12 @@ public class VeLaInterpreter {
             public Optional<Operand> apply(List<Operand> operands) {
                 FunctionExecutor fun = operands.get(0).functionVal();
                 List<Operand> list = operands.get(1).listVal();
+
+                RealList realResult = mapReal(fun, list);
+                if (realResult != null) {
+                    return Optional.of(new Operand(Type.LIST, realResult));
+                }
+
                 List<Operand> resultList = new ArrayList<Operand>();
                 for (Operand item : list) {
                     List<Operand> params = null;
@@ -1861,8 +2153,8 @@ public class VeLaInterpreter {
     }
 
     /**
-     * Given a class, add non zero-arity VeLa type-compatible functions to the
-     * functions map.
+     * Given a class, add non zero-arity VeLa type-compatible functions to this
+     * interpreter's current scope.
      * 
      * @param clazz          The class from which to add function executors.
      * @param instance       The instance of this class on which to invoke the
@@ -1872,96 +2164,9 @@ public class VeLaInterpreter {
      */
     public void addFunctionExecutorsFromClass(Class<?> clazz, Object instance, Set<Class<?>> permittedTypes,
             Set<String> exclusions) {
-        Method[] declaredMethods = clazz.getDeclaredMethods();
-
-        for (Method declaredMethod : declaredMethods) {
-            String funcName = declaredMethod.getName().toUpperCase();
-            Class<?> returnType = declaredMethod.getReturnType();
-            List<Class<?>> paramTypes = getJavaParameterTypes(declaredMethod, permittedTypes);
-
-            if (!Modifier.isStatic(declaredMethod.getModifiers()) && instance == null) {
-                List<Class<?>> newParamTypes = new ArrayList<Class<?>>();
-                newParamTypes.add(clazz);
-                newParamTypes.addAll(paramTypes);
-                paramTypes = newParamTypes;
-            }
-
-            FunctionExecutor function = null;
-
-            if (!exclusions.contains(funcName) && permittedTypes.contains(returnType)) {
-                // If the method is non-static, we need to include a
-                // parameter type for the object on which the method will be
-                // invoked.
-
-                List<Type> types = paramTypes.stream().map(t -> Type.java2Vela(t)).collect(Collectors.toList());
-
-                function = new FunctionExecutor(Optional.of(funcName), declaredMethod, types,
-                        Optional.of(Type.java2Vela(returnType))) {
-                    @Override
-                    public Optional<Operand> apply(List<Operand> operands) {
-                        return invokeJavaMethod(getMethod(), instance, operands, getReturnType());
-                    }
-                };
-
-                javaClassFunctionExecutors.add(function);
-            }
-        }
-    }
-
-    private static Optional<Operand> invokeJavaMethod(Method method, Object instance, List<Operand> operands,
-            Optional<Type> retType) {
-        Operand result = null;
-
-        try {
-            Object obj = null;
-
-            if (!Modifier.isStatic(method.getModifiers())) {
-                // For non-static methods, if instance is null, assume the first
-                // operand is an object instance.
-                if (instance == null) {
-                    obj = operands.get(0).toObject();
-                    operands.remove(0);
-                } else {
-                    // ...otherwise, use what's been passed in.
-                    obj = instance;
-                }
-            }
-
-            // Note that this is the first use of Java 8
-            // lambda expressions in VStar!
-
-            // obj is null for static methods
-            result = Operand.object2Operand(retType.get(),
-                    method.invoke(obj, operands.stream().map(op -> op.toObject()).toArray()));
-
-            Optional<Operand> retVal = null;
-
-            if (result != null) {
-                retVal = Optional.of(result);
-            } else {
-                retVal = Optional.of(Operand.NO_VALUE);
-            }
-
-            return retVal;
-
-        } catch (InvocationTargetException e) {
-            throw new VeLaEvalError(e.getLocalizedMessage());
-        } catch (IllegalAccessException e) {
-            throw new VeLaEvalError(e.getLocalizedMessage());
-        }
-    }
-
-    private static List<Class<?>> getJavaParameterTypes(Method method, Set<Class<?>> targetTypes) {
-        Parameter[] parameters = method.getParameters();
-        List<Class<?>> parameterTypes = new ArrayList<Class<?>>();
-
-        for (Parameter parameter : parameters) {
-            Class<?> type = parameter.getType();
-            if (targetTypes.contains(type)) {
-                parameterTypes.add(type);
-            }
+        for (FunctionExecutor function : VeLaRuntime.functionExecutorsFromClass(clazz, instance, permittedTypes,
+                exclusions)) {
+            addFunctionExecutor(function);
         }
-
-        return parameterTypes;
     }
 }
@@ -0,0 +1,269 @@
+// Generated from /root/project/src/org/aavso/tools/vstar/vela/VeLa.g4 by ANTLR 4.5.3
+package org.aavso.tools.vstar.vela;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.*;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
+public class VeLaLexer extends Lexer {
+	static { RuntimeMetaData.checkVersion("4.5.3", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		MEMO=1, BACK_ARROW=2, IS=3, COLON=4, ARROW=5, IF=6, THEN=7, ELSE=8, WHEN=9, 
+		WHILE=10, FUN=11, LAMBDA=12, INT_T=13, REAL_T=14, BOOL_T=15, STR_T=16, 
+		LIST_T=17, MINUS=18, PLUS=19, MULT=20, DIV=21, POW=22, EQUAL=23, NOT_EQUAL=24, 
+		GREATER_THAN=25, LESS_THAN=26, GREATER_THAN_OR_EQUAL=27, LESS_THAN_OR_EQUAL=28, 
+		APPROXIMATELY_EQUAL=29, SHIFT_LEFT=30, SHIFT_RIGHT=31, IN=32, LPAREN=33, 
+		RPAREN=34, LBRACKET=35, RBRACKET=36, LBRACE=37, RBRACE=38, PERIOD=39, 
+		COMMA=40, AND=41, XOR=42, OR=43, NOT=44, INTEGER=45, REAL=46, BOOLEAN=47, 
+		IDENT=48, STRING=49, WS=50, COMMENT=51;
+	public static String[] modeNames = {
+		"DEFAULT_MODE"
+	};
+
+	public static final String[] ruleNames = {
+		"MEMO", "BACK_ARROW", "IS", "COLON", "ARROW", "IF", "THEN", "ELSE", "WHEN", 
+		"WHILE", "FUN", "LAMBDA", "INT_T", "REAL_T", "BOOL_T", "STR_T", "LIST_T", 
+		"MINUS", "PLUS", "MULT", "DIV", "POW", "EQUAL", "NOT_EQUAL", "GREATER_THAN", 
+		"LESS_THAN", "GREATER_THAN_OR_EQUAL", "LESS_THAN_OR_EQUAL", "APPROXIMATELY_EQUAL", 
+		"SHIFT_LEFT", "SHIFT_RIGHT", "IN", "LPAREN", "RPAREN", "LBRACKET", "RBRACKET", 
+		"LBRACE", "RBRACE", "PERIOD", "COMMA", "AND", "XOR", "OR", "NOT", "INTEGER", 
+		"REAL", "BOOLEAN", "TRUE", "FALSE", "DEC_DIGIT", "HEX_DIGIT", "BIN_DIGIT", 
+		"POINT", "EXPONENT_INDICATOR", "IDENT", "LETTER", "UNDERSCORE", "SYMBOL", 
+		"STRING", "WS", "COMMENT"
+	};
+
+	private static final String[] _LITERAL_NAMES = {
+		null, null, "'<-'", null, "':'", "'->'", null, null, null, null, null, 
+		null, null, null, null, null, null, null, "'-'", "'+'", "'*'", "'/'", 
+		"'^'", "'='", "'<>'", "'>'", "'<'", "'>='", "'<='", "'=~'", "'<<'", "'>>'", 
+		null, "'('", "')'", "'['", "']'", "'{'", "'}'", "'.'", "','"
+	};
+	private static final String[] _SYMBOLIC_NAMES = {
+		null, "MEMO", "BACK_ARROW", "IS", "COLON", "ARROW", "IF", "THEN", "ELSE", 
+		"WHEN", "WHILE", "FUN", "LAMBDA", "INT_T", "REAL_T", "BOOL_T", "STR_T", 
+		"LIST_T", "MINUS", "PLUS", "MULT", "DIV", "POW", "EQUAL", "NOT_EQUAL", 
+		"GREATER_THAN", "LESS_THAN", "GREATER_THAN_OR_EQUAL", "LESS_THAN_OR_EQUAL", 
+		"APPROXIMATELY_EQUAL", "SHIFT_LEFT", "SHIFT_RIGHT", "IN", "LPAREN", "RPAREN", 
+		"LBRACKET", "RBRACKET", "LBRACE", "RBRACE", "PERIOD", "COMMA", "AND", 
+		"XOR", "OR", "NOT", "INTEGER", "REAL", "BOOLEAN", "IDENT", "STRING", "WS", 
+		"COMMENT"
+	};
+	public static final Vocabulary VOCABULARY = new VocabularyImpl(_LITERAL_NAMES, _SYMBOLIC_NAMES);
+
+	/**
+	 * @deprecated Use {@link #VOCABULARY} instead.
+	 */
+	@Deprecated
+	public static final String[] tokenNames;
+	static {
+		tokenNames = new String[_SYMBOLIC_NAMES.length];
+		for (int i = 0; i < tokenNames.length; i++) {
+			tokenNames[i] = VOCABULARY.getLiteralName(i);
+			if (tokenNames[i] == null) {
+				tokenNames[i] = VOCABULARY.getSymbolicName(i);
+			}
+
+			if (tokenNames[i] == null) {
+				tokenNames[i] = "<INVALID>";
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public String[] getTokenNames() {
+		return tokenNames;
+	}
+
+	@Override
+
+	public Vocabulary getVocabulary() {
+		return VOCABULARY;
+	}
+
+
+	public VeLaLexer(CharStream input) {
+		super(input);
+		_interp = new LexerATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+
+	@Override
+	public String getGrammarFileName() { return "VeLa.g4"; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public String[] getModeNames() { return modeNames; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+	public static final String _serializedATN =
+		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\2\65\u01a1\b\1\4\2"+
+		"\t\2\4\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4"+
+		"\13\t\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22"+
+		"\t\22\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31"+
+		"\t\31\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\4\36\t\36\4\37\t\37\4 \t"+
+		" \4!\t!\4\"\t\"\4#\t#\4$\t$\4%\t%\4&\t&\4\'\t\'\4(\t(\4)\t)\4*\t*\4+\t"+
+		"+\4,\t,\4-\t-\4.\t.\4/\t/\4\60\t\60\4\61\t\61\4\62\t\62\4\63\t\63\4\64"+
+		"\t\64\4\65\t\65\4\66\t\66\4\67\t\67\48\t8\49\t9\4:\t:\4;\t;\4<\t<\4=\t"+
+		"=\4>\t>\3\2\3\2\3\2\3\2\3\2\3\2\3\3\3\3\3\3\3\4\3\4\3\4\3\5\3\5\3\6\3"+
+		"\6\3\6\3\7\3\7\3\7\3\b\3\b\3\b\3\b\3\b\3\t\3\t\3\t\3\t\3\t\3\n\3\n\3\n"+
+		"\3\n\3\n\3\13\3\13\3\13\3\13\3\13\3\13\3\f\3\f\3\f\3\f\3\f\3\f\3\f\3\f"+
+		"\3\f\3\r\3\r\3\16\3\16\3\16\3\16\3\16\3\16\3\16\3\16\3\17\3\17\3\17\3"+
+		"\17\3\17\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\21\3\21\3\21\3\21\3"+
+		"\21\3\21\3\21\3\22\3\22\3\22\3\22\3\22\3\23\3\23\3\24\3\24\3\25\3\25\3"+
+		"\26\3\26\3\27\3\27\3\30\3\30\3\31\3\31\3\31\3\32\3\32\3\33\3\33\3\34\3"+
+		"\34\3\34\3\35\3\35\3\35\3\36\3\36\3\36\3\37\3\37\3\37\3 \3 \3 \3!\3!\3"+
+		"!\3\"\3\"\3#\3#\3$\3$\3%\3%\3&\3&\3\'\3\'\3(\3(\3)\3)\3*\3*\3*\3*\3+\3"+
+		"+\3+\3+\3,\3,\3,\3-\3-\3-\3-\3.\6.\u0118\n.\r.\16.\u0119\3.\3.\3.\6.\u011f"+
+		"\n.\r.\16.\u0120\3.\3.\3.\6.\u0126\n.\r.\16.\u0127\5.\u012a\n.\3/\6/\u012d"+
+		"\n/\r/\16/\u012e\3/\3/\6/\u0133\n/\r/\16/\u0134\5/\u0137\n/\3/\3/\5/\u013b"+
+		"\n/\3/\6/\u013e\n/\r/\16/\u013f\5/\u0142\n/\3/\3/\6/\u0146\n/\r/\16/\u0147"+
+		"\3/\3/\5/\u014c\n/\3/\6/\u014f\n/\r/\16/\u0150\5/\u0153\n/\5/\u0155\n"+
+		"/\3\60\3\60\5\60\u0159\n\60\3\61\3\61\3\61\3\61\3\61\3\62\3\62\3\62\3"+
+		"\62\3\62\3\62\3\63\3\63\3\64\3\64\5\64\u016a\n\64\3\65\3\65\3\66\3\66"+
+		"\5\66\u0170\n\66\3\67\3\67\38\38\58\u0176\n8\38\38\38\78\u017b\n8\f8\16"+
+		"8\u017e\138\39\59\u0181\n9\3:\3:\3;\3;\5;\u0187\n;\3<\3<\7<\u018b\n<\f"+
+		"<\16<\u018e\13<\3<\3<\3=\6=\u0193\n=\r=\16=\u0194\3=\3=\3>\3>\7>\u019b"+
+		"\n>\f>\16>\u019e\13>\3>\3>\2\2?\3\3\5\4\7\5\t\6\13\7\r\b\17\t\21\n\23"+
+		"\13\25\f\27\r\31\16\33\17\35\20\37\21!\22#\23%\24\'\25)\26+\27-\30/\31"+
+		"\61\32\63\33\65\34\67\359\36;\37= ?!A\"C#E$G%I&K\'M(O)Q*S+U,W-Y.[/]\60"+
+		"_\61a\2c\2e\2g\2i\2k\2m\2o\62q\2s\2u\2w\63y\64{\65\3\2\37\4\2OOoo\4\2"+
+		"GGgg\4\2QQqq\4\2KKkk\4\2UUuu\4\2HHhh\4\2VVvv\4\2JJjj\4\2PPpp\4\2NNnn\4"+
+		"\2YYyy\4\2WWww\4\2EEee\4\2\u039d\u039d\u03bd\u03bd\4\2IIii\4\2TTtt\4\2"+
+		"CCcc\4\2DDdd\4\2FFff\4\2ZZzz\3\2\62\62\3\2\62;\4\2C\\c|\3\2\62\63\5\2"+
+		"C\\c|\u0082\1\5\2##%(AA\3\2$$\5\2\13\f\17\17\"\"\4\2\f\f\17\17\u01b1\2"+
+		"\3\3\2\2\2\2\5\3\2\2\2\2\7\3\2\2\2\2\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2"+
+		"\2\2\17\3\2\2\2\2\21\3\2\2\2\2\23\3\2\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2"+
+		"\31\3\2\2\2\2\33\3\2\2\2\2\35\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2"+
+		"\2\2%\3\2\2\2\2\'\3\2\2\2\2)\3\2\2\2\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2"+
+		"\2\61\3\2\2\2\2\63\3\2\2\2\2\65\3\2\2\2\2\67\3\2\2\2\29\3\2\2\2\2;\3\2"+
+		"\2\2\2=\3\2\2\2\2?\3\2\2\2\2A\3\2\2\2\2C\3\2\2\2\2E\3\2\2\2\2G\3\2\2\2"+
+		"\2I\3\2\2\2\2K\3\2\2\2\2M\3\2\2\2\2O\3\2\2\2\2Q\3\2\2\2\2S\3\2\2\2\2U"+
+		"\3\2\2\2\2W\3\2\2\2\2Y\3\2\2\2\2[\3\2\2\2\2]\3\2\2\2\2_\3\2\2\2\2o\3\2"+
+		"\2\2\2w\3\2\2\2\2y\3\2\2\2\2{\3\2\2\2\3}\3\2\2\2\5\u0083\3\2\2\2\7\u0086"+
+		"\3\2\2\2\t\u0089\3\2\2\2\13\u008b\3\2\2\2\r\u008e\3\2\2\2\17\u0091\3\2"+
+		"\2\2\21\u0096\3\2\2\2\23\u009b\3\2\2\2\25\u00a0\3\2\2\2\27\u00a6\3\2\2"+
+		"\2\31\u00af\3\2\2\2\33\u00b1\3\2\2\2\35\u00b9\3\2\2\2\37\u00be\3\2\2\2"+
+		"!\u00c6\3\2\2\2#\u00cd\3\2\2\2%\u00d2\3\2\2\2\'\u00d4\3\2\2\2)\u00d6\3"+
+		"\2\2\2+\u00d8\3\2\2\2-\u00da\3\2\2\2/\u00dc\3\2\2\2\61\u00de\3\2\2\2\63"+
+		"\u00e1\3\2\2\2\65\u00e3\3\2\2\2\67\u00e5\3\2\2\29\u00e8\3\2\2\2;\u00eb"+
+		"\3\2\2\2=\u00ee\3\2\2\2?\u00f1\3\2\2\2A\u00f4\3\2\2\2C\u00f7\3\2\2\2E"+
+		"\u00f9\3\2\2\2G\u00fb\3\2\2\2I\u00fd\3\2\2\2K\u00ff\3\2\2\2M\u0101\3\2"+
+		"\2\2O\u0103\3\2\2\2Q\u0105\3\2\2\2S\u0107\3\2\2\2U\u010b\3\2\2\2W\u010f"+
+		"\3\2\2\2Y\u0112\3\2\2\2[\u0129\3\2\2\2]\u0154\3\2\2\2_\u0158\3\2\2\2a"+
+		"\u015a\3\2\2\2c\u015f\3\2\2\2e\u0165\3\2\2\2g\u0169\3\2\2\2i\u016b\3\2"+
+		"\2\2k\u016f\3\2\2\2m\u0171\3\2\2\2o\u0175\3\2\2\2q\u0180\3\2\2\2s\u0182"+
+		"\3\2\2\2u\u0186\3\2\2\2w\u0188\3\2\2\2y\u0192\3\2\2\2{\u0198\3\2\2\2}"+
+		"~\7B\2\2~\177\t\2\2\2\177\u0080\t\3\2\2\u0080\u0081\t\2\2\2\u0081\u0082"+
+		"\t\4\2\2\u0082\4\3\2\2\2\u0083\u0084\7>\2\2\u0084\u0085\7/\2\2\u0085\6"+
+		"\3\2\2\2\u0086\u0087\t\5\2\2\u0087\u0088\t\6\2\2\u0088\b\3\2\2\2\u0089"+
+		"\u008a\7<\2\2\u008a\n\3\2\2\2\u008b\u008c\7/\2\2\u008c\u008d\7@\2\2\u008d"+
+		"\f\3\2\2\2\u008e\u008f\t\5\2\2\u008f\u0090\t\7\2\2\u0090\16\3\2\2\2\u0091"+
+		"\u0092\t\b\2\2\u0092\u0093\t\t\2\2\u0093\u0094\t\3\2\2\u0094\u0095\t\n"+
+		"\2\2\u0095\20\3\2\2\2\u0096\u0097\t\3\2\2\u0097\u0098\t\13\2\2\u0098\u0099"+
+		"\t\6\2\2\u0099\u009a\t\3\2\2\u009a\22\3\2\2\2\u009b\u009c\t\f\2\2\u009c"+
+		"\u009d\t\t\2\2\u009d\u009e\t\3\2\2\u009e\u009f\t\n\2\2\u009f\24\3\2\2"+
+		"\2\u00a0\u00a1\t\f\2\2\u00a1\u00a2\t\t\2\2\u00a2\u00a3\t\5\2\2\u00a3\u00a4"+
+		"\t\13\2\2\u00a4\u00a5\t\3\2\2\u00a5\26\3\2\2\2\u00a6\u00a7\t\7\2\2\u00a7"+
+		"\u00a8\t\r\2\2\u00a8\u00a9\t\n\2\2\u00a9\u00aa\t\16\2\2\u00aa\u00ab\t"+
+		"\b\2\2\u00ab\u00ac\t\5\2\2\u00ac\u00ad\t\4\2\2\u00ad\u00ae\t\n\2\2\u00ae"+
+		"\30\3\2\2\2\u00af\u00b0\t\17\2\2\u00b0\32\3\2\2\2\u00b1\u00b2\t\5\2\2"+
+		"\u00b2\u00b3\t\n\2\2\u00b3\u00b4\t\b\2\2\u00b4\u00b5\t\3\2\2\u00b5\u00b6"+
+		"\t\20\2\2\u00b6\u00b7\t\3\2\2\u00b7\u00b8\t\21\2\2\u00b8\34\3\2\2\2\u00b9"+
+		"\u00ba\t\21\2\2\u00ba\u00bb\t\3\2\2\u00bb\u00bc\t\22\2\2\u00bc\u00bd\t"+
+		"\13\2\2\u00bd\36\3\2\2\2\u00be\u00bf\t\23\2\2\u00bf\u00c0\t\4\2\2\u00c0"+
+		"\u00c1\t\4\2\2\u00c1\u00c2\t\13\2\2\u00c2\u00c3\t\3\2\2\u00c3\u00c4\t"+
+		"\22\2\2\u00c4\u00c5\t\n\2\2\u00c5 \3\2\2\2\u00c6\u00c7\t\6\2\2\u00c7\u00c8"+
+		"\t\b\2\2\u00c8\u00c9\t\21\2\2\u00c9\u00ca\t\5\2\2\u00ca\u00cb\t\n\2\2"+
+		"\u00cb\u00cc\t\20\2\2\u00cc\"\3\2\2\2\u00cd\u00ce\t\13\2\2\u00ce\u00cf"+
+		"\t\5\2\2\u00cf\u00d0\t\6\2\2\u00d0\u00d1\t\b\2\2\u00d1$\3\2\2\2\u00d2"+
+		"\u00d3\7/\2\2\u00d3&\3\2\2\2\u00d4\u00d5\7-\2\2\u00d5(\3\2\2\2\u00d6\u00d7"+
+		"\7,\2\2\u00d7*\3\2\2\2\u00d8\u00d9\7\61\2\2\u00d9,\3\2\2\2\u00da\u00db"+
+		"\7`\2\2\u00db.\3\2\2\2\u00dc\u00dd\7?\2\2\u00dd\60\3\2\2\2\u00de\u00df"+
+		"\7>\2\2\u00df\u00e0\7@\2\2\u00e0\62\3\2\2\2\u00e1\u00e2\7@\2\2\u00e2\64"+
+		"\3\2\2\2\u00e3\u00e4\7>\2\2\u00e4\66\3\2\2\2\u00e5\u00e6\7@\2\2\u00e6"+
+		"\u00e7\7?\2\2\u00e78\3\2\2\2\u00e8\u00e9\7>\2\2\u00e9\u00ea\7?\2\2\u00ea"+
+		":\3\2\2\2\u00eb\u00ec\7?\2\2\u00ec\u00ed\7\u0080\2\2\u00ed<\3\2\2\2\u00ee"+
+		"\u00ef\7>\2\2\u00ef\u00f0\7>\2\2\u00f0>\3\2\2\2\u00f1\u00f2\7@\2\2\u00f2"+
+		"\u00f3\7@\2\2\u00f3@\3\2\2\2\u00f4\u00f5\t\5\2\2\u00f5\u00f6\t\n\2\2\u00f6"+
+		"B\3\2\2\2\u00f7\u00f8\7*\2\2\u00f8D\3\2\2\2\u00f9\u00fa\7+\2\2\u00faF"+
+		"\3\2\2\2\u00fb\u00fc\7]\2\2\u00fcH\3\2\2\2\u00fd\u00fe\7_\2\2\u00feJ\3"+
+		"\2\2\2\u00ff\u0100\7}\2\2\u0100L\3\2\2\2\u0101\u0102\7\177\2\2\u0102N"+
+		"\3\2\2\2\u0103\u0104\7\60\2\2\u0104P\3\2\2\2\u0105\u0106\7.\2\2\u0106"+
+		"R\3\2\2\2\u0107\u0108\t\22\2\2\u0108\u0109\t\n\2\2\u0109\u010a\t\24\2"+
+		"\2\u010aT\3\2\2\2\u010b\u010c\t\25\2\2\u010c\u010d\t\4\2\2\u010d\u010e"+
+		"\t\21\2\2\u010eV\3\2\2\2\u010f\u0110\t\4\2\2\u0110\u0111\t\21\2\2\u0111"+
+		"X\3\2\2\2\u0112\u0113\t\n\2\2\u0113\u0114\t\4\2\2\u0114\u0115\t\b\2\2"+
+		"\u0115Z\3\2\2\2\u0116\u0118\5e\63\2\u0117\u0116\3\2\2\2\u0118\u0119\3"+
+		"\2\2\2\u0119\u0117\3\2\2\2\u0119\u011a\3\2\2\2\u011a\u012a\3\2\2\2\u011b"+
+		"\u011c\t\26\2\2\u011c\u011e\t\25\2\2\u011d\u011f\5g\64\2\u011e\u011d\3"+
+		"\2\2\2\u011f\u0120\3\2\2\2\u0120\u011e\3\2\2\2\u0120\u0121\3\2\2\2\u0121"+
+		"\u012a\3\2\2\2\u0122\u0123\t\26\2\2\u0123\u0125\t\23\2\2\u0124\u0126\5"+
+		"i\65\2\u0125\u0124\3\2\2\2\u0126\u0127\3\2\2\2\u0127\u0125\3\2\2\2\u0127"+
+		"\u0128\3\2\2\2\u0128\u012a\3\2\2\2\u0129\u0117\3\2\2\2\u0129\u011b\3\2"+
+		"\2\2\u0129\u0122\3\2\2\2\u012a\\\3\2\2\2\u012b\u012d\5e\63\2\u012c\u012b"+
+		"\3\2\2\2\u012d\u012e\3\2\2\2\u012e\u012c\3\2\2\2\u012e\u012f\3\2\2\2\u012f"+
+		"\u0136\3\2\2\2\u0130\u0132\5k\66\2\u0131\u0133\5e\63\2\u0132\u0131\3\2"+
+		"\2\2\u0133\u0134\3\2\2\2\u0134\u0132\3\2\2\2\u0134\u0135\3\2\2\2\u0135"+
+		"\u0137\3\2\2\2\u0136\u0130\3\2\2\2\u0136\u0137\3\2\2\2\u0137\u0141\3\2"+
+		"\2\2\u0138\u013a\5m\67\2\u0139\u013b\5%\23\2\u013a\u0139\3\2\2\2\u013a"+
+		"\u013b\3\2\2\2\u013b\u013d\3\2\2\2\u013c\u013e\5e\63\2\u013d\u013c\3\2"+
+		"\2\2\u013e\u013f\3\2\2\2\u013f\u013d\3\2\2\2\u013f\u0140\3\2\2\2\u0140"+
+		"\u0142\3\2\2\2\u0141\u0138\3\2\2\2\u0141\u0142\3\2\2\2\u0142\u0155\3\2"+
+		"\2\2\u0143\u0145\5k\66\2\u0144\u0146\5e\63\2\u0145\u0144\3\2\2\2\u0146"+
+		"\u0147\3\2\2\2\u0147\u0145\3\2\2\2\u0147\u0148\3\2\2\2\u0148\u0152\3\2"+
+		"\2\2\u0149\u014b\5m\67\2\u014a\u014c\5%\23\2\u014b\u014a\3\2\2\2\u014b"+
+		"\u014c\3\2\2\2\u014c\u014e\3\2\2\2\u014d\u014f\5e\63\2\u014e\u014d\3\2"+
+		"\2\2\u014f\u0150\3\2\2\2\u0150\u014e\3\2\2\2\u0150\u0151\3\2\2\2\u0151"+
+		"\u0153\3\2\2\2\u0152\u0149\3\2\2\2\u0152\u0153\3\2\2\2\u0153\u0155\3\2"+
+		"\2\2\u0154\u012c\3\2\2\2\u0154\u0143\3\2\2\2\u0155^\3\2\2\2\u0156\u0159"+
+		"\5a\61\2\u0157\u0159\5c\62\2\u0158\u0156\3\2\2\2\u0158\u0157\3\2\2\2\u0159"+
+		"`\3\2\2\2\u015a\u015b\t\b\2\2\u015b\u015c\t\21\2\2\u015c\u015d\t\r\2\2"+
+		"\u015d\u015e\t\3\2\2\u015eb\3\2\2\2\u015f\u0160\t\7\2\2\u0160\u0161\t"+
+		"\22\2\2\u0161\u0162\t\13\2\2\u0162\u0163\t\6\2\2\u0163\u0164\t\3\2\2\u0164"+
+		"d\3\2\2\2\u0165\u0166\t\27\2\2\u0166f\3\2\2\2\u0167\u016a\5e\63\2\u0168"+
+		"\u016a\t\30\2\2\u0169\u0167\3\2\2\2\u0169\u0168\3\2\2\2\u016ah\3\2\2\2"+
+		"\u016b\u016c\t\31\2\2\u016cj\3\2\2\2\u016d\u0170\5O(\2\u016e\u0170\5Q"+
+		")\2\u016f\u016d\3\2\2\2\u016f\u016e\3\2\2\2\u0170l\3\2\2\2\u0171\u0172"+
+		"\t\3\2\2\u0172n\3\2\2\2\u0173\u0176\5q9\2\u0174\u0176\5s:\2\u0175\u0173"+
+		"\3\2\2\2\u0175\u0174\3\2\2\2\u0176\u017c\3\2\2\2\u0177\u017b\5q9\2\u0178"+
+		"\u017b\5e\63\2\u0179\u017b\5u;\2\u017a\u0177\3\2\2\2\u017a\u0178\3\2\2"+
+		"\2\u017a\u0179\3\2\2\2\u017b\u017e\3\2\2\2\u017c\u017a\3\2\2\2\u017c\u017d"+
+		"\3\2\2\2\u017dp\3\2\2\2\u017e\u017c\3\2\2\2\u017f\u0181\t\32\2\2\u0180"+
+		"\u017f\3\2\2\2\u0181r\3\2\2\2\u0182\u0183\7a\2\2\u0183t\3\2\2\2\u0184"+
+		"\u0187\5s:\2\u0185\u0187\t\33\2\2\u0186\u0184\3\2\2\2\u0186\u0185\3\2"+
+		"\2\2\u0187v\3\2\2\2\u0188\u018c\7$\2\2\u0189\u018b\n\34\2\2\u018a\u0189"+
+		"\3\2\2\2\u018b\u018e\3\2\2\2\u018c\u018a\3\2\2\2\u018c\u018d\3\2\2\2\u018d"+
+		"\u018f\3\2\2\2\u018e\u018c\3\2\2\2\u018f\u0190\7$\2\2\u0190x\3\2\2\2\u0191"+
+		"\u0193\t\35\2\2\u0192\u0191\3\2\2\2\u0193\u0194\3\2\2\2\u0194\u0192\3"+
+		"\2\2\2\u0194\u0195\3\2\2\2\u0195\u0196\3\2\2\2\u0196\u0197\b=\2\2\u0197"+
+		"z\3\2\2\2\u0198\u019c\7%\2\2\u0199\u019b\n\36\2\2\u019a\u0199\3\2\2\2"+
+		"\u019b\u019e\3\2\2\2\u019c\u019a\3\2\2\2\u019c\u019d\3\2\2\2\u019d\u019f"+
+		"\3\2\2\2\u019e\u019c\3\2\2\2\u019f\u01a0\b>\2\2\u01a0|\3\2\2\2\35\2\u0119"+
+		"\u0120\u0127\u0129\u012e\u0134\u0136\u013a\u013f\u0141\u0147\u014b\u0150"+
+		"\u0152\u0154\u0158\u0169\u016f\u0175\u017a\u017c\u0180\u0186\u018c\u0194"+
+		"\u019c\3\b\2\2";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
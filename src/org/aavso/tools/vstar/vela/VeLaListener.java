@@ -0,0 +1,320 @@
+// Generated from /root/project/src/org/aavso/tools/vstar/vela/VeLa.g4 by ANTLR 4.5.3
+package org.aavso.tools.vstar.vela;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+/**
+ * This interface defines a complete listener for a parse tree produced by
+ * {@link VeLaParser}.
+ */
+public interface VeLaListener extends ParseTreeListener {
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#sequence}.
+	 * @param ctx the parse tree
+	 */
+	void enterSequence(VeLaParser.SequenceContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#sequence}.
+	 * @param ctx the parse tree
+	 */
+	void exitSequence(VeLaParser.SequenceContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#binding}.
+	 * @param ctx the parse tree
+	 */
+	void enterBinding(VeLaParser.BindingContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#binding}.
+	 * @param ctx the parse tree
+	 */
+	void exitBinding(VeLaParser.BindingContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#namedFundef}.
+	 * @param ctx the parse tree
+	 */
+	void enterNamedFundef(VeLaParser.NamedFundefContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#namedFundef}.
+	 * @param ctx the parse tree
+	 */
+	void exitNamedFundef(VeLaParser.NamedFundefContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#expression}.
+	 * @param ctx the parse tree
+	 */
+	void enterExpression(VeLaParser.ExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#expression}.
+	 * @param ctx the parse tree
+	 */
+	void exitExpression(VeLaParser.ExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#selectionExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterSelectionExpression(VeLaParser.SelectionExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#selectionExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitSelectionExpression(VeLaParser.SelectionExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#whenExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterWhenExpression(VeLaParser.WhenExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#whenExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitWhenExpression(VeLaParser.WhenExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#ifExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterIfExpression(VeLaParser.IfExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#ifExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitIfExpression(VeLaParser.IfExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#consequent}.
+	 * @param ctx the parse tree
+	 */
+	void enterConsequent(VeLaParser.ConsequentContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#consequent}.
+	 * @param ctx the parse tree
+	 */
+	void exitConsequent(VeLaParser.ConsequentContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#whileLoop}.
+	 * @param ctx the parse tree
+	 */
+	void enterWhileLoop(VeLaParser.WhileLoopContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#whileLoop}.
+	 * @param ctx the parse tree
+	 */
+	void exitWhileLoop(VeLaParser.WhileLoopContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#booleanExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterBooleanExpression(VeLaParser.BooleanExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#booleanExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitBooleanExpression(VeLaParser.BooleanExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#exclusiveOrExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterExclusiveOrExpression(VeLaParser.ExclusiveOrExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#exclusiveOrExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitExclusiveOrExpression(VeLaParser.ExclusiveOrExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#conjunctiveExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterConjunctiveExpression(VeLaParser.ConjunctiveExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#conjunctiveExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitConjunctiveExpression(VeLaParser.ConjunctiveExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#logicalNegationExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterLogicalNegationExpression(VeLaParser.LogicalNegationExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#logicalNegationExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitLogicalNegationExpression(VeLaParser.LogicalNegationExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#relationalExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterRelationalExpression(VeLaParser.RelationalExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#relationalExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitRelationalExpression(VeLaParser.RelationalExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#shiftExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterShiftExpression(VeLaParser.ShiftExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#shiftExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitShiftExpression(VeLaParser.ShiftExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#additiveExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterAdditiveExpression(VeLaParser.AdditiveExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#additiveExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitAdditiveExpression(VeLaParser.AdditiveExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#multiplicativeExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterMultiplicativeExpression(VeLaParser.MultiplicativeExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#multiplicativeExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitMultiplicativeExpression(VeLaParser.MultiplicativeExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#unaryExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterUnaryExpression(VeLaParser.UnaryExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#unaryExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitUnaryExpression(VeLaParser.UnaryExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#exponentiationExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterExponentiationExpression(VeLaParser.ExponentiationExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#exponentiationExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitExponentiationExpression(VeLaParser.ExponentiationExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#funcall}.
+	 * @param ctx the parse tree
+	 */
+	void enterFuncall(VeLaParser.FuncallContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#funcall}.
+	 * @param ctx the parse tree
+	 */
+	void exitFuncall(VeLaParser.FuncallContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#factor}.
+	 * @param ctx the parse tree
+	 */
+	void enterFactor(VeLaParser.FactorContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#factor}.
+	 * @param ctx the parse tree
+	 */
+	void exitFactor(VeLaParser.FactorContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#integer}.
+	 * @param ctx the parse tree
+	 */
+	void enterInteger(VeLaParser.IntegerContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#integer}.
+	 * @param ctx the parse tree
+	 */
+	void exitInteger(VeLaParser.IntegerContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#real}.
+	 * @param ctx the parse tree
+	 */
+	void enterReal(VeLaParser.RealContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#real}.
+	 * @param ctx the parse tree
+	 */
+	void exitReal(VeLaParser.RealContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#bool}.
+	 * @param ctx the parse tree
+	 */
+	void enterBool(VeLaParser.BoolContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#bool}.
+	 * @param ctx the parse tree
+	 */
+	void exitBool(VeLaParser.BoolContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#string}.
+	 * @param ctx the parse tree
+	 */
+	void enterString(VeLaParser.StringContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#string}.
+	 * @param ctx the parse tree
+	 */
+	void exitString(VeLaParser.StringContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#list}.
+	 * @param ctx the parse tree
+	 */
+	void enterList(VeLaParser.ListContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#list}.
+	 * @param ctx the parse tree
+	 */
+	void exitList(VeLaParser.ListContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#symbol}.
+	 * @param ctx the parse tree
+	 */
+	void enterSymbol(VeLaParser.SymbolContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#symbol}.
+	 * @param ctx the parse tree
+	 */
+	void exitSymbol(VeLaParser.SymbolContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#anonFundef}.
+	 * @param ctx the parse tree
+	 */
+	void enterAnonFundef(VeLaParser.AnonFundefContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#anonFundef}.
+	 * @param ctx the parse tree
+	 */
+	void exitAnonFundef(VeLaParser.AnonFundefContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#formalParameter}.
+	 * @param ctx the parse tree
+	 */
+	void enterFormalParameter(VeLaParser.FormalParameterContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#formalParameter}.
+	 * @param ctx the parse tree
+	 */
+	void exitFormalParameter(VeLaParser.FormalParameterContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#type}.
+	 * @param ctx the parse tree
+	 */
+	void enterType(VeLaParser.TypeContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#type}.
+	 * @param ctx the parse tree
+	 */
+	void exitType(VeLaParser.TypeContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link VeLaParser#block}.
+	 * @param ctx the parse tree
+	 */
+	void enterBlock(VeLaParser.BlockContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link VeLaParser#block}.
+	 * @param ctx the parse tree
+	 */
+	void exitBlock(VeLaParser.BlockContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+
+/**
+ * A VeLa symbol bound ahead of time to a field of a valid observation. The
+ * accessor is resolved once by name, after which retrieving the symbol's value
+ * requires no name lookup. Real fields that every observation has may also be
+ * retrieved as primitive values, e.g. when gathering columns.
+ */
+public class VeLaObservationAccessor {
+
+	private final String name;
+	private final Type type;
+	private final Function<ValidObservation, Operand> accessor;
+	private final ToDoubleFunction<ValidObservation> realAccessor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name
+	 *            The canonical (upper case) symbol name.
+	 * @param type
+	 *            The VeLa type of the symbol's value, or NONE if this cannot
+	 *            be known before evaluation.
+	 * @param accessor
+	 *            A function from an observation to the symbol's value; this
+	 *            may yield null if the observation has no such value.
+	 */
+	public VeLaObservationAccessor(String name, Type type,
+			Function<ValidObservation, Operand> accessor) {
+		this.name = name;
+		this.type = type;
+		this.accessor = accessor;
+		this.realAccessor = null;
+	}
+
+	/**
+	 * Constructor for a real field that every observation has.
+	 *
+	 * @param name
+	 *            The canonical (upper case) symbol name.
+	 * @param realAccessor
+	 *            A function from an observation to the field's value.
+	 */
+	public VeLaObservationAccessor(String name,
+			ToDoubleFunction<ValidObservation> realAccessor) {
+		this.name = name;
+		this.type = Type.REAL;
+		this.accessor = ob -> new Operand(Type.REAL,
+				realAccessor.applyAsDouble(ob));
+		this.realAccessor = realAccessor;
+	}
+
+	/**
+	 * @return the canonical symbol name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the static type of the symbol's value; NONE if unknown
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Return the value of the symbol for the specified observation.
+	 *
+	 * @param ob
+	 *            The observation.
+	 * @return The value or null if the observation has no such value.
+	 */
+	public Operand get(ValidObservation ob) {
+		return accessor.apply(ob);
+	}
+
+	/**
+	 * @return whether the symbol's value is a real that may be retrieved via
+	 *         getReal()
+	 */
+	public boolean hasRealValue() {
+		return realAccessor != null;
+	}
+
+	/**
+	 * Return the value of a real field, without creating an operand.
+	 *
+	 * @param ob
+	 *            The observation.
+	 * @return The value.
+	 */
+	public double getReal(ValidObservation ob) {
+		return realAccessor.applyAsDouble(ob);
+	}
+}
@@ -0,0 +1,367 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.ParallelChunks;
+
+/**
+ * <p>
+ * A VeLa observation filter that is compiled once and evaluated many times.
+ * </p>
+ * <p>
+ * On construction, the filter is parsed and the type of its result is checked
+ * where this can be inferred statically. Each evaluating thread binds the
+ * filter's observation symbols (e.g. time, magnitude, band) to slots in its
+ * own copy of the AST, so evaluation requires neither parsing, nor name
+ * lookup of those symbols, nor per-observation environment creation.
+ * </p>
+ * <p>
+ * Observations may be filtered one at a time or in batches; large batches are
+ * evaluated in parallel, each thread having its own interpreter. Batches are
+ * evaluated a column at a time where the filter permits (see
+ * VeLaColumnEvaluator).
+ * </p>
+ */
+public class VeLaObservationFilter {
+
+	private final static boolean VERBOSE = false;
+	private final static boolean ADD_VSTAR_API = false;
+
+	private final String filterStr;
+
+	private final AST ast;
+
+	private final ThreadLocal<Evaluator> evaluators;
+
+	private final Optional<VeLaColumnEvaluator> columnEvaluator;
+
+	/**
+	 * Constructor
+	 *
+	 * @param filterStr
+	 *            The VeLa filter program.
+	 * @throws VeLaParseError
+	 *             If the filter cannot be parsed.
+	 * @throws VeLaEvalError
+	 *             If the filter's result is known not to be Boolean.
+	 */
+	public VeLaObservationFilter(String filterStr) throws VeLaParseError,
+			VeLaEvalError {
+		this.filterStr = filterStr;
+
+		VeLaValidObservationEnvironment.reset();
+
+		VeLaInterpreter vela = new VeLaInterpreter(VERBOSE, ADD_VSTAR_API,
+				Collections.emptyList());
+		ast = vela.compile(filterStr);
+
+		Type type = resultType(ast);
+		if (type != null && type != Type.BOOLEAN && type != Type.NONE) {
+			throw new VeLaEvalError("Expected a Boolean value but found "
+					+ type);
+		}
+
+		evaluators = ThreadLocal.withInitial(() -> new Evaluator());
+
+		columnEvaluator = VeLaColumnEvaluator.create(ast).filter(
+				VeLaColumnEvaluator::isPredicate);
+	}
+
+	/**
+	 * @return the filter program string
+	 */
+	public String getFilterString() {
+		return filterStr;
+	}
+
+	/**
+	 * Does the observation satisfy the filter? A filter that yields no value
+	 * (e.g. consists only of comments) accepts all observations.
+	 *
+	 * @param ob
+	 *            The observation.
+	 * @return Whether the observation is accepted.
+	 * @throws VeLaEvalError
+	 *             If the filter cannot be evaluated or does not yield a
+	 *             Boolean value.
+	 */
+	public boolean accept(ValidObservation ob) throws VeLaEvalError {
+		return evaluators.get().accept(ob);
+	}
+
+	/**
+	 * Apply the filter to a batch of observations, in parallel for large
+	 * batches. Observations for which the filter cannot be evaluated are
+	 * accepted; the first such error is passed to the error handler, on the
+	 * calling thread, once the whole batch has been evaluated.
+	 *
+	 * @param obs
+	 *            The observations.
+	 * @param errorHandler
+	 *            A consumer of the first evaluation error, if any.
+	 * @return An array of results, one per observation, in order.
+	 */
+	public boolean[] accept(final List<ValidObservation> obs,
+			Consumer<VeLaEvalError> errorHandler) {
+		boolean[] results = null;
+
+		if (columnEvaluator.isPresent()) {
+			results = columnEvaluator.get().accept(obs);
+		}
+
+		if (results == null) {
+			results = acceptEach(obs, errorHandler);
+		}
+
+		return results;
+	}
+
+	// Helpers
+
+	/**
+	 * Apply the filter to a batch of observations one at a time, in parallel
+	 * for large batches.
+	 */
+	private boolean[] acceptEach(final List<ValidObservation> obs,
+			Consumer<VeLaEvalError> errorHandler) {
+		final boolean[] results = new boolean[obs.size()];
+		final AtomicReference<VeLaEvalError> firstError = new AtomicReference<VeLaEvalError>();
+
+		ParallelChunks.forEachChunk(obs.size(), (from, to) -> {
+			Evaluator evaluator = evaluators.get();
+			for (int i = from; i < to; i++) {
+				try {
+					results[i] = evaluator.accept(obs.get(i));
+				} catch (VeLaEvalError e) {
+					firstError.compareAndSet(null, e);
+					results[i] = true;
+				}
+			}
+		});
+
+		if (firstError.get() != null) {
+			errorHandler.accept(firstError.get());
+		}
+
+		return results;
+	}
+
+	/**
+	 * Infer the type of the value yielded by an AST, where possible.
+	 *
+	 * @param ast
+	 *            The AST.
+	 * @return The type, NONE if no value is yielded, or null if the type
+	 *         cannot be inferred before evaluation.
+	 */
+	private Type resultType(AST ast) {
+		Type type = null;
+
+		if (ast == null) {
+			type = Type.NONE;
+		} else if (ast.isLiteral()) {
+			type = ast.getLiteralType();
+		} else {
+			switch (ast.getOp()) {
+			case SEQUENCE:
+				// The last value yielded is the result.
+				type = Type.NONE;
+				if (ast.hasChildren()) {
+					for (int i = ast.getChildren().size() - 1; i >= 0; i--) {
+						type = resultType(ast.getChildren().get(i));
+						if (type != Type.NONE) {
+							break;
+						}
+					}
+				}
+				break;
+
+			case BIND:
+			case IS:
+			case WHILE:
+				type = Type.NONE;
+				break;
+
+			case FUNDEF:
+				type = ast.head().getOp() == Operation.SYMBOL ? Type.NONE
+						: Type.FUNCTION;
+				break;
+
+			case LIST:
+				type = Type.LIST;
+				break;
+
+			case SYMBOL:
+				Optional<VeLaObservationAccessor> accessor = VeLaValidObservationEnvironment
+						.accessor(ast.getToken());
+				if (accessor.isPresent()
+						&& accessor.get().getType() != Type.NONE) {
+					type = accessor.get().getType();
+				}
+				break;
+
+			case EQUAL:
+			case NOT_EQUAL:
+			case GREATER_THAN:
+			case LESS_THAN:
+			case GREATER_THAN_OR_EQUAL:
+			case LESS_THAN_OR_EQUAL:
+			case APPROXIMATELY_EQUAL:
+			case IN:
+				type = hasKnownScalarOperands(ast) ? Type.BOOLEAN : null;
+				break;
+
+			case AND:
+			case OR:
+			case XOR:
+			case NOT:
+			case NEG:
+			case ADD:
+			case SUB:
+			case MUL:
+			case DIV:
+			case POW:
+			case SHL:
+			case SHR:
+				if (hasKnownScalarOperands(ast)) {
+					type = resultType(ast.head());
+					for (AST child : ast.getChildren()) {
+						Type childType = resultType(child);
+						if (childType == Type.STRING) {
+							type = Type.STRING;
+						} else if (childType == Type.REAL
+								&& type == Type.INTEGER) {
+							type = Type.REAL;
+						}
+					}
+				}
+				break;
+
+			case IF:
+			case WHEN:
+				// Known only if all consequents agree.
+				List<AST> consequents = new ArrayList<AST>();
+				if (ast.getOp() == Operation.IF) {
+					if (ast.getChildren().size() == 3) {
+						consequents.addAll(ast.getChildren().subList(1, 3));
+					}
+				} else {
+					for (AST pair : ast.getChildren()) {
+						consequents.add(pair.right());
+					}
+				}
+				for (int i = 0; i < consequents.size(); i++) {
+					Type consequentType = resultType(consequents.get(i));
+					if (i == 0) {
+						type = consequentType;
+					} else if (type != consequentType) {
+						type = null;
+					}
+					if (type == null) {
+						break;
+					}
+				}
+				break;
+
+			default:
+				break;
+			}
+		}
+
+		return type;
+	}
+
+	/**
+	 * Are the types of all operands of an operation known and scalar?
+	 *
+	 * @param ast
+	 *            The operation's AST.
+	 * @return True if so, otherwise false.
+	 */
+	private boolean hasKnownScalarOperands(AST ast) {
+		boolean scalar = true;
+
+		for (AST child : ast.getChildren()) {
+			Type type = resultType(child);
+			if (type == null || type.isComposite() || type == Type.NONE) {
+				scalar = false;
+				break;
+			}
+		}
+
+		return scalar;
+	}
+
+	/**
+	 * A per-thread interpreter and observation environment together with a
+	 * copy of the filter's AST whose observation symbols are bound to that
+	 * environment.
+	 */
+	private class Evaluator {
+
+		private final VeLaInterpreter vela;
+
+		private final VeLaValidObservationEnvironment environment;
+
+		private final AST boundAST;
+
+		public Evaluator() {
+			vela = new VeLaInterpreter(VERBOSE, ADD_VSTAR_API,
+					Collections.emptyList());
+			vela.setCompiledMode(true);
+			environment = new VeLaValidObservationEnvironment();
+			vela.pushEnvironment(environment);
+			boundAST = environment.bindSlots(ast);
+		}
+
+		public boolean accept(ValidObservation ob) throws VeLaEvalError {
+			boolean result = true;
+
+			// Bindings made by the filter program are per observation.
+			environment.setObservation(ob);
+
+			try {
+				Optional<Operand> value = vela.program(boundAST);
+
+				// There may be no value present because everything is
+				// commented out or because no expression has been evaluated
+				// (e.g. only functions or variables have been defined), in
+				// which case the observation is accepted.
+				if (value.isPresent()) {
+					if (value.get().getType() == Type.BOOLEAN) {
+						result = value.get().booleanVal();
+					} else {
+						throw new VeLaEvalError("Expected a Boolean value");
+					}
+				}
+			} finally {
+				environment.setObservation(null);
+			}
+
+			return result;
+		}
+	}
+}
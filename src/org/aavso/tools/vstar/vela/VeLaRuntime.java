@@ -0,0 +1,330 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.aavso.tools.vstar.scripting.VStarScriptingAPI;
+import org.aavso.tools.vstar.ui.VStar;
+
+/**
+ * <p>
+ * VeLa: VStar expression Language
+ * </p>
+ * <p>
+ * The immutable, thread-safe part of VeLa, shared by any number of
+ * interpreters. Each interpreter is a cheap, single-threaded evaluation
+ * context with its own operand stack and environments. A runtime holds:
+ * </p>
+ * <ul>
+ * <li>intrinsic functions bound to Java methods (e.g. of java.lang.Math),
+ * found by reflection once;</li>
+ * <li>user code from source directories, parsed once and evaluated by each
+ * interpreter;</li>
+ * <li>a cache of parsed programs, whose compiled forms are also shared;</li>
+ * <li>a cache of compiled regular expressions.</li>
+ * </ul>
+ * <p>
+ * Runtimes without user code are shared via getInstance(), so that parallel
+ * evaluation need only create an interpreter per thread, e.g.
+ * </p>
+ *
+ * <pre>
+ * VeLaRuntime runtime = VeLaRuntime.getInstance(false);
+ * ThreadLocal&lt;VeLaInterpreter&gt; interpreters = ThreadLocal
+ *         .withInitial(() -&gt; runtime.createInterpreter(false));
+ * </pre>
+ */
+public final class VeLaRuntime {
+
+    private static final Map<String, Pattern> regexPatterns = new ConcurrentHashMap<String, Pattern>();
+
+    private final boolean addVStarAPI;
+
+    private final List<File> sourceDirectories;
+
+    private final List<FunctionExecutor> javaClassFunctionExecutors;
+
+    // Null while the runtime is being constructed.
+    private volatile List<AST> userCode;
+
+    private final Map<String, AST> programs = new ConcurrentHashMap<String, AST>();
+
+    // Shared runtimes, created on first use.
+
+    private static class DefaultRuntime {
+        static final VeLaRuntime INSTANCE = new VeLaRuntime(false, Collections.emptyList());
+    }
+
+    private static class VStarAPIRuntime {
+        static final VeLaRuntime INSTANCE = new VeLaRuntime(true, Collections.emptyList());
+    }
+
+    // Functions from Java classes common to all runtimes.
+
+    private static class JavaLangFunctions {
+        static final List<FunctionExecutor> EXECUTORS;
+
+        static {
+            List<FunctionExecutor> executors = new ArrayList<FunctionExecutor>();
+
+            executors.addAll(functionExecutorsFromClass(Math.class, null, permittedTypes(false),
+                    Collections.emptySet()));
+
+            executors.addAll(functionExecutorsFromClass(String.class, null, permittedTypes(false),
+                    new HashSet<String>(Arrays.asList("JOIN", "FORMAT"))));
+
+            EXECUTORS = Collections.unmodifiableList(executors);
+        }
+    }
+
+    /**
+     * Return a shared runtime with no user code.
+     *
+     * @param addVStarAPI Add the VStar API?
+     * @return The runtime.
+     */
+    public static VeLaRuntime getInstance(boolean addVStarAPI) {
+        return addVStarAPI ? VStarAPIRuntime.INSTANCE : DefaultRuntime.INSTANCE;
+    }
+
+    /**
+     * Construct a runtime, loading user code from the specified directories.
+     *
+     * @param addVStarAPI       Add the VStar API?
+     * @param sourceDirectories A list of source directories containing VeLa source
+     *                          files (ending in ".vl" or ".vela") to be loaded.
+     */
+    public VeLaRuntime(boolean addVStarAPI, List<File> sourceDirectories) {
+        this.addVStarAPI = addVStarAPI;
+        this.sourceDirectories = Collections.unmodifiableList(new ArrayList<File>(sourceDirectories));
+
+        List<FunctionExecutor> executors = new ArrayList<FunctionExecutor>(JavaLangFunctions.EXECUTORS);
+        if (addVStarAPI) {
+            executors.addAll(functionExecutorsFromClass(VStarScriptingAPI.class, VStarScriptingAPI.getInstance(),
+                    permittedTypes(true), Collections.emptySet()));
+        }
+        javaClassFunctionExecutors = Collections.unmodifiableList(executors);
+
+        userCode = parseUserCode();
+    }
+
+    /**
+     * Create an interpreter, i.e. an evaluation context, that uses this
+     * runtime. An interpreter must only be used by one thread at a time.
+     *
+     * @param verbose Verbose mode?
+     * @return The interpreter.
+     */
+    public VeLaInterpreter createInterpreter(boolean verbose) {
+        return new VeLaInterpreter(this, verbose);
+    }
+
+    /**
+     * @return whether the VStar API is available
+     */
+    public boolean hasVStarAPI() {
+        return addVStarAPI;
+    }
+
+    /**
+     * @return the source directories from which user code was loaded
+     */
+    public List<File> getSourceDirectories() {
+        return sourceDirectories;
+    }
+
+    /**
+     * @return the function executors bound to Java methods
+     */
+    public List<FunctionExecutor> getJavaClassFunctionExecutors() {
+        return javaClassFunctionExecutors;
+    }
+
+    /**
+     * @return the ASTs of user code, in the order loaded; empty while the
+     *         runtime is being constructed
+     */
+    List<AST> getUserCode() {
+        List<AST> code = userCode;
+        return code != null ? code : Collections.emptyList();
+    }
+
+    /**
+     * Return a previously parsed program.
+     *
+     * @param key The program string, qualified by the grammar rule used to
+     *            parse it.
+     * @return The AST or null if not cached.
+     */
+    AST getProgram(String key) {
+        return programs.get(key);
+    }
+
+    /**
+     * Cache a parsed program. If another thread cached the same program first,
+     * its AST is retained and returned so that compiled forms are shared.
+     *
+     * @param key The program string, qualified by the grammar rule used to
+     *            parse it.
+     * @param ast The AST.
+     * @return The cached AST.
+     */
+    AST putProgram(String key, AST ast) {
+        AST existing = programs.putIfAbsent(key, ast);
+        return existing != null ? existing : ast;
+    }
+
+    /**
+     * Return the compiled form of a regular expression, compiling it only the
+     * first time it is seen.
+     *
+     * @param regex The regular expression.
+     * @return The compiled pattern.
+     */
+    static Pattern pattern(String regex) {
+        return regexPatterns.computeIfAbsent(regex, Pattern::compile);
+    }
+
+    /**
+     * Given a class, return non zero-arity VeLa type-compatible function
+     * executors for its methods.
+     *
+     * @param clazz          The class from which to create function executors.
+     * @param instance       The instance of this class on which to invoke the
+     *                       function.
+     * @param permittedTypes The set of Java types that are compatible with VeLa.
+     * @param exclusions     Names of functions to exclude.
+     * @return The function executors.
+     */
+    static List<FunctionExecutor> functionExecutorsFromClass(Class<?> clazz, Object instance,
+            Set<Class<?>> permittedTypes, Set<String> exclusions) {
+        List<FunctionExecutor> executors = new ArrayList<FunctionExecutor>();
+
+        Method[] declaredMethods = clazz.getDeclaredMethods();
+
+        for (Method declaredMethod : declaredMethods) {
+            String funcName = declaredMethod.getName().toUpperCase();
+            Class<?> returnType = declaredMethod.getReturnType();
+            List<Class<?>> paramTypes = getJavaParameterTypes(declaredMethod, permittedTypes);
+
+            if (!Modifier.isStatic(declaredMethod.getModifiers()) && instance == null) {
+                // If the method is non-static, we need to include a
+                // parameter type for the object on which the method will be
+                // invoked.
+                List<Class<?>> newParamTypes = new ArrayList<Class<?>>();
+                newParamTypes.add(clazz);
+                newParamTypes.addAll(paramTypes);
+                paramTypes = newParamTypes;
+            }
+
+            if (!exclusions.contains(funcName) && permittedTypes.contains(returnType)) {
+                List<Type> types = paramTypes.stream().map(t -> Type.java2Vela(t)).collect(Collectors.toList());
+
+                executors.add(new JavaMethodExecutor(funcName, declaredMethod, instance, types,
+                        Type.java2Vela(returnType)));
+            }
+        }
+
+        return executors;
+    }
+
+    /**
+     * Return the set of Java types that are compatible with VeLa.
+     *
+     * @param addVStarAPI Include the VStar API?
+     * @return The set of types.
+     */
+    static Set<Class<?>> permittedTypes(boolean addVStarAPI) {
+        Set<Class<?>> permittedTypes = new HashSet<Class<?>>();
+        permittedTypes.add(int.class);
+        permittedTypes.add(double.class);
+        permittedTypes.add(boolean.class);
+        permittedTypes.add(String.class);
+        permittedTypes.add(CharSequence.class);
+        permittedTypes.add(void.class);
+        permittedTypes.add(Type.DBL_ARR.getClass());
+        permittedTypes.add(Type.DBL_CLASS_ARR.getClass());
+        if (addVStarAPI) {
+            // TODO: really needed here?
+            permittedTypes.add(VStarScriptingAPI.class);
+        }
+        return permittedTypes;
+    }
+
+    // Helpers
+
+    /**
+     * Read and parse user-defined code.<br/>
+     * A VeLa error should not bring VStar down.<br/>
+     * Ignore all but VeLa files (e.g. could be README files) and directories.
+     */
+    private List<AST> parseUserCode() {
+        List<AST> code = new ArrayList<AST>();
+
+        if (!sourceDirectories.isEmpty()) {
+            VeLaInterpreter vela = createInterpreter(false);
+
+            for (File dir : sourceDirectories) {
+                try {
+                    if (dir.isDirectory()) {
+                        for (File file : dir.listFiles()) {
+                            if (file.getName().endsWith(".vl") || file.getName().endsWith(".vela")) {
+                                AST ast = vela.compile(file);
+                                if (ast != null) {
+                                    code.add(ast);
+                                }
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    VStar.LOGGER.warning("Error when sourcing VeLa code: " + t.getLocalizedMessage());
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(code);
+    }
+
+    private static List<Class<?>> getJavaParameterTypes(Method method, Set<Class<?>> targetTypes) {
+        Parameter[] parameters = method.getParameters();
+        List<Class<?>> parameterTypes = new ArrayList<Class<?>>();
+
+        for (Parameter parameter : parameters) {
+            Class<?> type = parameter.getType();
+            if (targetTypes.contains(type)) {
+                parameterTypes.add(type);
+            }
+        }
+
+        return parameterTypes;
+    }
+}
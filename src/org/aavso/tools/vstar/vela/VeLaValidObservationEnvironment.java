@@ -18,10 +18,12 @@
 package org.aavso.tools.vstar.vela;
 
 import java.util.Collection;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aavso.tools.vstar.data.Property;
 import org.aavso.tools.vstar.data.ValidObservation;
@@ -32,160 +34,202 @@ import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
 import org.aavso.tools.vstar.ui.model.list.ITableColumnInfoSource;
 
 /**
+ * <p>
  * A VeLa environment that is backed by a ValidObservation instance.
+ * </p>
+ * <p>
+ * Symbol names are resolved to observation accessors once and the result
+ * remembered, so looking up a symbol requires a single map access. Symbols in
+ * an AST may also be bound ahead of evaluation (see bindSlots()), after which
+ * their values are retrieved without any name lookup at all. The current
+ * observation may be changed via setObservation() so that one environment and
+ * one bound AST can be reused over many observations.
+ * </p>
  */
 public class VeLaValidObservationEnvironment extends VeLaEnvironment<Operand> {
 
-	private static Map<String, String> symbol2CanonicalSymbol;
+	private static volatile Map<String, String> symbol2CanonicalSymbol;
 
 	static {
 		symbol2CanonicalSymbol = new TreeMap<String, String>();
 	}
 
-	private static ITableColumnInfoSource columnInfoSource = null;
+	private static volatile ITableColumnInfoSource columnInfoSource = null;
+
+	// Accessors (or their absence) by symbol name, resolved on demand and
+	// discarded when the canonical symbol map is repopulated.
+	private static final Map<String, Optional<VeLaObservationAccessor>> resolvedAccessors = new ConcurrentHashMap<String, Optional<VeLaObservationAccessor>>();
+
+	// The state from which the canonical symbol map was last populated.
+	private static boolean populated = false;
+	private static NewStarMessage populatedNewStarMsg = null;
+	private static AnalysisType populatedAnalysisType = null;
 
 	private ValidObservation ob;
 
 	public VeLaValidObservationEnvironment(ValidObservation ob) {
 		super();
 		this.ob = ob;
-		reset();
+		refresh();
+	}
+
+	/**
+	 * Construct an environment with no current observation; see
+	 * setObservation().
+	 */
+	public VeLaValidObservationEnvironment() {
+		this(null);
+	}
+
+	/**
+	 * Set the observation backing this environment, discarding any bindings
+	 * made by a program evaluated for the previous observation.
+	 * 
+	 * @param ob
+	 *            The observation.
+	 */
+	public void setObservation(ValidObservation ob) {
+		this.ob = ob;
+
+		if (!cache.isEmpty()) {
+			cache.clear();
+			constants.clear();
+		}
+	}
+
+	/**
+	 * @return the current observation
+	 */
+	public ValidObservation getObservation() {
+		return ob;
 	}
 
 	@Override
 	public Optional<Operand> lookup(String name) {
-		boolean contained = false;
 		Operand operand = null;
 
-		name = name.toUpperCase();
-
-		contained = symbol2CanonicalSymbol.containsKey(name);
-
-		if (contained) {
-			name = symbol2CanonicalSymbol.get(name);
-		}
+		Optional<VeLaObservationAccessor> accessor = resolve(name);
 
-		if ("TIME".equals(name)) {
-			operand = operand(name, ob.getJD());
-		} else if ("MAGNITUDE".equals(name)) {
-			operand = operand(name, ob.getMag());
-		} else if ("UNCERTAINTY".equals(name)) {
-			operand = operand(name, ob.getMagnitude().getUncertainty());
-		} else if ("BAND".equals(name)) {
-			operand = operand(name, ob.getBand().getDescription());
-		} else if ("SHORTBAND".equals(name)) {
-			operand = operand(name, ob.getBand().getShortName());
-		} else if ("SERIES".equals(name)) {
-			operand = operand(name, ob.getSeries().getDescription());
-		} else if ("STANDARDPHASE".equals(name)) {
-			contained &= ob.getStandardPhase() != null;
-			if (contained) {
-				operand = operand(name, ob.getStandardPhase());
-			}
-		} else if ("PREVIOUSCYCLEPHASE".equals(name)) {
-			contained &= ob.getPreviousCyclePhase() != null;
-			if (contained) {
-				operand = operand(name, ob.getPreviousCyclePhase());
+		if (accessor.isPresent()) {
+			if (ob != null) {
+				operand = accessor.get().get(ob);
 			}
 		} else {
-			if (columnInfoSource != null) {
-			    try {
-			        int index = columnInfoSource.getColumnIndexByName(name);
-			        operand = objToOperand(name, columnInfoSource.getTableColumnValue(index, ob));
-			    } catch (IllegalArgumentException e) {
-			        // default to a null operand 
-			    }
-			}
+			// A binding made by the program being evaluated.
+			operand = cache.get(name);
 		}
 
 		return Optional.ofNullable(operand);
 	}
 
-	// Cached operand creation methods
-
-	protected Operand operand(String name, Integer value) {
-		return operand(Type.INTEGER, name, value);
-	}
-
-	protected Operand operand(String name, Double value) {
-		return operand(Type.REAL, name, value);
-	}
-
-	protected Operand operand(String name, String value) {
-		return operand(Type.STRING, name, value);
-	}
-
-	protected Operand operand(String name, Boolean value) {
-		return operand(Type.BOOLEAN, name, value);
+	@Override
+	public void bind(String name, Operand value, boolean isConstant) {
+		if (resolve(name).isPresent()) {
+			throw new VeLaEvalError("'" + name
+					+ "' is a constant binding in this environment.");
+		} else {
+			super.bind(name, value, isConstant);
+		}
 	}
 
-	protected Operand objToOperand(String name, Object value) {
-		Type type = Type.NONE;
-
-		if (value instanceof Integer) {
-			type = Type.INTEGER;
-		} else if (value instanceof Double) {
-			type = Type.REAL;
-		} else if (value instanceof String) {
-			type = Type.STRING;
-		} else if (value instanceof Boolean) {
-			type = Type.BOOLEAN;
-		} else if (value instanceof Property) {
-			Property prop = (Property)value;
-			type = Type.propertyToVela(prop);
-			switch(prop.getType()) {
-				case INTEGER:
-					value = prop.getIntVal();
-					break;
-				case REAL:
-					value = prop.getRealVal();
-					break;
-				case BOOLEAN:
-					value = prop.getBoolVal();
-					break;
-				case STRING:
-					value = prop.getStrVal();
-					break;
-				case NONE:
-				default:
-					value = null;
-			}
+	/**
+	 * <p>
+	 * Return a copy of the specified AST in which each free observation symbol
+	 * (e.g. time, magnitude, a table column name) is bound to a slot that
+	 * yields the symbol's value for this environment's current observation.
+	 * </p>
+	 * <p>
+	 * Symbols that the program itself binds anywhere, such as variables and
+	 * function parameters, are left to be looked up by name, as are function
+	 * names and types. The original AST, which may be shared via the
+	 * interpreter's AST cache, is not modified.
+	 * </p>
+	 * 
+	 * @param ast
+	 *            The AST to bind; may be null.
+	 * @return The bound copy of the AST, or null if ast is null.
+	 */
+	public AST bindSlots(AST ast) {
+		AST boundAST = null;
+
+		if (ast != null) {
+			boundAST = ast.copy();
+			Set<String> programBoundNames = new HashSet<String>();
+			collectProgramBoundNames(boundAST, programBoundNames);
+			assignSlots(boundAST, programBoundNames);
 		}
 
-		return operand(type, name, value);
+		return boundAST;
 	}
 
-	// Common operand factory method
-
-	protected Operand operand(Type type, String name, Object value) {
-		Operand operand = null;
+	/**
+	 * Resolve a symbol name to an accessor for the corresponding observation
+	 * field, once, ahead of evaluation. The resolution rules are those of
+	 * lookup().
+	 * 
+	 * @param name
+	 *            The symbol name (case insensitive).
+	 * @return The optional accessor; empty if the name is not an observation
+	 *         symbol.
+	 */
+	public static Optional<VeLaObservationAccessor> accessor(String name) {
+		VeLaObservationAccessor accessor = null;
 
 		name = name.toUpperCase();
 
-		if (cache.containsKey(name)) {
-			operand = cache.get(name);
-		} else {
-			switch (type) {
-			case INTEGER:
-				operand = new Operand(type, (int) value);
-				break;
-			case REAL:
-				operand = new Operand(type, (double) value);
-				break;
-			case STRING:
-				operand = new Operand(type, (String) value);
-				break;
-			case BOOLEAN:
-				operand = new Operand(type, (boolean) value);
-				break;
-			case LIST:
-				operand = new Operand(type, (List<Operand>) value);
-			}
+		String canonicalName = symbol2CanonicalSymbol.get(name);
 
-			bind(name, operand, true);
+		if (canonicalName == null) {
+			canonicalName = name;
 		}
 
-		return operand;
+		if ("TIME".equals(canonicalName)) {
+			accessor = new VeLaObservationAccessor(name, ob -> ob.getJD());
+		} else if ("MAGNITUDE".equals(canonicalName)) {
+			accessor = new VeLaObservationAccessor(name, ob -> ob.getMag());
+		} else if ("UNCERTAINTY".equals(canonicalName)) {
+			accessor = new VeLaObservationAccessor(name, ob -> ob
+					.getMagnitude().getUncertainty());
+		} else if ("BAND".equals(canonicalName)) {
+			accessor = new VeLaObservationAccessor(name, Type.STRING,
+					ob -> new Operand(Type.STRING, ob.getBand()
+							.getDescription()));
+		} else if ("SHORTBAND".equals(canonicalName)) {
+			accessor = new VeLaObservationAccessor(name, Type.STRING,
+					ob -> new Operand(Type.STRING, ob.getBand()
+							.getShortName()));
+		} else if ("SERIES".equals(canonicalName)) {
+			accessor = new VeLaObservationAccessor(name, Type.STRING,
+					ob -> new Operand(Type.STRING, ob.getSeries()
+							.getDescription()));
+		} else if ("STANDARDPHASE".equals(canonicalName)) {
+			if (symbol2CanonicalSymbol.containsKey(name)) {
+				accessor = new VeLaObservationAccessor(name, Type.REAL,
+						ob -> ob.getStandardPhase() == null ? null
+								: new Operand(Type.REAL, ob
+										.getStandardPhase()));
+			}
+		} else if ("PREVIOUSCYCLEPHASE".equals(canonicalName)) {
+			if (symbol2CanonicalSymbol.containsKey(name)) {
+				accessor = new VeLaObservationAccessor(name, Type.REAL,
+						ob -> ob.getPreviousCyclePhase() == null ? null
+								: new Operand(Type.REAL, ob
+										.getPreviousCyclePhase()));
+			}
+		} else if (columnInfoSource != null) {
+			try {
+				final ITableColumnInfoSource source = columnInfoSource;
+				final int index = source.getColumnIndexByName(canonicalName);
+				Type type = columnClassToType(source.getTableColumnClass(index));
+				accessor = new VeLaObservationAccessor(name, type,
+						ob -> valueToOperand(source.getTableColumnValue(index,
+								ob)));
+			} catch (IllegalArgumentException e) {
+				// not a column name
+			}
+		}
+
+		return Optional.ofNullable(accessor);
 	}
 
 	/**
@@ -207,16 +251,153 @@ public class VeLaValidObservationEnvironment extends VeLaEnvironment<Operand> {
 	}
 
 	/**
-	 * Clear the canonical symbol map.
+	 * Repopulate the canonical symbol map from the currently loaded
+	 * observations and analysis type.
 	 */
-	public static void reset() {
+	public static synchronized void reset() {
 		populateMap();
 	}
 
 	// Helpers
 
+	/**
+	 * Repopulate the canonical symbol map if the loaded observations or
+	 * analysis type have changed since it was last populated.
+	 */
+	private static synchronized void refresh() {
+		Mediator mediator = Mediator.getInstance();
+
+		if (!populated
+				|| populatedNewStarMsg != mediator.getLatestNewStarMessage()
+				|| populatedAnalysisType != mediator.getAnalysisType()) {
+			populateMap();
+		}
+	}
+
+	/**
+	 * Resolve a symbol name to an observation accessor, at most once per name
+	 * while the canonical symbol map remains unchanged.
+	 * 
+	 * @param name
+	 *            The symbol name.
+	 * @return The optional accessor.
+	 */
+	private static Optional<VeLaObservationAccessor> resolve(String name) {
+		Optional<VeLaObservationAccessor> accessor = resolvedAccessors
+				.get(name);
+
+		if (accessor == null) {
+			accessor = accessor(name);
+			resolvedAccessors.put(name, accessor);
+		}
+
+		return accessor;
+	}
+
+	private void assignSlots(AST ast, Set<String> programBoundNames) {
+		if (ast.isLiteral()) {
+			// nothing to bind
+		} else if (ast.getOp() == Operation.SYMBOL) {
+			if (!programBoundNames.contains(ast.getToken())) {
+				Optional<VeLaObservationAccessor> accessor = resolve(ast
+						.getToken());
+				if (accessor.isPresent()) {
+					final VeLaObservationAccessor slotAccessor = accessor.get();
+					ast.setSlot(() -> ob == null ? null : slotAccessor.get(ob),
+							slotAccessor.getType());
+				}
+			}
+		} else if (ast.getOp() == Operation.FUNDEF) {
+			// Of a function definition, only the body is evaluated.
+			for (AST child : ast.getChildren()) {
+				if (child.getOp() == Operation.SEQUENCE) {
+					assignSlots(child, programBoundNames);
+				}
+			}
+		} else if (ast.hasChildren()) {
+			for (AST child : ast.getChildren()) {
+				// The name of a called function is not a value.
+				if (ast.getOp() != Operation.FUNCALL || child != ast.head()) {
+					assignSlots(child, programBoundNames);
+				}
+			}
+		}
+	}
+
+	private static void collectProgramBoundNames(AST ast, Set<String> names) {
+		if (ast.getOp() == Operation.BIND || ast.getOp() == Operation.IS) {
+			names.add(ast.left().getToken());
+		} else if (ast.getOp() == Operation.FUNDEF) {
+			for (AST child : ast.getChildren()) {
+				if (child.getOp() == Operation.PAIR) {
+					names.add(child.left().getToken());
+				}
+			}
+		}
+
+		if (ast.hasChildren()) {
+			for (AST child : ast.getChildren()) {
+				collectProgramBoundNames(child, names);
+			}
+		}
+	}
+
+	private static Type columnClassToType(Class<?> clazz) {
+		Type type = Type.NONE;
+
+		if (clazz == Integer.class) {
+			type = Type.INTEGER;
+		} else if (clazz == Double.class) {
+			type = Type.REAL;
+		} else if (clazz == String.class) {
+			type = Type.STRING;
+		} else if (clazz == Boolean.class) {
+			type = Type.BOOLEAN;
+		}
+
+		return type;
+	}
+
+	private static Operand valueToOperand(Object value) {
+		Operand operand = null;
+
+		if (value instanceof Property) {
+			Property prop = (Property) value;
+			switch (prop.getType()) {
+			case INTEGER:
+				value = prop.getIntVal();
+				break;
+			case REAL:
+				value = prop.getRealVal();
+				break;
+			case BOOLEAN:
+				value = prop.getBoolVal();
+				break;
+			case STRING:
+				value = prop.getStrVal();
+				break;
+			case NONE:
+			default:
+				value = null;
+			}
+		}
+
+		if (value instanceof Integer) {
+			operand = new Operand(Type.INTEGER, (int) value);
+		} else if (value instanceof Double) {
+			operand = new Operand(Type.REAL, (double) value);
+		} else if (value instanceof String) {
+			operand = new Operand(Type.STRING, (String) value);
+		} else if (value instanceof Boolean) {
+			operand = new Operand(Type.BOOLEAN, (boolean) value);
+		}
+
+		return operand;
+	}
+
 	private static void populateMap() {
-		symbol2CanonicalSymbol.clear();
+		Map<String, String> symbol2CanonicalSymbol = new TreeMap<String, String>();
+		ITableColumnInfoSource columnInfoSource = null;
 
 		// Use current observation list column names as VeLa variables
 
@@ -268,5 +449,13 @@ public class VeLaValidObservationEnvironment extends VeLaEnvironment<Operand> {
 			symbol2CanonicalSymbol.put("PHASE", "STANDARDPHASE");
 			symbol2CanonicalSymbol.put("PREVIOUSCYCLEPHASE", "PREVIOUSCYCLEPHASE");
 		}
+
+		VeLaValidObservationEnvironment.symbol2CanonicalSymbol = symbol2CanonicalSymbol;
+		VeLaValidObservationEnvironment.columnInfoSource = columnInfoSource;
+		resolvedAccessors.clear();
+
+		populated = true;
+		populatedNewStarMsg = newStarMsg;
+		populatedAnalysisType = analysisType;
 	}
 }
@@ -0,0 +1,199 @@
+// Generated from /root/project/src/org/aavso/tools/vstar/vela/VeLa.g4 by ANTLR 4.5.3
+package org.aavso.tools.vstar.vela;
+import org.antlr.v4.runtime.tree.ParseTreeVisitor;
+
+/**
+ * This interface defines a complete generic visitor for a parse tree produced
+ * by {@link VeLaParser}.
+ *
+ * @param <T> The return type of the visit operation. Use {@link Void} for
+ * operations with no return type.
+ */
+public interface VeLaVisitor<T> extends ParseTreeVisitor<T> {
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#sequence}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitSequence(VeLaParser.SequenceContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#binding}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBinding(VeLaParser.BindingContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#namedFundef}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitNamedFundef(VeLaParser.NamedFundefContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#expression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExpression(VeLaParser.ExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#selectionExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitSelectionExpression(VeLaParser.SelectionExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#whenExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitWhenExpression(VeLaParser.WhenExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#ifExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIfExpression(VeLaParser.IfExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#consequent}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitConsequent(VeLaParser.ConsequentContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#whileLoop}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitWhileLoop(VeLaParser.WhileLoopContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#booleanExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBooleanExpression(VeLaParser.BooleanExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#exclusiveOrExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExclusiveOrExpression(VeLaParser.ExclusiveOrExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#conjunctiveExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitConjunctiveExpression(VeLaParser.ConjunctiveExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#logicalNegationExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitLogicalNegationExpression(VeLaParser.LogicalNegationExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#relationalExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRelationalExpression(VeLaParser.RelationalExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#shiftExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitShiftExpression(VeLaParser.ShiftExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#additiveExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitAdditiveExpression(VeLaParser.AdditiveExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#multiplicativeExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitMultiplicativeExpression(VeLaParser.MultiplicativeExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#unaryExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitUnaryExpression(VeLaParser.UnaryExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#exponentiationExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExponentiationExpression(VeLaParser.ExponentiationExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#funcall}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitFuncall(VeLaParser.FuncallContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#factor}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitFactor(VeLaParser.FactorContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#integer}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitInteger(VeLaParser.IntegerContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#real}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitReal(VeLaParser.RealContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#bool}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBool(VeLaParser.BoolContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#string}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitString(VeLaParser.StringContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#list}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitList(VeLaParser.ListContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#symbol}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitSymbol(VeLaParser.SymbolContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#anonFundef}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitAnonFundef(VeLaParser.AnonFundefContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#formalParameter}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitFormalParameter(VeLaParser.FormalParameterContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#type}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitType(VeLaParser.TypeContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link VeLaParser#block}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBlock(VeLaParser.BlockContext ctx);
+}
\ No newline at end of file
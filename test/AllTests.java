@@ -37,6 +37,7 @@ import org.aavso.tools.vstar.util.DecInfoTest;
 import org.aavso.tools.vstar.util.RAInfoTest;
 import org.aavso.tools.vstar.util.comparator.RankedIndexPairComparatorTest;
 import org.aavso.tools.vstar.util.date.B1950EpochHJDConverterTest;
+import org.aavso.tools.vstar.util.date.BarycentricTimeConverterTest;
 import org.aavso.tools.vstar.util.date.J2000EpochHJDConverterTest;
 import org.aavso.tools.vstar.util.date.MeeusDateUtilTest;
 import org.aavso.tools.vstar.util.locale.NumberParserTest;
@@ -52,6 +53,10 @@ import org.aavso.tools.vstar.util.stats.DescStatsTest;
 import org.aavso.tools.vstar.util.stats.PhaseCalcsTest;
 import org.aavso.tools.vstar.util.stats.anova.CommonsMathAnovaTest;
 import org.aavso.tools.vstar.util.stats.anova.EpsAurVisJD2454700ToJD2455000AnovaTest;
+import org.aavso.tools.vstar.vela.VeLaColumnEvaluatorTest;
+import org.aavso.tools.vstar.vela.VeLaCompiledTest;
+import org.aavso.tools.vstar.vela.VeLaObservationFilterTest;
+import org.aavso.tools.vstar.vela.VeLaRuntimeTest;
 import org.aavso.tools.vstar.vela.VeLaTest;
 
 import junit.framework.Test;
@@ -85,6 +90,7 @@ public class AllTests {
 		suite.addTestSuite(RAInfoTest.class);
 		suite.addTestSuite(RankedIndexPairComparatorTest.class);
 		suite.addTestSuite(B1950EpochHJDConverterTest.class);
+		suite.addTestSuite(BarycentricTimeConverterTest.class);
 		suite.addTestSuite(J2000EpochHJDConverterTest.class);
 		suite.addTestSuite(MeeusDateUtilTest.class);
 		suite.addTestSuite(NumberParserTest.class);
@@ -101,6 +107,10 @@ public class AllTests {
 		suite.addTestSuite(CommonsMathAnovaTest.class);
 		suite.addTestSuite(EpsAurVisJD2454700ToJD2455000AnovaTest.class);
 		suite.addTestSuite(VeLaTest.class);
+		suite.addTestSuite(VeLaCompiledTest.class);
+		suite.addTestSuite(VeLaObservationFilterTest.class);
+		suite.addTestSuite(VeLaColumnEvaluatorTest.class);
+		suite.addTestSuite(VeLaRuntimeTest.class);
 		// $JUnit-END$
 		
 		return suite;
@@ -17,9 +17,14 @@
  */
 package org.aavso.tools.vstar.data.filter;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
 import junit.framework.TestCase;
 
 import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.MagnitudeModifier;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.data.filter.MagnitudeFieldMatcher;
 import org.aavso.tools.vstar.data.filter.ObsCodeFieldMatcher;
@@ -149,4 +154,124 @@ public class ObservationFilterTest extends TestCase {
 		
 		assertTrue(filter.matches(ob));
 	}
+
+	// Compiled observation filter tests.
+
+	public void testCompiledMatchersAgreeWithMatchers() {
+		List<ValidObservation> obs = createObservations(1000);
+
+		ObservationMatcherOp[] ops = { ObservationMatcherOp.EQUALS,
+				ObservationMatcherOp.NOT_EQUALS, ObservationMatcherOp.LESS_THAN,
+				ObservationMatcherOp.GREATER_THAN,
+				ObservationMatcherOp.LESS_THAN_OR_EQUAL,
+				ObservationMatcherOp.GREATER_THAN_OR_EQUAL };
+
+		for (ObservationMatcherOp op : ops) {
+			assertCompiledAgrees(new MagnitudeFieldMatcher(4.5, op), obs);
+			assertCompiledAgrees(new JDFieldMatcher(2450100.0, op), obs);
+			assertCompiledAgrees(new ErrorFieldMatcher(0.02, op), obs);
+		}
+
+		assertCompiledAgrees(new ObsCodeFieldMatcher("ABC",
+				ObservationMatcherOp.EQUALS), obs);
+		assertCompiledAgrees(new ObsCodeFieldMatcher("ABC",
+				ObservationMatcherOp.NOT_EQUALS), obs);
+		assertCompiledAgrees(new ObsCodeFieldMatcher("",
+				ObservationMatcherOp.EQUALS), obs);
+		assertCompiledAgrees(new ObjectNameFieldMatcher("CYG",
+				ObservationMatcherOp.CONTAINS), obs);
+	}
+
+	public void testCompiledFilterCombinesStringExclusions() {
+		List<ValidObservation> obs = createObservations(1000);
+
+		ObservationFilter filter = new ObservationFilter();
+		filter.addMatcher(new ObsCodeFieldMatcher("ABC",
+				ObservationMatcherOp.NOT_EQUALS));
+		filter.addMatcher(new ObsCodeFieldMatcher("DEF",
+				ObservationMatcherOp.NOT_EQUALS));
+		filter.addMatcher(new MagnitudeFieldMatcher(4.5,
+				ObservationMatcherOp.LESS_THAN));
+
+		assertRowsAgree(filter, obs, true, true, true);
+	}
+
+	public void testCompiledFilterInclusionCriteria() {
+		List<ValidObservation> obs = createObservations(1000);
+
+		ObservationFilter filter = new ObservationFilter();
+		filter.addMatcher(new MagnitudeFieldMatcher(4.5,
+				ObservationMatcherOp.GREATER_THAN));
+
+		assertRowsAgree(filter, obs, true, true, true);
+		assertRowsAgree(filter, obs, false, true, true);
+		assertRowsAgree(filter, obs, true, false, true);
+		assertRowsAgree(filter, obs, true, true, false);
+		assertRowsAgree(filter, obs, false, false, false);
+	}
+
+	public void testFilteredRowsOfLargeList() {
+		// Large enough to be filtered in parallel.
+		List<ValidObservation> obs = createObservations(300001);
+
+		ObservationFilter filter = new ObservationFilter();
+		filter.addMatcher(new ObsCodeFieldMatcher("ABC",
+				ObservationMatcherOp.EQUALS));
+		filter.addMatcher(new MagnitudeFieldMatcher(4.5,
+				ObservationMatcherOp.LESS_THAN_OR_EQUAL));
+
+		BitSet rows = assertRowsAgree(filter, obs, false, false, false);
+		assertTrue(rows.cardinality() > 0);
+		assertTrue(rows.length() <= obs.size());
+	}
+
+	// Helpers
+
+	private List<ValidObservation> createObservations(int n) {
+		String[] obsCodes = { "ABC", "DEF", "GHI", "" };
+		String[] names = { "SS CYG", "R CAR", "" };
+
+		List<ValidObservation> obs = new ArrayList<ValidObservation>();
+
+		for (int i = 0; i < n; i++) {
+			ValidObservation ob = new ValidObservation();
+			ob.setJD(2450000.0 + (i % 200));
+			ob.setMagnitude(new Magnitude(3.0 + (i % 31) / 10.0,
+					i % 11 == 0 ? MagnitudeModifier.FAINTER_THAN
+							: MagnitudeModifier.NO_DELTA, false,
+					(i % 5) / 100.0));
+			ob.setObsCode(obsCodes[i % obsCodes.length]);
+			ob.setName(names[i % names.length]);
+			ob.setDiscrepant(i % 7 == 0);
+			ob.setExcluded(i % 13 == 0);
+			obs.add(ob);
+		}
+
+		return obs;
+	}
+
+	private void assertCompiledAgrees(AbstractObservationFieldMatcher<?> matcher,
+			List<ValidObservation> obs) {
+		for (ValidObservation ob : obs) {
+			assertEquals(matcher.matches(ob), matcher.compile().test(ob));
+		}
+	}
+
+	private BitSet assertRowsAgree(ObservationFilter filter,
+			List<ValidObservation> obs, boolean includeFainterThan,
+			boolean includeDiscrepant, boolean includeExcluded) {
+		BitSet rows = filter.getFilteredRows(obs, includeFainterThan,
+				includeDiscrepant, includeExcluded);
+
+		for (int i = 0; i < obs.size(); i++) {
+			ValidObservation ob = obs.get(i);
+			boolean expected = filter.matches(ob)
+					&& (includeFainterThan || !ob.getMagnitude().isFainterThan())
+					&& (includeDiscrepant || !ob.isDiscrepant())
+					&& (includeExcluded || !ob.isExcluded());
+			assertEquals(expected, rows.get(i));
+		}
+
+		return rows;
+	}
 }
@@ -0,0 +1,276 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.engine;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.exception.CancellationException;
+import org.aavso.tools.vstar.plugin.ob.src.impl.TextFormatObservationSourcePlugin;
+import org.aavso.tools.vstar.util.CancellationToken;
+import org.aavso.tools.vstar.util.SyntheticLightCurve;
+import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.period.PeriodAnalysisCoordinateType;
+import org.aavso.tools.vstar.util.period.dcdft.DcDftAnalysisType;
+import org.aavso.tools.vstar.util.period.dcdft.TSDcDft;
+
+/**
+ * Analysis engine tests, run without a display, over documents loaded from
+ * synthetic light curves.
+ */
+public class AnalysisEngineTest extends TestCase {
+
+	static {
+		System.setProperty("java.awt.headless", "true");
+	}
+
+	private static final int POINTS = 5000;
+
+	// The DC DFT frequency range, which includes the strongest signals.
+	private static final double LO_FREQ = 0.005;
+	private static final double HI_FREQ = 0.205;
+	private static final double RESOLUTION = 0.001;
+
+	private AnalysisEngine engine;
+	private List<File> files;
+
+	public AnalysisEngineTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		engine = new AnalysisEngine();
+		files = new ArrayList<File>();
+	}
+
+	protected void tearDown() throws Exception {
+		engine.shutdown();
+
+		for (File file : files) {
+			file.delete();
+		}
+
+		super.tearDown();
+	}
+
+	public void testIndependentDocuments() throws Exception {
+		AnalysisDocument survey = loadSurvey();
+		AnalysisDocument simple = loadSimple(50.0);
+
+		assertNotSame(survey, simple);
+		assertEquals(POINTS, survey.getValidObservations().size());
+		assertEquals(POINTS, simple.getValidObservations().size());
+		assertFalse(survey.getObservations(SeriesType.Johnson_B).isEmpty());
+		assertTrue(simple.getObservations(SeriesType.Johnson_B).isEmpty());
+
+		assertEquals(123.4, topPeriod(survey, SeriesType.Visual), 123.4 * 123.4
+				* RESOLUTION);
+		assertEquals(50.0, topPeriod(simple, SeriesType.Unspecified), 50.0 * 50.0
+				* RESOLUTION);
+
+		simple.clear();
+		assertFalse(simple.isLoaded());
+		assertTrue(survey.isLoaded());
+		assertEquals(POINTS, survey.getValidObservations().size());
+	}
+
+	public void testAdditiveLoad() throws Exception {
+		AnalysisDocument doc = loadSimple(50.0);
+		doc.load(new TextFormatObservationSourcePlugin(),
+				Collections.singletonList(writeSimple(50.0, 2)), true);
+
+		assertEquals(2 * POINTS, doc.getValidObservations().size());
+	}
+
+	public void testFilter() throws Exception {
+		AnalysisDocument doc = loadSurvey();
+
+		List<ValidObservation> filtered = doc
+				.filter("magnitude >= 7.5 and magnitude <= 13.0");
+
+		assertFalse(filtered.isEmpty());
+		assertTrue(filtered.size() < doc.getValidObservations().size());
+		assertSame(filtered, doc.getObservations(SeriesType.Filtered));
+
+		for (ValidObservation ob : filtered) {
+			assertFalse(ob.isDiscrepant());
+			assertTrue(ob.getMag() >= 7.5 && ob.getMag() <= 13.0);
+		}
+	}
+
+	public void testPhase() throws Exception {
+		AnalysisDocument doc = loadSurvey();
+		doc.filter("true");
+
+		doc.phase(123.4, SyntheticLightCurve.START_JD);
+
+		assertEquals(123.4, doc.getPeriod(), 0);
+		assertEquals(SyntheticLightCurve.START_JD, doc.getEpoch(), 0);
+
+		for (ValidObservation ob : doc.getObservations(SeriesType.Filtered)) {
+			assertTrue(ob.getStandardPhase() >= 0 && ob.getStandardPhase() <= 1);
+			assertEquals(ob.getStandardPhase() - 1, ob.getPreviousCyclePhase(),
+					1e-9);
+		}
+	}
+
+	public void testPolyfit() throws Exception {
+		AnalysisDocument doc = loadSimple(50.0);
+
+		IModel model = doc.polyfit(SeriesType.Unspecified, 2);
+
+		int n = doc.getObservations(SeriesType.Unspecified).size();
+		assertEquals(n, model.getFit().size());
+		assertSame(model.getFit(), doc.getObservations(SeriesType.Model));
+		assertSame(model.getResiduals(),
+				doc.getObservations(SeriesType.Residuals));
+	}
+
+	public void testAsync() throws Exception {
+		AnalysisDocument doc = engine.createDocument();
+
+		CompletableFuture<TSDcDft> future = doc
+				.loadAsync(new TextFormatObservationSourcePlugin(),
+						Collections.singletonList(writeSimple(50.0, 1)), false)
+				.thenCompose(
+						loaded -> loaded.analyseAsync(AnalysisDocument
+								.createDcDft(loaded
+										.getObservations(SeriesType.Unspecified),
+										DcDftAnalysisType.FREQUENCY_RANGE,
+										LO_FREQ, HI_FREQ, RESOLUTION)));
+
+		TSDcDft dcdft = future.get(60, TimeUnit.SECONDS);
+
+		assertEquals(50.0, dcdft.getTopHits()
+				.get(PeriodAnalysisCoordinateType.PERIOD).get(0), 50.0 * 50.0
+				* RESOLUTION);
+	}
+
+	public void testAsyncFailure() throws Exception {
+		AnalysisDocument doc = loadSimple(50.0);
+
+		try {
+			doc.filterAsync("magnitude +").get(60, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			// The filter cannot be parsed.
+		}
+	}
+
+	public void testCancelAsync() throws Exception {
+		AnalysisDocument doc = engine.createDocument();
+
+		CompletableFuture<Void> future = doc.submit(() -> {
+			CancellationToken token = CancellationToken.current();
+			while (true) {
+				token.checkpoint();
+				Thread.sleep(1);
+			}
+		});
+
+		assertTrue(future.cancel(true));
+		assertTrue(future.isCancelled());
+	}
+
+	public void testCancelSync() throws Exception {
+		AnalysisDocument doc = loadSimple(50.0);
+
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+
+		CancellationToken.Scope scope = token.enter();
+		try {
+			doc.dcdft(SeriesType.Unspecified,
+					DcDftAnalysisType.FREQUENCY_RANGE, LO_FREQ, HI_FREQ, RESOLUTION);
+			fail();
+		} catch (CancellationException e) {
+			// Expected.
+		} finally {
+			scope.close();
+		}
+	}
+
+	// Helpers
+
+	private AnalysisDocument loadSurvey() throws Exception {
+		File file = createFile(".tsv");
+
+		try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+			SyntheticLightCurve.createSurveyCurve(POINTS, 1)
+					.writeDownloadFormat(writer);
+		}
+
+		AnalysisDocument doc = engine.createDocument();
+		doc.load(new TextFormatObservationSourcePlugin(),
+				Collections.singletonList(file), false);
+
+		return doc;
+	}
+
+	// Observations in simple format are of the unspecified series.
+	private AnalysisDocument loadSimple(double period) throws Exception {
+		AnalysisDocument doc = engine.createDocument();
+		doc.load(new TextFormatObservationSourcePlugin(),
+				Collections.singletonList(writeSimple(period, 1)), false);
+
+		return doc;
+	}
+
+	private File writeSimple(double period, long seed) throws Exception {
+		File file = createFile(".csv");
+
+		SyntheticLightCurve curve = new SyntheticLightCurve(POINTS, seed);
+		curve.setSignal(SyntheticLightCurve.MEAN_MAG, new double[] { period },
+				new double[] { 1.0 });
+
+		try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+			curve.writeSimpleFormat(writer);
+		}
+
+		return file;
+	}
+
+	private File createFile(String suffix) throws Exception {
+		File file = File.createTempFile("vstar_engine", suffix);
+		files.add(file);
+		return file;
+	}
+
+	private double topPeriod(AnalysisDocument doc, SeriesType series)
+			throws Exception {
+		TSDcDft dcdft = doc.dcdft(series, DcDftAnalysisType.FREQUENCY_RANGE,
+				LO_FREQ, HI_FREQ, RESOLUTION);
+
+		return dcdft.getTopHits().get(PeriodAnalysisCoordinateType.PERIOD)
+				.get(0);
+	}
+}
@@ -0,0 +1,208 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.perf;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.LineNumberReader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.input.text.ObservationSourceAnalyser;
+import org.aavso.tools.vstar.input.text.TextFormatObservationReader;
+import org.aavso.tools.vstar.util.SyntheticLightCurve;
+import org.aavso.tools.vstar.util.period.PeriodAnalysisCoordinateType;
+import org.aavso.tools.vstar.util.period.dcdft.TSDcDft;
+import org.aavso.tools.vstar.util.stats.PhaseCalcs;
+import org.aavso.tools.vstar.vela.VeLaObservationFilter;
+
+/**
+ * <p>
+ * A headless performance regression harness. A survey-like synthetic light
+ * curve (see SyntheticLightCurve.createSurveyCurve()) is written to a file
+ * which is then loaded, filtered, phased and analysed by DC DFT without the
+ * user interface, failing if the whole run exceeds its wall-time or
+ * peak-heap budget. Generating the file is not measured.
+ * </p>
+ * <p>
+ * By default the curve is small enough for the harness to run as part of the
+ * unit tests. The size and budgets may be set via the system properties
+ * below, as "ant regression" does for a larger run.
+ * </p>
+ */
+public class LightCurveRegressionTest extends TestCase {
+
+	public static final String POINTS_PROPERTY = "vstar.regression.points";
+	public static final String SECONDS_PROPERTY = "vstar.regression.seconds";
+	public static final String HEAP_MB_PROPERTY = "vstar.regression.heapMB";
+
+	private static final int DEFAULT_POINTS = 50000;
+	private static final int DEFAULT_SECONDS = 60;
+	private static final int DEFAULT_HEAP_MB = 512;
+
+	// The VeLa filter, which excludes the most extreme noise outliers.
+	private static final String FILTER = "magnitude >= 7.5 and magnitude <= 13.0";
+
+	// The DC DFT frequency range, which includes the strongest signal.
+	private static final double LO_FREQ = 0.005;
+	private static final double HI_FREQ = 0.205;
+	private static final double RESOLUTION = 0.001;
+
+	private int points;
+	private long secondsBudget;
+	private long heapBudgetMB;
+
+	private File file;
+
+	public LightCurveRegressionTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		points = Integer.getInteger(POINTS_PROPERTY, DEFAULT_POINTS);
+		secondsBudget = Integer.getInteger(SECONDS_PROPERTY, DEFAULT_SECONDS);
+		heapBudgetMB = Integer.getInteger(HEAP_MB_PROPERTY, DEFAULT_HEAP_MB);
+	}
+
+	protected void tearDown() throws Exception {
+		if (file != null) {
+			file.delete();
+		}
+
+		super.tearDown();
+	}
+
+	public void testDownloadFormat() throws Exception {
+		file = File.createTempFile("vstar_regression", ".tsv");
+
+		try (Writer writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+			SyntheticLightCurve.createSurveyCurve(points, 1)
+					.writeDownloadFormat(writer);
+		}
+
+		runWithinBudgets();
+	}
+
+	public void testSimpleFormat() throws Exception {
+		file = File.createTempFile("vstar_regression", ".csv");
+
+		try (Writer writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+			SyntheticLightCurve.createSurveyCurve(points, 1)
+					.writeSimpleFormat(writer);
+		}
+
+		runWithinBudgets();
+	}
+
+	// Helpers
+
+	private void runWithinBudgets() throws Exception {
+		List<MemoryPoolMXBean> heapPools = new ArrayList<MemoryPoolMXBean>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				heapPools.add(pool);
+			}
+		}
+
+		System.gc();
+		for (MemoryPoolMXBean pool : heapPools) {
+			pool.resetPeakUsage();
+		}
+
+		long start = System.nanoTime();
+
+		TSDcDft dcdft = analyse(load());
+
+		long millis = (System.nanoTime() - start) / 1000000;
+
+		// The sum of the pools' peaks is an upper bound on the peak heap use.
+		long peakBytes = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			peakBytes += pool.getPeakUsage().getUsed();
+		}
+		long peakMB = peakBytes / (1024 * 1024);
+
+		System.out.printf("%s: %d points, %d ms (budget %d s), peak heap %d MB (budget %d MB)\n",
+				getName(), points, millis, secondsBudget, peakMB, heapBudgetMB);
+
+		// The strongest signal must be found, whatever the size.
+		double topPeriod = dcdft.getTopHits()
+				.get(PeriodAnalysisCoordinateType.PERIOD).get(0);
+		assertEquals(123.4, topPeriod, 123.4 * 123.4 * RESOLUTION);
+
+		assertTrue("Wall-time budget exceeded: " + millis + " ms",
+				millis <= secondsBudget * 1000);
+		assertTrue("Peak heap budget exceeded: " + peakMB + " MB",
+				peakMB <= heapBudgetMB);
+	}
+
+	private List<ValidObservation> load() throws Exception {
+		ObservationSourceAnalyser analyser;
+		try (LineNumberReader in = new LineNumberReader(new FileReader(file))) {
+			analyser = new ObservationSourceAnalyser(in, file.getName());
+			analyser.analyse();
+		}
+
+		TextFormatObservationReader reader;
+		try (LineNumberReader in = new LineNumberReader(new FileReader(file))) {
+			reader = new TextFormatObservationReader(in, analyser, "");
+			reader.retrieveObservations();
+		}
+
+		List<ValidObservation> obs = reader.getValidObservations();
+		assertEquals(points, obs.size());
+
+		return obs;
+	}
+
+	private TSDcDft analyse(List<ValidObservation> obs) throws Exception {
+		VeLaObservationFilter filter = new VeLaObservationFilter(FILTER);
+		boolean[] accepted = filter.accept(obs, error -> {
+			throw error;
+		});
+
+		List<ValidObservation> filtered = new ArrayList<ValidObservation>();
+		for (int i = 0; i < accepted.length; i++) {
+			// As for the document, discrepant observations are excluded.
+			ValidObservation ob = obs.get(i);
+			if (accepted[i] && !ob.isDiscrepant()) {
+				filtered.add(ob);
+			}
+		}
+		assertFalse(filtered.isEmpty());
+		assertTrue(filtered.size() < obs.size());
+
+		PhaseCalcs.setPhases(filtered, SyntheticLightCurve.START_JD, 123.4);
+
+		TSDcDft dcdft = new TSDcDft(filtered, LO_FREQ, HI_FREQ, RESOLUTION);
+		dcdft.execute();
+
+		return dcdft;
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.dialog.period.wwz;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.ui.model.plot.WWZ3DPlotModel;
+import org.aavso.tools.vstar.util.period.wwz.WWZCoordinateType;
+import org.aavso.tools.vstar.util.period.wwz.WWZStatistic;
+import org.jfree.chart.ChartRenderingInfo;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.LookupPaintScale;
+import org.jfree.data.Range;
+
+/**
+ * WWZ raster renderer unit tests.
+ */
+public class WWZRasterRendererTest extends TestCase {
+
+	private static final int TAUS = 40;
+	private static final int FREQS = 30;
+
+	public WWZRasterRendererTest(String name) {
+		super(name);
+	}
+
+	public void testImageIsRecreatedOnlyWhenThePaintScaleChanges() {
+		WWZ3DPlotModel model = createModel();
+		WWZRasterRenderer renderer = new WWZRasterRenderer();
+		renderer.setPaintScale(createScale(Color.BLUE));
+
+		BufferedImage image = renderer.getImage(model.getMatrix());
+		assertEquals(TAUS, image.getWidth());
+		assertEquals(FREQS, image.getHeight());
+		assertSame(image, renderer.getImage(model.getMatrix()));
+
+		renderer.setPaintScale(createScale(Color.GREEN));
+		assertNotSame(image, renderer.getImage(model.getMatrix()));
+	}
+
+	public void testCellsArePaintedWhereTheirStatisticsArePlotted() {
+		assertCellsArePainted(null);
+	}
+
+	public void testCellsArePaintedWhenTheDomainIsZoomedIn() {
+		// The first rendered item is not the first statistic.
+		assertCellsArePainted(new Range(2450000 + 125, 2450000 + 275));
+	}
+
+	// Helpers
+
+	private void assertCellsArePainted(Range domain) {
+		WWZ3DPlotModel model = createModel();
+		List<WWZStatistic> stats = model.getStats();
+
+		LookupPaintScale scale = createScale(Color.BLUE);
+		WWZRasterRenderer renderer = new WWZRasterRenderer();
+		renderer.setPaintScale(scale);
+
+		NumberAxis xAxis = new NumberAxis();
+		xAxis.setAutoRangeIncludesZero(false);
+		if (domain != null) {
+			xAxis.setRange(domain);
+		}
+		NumberAxis yAxis = new NumberAxis();
+		yAxis.setAutoRangeIncludesZero(false);
+		XYPlot plot = new XYPlot(model, xAxis, yAxis, renderer);
+		JFreeChart chart = new JFreeChart(plot);
+		chart.removeLegend();
+
+		BufferedImage image = new BufferedImage(800, 600,
+				BufferedImage.TYPE_INT_ARGB);
+		ChartRenderingInfo info = new ChartRenderingInfo();
+		Graphics2D g2 = image.createGraphics();
+		chart.draw(g2, new Rectangle2D.Double(0, 0, 800, 600), info);
+		g2.dispose();
+
+		Rectangle2D dataArea = info.getPlotInfo().getDataArea();
+
+		int painted = 0;
+
+		for (int item = 0; item < stats.size(); item++) {
+			WWZStatistic stat = stats.get(item);
+
+			int x = (int) xAxis.valueToJava2D(stat.getTau(), dataArea, plot
+					.getDomainAxisEdge());
+			int y = (int) yAxis.valueToJava2D(stat.getPeriod(), dataArea,
+					plot.getRangeAxisEdge());
+
+			if (dataArea.contains(x, y)) {
+				Color expected = (Color) scale.getPaint(stat.getWwz());
+				assertEquals(expected.getRGB(), image.getRGB(x, y));
+				painted++;
+
+				// Picking maps the point back to the statistic.
+				assertEquals(item, model.getMatrix().itemAt(
+						xAxis.java2DToValue(x, dataArea, plot
+								.getDomainAxisEdge()),
+						yAxis.java2DToValue(y, dataArea, plot
+								.getRangeAxisEdge())));
+			}
+		}
+
+		assertTrue(painted > 0);
+	}
+
+	private WWZ3DPlotModel createModel() {
+		List<WWZStatistic> stats = new ArrayList<WWZStatistic>();
+
+		for (int i = 0; i < TAUS; i++) {
+			for (int j = 0; j < FREQS; j++) {
+				double freq = 0.01 + j * 0.002;
+				double wwz = (i * 7 + j * 13) % 50;
+				stats.add(new WWZStatistic(2450000 + i * 10, freq, wwz, 0.5,
+						10, 20));
+			}
+		}
+
+		return new WWZ3DPlotModel(stats, WWZCoordinateType.TAU,
+				WWZCoordinateType.PERIOD, WWZCoordinateType.WWZ);
+	}
+
+	private LookupPaintScale createScale(Color low) {
+		LookupPaintScale scale = new LookupPaintScale(0, 50, Color.white);
+		scale.add(0, low);
+		scale.add(10, Color.CYAN);
+		scale.add(20, Color.YELLOW);
+		scale.add(30, Color.ORANGE);
+		scale.add(40, Color.RED);
+		return scale;
+	}
+}
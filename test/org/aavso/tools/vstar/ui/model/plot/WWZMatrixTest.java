@@ -0,0 +1,105 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.util.period.wwz.WWZCoordinateType;
+import org.aavso.tools.vstar.util.period.wwz.WWZStatistic;
+
+/**
+ * WWZ matrix unit tests.
+ */
+public class WWZMatrixTest extends TestCase {
+
+	public WWZMatrixTest(String name) {
+		super(name);
+	}
+
+	public void testStatisticsArePackedByColumnAndRow() {
+		List<WWZStatistic> stats = createStats(5, 4);
+
+		WWZMatrix matrix = new WWZ3DPlotModel(stats, WWZCoordinateType.TAU,
+				WWZCoordinateType.PERIOD, WWZCoordinateType.WWZ).getMatrix();
+
+		assertEquals(5, matrix.getColumnCount());
+		assertEquals(4, matrix.getRowCount());
+		assertTrue(matrix.hasUniformColumns());
+
+		for (int column = 0; column < 5; column++) {
+			for (int row = 0; row < 4; row++) {
+				WWZStatistic stat = stats.get(matrix.getItem(column, row));
+				assertEquals(stat.getTau(), matrix.getX(column));
+				assertEquals(stat.getPeriod(), matrix.getY(row));
+				assertEquals(stat.getWwz(), matrix.getZ(column, row));
+			}
+		}
+	}
+
+	public void testPointsMapToTheStatisticOfTheirCell() {
+		List<WWZStatistic> stats = createStats(5, 4);
+
+		WWZMatrix matrix = WWZMatrix.create(stats, WWZCoordinateType.TAU,
+				WWZCoordinateType.PERIOD, WWZCoordinateType.WWZ);
+
+		for (int item = 0; item < stats.size(); item++) {
+			WWZStatistic stat = stats.get(item);
+			assertEquals(item, matrix.itemAt(stat.getTau() + 1,
+					stat.getPeriod() * 1.01));
+		}
+
+		// Beyond the first and last columns' outer half cells.
+		assertEquals(-1, matrix.itemAt(2450000 - 6, stats.get(0).getPeriod()));
+		assertEquals(-1, matrix.itemAt(2450040 + 6, stats.get(0).getPeriod()));
+	}
+
+	public void testStatisticsThatAreNotAGridAreNotPacked() {
+		List<WWZStatistic> stats = createStats(5, 4);
+		stats.remove(stats.size() - 1);
+
+		assertNull(WWZMatrix.create(stats, WWZCoordinateType.TAU,
+				WWZCoordinateType.PERIOD, WWZCoordinateType.WWZ));
+
+		stats = createStats(5, 4);
+		stats.set(6, new WWZStatistic(2450010, 0.5, 1, 1, 10, 20));
+
+		assertNull(WWZMatrix.create(stats, WWZCoordinateType.TAU,
+				WWZCoordinateType.PERIOD, WWZCoordinateType.WWZ));
+	}
+
+	// Helpers
+
+	// Statistics for taus 10 days apart and evenly spaced frequencies, as
+	// the WWZ algorithm yields them.
+	private List<WWZStatistic> createStats(int taus, int freqs) {
+		List<WWZStatistic> stats = new ArrayList<WWZStatistic>();
+
+		for (int i = 0; i < taus; i++) {
+			for (int j = 0; j < freqs; j++) {
+				double freq = 0.01 + j * 0.005;
+				stats.add(new WWZStatistic(2450000 + i * 10, freq, i * freqs
+						+ j, 0.5, 10, 20));
+			}
+		}
+
+		return stats;
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.pane.plot;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.jfree.data.Range;
+import org.jfree.data.xy.DefaultIntervalXYDataset;
+import org.jfree.data.xy.DefaultXYDataset;
+
+/**
+ * Plot level of detail unit tests.
+ */
+public class PlotLevelOfDetailTest extends TestCase {
+
+	private static final int N = 100000;
+	private static final int COLUMNS = 800;
+	private static final int ROWS = 600;
+
+	private static final Range X_RANGE = new Range(0, N);
+	private static final Range Y_RANGE = new Range(0, 10);
+
+	public PlotLevelOfDetailTest(String name) {
+		super(name);
+	}
+
+	public void testFewPointsInViewAreAllDrawn() {
+		DefaultXYDataset dataset = createDataset(new Random(1), N);
+		PlotLevelOfDetail lod = new PlotLevelOfDetail();
+
+		assertNotNull(lod.select(dataset, series -> true, X_RANGE, Y_RANGE,
+				COLUMNS, ROWS));
+
+		// Zoomed in far enough, everything is drawn.
+		assertNull(lod.select(dataset, series -> true, new Range(100, 100
+				+ PlotLevelOfDetail.FULL_RESOLUTION_THRESHOLD / 2), Y_RANGE,
+				COLUMNS, ROWS));
+	}
+
+	public void testColumnExtremesAreSelected() {
+		DefaultXYDataset dataset = createDataset(new Random(2), N);
+		PlotLevelOfDetail lod = new PlotLevelOfDetail();
+
+		BitSet[] selection = lod.select(dataset, series -> true, X_RANGE,
+				Y_RANGE, COLUMNS, ROWS);
+		BitSet selected = selection[0];
+
+		assertTrue(selected.cardinality() < N / 5);
+		assertTrue(selected.length() <= N);
+
+		double columnWidth = (double) N / COLUMNS;
+
+		for (int column = 0; column < COLUMNS; column++) {
+			int from = (int) Math.ceil(column * columnWidth);
+			int to = (int) Math.ceil((column + 1) * columnWidth);
+
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			double selectedMin = Double.POSITIVE_INFINITY;
+			double selectedMax = Double.NEGATIVE_INFINITY;
+
+			for (int i = from; i < to; i++) {
+				double y = dataset.getYValue(0, i);
+				min = Math.min(min, y);
+				max = Math.max(max, y);
+				if (selected.get(i)) {
+					selectedMin = Math.min(selectedMin, y);
+					selectedMax = Math.max(selectedMax, y);
+				}
+			}
+
+			assertEquals(min, selectedMin);
+			assertEquals(max, selectedMax);
+		}
+	}
+
+	public void testUndecimatableSeriesAreDrawnInFull() {
+		DefaultXYDataset dataset = createDataset(new Random(3), N);
+
+		// An unsorted series.
+		double[] xs = new double[N];
+		double[] ys = new double[N];
+		for (int i = 0; i < N; i++) {
+			xs[i] = N - i;
+			ys[i] = i % 10;
+		}
+		dataset.addSeries("unsorted", new double[][] { xs, ys });
+
+		PlotLevelOfDetail lod = new PlotLevelOfDetail();
+
+		BitSet[] selection = lod.select(dataset, series -> true, X_RANGE,
+				Y_RANGE, COLUMNS, ROWS);
+		assertNotNull(selection[0]);
+		assertNull(selection[1]);
+
+		selection = lod.select(dataset, series -> series != 0, X_RANGE,
+				Y_RANGE, COLUMNS, ROWS);
+		assertNull(selection[0]);
+	}
+
+	public void testColumnErrorBarExtentsAreSelected() {
+		Random random = new Random(4);
+
+		double[] xs = new double[N];
+		double[] ys = new double[N];
+		double[] lows = new double[N];
+		double[] highs = new double[N];
+
+		for (int i = 0; i < N; i++) {
+			xs[i] = i;
+			ys[i] = 5 + 0.05 * random.nextGaussian();
+			// Error bars vary much more than magnitudes.
+			double error = 0.5 * random.nextDouble();
+			lows[i] = ys[i] - error;
+			highs[i] = ys[i] + error;
+		}
+
+		DefaultIntervalXYDataset dataset = new DefaultIntervalXYDataset();
+		dataset.addSeries("errors", new double[][] { xs, xs, xs, ys, lows,
+				highs });
+
+		PlotLevelOfDetail lod = new PlotLevelOfDetail();
+
+		BitSet selected = lod.select(dataset, series -> true, X_RANGE,
+				Y_RANGE, COLUMNS, ROWS)[0];
+
+		assertTrue(selected.cardinality() < N / 5);
+
+		double columnWidth = (double) N / COLUMNS;
+
+		for (int column = 0; column < COLUMNS; column++) {
+			int from = (int) Math.ceil(column * columnWidth);
+			int to = (int) Math.ceil((column + 1) * columnWidth);
+
+			double low = Double.POSITIVE_INFINITY;
+			double high = Double.NEGATIVE_INFINITY;
+			double selectedLow = Double.POSITIVE_INFINITY;
+			double selectedHigh = Double.NEGATIVE_INFINITY;
+
+			for (int i = from; i < to; i++) {
+				low = Math.min(low, lows[i]);
+				high = Math.max(high, highs[i]);
+				if (selected.get(i)) {
+					selectedLow = Math.min(selectedLow, lows[i]);
+					selectedHigh = Math.max(selectedHigh, highs[i]);
+				}
+			}
+
+			assertEquals(low, selectedLow);
+			assertEquals(high, selectedHigh);
+		}
+	}
+
+	public void testChangedPointsAreReselected() {
+		DefaultXYDataset dataset = createDataset(new Random(5), N);
+		PlotLevelOfDetail lod = new PlotLevelOfDetail();
+
+		int item = N / 2 + 7;
+
+		assertFalse(lod.select(dataset, series -> true, X_RANGE, Y_RANGE,
+				COLUMNS, ROWS)[0].get(item));
+
+		// Change one magnitude so that it becomes its column's brightest,
+		// keeping the series and its size; listeners are notified.
+		double[][] data = { new double[N], new double[N] };
+		for (int i = 0; i < N; i++) {
+			data[0][i] = dataset.getXValue(0, i);
+			data[1][i] = dataset.getYValue(0, i);
+		}
+		data[1][item] = 0;
+		dataset.addSeries("sorted", data);
+
+		assertTrue(lod.select(dataset, series -> true, X_RANGE, Y_RANGE,
+				COLUMNS, ROWS)[0].get(item));
+	}
+
+	// Helpers
+
+	private DefaultXYDataset createDataset(Random random, int n) {
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+
+		for (int i = 0; i < n; i++) {
+			xs[i] = i;
+			ys[i] = 5 + 2 * Math.sin(i / 20000.0) + 0.05
+					* random.nextGaussian();
+		}
+
+		DefaultXYDataset dataset = new DefaultXYDataset();
+		dataset.addSeries("sorted", new double[][] { xs, ys });
+
+		return dataset;
+	}
+}
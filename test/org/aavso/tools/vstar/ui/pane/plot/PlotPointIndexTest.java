@@ -0,0 +1,232 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.pane.plot;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.ui.pane.plot.PlotPointIndex.PlotPoint;
+import org.jfree.data.Range;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Plot point index unit tests.
+ */
+public class PlotPointIndexTest extends TestCase {
+
+	private static final Range ALL = new Range(-Double.MAX_VALUE,
+			Double.MAX_VALUE);
+
+	public PlotPointIndexTest(String name) {
+		super(name);
+	}
+
+	public void testNearestAgreesWithExhaustiveSearch() {
+		DefaultXYDataset dataset = createDataset(new Random(1), 3, 5000);
+		PlotPointIndex index = new PlotPointIndex(Arrays
+				.<XYDataset> asList(dataset));
+
+		Random random = new Random(2);
+		for (int i = 0; i < 500; i++) {
+			double x = 2450000 + random.nextDouble() * 1200 - 100;
+			double y = 8 + random.nextDouble() * 8;
+
+			// Pixels per day and per magnitude differ greatly.
+			PlotPoint point = index.nearest(x, y, 0.5, 60, ALL, ALL,
+					Double.POSITIVE_INFINITY, (d, s, item) -> true);
+
+			assertNotNull(point);
+			assertEquals(nearestDistance(dataset, x, y, 0.5, 60), distance(
+					point.getX(), point.getY(), x, y, 0.5, 60), 1e-9);
+		}
+	}
+
+	public void testNearestHonoursRangesAndFilter() {
+		DefaultXYDataset dataset = new DefaultXYDataset();
+		dataset.addSeries("a", new double[][] { { 1, 2, 3 }, { 10, 10, 10 } });
+		dataset.addSeries("b", new double[][] { { 1.1 }, { 10 } });
+
+		PlotPointIndex index = new PlotPointIndex(Arrays
+				.<XYDataset> asList(dataset));
+
+		PlotPoint point = index.nearest(1.1, 10, 1, 1, ALL, ALL,
+				Double.POSITIVE_INFINITY, (d, s, item) -> true);
+		assertEquals(1, point.getSeries());
+
+		point = index.nearest(1.1, 10, 1, 1, ALL, ALL,
+				Double.POSITIVE_INFINITY, (d, s, item) -> s == 0);
+		assertEquals(0, point.getSeries());
+		assertEquals(0, point.getItem());
+
+		point = index.nearest(1.1, 10, 1, 1, new Range(1.5, 5), ALL,
+				Double.POSITIVE_INFINITY, (d, s, item) -> true);
+		assertEquals(0, point.getSeries());
+		assertEquals(1, point.getItem());
+
+		assertNull(index.nearest(1.1, 12, 1, 1, ALL, ALL, 1,
+				(d, s, item) -> true));
+	}
+
+	public void testFind() {
+		DefaultXYDataset dataset = createDataset(new Random(3), 2, 10000);
+		PlotPointIndex index = new PlotPointIndex(Arrays
+				.<XYDataset> asList(dataset));
+
+		double x = dataset.getXValue(1, 1234);
+		double y = dataset.getYValue(1, 1234);
+
+		PlotPoint point = index.find(dataset, y, (d, s, item) -> d
+				.getXValue(s, item) == x);
+
+		assertEquals(1, point.getSeries());
+		assertEquals(1234, point.getItem());
+
+		assertNull(index.find(dataset, 100, (d, s, item) -> true));
+	}
+
+	public void testChangedSeriesReindexed() {
+		DefaultXYDataset dataset = new DefaultXYDataset();
+		dataset.addSeries("a", new double[][] { { 1 }, { 10 } });
+
+		PlotPointIndex index = new PlotPointIndex(Arrays
+				.<XYDataset> asList(dataset));
+
+		assertEquals(0, index.nearest(5, 10, 1, 1, ALL, ALL,
+				Double.POSITIVE_INFINITY, (d, s, item) -> true).getItem());
+
+		dataset.addSeries("a", new double[][] { { 1, 5 }, { 10, 10 } });
+		dataset.addSeries("b", new double[][] { { 20 }, { 10 } });
+
+		assertEquals(1, index.nearest(5, 10, 1, 1, ALL, ALL,
+				Double.POSITIVE_INFINITY, (d, s, item) -> true).getItem());
+		assertEquals(1, index.nearest(19, 10, 1, 1, ALL, ALL,
+				Double.POSITIVE_INFINITY, (d, s, item) -> true).getSeries());
+	}
+
+	public void testPointsChangedInPlaceReindexed() {
+		ShiftableDataset dataset = new ShiftableDataset(new double[] { 1, 2,
+				3 }, new double[] { 10, 11, 12 });
+
+		PlotPointIndex index = new PlotPointIndex(Arrays
+				.<XYDataset> asList(dataset));
+
+		assertEquals(1, index.find(dataset, 11, (d, s, item) -> true)
+				.getItem());
+
+		// As the magnitude shifter does: the same series, the same number
+		// of points, but every magnitude changed.
+		dataset.shiftMagnitudes(0.5);
+
+		assertNull(index.find(dataset, 11, (d, s, item) -> true));
+
+		PlotPoint point = index.find(dataset, 11.5, (d, s, item) -> true);
+		assertEquals(1, point.getItem());
+		assertEquals(11.5, point.getY());
+
+		point = index.nearest(3, 12.5, 1, 1, ALL, ALL, 0.1,
+				(d, s, item) -> true);
+		assertEquals(2, point.getItem());
+	}
+
+	// Helpers
+
+	// A single series dataset whose points are changed in place.
+	@SuppressWarnings("serial")
+	private static class ShiftableDataset extends AbstractXYDataset {
+		private final double[] xs;
+		private final double[] ys;
+
+		ShiftableDataset(double[] xs, double[] ys) {
+			this.xs = xs;
+			this.ys = ys;
+		}
+
+		void shiftMagnitudes(double shift) {
+			for (int i = 0; i < ys.length; i++) {
+				ys[i] += shift;
+			}
+			fireDatasetChanged();
+		}
+
+		@Override
+		public int getSeriesCount() {
+			return 1;
+		}
+
+		@Override
+		public Comparable<?> getSeriesKey(int series) {
+			return "series";
+		}
+
+		@Override
+		public int getItemCount(int series) {
+			return xs.length;
+		}
+
+		@Override
+		public Number getX(int series, int item) {
+			return xs[item];
+		}
+
+		@Override
+		public Number getY(int series, int item) {
+			return ys[item];
+		}
+	}
+
+	private DefaultXYDataset createDataset(Random random, int seriesCount,
+			int n) {
+		DefaultXYDataset dataset = new DefaultXYDataset();
+
+		for (int series = 0; series < seriesCount; series++) {
+			double[][] data = new double[2][n];
+			for (int i = 0; i < n; i++) {
+				data[0][i] = 2450000 + random.nextDouble() * 1000;
+				data[1][i] = 10 + 2 * Math.sin(data[0][i] / 50)
+						+ random.nextGaussian();
+			}
+			dataset.addSeries("series" + series, data);
+		}
+
+		return dataset;
+	}
+
+	private double nearestDistance(XYDataset dataset, double x, double y,
+			double xScale, double yScale) {
+		double nearest = Double.POSITIVE_INFINITY;
+
+		for (int series = 0; series < dataset.getSeriesCount(); series++) {
+			for (int item = 0; item < dataset.getItemCount(series); item++) {
+				nearest = Math.min(nearest, distance(dataset.getXValue(series,
+						item), dataset.getYValue(series, item), x, y, xScale,
+						yScale));
+			}
+		}
+
+		return nearest;
+	}
+
+	private double distance(double x1, double y1, double x2, double y2,
+			double xScale, double yScale) {
+		return Math.hypot((x1 - x2) * xScale, (y1 - y2) * yScale);
+	}
+}
@@ -0,0 +1,216 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.resources;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.plugin.GeneralToolPluginBase;
+
+/**
+ * PluginLoader and plugin index test cases.
+ */
+public class PluginLoaderTest extends TestCase {
+
+	private File dir;
+	private File pluginDir;
+	private File libDir;
+	private File indexFile;
+	private File jar;
+
+	public PluginLoaderTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		dir = Files.createTempDirectory("vstar_plugin_loader").toFile();
+		pluginDir = new File(dir, PluginLoader.VSTAR_PLUGINS_DIR_NAME);
+		libDir = new File(dir, PluginLoader.VSTAR_PLUGIN_LIBS_DIR_NAME);
+		indexFile = new File(dir, PluginLoader.VSTAR_PLUGIN_INDEX_FILE_NAME);
+		pluginDir.mkdir();
+		libDir.mkdir();
+
+		// The plugin class is found via the jar's class loader's parent.
+		jar = new File(pluginDir, CountingToolPlugin.class.getName() + ".jar");
+		writeJar("1");
+
+		CountingToolPlugin.instances.set(0);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : pluginDir.listFiles()) {
+			file.delete();
+		}
+		load();
+		pluginDir.delete();
+		libDir.delete();
+		indexFile.delete();
+		dir.delete();
+
+		super.tearDown();
+	}
+
+	public void testFirstLoadDescribesAndIndexesPlugin() throws IOException {
+		load();
+
+		PluginDescriptor<GeneralToolPluginBase> descriptor = getDescriptor();
+		assertEquals("Counting Tool", descriptor.getDisplayName());
+		assertEquals(GeneralToolPluginBase.class, descriptor.getCategory());
+		assertTrue(descriptor.isLoaded());
+		assertEquals(1, CountingToolPlugin.instances.get());
+
+		String index = new String(Files.readAllBytes(indexFile.toPath()),
+				StandardCharsets.UTF_8);
+		assertTrue(index.contains(CountingToolPlugin.class.getName()));
+		assertTrue(index.contains(PluginIndex.checksum(jar)));
+	}
+
+	public void testIndexedPluginIsCreatedOnFirstUse() {
+		load();
+		CountingToolPlugin.instances.set(0);
+
+		load();
+
+		PluginDescriptor<GeneralToolPluginBase> descriptor = getDescriptor();
+		assertEquals("Counting Tool", descriptor.getDisplayName());
+		assertFalse(descriptor.isLoaded());
+		assertEquals(0, CountingToolPlugin.instances.get());
+
+		GeneralToolPluginBase plugin = descriptor.getPlugin();
+		assertTrue(plugin instanceof CountingToolPlugin);
+		assertSame(plugin, descriptor.getPlugin());
+		assertSame(plugin, getDescriptor().getPlugin());
+		assertEquals(1, CountingToolPlugin.instances.get());
+	}
+
+	public void testTouchedJarIsVerifiedByChecksum() {
+		load();
+		CountingToolPlugin.instances.set(0);
+
+		assertTrue(jar.setLastModified(jar.lastModified() - 60000));
+		load();
+
+		assertFalse(getDescriptor().isLoaded());
+		assertEquals(0, CountingToolPlugin.instances.get());
+
+		// The index now records the new modification time.
+		PluginIndex index = new PluginIndex(indexFile);
+		index.read(pluginDir);
+		assertFalse(index.get(jar.getName()).isStale(jar));
+	}
+
+	public void testChangedJarIsDescribedAgain() throws IOException {
+		load();
+		String checksum = getDescriptor().getChecksum();
+		CountingToolPlugin.instances.set(0);
+
+		writeJar("2");
+		jar.setLastModified(jar.lastModified() + 60000);
+		load();
+
+		PluginDescriptor<GeneralToolPluginBase> descriptor = getDescriptor();
+		assertTrue(descriptor.isLoaded());
+		assertEquals(1, CountingToolPlugin.instances.get());
+		assertFalse(checksum.equals(descriptor.getChecksum()));
+		assertEquals(PluginIndex.checksum(jar), descriptor.getChecksum());
+	}
+
+	public void testDeletedJarIsRemovedFromIndex() {
+		load();
+		assertTrue(jar.delete());
+
+		load();
+
+		assertTrue(PluginLoader.getGeneralToolPluginDescriptors().isEmpty());
+
+		PluginIndex index = new PluginIndex(indexFile);
+		index.read(pluginDir);
+		assertNull(index.get(jar.getName()));
+	}
+
+	public void testUnreadableIndexIsIgnored() throws IOException {
+		Files.write(indexFile.toPath(),
+				"not an index\n".getBytes(StandardCharsets.UTF_8));
+
+		load();
+
+		assertEquals("Counting Tool", getDescriptor().getDisplayName());
+	}
+
+	// Helpers
+
+	private void load() {
+		PluginLoader.loadPlugins(pluginDir, libDir, indexFile);
+		PluginLoader.awaitPlugins();
+	}
+
+	private PluginDescriptor<GeneralToolPluginBase> getDescriptor() {
+		List<PluginDescriptor<GeneralToolPluginBase>> descriptors = PluginLoader
+				.getGeneralToolPluginDescriptors();
+		assertEquals(1, descriptors.size());
+		return descriptors.get(0);
+	}
+
+	private void writeJar(String content) throws IOException {
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(
+				jar))) {
+			out.putNextEntry(new ZipEntry("content.txt"));
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+	}
+
+	/**
+	 * A general tool plugin that counts its instances.
+	 */
+	public static class CountingToolPlugin extends GeneralToolPluginBase {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		public CountingToolPlugin() {
+			instances.incrementAndGet();
+		}
+
+		@Override
+		public void invoke() {
+		}
+
+		@Override
+		public String getDescription() {
+			return "A tool that counts its instances";
+		}
+
+		@Override
+		public String getDisplayName() {
+			return "Counting Tool";
+		}
+	}
+}
@@ -0,0 +1,263 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.ui.task.ScheduledTask.Access;
+
+/**
+ * Task scheduler unit tests.
+ */
+public class TaskSchedulerTest extends TestCase {
+
+	private static final long TIMEOUT_SECONDS = 10;
+
+	private TaskScheduler scheduler;
+
+	private List<String> started;
+	private List<String> delivered;
+
+	public TaskSchedulerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		scheduler = new TaskScheduler(2);
+		started = Collections.synchronizedList(new ArrayList<String>());
+		delivered = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		scheduler.shutdown();
+	}
+
+	public void testConflicts() {
+		Object plugin = new Object();
+
+		TestTask reader1 = new TestTask("r1", Access.READ, null);
+		TestTask reader2 = new TestTask("r2", Access.READ, null);
+		TestTask writer = new TestTask("w", Access.WRITE, null);
+
+		assertFalse(reader1.conflictsWith(reader2));
+		assertTrue(reader1.conflictsWith(writer));
+		assertTrue(writer.conflictsWith(reader2));
+
+		reader1.declare(plugin, Access.WRITE);
+		assertFalse(reader1.conflictsWith(reader2));
+		reader2.declare(plugin, Access.WRITE);
+		assertTrue(reader1.conflictsWith(reader2));
+	}
+
+	public void testReadersRunConcurrently() throws Exception {
+		// Each reader waits for the other to start.
+		final CyclicBarrier barrier = new CyclicBarrier(2);
+
+		TestTask reader1 = new TestTask("r1", Access.READ, barrier);
+		TestTask reader2 = new TestTask("r2", Access.READ, barrier);
+
+		scheduler.submit(reader1);
+		scheduler.submit(reader2);
+
+		awaitDelivery(2);
+
+		assertEquals(Boolean.TRUE, reader1.get());
+		assertEquals(Boolean.TRUE, reader2.get());
+	}
+
+	public void testWriterRunsAlone() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+
+		TestTask reader1 = new TestTask("r1", Access.READ, gate);
+		TestTask writer = new TestTask("w", Access.WRITE, null);
+		TestTask reader2 = new TestTask("r2", Access.READ, null);
+
+		scheduler.submit(reader1);
+		scheduler.submit(writer);
+		scheduler.submit(reader2);
+
+		// The writer waits for the first reader and the second reader waits
+		// for the writer, although there is a free worker.
+		awaitStarted(1);
+		Thread.sleep(100);
+		assertEquals(Arrays.asList("r1"), started);
+		assertTrue(scheduler.isWritePending(ScheduledTask.DOCUMENT));
+		assertFalse(scheduler.isOnlyReading(ScheduledTask.DOCUMENT));
+
+		gate.countDown();
+		awaitDelivery(3);
+
+		assertEquals(Arrays.asList("r1", "w", "r2"), started);
+		assertFalse(scheduler.hasActiveTasks());
+	}
+
+	public void testResultsDeliveredInSubmissionOrder() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+
+		TestTask slow = new TestTask("slow", Access.READ, gate);
+		TestTask fast = new TestTask("fast", Access.READ, null);
+
+		scheduler.submit(slow);
+		scheduler.submit(fast);
+
+		fast.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		Thread.sleep(100);
+		assertTrue(delivered.isEmpty());
+		assertTrue(scheduler.isOnlyReading(ScheduledTask.DOCUMENT));
+
+		gate.countDown();
+		awaitDelivery(2);
+
+		assertEquals(Arrays.asList("slow", "fast"), delivered);
+	}
+
+	public void testCancelWaitingTask() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+
+		TestTask writer1 = new TestTask("w1", Access.WRITE, gate);
+		TestTask writer2 = new TestTask("w2", Access.WRITE, null);
+
+		scheduler.submit(writer1);
+		scheduler.submit(writer2);
+
+		awaitStarted(1);
+		scheduler.cancel(writer2);
+		assertTrue(writer2.isCancelled());
+
+		gate.countDown();
+		scheduler.awaitCompletion();
+		awaitDelivery(2);
+
+		assertEquals(Arrays.asList("w1"), started);
+		assertEquals(Arrays.asList("w1", "w2"), delivered);
+	}
+
+	public void testCancelRunningTask() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+
+		TestTask writer1 = new TestTask("w1", Access.WRITE, gate);
+		TestTask writer2 = new TestTask("w2", Access.WRITE, null);
+
+		scheduler.submit(writer1);
+		scheduler.submit(writer2);
+
+		awaitStarted(1);
+		scheduler.cancelAll();
+		awaitDelivery(2);
+
+		assertTrue(writer1.isCancelled());
+		long end = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000;
+		while (!writer1.interrupted && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertTrue(writer1.interrupted);
+		assertEquals(Arrays.asList("w1"), started);
+	}
+
+	public void testAwaitCompletionInEventDispatchThread() throws Exception {
+		final TestTask writer1 = new TestTask("w1", Access.WRITE, null);
+		final TestTask writer2 = new TestTask("w2", Access.WRITE, null);
+
+		// The second writer must not wait for delivery of the first's
+		// results, which cannot happen until the wait is over.
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				scheduler.submit(writer1);
+				scheduler.submit(writer2);
+				scheduler.awaitCompletion();
+				assertTrue(writer2.isDone());
+				assertTrue(delivered.isEmpty());
+			}
+		});
+
+		awaitDelivery(2);
+		assertEquals(Arrays.asList("w1", "w2"), started);
+	}
+
+	// Helpers
+
+	private void awaitStarted(int n) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000;
+		while (started.size() < n && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertEquals(n, started.size());
+	}
+
+	private void awaitDelivery(int n) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT_SECONDS * 1000;
+		while (delivered.size() < n && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertEquals(n, delivered.size());
+	}
+
+	// A task that records when it starts and when its results are delivered,
+	// optionally waiting for a latch or barrier while it runs.
+	private class TestTask extends ScheduledTask<Boolean, Void> {
+
+		private final String name;
+		private final Object gate;
+
+		private volatile boolean interrupted;
+
+		TestTask(String name, Access access, Object gate) {
+			this.name = name;
+			this.gate = gate;
+			declare(DOCUMENT, access);
+		}
+
+		@Override
+		protected Boolean doInBackground() throws Exception {
+			started.add(name);
+
+			try {
+				if (gate instanceof CountDownLatch) {
+					((CountDownLatch) gate).await(TIMEOUT_SECONDS,
+							TimeUnit.SECONDS);
+				} else if (gate instanceof CyclicBarrier) {
+					((CyclicBarrier) gate).await(TIMEOUT_SECONDS,
+							TimeUnit.SECONDS);
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+				throw e;
+			}
+
+			return true;
+		}
+
+		@Override
+		protected void finished() {
+			delivered.add(name);
+		}
+	}
+}
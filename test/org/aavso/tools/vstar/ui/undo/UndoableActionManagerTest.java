@@ -0,0 +1,154 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.undo;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Stack;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.ui.mediator.message.ExcludedObservationMessage;
+import org.aavso.tools.vstar.ui.mediator.message.UndoableActionType;
+
+/**
+ * Undoable action manager unit tests, in particular of the memory retained by
+ * observation exclusion actions.
+ */
+public class UndoableActionManagerTest extends TestCase {
+
+	private static final int N = 500000;
+
+	public UndoableActionManagerTest(String name) {
+		super(name);
+	}
+
+	public void testRowExclusionRecordsAreCompact() {
+		List<ValidObservation> obs = createObs(N);
+
+		BitSet rows = new BitSet(N);
+		rows.set(0, N, true);
+		rows.clear(N / 2);
+
+		ObservationExclusionAction rowAction = new ObservationExclusionAction(
+				obs, rows, true);
+		assertEquals(N - 1, rowAction.getObservationCount());
+
+		List<ValidObservation> selected = new ArrayList<ValidObservation>(obs);
+		selected.remove(N / 2);
+		ObservationExclusionAction listAction = new ObservationExclusionAction(
+				selected, true);
+		assertEquals(N - 1, listAction.getObservationCount());
+
+		// A bit rather than a reference per observation.
+		assertTrue(rowAction.getMemorySize() <= N / 8 + 8);
+		assertTrue(listAction.getMemorySize() >= (long) (N - 1) * 8);
+	}
+
+	public void testExclusionMessageYieldsObservationsInRowOrder() {
+		List<ValidObservation> obs = createObs(100);
+
+		BitSet rows = new BitSet();
+		rows.set(3);
+		rows.set(10, 20);
+		rows.set(99);
+
+		ExcludedObservationMessage msg = new ExcludedObservationMessage(obs,
+				rows, true, this);
+
+		assertTrue(msg.isExcluded());
+		assertEquals(12, msg.getObservationCount());
+
+		List<ValidObservation> msgObs = msg.getObservations();
+		assertEquals(12, msgObs.size());
+		assertSame(obs.get(3), msgObs.get(0));
+		assertSame(obs.get(10), msgObs.get(1));
+		assertSame(obs.get(99), msgObs.get(11));
+	}
+
+	public void testStacksAreTrimmedToBudget() {
+		Stack<IUndoableAction> undoStack = new Stack<IUndoableAction>();
+		Stack<IUndoableAction> redoStack = new Stack<IUndoableAction>();
+
+		for (int i = 0; i < 10; i++) {
+			undoStack.add(new SizedAction(1000));
+		}
+		redoStack.add(new SizedAction(1000));
+		redoStack.add(new SizedAction(1000));
+
+		IUndoableAction latestUndo = undoStack.peek();
+		IUndoableAction latestRedo = redoStack.peek();
+
+		UndoableActionManager.trimToBudget(undoStack, redoStack, 5000);
+
+		assertEquals(5000, totalSize(undoStack) + totalSize(redoStack));
+		assertSame(latestUndo, undoStack.peek());
+		assertSame(latestRedo, redoStack.peek());
+
+		// The most recent actions are kept whatever their size.
+		UndoableActionManager.trimToBudget(undoStack, redoStack, 0);
+
+		assertEquals(1, undoStack.size());
+		assertEquals(1, redoStack.size());
+		assertSame(latestUndo, undoStack.peek());
+		assertSame(latestRedo, redoStack.peek());
+	}
+
+	// Helpers
+
+	private List<ValidObservation> createObs(int n) {
+		List<ValidObservation> obs = new ArrayList<ValidObservation>(n);
+		for (int i = 0; i < n; i++) {
+			obs.add(new ValidObservation());
+		}
+		return obs;
+	}
+
+	private long totalSize(Stack<IUndoableAction> stack) {
+		long size = 0;
+		for (IUndoableAction action : stack) {
+			size += action.getMemorySize();
+		}
+		return size;
+	}
+
+	private static class SizedAction implements IUndoableAction {
+		private long size;
+
+		SizedAction(long size) {
+			this.size = size;
+		}
+
+		@Override
+		public boolean execute(UndoableActionType type) {
+			return true;
+		}
+
+		@Override
+		public String getDisplayString() {
+			return "sized action";
+		}
+
+		@Override
+		public long getMemorySize() {
+			return size;
+		}
+	}
+}
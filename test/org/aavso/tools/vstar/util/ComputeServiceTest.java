@@ -0,0 +1,194 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import junit.framework.TestCase;
+
+/**
+ * Compute service unit tests.
+ */
+public class ComputeServiceTest extends TestCase {
+
+	private ComputeService service;
+
+	public ComputeServiceTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		service = ComputeService.getInstance();
+	}
+
+	public void testForEachChunkVisitsEachIndexOnce() {
+		final int n = 100003;
+		final AtomicIntegerArray visits = new AtomicIntegerArray(n);
+
+		service.forEachChunk(n, 1000, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				visits.incrementAndGet(i);
+			}
+		});
+
+		for (int i = 0; i < n; i++) {
+			assertEquals(1, visits.get(i));
+		}
+	}
+
+	public void testForEachFrequency() throws Exception {
+		final int n = 1001;
+		final double[] freqs = new double[n];
+
+		service.forEachFrequency(new CancellationToken(), 0.5, 0.001, n,
+				(i, freq) -> freqs[i] = freq);
+
+		for (int i = 0; i < n; i++) {
+			assertEquals(0.5 + i * 0.001, freqs[i], 0.0);
+		}
+	}
+
+	public void testNestedUse() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+
+		service.forEachIndex(new CancellationToken(), 16, i -> {
+			service.forEachChunk(10000, 100, (from, to) -> {
+				count.addAndGet(to - from);
+			});
+		});
+
+		assertEquals(160000, count.get());
+	}
+
+	public void testTokenIsCurrentInChunks() throws Exception {
+		final CancellationToken token = new CancellationToken();
+		final AtomicInteger mismatches = new AtomicInteger();
+
+		service.forEachIndex(token, 1000, i -> {
+			if (CancellationToken.current() != token) {
+				mismatches.incrementAndGet();
+			}
+		});
+
+		assertEquals(0, mismatches.get());
+	}
+
+	public void testCancellationSkipsRemainingChunks() {
+		final CancellationToken token = new CancellationToken();
+		final AtomicInteger count = new AtomicInteger();
+
+		try {
+			service.forEachChunk(token, 1000, 1, (from, to) -> {
+				if (count.incrementAndGet() == 10) {
+					token.cancel();
+				}
+			});
+			fail();
+		} catch (InterruptedException e) {
+			// Expected.
+		}
+
+		assertTrue(count.get() < 1000);
+	}
+
+	public void testActionInterruptionCancels() {
+		CancellationToken token = new CancellationToken();
+
+		try {
+			service.forEachIndex(token, 100, i -> {
+				throw new InterruptedException();
+			});
+			fail();
+		} catch (InterruptedException e) {
+			assertTrue(token.isCancelled());
+		}
+	}
+
+	public void testErrorIsPropagated() {
+		try {
+			service.forEachChunk(10000, 10, (from, to) -> {
+				if (from == 5000) {
+					throw new IllegalArgumentException("bad chunk");
+				}
+			});
+			fail();
+		} catch (IllegalArgumentException e) {
+			// The exception may be rethrown as a copy by the pool.
+			assertTrue(e.getMessage().contains("bad chunk"));
+		}
+	}
+
+	public void testSubmit() throws Exception {
+		CancellationToken token = new CancellationToken();
+
+		Future<Integer> result = service.submit(token, () -> 42);
+		assertEquals(42, result.get().intValue());
+
+		token.cancel();
+		Future<Integer> skipped = service.submit(token, () -> 42);
+		try {
+			skipped.get();
+			fail();
+		} catch (ExecutionException e) {
+			// Expected.
+		}
+	}
+
+	public void testSetParallelism() {
+		int parallelism = service.getParallelism();
+
+		try {
+			service.setParallelism(3);
+			assertEquals(3, service.getParallelism());
+
+			final AtomicInteger count = new AtomicInteger();
+			service.forEachChunk(1000, 10, (from, to) -> count.addAndGet(to
+					- from));
+			assertEquals(1000, count.get());
+		} finally {
+			service.setParallelism(parallelism);
+		}
+	}
+
+	public void testNonPositiveParallelismPropertyIsIgnored() {
+		String property = System.getProperty(ComputeService.PARALLELISM_PROPERTY);
+		int processors = Runtime.getRuntime().availableProcessors();
+
+		try {
+			System.setProperty(ComputeService.PARALLELISM_PROPERTY, "2");
+			assertEquals(2, ComputeService.defaultParallelism());
+
+			System.setProperty(ComputeService.PARALLELISM_PROPERTY, "0");
+			assertEquals(processors, ComputeService.defaultParallelism());
+
+			System.setProperty(ComputeService.PARALLELISM_PROPERTY, "-4");
+			assertEquals(processors, ComputeService.defaultParallelism());
+		} finally {
+			if (property != null) {
+				System.setProperty(ComputeService.PARALLELISM_PROPERTY,
+						property);
+			} else {
+				System.clearProperty(ComputeService.PARALLELISM_PROPERTY);
+			}
+		}
+	}
+}
@@ -0,0 +1,529 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+
+/**
+ * <p>
+ * A deterministic synthetic light curve of any size, for use by benchmarks
+ * and tests that need more data than the small data classes in this package.
+ * The same configuration and seed always yield the same curve.
+ * </p>
+ * <p>
+ * The curve is a sum of sinusoids sampled at slightly jittered times in
+ * increasing JD order, by default in the Visual band with Gaussian noise.
+ * Optionally, observing seasons may be separated by gaps, points may be
+ * spread over several bands, a fraction may be flagged as discrepant, and a
+ * fraction of the noise may be drawn from a wider outlier distribution.
+ * </p>
+ * <p>
+ * Points are generated one at a time, so curves of any size may be written
+ * in AAVSO download format, simple format or as a FITS binary table without
+ * being held in memory. Usage:
+ * </p>
+ * 
+ * <pre>
+ * SyntheticLightCurve download|simple|fits points file [seed]
+ * </pre>
+ * 
+ * <p>
+ * writes a multi-band, multi-periodic survey-like curve (see
+ * createSurveyCurve()) to the file; about 12 million points yield a 1 GB
+ * download format file.
+ * </p>
+ */
+public class SyntheticLightCurve {
+
+	public static final double START_JD = 2450000.0;
+
+	// Mean time between observations, in days.
+	public static final double CADENCE = 0.05;
+
+	public static final double MEAN_MAG = 10.0;
+	public static final double[] PERIODS = { 123.4, 17.3 };
+	public static final double[] AMPLITUDES = { 1.5, 0.3 };
+	public static final double NOISE_SIGMA = 0.05;
+
+	public static final String OBSCODE = "SYN";
+	public static final String NAME = "SYNTHETIC";
+
+	// The FITS block size in bytes and the bytes per binary table row:
+	// TIME, MAG and MAG_ERR as doubles, BAND and QUALITY as ints.
+	private static final int FITS_BLOCK = 2880;
+	private static final int FITS_ROW = 3 * 8 + 2 * 4;
+
+	/**
+	 * A consumer of generated points.
+	 */
+	public interface PointConsumer {
+		void accept(double jd, double mag, double uncertainty,
+				SeriesType band, boolean discrepant) throws IOException;
+	}
+
+	private final int points;
+	private final long seed;
+
+	private double meanMag;
+	private double[] periods;
+	private double[] amplitudes;
+
+	private SeriesType[] bands;
+	private double[] bandOffsets;
+
+	private double seasonLength;
+	private double gapLength;
+
+	private double discrepantFraction;
+
+	private double noiseSigma;
+	private double outlierFraction;
+	private double outlierSigma;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param points
+	 *            The number of points.
+	 * @param seed
+	 *            The seed of the random number generator.
+	 */
+	public SyntheticLightCurve(int points, long seed) {
+		this.points = points;
+		this.seed = seed;
+
+		setSignal(MEAN_MAG, PERIODS, AMPLITUDES);
+		setBands(new SeriesType[] { SeriesType.Visual }, new double[] { 0 });
+		setSeasonalGaps(0, 0);
+		setDiscrepantFraction(0);
+		setNoise(NOISE_SIGMA, 0, 0);
+	}
+
+	/**
+	 * Create a curve resembling a long-term survey of a multi-periodic star:
+	 * three periods, Visual, Johnson V and Johnson B bands, 240 day observing
+	 * seasons, 1% discrepant points and 0.5% noise outliers.
+	 * 
+	 * @param points
+	 *            The number of points.
+	 * @param seed
+	 *            The seed of the random number generator.
+	 * @return The curve.
+	 */
+	public static SyntheticLightCurve createSurveyCurve(int points, long seed) {
+		SyntheticLightCurve curve = new SyntheticLightCurve(points, seed);
+
+		curve.setSignal(MEAN_MAG, new double[] { 123.4, 17.3, 5.27 },
+				new double[] { 1.5, 0.3, 0.1 });
+		curve.setBands(new SeriesType[] { SeriesType.Visual,
+				SeriesType.Johnson_V, SeriesType.Johnson_B }, new double[] { 0,
+				0.05, 0.6 });
+		curve.setSeasonalGaps(240, 125);
+		curve.setDiscrepantFraction(0.01);
+		curve.setNoise(NOISE_SIGMA, 0.005, 1.0);
+
+		return curve;
+	}
+
+	/**
+	 * Set the periodic signal.
+	 * 
+	 * @param meanMag
+	 *            The mean magnitude.
+	 * @param periods
+	 *            The periods of the sinusoids, in days.
+	 * @param amplitudes
+	 *            The amplitudes of the sinusoids, in magnitudes.
+	 */
+	public void setSignal(double meanMag, double[] periods, double[] amplitudes) {
+		this.meanMag = meanMag;
+		this.periods = periods;
+		this.amplitudes = amplitudes;
+	}
+
+	/**
+	 * Set the bands over which points are spread uniformly at random.
+	 * 
+	 * @param bands
+	 *            The bands.
+	 * @param offsets
+	 *            The magnitude offset of each band from the mean magnitude.
+	 */
+	public void setBands(SeriesType[] bands, double[] offsets) {
+		this.bands = bands;
+		this.bandOffsets = offsets;
+	}
+
+	/**
+	 * Set observing seasons separated by gaps in which there are no points.
+	 * 
+	 * @param seasonLength
+	 *            The length of each season in days, or 0 for no gaps.
+	 * @param gapLength
+	 *            The length of each gap in days.
+	 */
+	public void setSeasonalGaps(double seasonLength, double gapLength) {
+		this.seasonLength = seasonLength;
+		this.gapLength = gapLength;
+	}
+
+	/**
+	 * @param fraction
+	 *            The fraction of points flagged as discrepant.
+	 */
+	public void setDiscrepantFraction(double fraction) {
+		this.discrepantFraction = fraction;
+	}
+
+	/**
+	 * Set the noise model: Gaussian noise, a fraction of which is drawn from
+	 * a wider distribution to give outliers.
+	 * 
+	 * @param sigma
+	 *            The standard deviation of the noise, also given as each
+	 *            point's uncertainty.
+	 * @param outlierFraction
+	 *            The fraction of points that are outliers.
+	 * @param outlierSigma
+	 *            The standard deviation of outliers' noise.
+	 */
+	public void setNoise(double sigma, double outlierFraction,
+			double outlierSigma) {
+		this.noiseSigma = sigma;
+		this.outlierFraction = outlierFraction;
+		this.outlierSigma = outlierSigma;
+	}
+
+	/**
+	 * @return The number of points.
+	 */
+	public int getPoints() {
+		return points;
+	}
+
+	/**
+	 * Generate the points in increasing JD order.
+	 * 
+	 * @param consumer
+	 *            The consumer of the points.
+	 */
+	public void generate(PointConsumer consumer) throws IOException {
+		Random random = new Random(seed);
+
+		for (int i = 0; i < points; i++) {
+			// Time within the observing seasons, then with gaps inserted.
+			double u = (i + 0.5 * random.nextDouble()) * CADENCE;
+			double t = START_JD + u;
+			if (seasonLength > 0) {
+				t += Math.floor(u / seasonLength) * gapLength;
+			}
+
+			int band = bands.length > 1 ? random.nextInt(bands.length) : 0;
+
+			double mag = meanMag + bandOffsets[band];
+			for (int j = 0; j < periods.length; j++) {
+				mag += amplitudes[j]
+						* Math.sin(2 * Math.PI * (t - START_JD) / periods[j]);
+			}
+
+			double sigma = noiseSigma;
+			if (outlierFraction > 0 && random.nextDouble() < outlierFraction) {
+				sigma = outlierSigma;
+			}
+			mag += sigma * random.nextGaussian();
+
+			boolean discrepant = discrepantFraction > 0
+					&& random.nextDouble() < discrepantFraction;
+
+			consumer.accept(t, Math.round(mag * 1000) / 1000.0, noiseSigma,
+					bands[band], discrepant);
+		}
+	}
+
+	/**
+	 * @return The Julian Days and magnitudes of the points, as a pair of
+	 *         arrays.
+	 */
+	public double[][] getTimesAndMagnitudes() {
+		final double[] times = new double[points];
+		final double[] mags = new double[points];
+		final int[] i = { 0 };
+
+		generateInMemory((jd, mag, uncertainty, band, discrepant) -> {
+			times[i[0]] = jd;
+			mags[i[0]++] = mag;
+		});
+
+		return new double[][] { times, mags };
+	}
+
+	/**
+	 * @return The points as observations.
+	 */
+	public List<ValidObservation> getObservations() {
+		final List<ValidObservation> obs = new ArrayList<ValidObservation>(
+				points);
+
+		generateInMemory((jd, mag, uncertainty, band, discrepant) -> {
+			ValidObservation ob = new ValidObservation();
+			ob.setDateInfo(new DateInfo(jd));
+			ob.setMagnitude(new Magnitude(mag, uncertainty));
+			ob.setBand(band);
+			ob.setDiscrepant(discrepant);
+			obs.add(ob);
+		});
+
+		return obs;
+	}
+
+	/**
+	 * @return The points in VStar's simple text format.
+	 */
+	public String toSimpleFormat() {
+		StringWriter writer = new StringWriter(points * 32);
+
+		try {
+			writeSimpleFormat(writer);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return writer.toString();
+	}
+
+	/**
+	 * Write the points in VStar's simple text format: JD, magnitude,
+	 * uncertainty, observer code and validation flag, comma separated.
+	 * 
+	 * @param writer
+	 *            The destination.
+	 */
+	public void writeSimpleFormat(final Writer writer) throws IOException {
+		final StringBuilder buf = new StringBuilder();
+
+		generate((jd, mag, uncertainty, band, discrepant) -> {
+			buf.setLength(0);
+			buf.append(jd).append(',');
+			buf.append(mag).append(',');
+			buf.append(uncertainty).append(',');
+			buf.append(OBSCODE).append(',');
+			buf.append(discrepant ? 'D' : 'G').append('\n');
+			writer.append(buf);
+		});
+
+		writer.flush();
+	}
+
+	/**
+	 * Write the points in AAVSO download format, tab separated.
+	 * 
+	 * @param writer
+	 *            The destination.
+	 */
+	public void writeDownloadFormat(final Writer writer) throws IOException {
+		final StringBuilder buf = new StringBuilder();
+
+		generate((jd, mag, uncertainty, band, discrepant) -> {
+			buf.setLength(0);
+			// JD, magnitude, uncertainty, HQ uncertainty, band, observer
+			// code, comment codes, comparison stars 1 and 2, chart,
+			// comments, transformed, airmass, validation flag, cmag, kmag,
+			// HJD, name, affiliation, measurement type, group, ADS
+			// reference, digitizer, credit.
+			buf.append(jd).append('\t');
+			buf.append(mag).append('\t');
+			buf.append(uncertainty).append('\t');
+			buf.append('\t');
+			buf.append(band.getShortName()).append('\t');
+			buf.append(OBSCODE).append('\t');
+			buf.append("\t\t\t\t\t");
+			buf.append("No").append('\t');
+			buf.append('\t');
+			buf.append(discrepant ? 'D' : 'G').append('\t');
+			buf.append("\t\t\t");
+			buf.append(NAME).append('\t');
+			buf.append('\t');
+			buf.append("STD").append('\t');
+			buf.append("\t\t\t\n");
+			writer.append(buf);
+		});
+
+		writer.flush();
+	}
+
+	/**
+	 * Write the points as a FITS file whose first extension is a binary table
+	 * with TIME, MAG, MAG_ERR, BAND (the band's index) and QUALITY (1 if
+	 * discrepant, otherwise 0) columns, one row per point.
+	 * 
+	 * @param stream
+	 *            The destination.
+	 */
+	public void writeFITS(OutputStream stream) throws IOException {
+		final DataOutputStream out = new DataOutputStream(stream);
+
+		List<String> primary = new ArrayList<String>();
+		primary.add(card("SIMPLE", "T"));
+		primary.add(card("BITPIX", "8"));
+		primary.add(card("NAXIS", "0"));
+		primary.add(card("EXTEND", "T"));
+		primary.add(card("OBJECT", "'" + NAME + "'"));
+		writeFITSHeader(out, primary);
+
+		List<String> table = new ArrayList<String>();
+		table.add(card("XTENSION", "'BINTABLE'"));
+		table.add(card("BITPIX", "8"));
+		table.add(card("NAXIS", "2"));
+		table.add(card("NAXIS1", Integer.toString(FITS_ROW)));
+		table.add(card("NAXIS2", Integer.toString(points)));
+		table.add(card("PCOUNT", "0"));
+		table.add(card("GCOUNT", "1"));
+		table.add(card("TFIELDS", "5"));
+		String[][] columns = { { "TIME", "1D" }, { "MAG", "1D" },
+				{ "MAG_ERR", "1D" }, { "BAND", "1J" }, { "QUALITY", "1J" } };
+		for (int i = 0; i < columns.length; i++) {
+			table.add(card("TTYPE" + (i + 1), "'" + columns[i][0] + "'"));
+			table.add(card("TFORM" + (i + 1), "'" + columns[i][1] + "'"));
+		}
+		table.add(card("TUNIT1", "'d'"));
+		writeFITSHeader(out, table);
+
+		generate((jd, mag, uncertainty, band, discrepant) -> {
+			out.writeDouble(jd);
+			out.writeDouble(mag);
+			out.writeDouble(uncertainty);
+			out.writeInt(bandIndex(band));
+			out.writeInt(discrepant ? 1 : 0);
+		});
+
+		pad(out, (long) points * FITS_ROW, 0);
+		out.flush();
+	}
+
+	/**
+	 * Write a survey-like curve (see createSurveyCurve()) to a file.
+	 * 
+	 * @param args
+	 *            The format (download, simple or fits), the number of points,
+	 *            the file and optionally the seed.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err
+					.println("Usage: SyntheticLightCurve download|simple|fits points file [seed]");
+			System.exit(1);
+		}
+
+		String format = args[0];
+		int points = Integer.parseInt(args[1]);
+		String path = args[2];
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+		SyntheticLightCurve curve = createSurveyCurve(points, seed);
+
+		if ("fits".equals(format)) {
+			try (OutputStream out = new BufferedOutputStream(
+					new FileOutputStream(path), 1 << 16)) {
+				curve.writeFITS(out);
+			}
+		} else {
+			try (Writer writer = new BufferedWriter(new FileWriter(path),
+					1 << 16)) {
+				if ("download".equals(format)) {
+					curve.writeDownloadFormat(writer);
+				} else {
+					curve.writeSimpleFormat(writer);
+				}
+			}
+		}
+	}
+
+	// Helpers
+
+	// Generate points into memory, where no I/O can fail.
+	private void generateInMemory(PointConsumer consumer) {
+		try {
+			generate(consumer);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private int bandIndex(SeriesType band) {
+		for (int i = 0; i < bands.length; i++) {
+			if (bands[i] == band) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// A FITS header card in fixed format: string values (quoted, at least 8
+	// characters) start in column 11, other values end in column 30.
+	private static String card(String keyword, String value) {
+		String card;
+		if (value.startsWith("'")) {
+			String text = value.substring(1, value.length() - 1);
+			card = String.format("%-8s= '%-8s'", keyword, text);
+		} else {
+			card = String.format("%-8s= %20s", keyword, value);
+		}
+		return String.format("%-80s", card);
+	}
+
+	private static void writeFITSHeader(DataOutputStream out,
+			List<String> cards) throws IOException {
+		cards.add(String.format("%-80s", "END"));
+
+		long length = 0;
+		for (String card : cards) {
+			out.write(card.getBytes(StandardCharsets.US_ASCII));
+			length += card.length();
+		}
+
+		pad(out, length, ' ');
+	}
+
+	// Pad a header or data unit to a whole number of FITS blocks.
+	private static void pad(DataOutputStream out, long length, int fill)
+			throws IOException {
+		long remainder = length % FITS_BLOCK;
+		if (remainder != 0) {
+			for (long i = remainder; i < FITS_BLOCK; i++) {
+				out.write(fill);
+			}
+		}
+	}
+}
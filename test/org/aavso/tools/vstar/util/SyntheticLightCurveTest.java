@@ -0,0 +1,133 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.input.text.ObservationSourceAnalyser;
+import org.aavso.tools.vstar.input.text.TextFormatObservationReader;
+
+/**
+ * Synthetic light curve generator unit tests.
+ */
+public class SyntheticLightCurveTest extends TestCase {
+
+	private static final int POINTS = 20000;
+
+	public SyntheticLightCurveTest(String name) {
+		super(name);
+	}
+
+	public void testDeterministic() {
+		String first = SyntheticLightCurve.createSurveyCurve(1000, 42)
+				.toSimpleFormat();
+		String second = SyntheticLightCurve.createSurveyCurve(1000, 42)
+				.toSimpleFormat();
+		String other = SyntheticLightCurve.createSurveyCurve(1000, 43)
+				.toSimpleFormat();
+
+		assertEquals(first, second);
+		assertFalse(first.equals(other));
+	}
+
+	public void testSurveyCurve() {
+		List<ValidObservation> obs = SyntheticLightCurve.createSurveyCurve(
+				POINTS, 1).getObservations();
+
+		assertEquals(POINTS, obs.size());
+
+		Set<SeriesType> bands = new HashSet<SeriesType>();
+		int discrepant = 0;
+		double previousJD = 0;
+
+		for (ValidObservation ob : obs) {
+			bands.add(ob.getBand());
+
+			if (ob.isDiscrepant()) {
+				discrepant++;
+			}
+
+			// In order and outside the gaps between 240 day seasons.
+			assertTrue(ob.getJD() > previousJD);
+			previousJD = ob.getJD();
+			assertTrue((ob.getJD() - SyntheticLightCurve.START_JD) % 365 < 240);
+		}
+
+		assertEquals(3, bands.size());
+		assertTrue(discrepant > POINTS * 0.005 && discrepant < POINTS * 0.015);
+	}
+
+	public void testDownloadFormatIsReadable() throws Exception {
+		SyntheticLightCurve curve = SyntheticLightCurve.createSurveyCurve(
+				1000, 1);
+
+		StringWriter writer = new StringWriter();
+		curve.writeDownloadFormat(writer);
+		String content = writer.toString();
+
+		ObservationSourceAnalyser analyser = new ObservationSourceAnalyser(
+				new LineNumberReader(new StringReader(content)), "synthetic");
+		analyser.analyse();
+
+		TextFormatObservationReader reader = new TextFormatObservationReader(
+				new LineNumberReader(new StringReader(content)), analyser, "");
+		reader.retrieveObservations();
+
+		List<ValidObservation> expected = curve.getObservations();
+		List<ValidObservation> actual = reader.getValidObservations();
+
+		assertEquals(expected.size(), actual.size());
+
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getJD(), actual.get(i).getJD(), 1e-9);
+			assertEquals(expected.get(i).getMag(), actual.get(i).getMag(),
+					1e-9);
+			assertEquals(expected.get(i).getBand(), actual.get(i).getBand());
+			assertEquals(expected.get(i).isDiscrepant(), actual.get(i)
+					.isDiscrepant());
+		}
+	}
+
+	public void testFITS() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SyntheticLightCurve.createSurveyCurve(1000, 1).writeFITS(out);
+		byte[] bytes = out.toByteArray();
+
+		// Primary header, table header and 1000 rows of 32 bytes, each
+		// padded to a whole number of 2880 byte blocks.
+		assertEquals(2880 + 2880 + 12 * 2880, bytes.length);
+
+		String header = new String(bytes, 0, 2 * 2880,
+				StandardCharsets.US_ASCII);
+		assertTrue(header.startsWith("SIMPLE  =                    T"));
+		assertEquals(2880, header.indexOf("XTENSION= 'BINTABLE'"));
+		assertTrue(header.contains("NAXIS2  =                 1000"));
+		assertTrue(header.contains("TTYPE5  = 'QUALITY '"));
+	}
+}
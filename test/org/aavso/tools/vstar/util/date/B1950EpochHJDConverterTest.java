@@ -73,6 +73,30 @@ public class B1950EpochHJDConverterTest extends TestCase {
 		assertEquals(getNumToPrecision(2445239.39422482, PRECISION), hjdStr);
 	}
 
+	public void testBatchConversion() {
+		RAInfo ra = new RAInfo(EpochType.B1950, 15, 2, 3.6);
+		DecInfo dec = new DecInfo(EpochType.B1950, -25, 45, 3);
+
+		double[] jds = new double[5000];
+		for (int i = 0; i < jds.length; i++) {
+			jds[i] = JD + i * 0.25;
+		}
+
+		double[] hjds = converter.convert(jds, ra, dec);
+
+		assertEquals(getNumToPrecision(2445239.39611801, PRECISION),
+				getNumToPrecision(hjds[0], PRECISION));
+
+		double[] corrections = converter.corrections(jds, ra, dec);
+
+		for (int i = 0; i < jds.length; i++) {
+			double expected = converter.correction(jds[i], ra, dec);
+			assertEquals(expected, corrections[i],
+					AbstractHJDConverter.INTERPOLATION_ERROR_BOUND);
+			assertEquals(jds[i] + corrections[i], hjds[i]);
+		}
+	}
+
 	// Helpers
 
 	private String getNumToPrecision(double n, int precision) {
@@ -0,0 +1,214 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.util.date;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.util.coords.DecInfo;
+import org.aavso.tools.vstar.util.coords.EpochType;
+import org.aavso.tools.vstar.util.coords.RAInfo;
+
+/**
+ * BarycentricTimeConverter unit tests.
+ */
+public class BarycentricTimeConverterTest extends TestCase {
+
+	private final static double MEEUS_EX25b_JD = 2448908.5;
+
+	private final static double SECS_PER_DAY = 86400.0;
+
+	private BarycentricTimeConverter converter;
+
+	public BarycentricTimeConverterTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		converter = BarycentricTimeConverter.getInstance();
+	}
+
+	// Time scales
+
+	public void testTAIMinusUTCLatest() {
+		// 2017-01-01 onwards
+		assertEquals(37.0, converter.taiMinusUTC(2459000.5));
+	}
+
+	public void testTAIMinusUTCBeforeAndAfterLeapSecond() {
+		// 2009-01-01
+		assertEquals(33.0, converter.taiMinusUTC(2454832.4));
+		assertEquals(34.0, converter.taiMinusUTC(2454832.5));
+	}
+
+	public void testTAIMinusUTCFirstLeapSecond() {
+		// 1972-01-01
+		assertEquals(10.0, converter.taiMinusUTC(2441317.5));
+	}
+
+	public void testTAIMinusUTCPre1972() {
+		// 1970-01-01, MJD 40587: 4.2131700 + (40587 - 39126) * 0.002592
+		assertEquals(8.0000820, converter.taiMinusUTC(2440587.5), 1e-6);
+	}
+
+	public void testTTMinusUTC() {
+		assertEquals(69.184, converter.ttMinusUTC(2459000.5), 1e-9);
+	}
+
+	public void testTDBMinusTTBounded() {
+		for (double jd = 2451545.0; jd < 2451545.0 + 365.25; jd += 10) {
+			assertTrue(Math.abs(converter.tdbMinusTT(jd)) <= 0.001671);
+		}
+	}
+
+	// Ephemeris
+
+	public void testEarthSunDistanceEx25b() {
+		// Meeus Example 25.b: R = 0.99760775 AU (VSOP87)
+		double[] pos = new double[3];
+		converter.earthHeliocentricPosition(MEEUS_EX25b_JD, pos);
+		assertEquals(0.99760775, norm(pos), 5e-5);
+	}
+
+	public void testEarthHeliocentricLongitudeEx25b() {
+		// Meeus Example 25.b: Earth's heliocentric longitude 19.907372
+		// degrees referred to the equinox of date, i.e. ~20.0084 degrees
+		// referred to J2000.0 after removing 7.25 years of precession.
+		double[] pos = new double[3];
+		converter.earthHeliocentricPosition(MEEUS_EX25b_JD, pos);
+		double eps = Math.toRadians(23.43928);
+		double y = Math.cos(eps) * pos[1] + Math.sin(eps) * pos[2];
+		double lon = Math.toDegrees(Math.atan2(y, pos[0]));
+		assertEquals(20.0084, lon, 0.002);
+	}
+
+	public void testSunBarycentreOffsetBounded() {
+		// The Sun never strays further than ~0.0102 AU from the barycentre.
+		double[] helio = new double[3];
+		double[] bary = new double[3];
+		for (double jd = 2415020.0; jd < 2469807.0; jd += 97.0) {
+			converter.earthHeliocentricPosition(jd, helio);
+			converter.earthBarycentricPosition(jd, bary);
+			double dx = bary[0] - helio[0];
+			double dy = bary[1] - helio[1];
+			double dz = bary[2] - helio[2];
+			assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz) < 0.0102);
+		}
+	}
+
+	// Conversions
+
+	public void testUTCToBJDBounded() {
+		// The barycentric correction cannot exceed ~8.6 minutes (1.0167 AU
+		// plus the Sun's offset from the barycentre).
+		double ra = 83.63;
+		double dec = 22.01;
+		for (double jd = 2450000.0; jd < 2460000.0; jd += 123.4) {
+			double bjd = converter.utcToBJD(jd, ra, dec);
+			double corr = (bjd - jd) * SECS_PER_DAY
+					- converter.ttMinusUTC(jd);
+			assertTrue(Math.abs(corr) < 8.6 * 60);
+		}
+	}
+
+	public void testUTCToBJDEclipticPole() {
+		// Looking along the ecliptic pole, the Roemer delay is only due to
+		// the Sun's offset from the barycentre and so is less than ~5.1s.
+		double ra = 270.0;
+		double dec = 66.56071;
+		for (double jd = 2450000.0; jd < 2460000.0; jd += 123.4) {
+			double bjd = converter.utcToBJD(jd, ra, dec);
+			double corr = (bjd - jd) * SECS_PER_DAY
+					- converter.ttMinusUTC(jd);
+			assertTrue(Math.abs(corr) < 5.1);
+		}
+	}
+
+	public void testHJDToBJDBounded() {
+		// HJD and BJD differ by the time scale offset and the Sun's offset
+		// from the barycentre.
+		double ra = 123.4;
+		double dec = -33.2;
+		for (double hjd = 2450000.0; hjd < 2460000.0; hjd += 123.4) {
+			double bjd = converter.hjdToBJD(hjd, ra, dec);
+			double corr = (bjd - hjd) * SECS_PER_DAY
+					- converter.ttMinusUTC(hjd);
+			assertTrue(Math.abs(corr) < 5.1);
+		}
+	}
+
+	public void testAgreesWithMeeusHJD() {
+		// The heliocentric part of the correction agrees with the low
+		// accuracy Meeus HJD converter to within its own precision.
+		double ra = 123.4;
+		double dec = -33.2;
+		AbstractHJDConverter hjdConverter = AbstractHJDConverter
+				.getInstance(EpochType.J2000);
+		for (double jd = 2450000.0; jd < 2460000.0; jd += 537.3) {
+			double hjd = hjdConverter.convert(jd, new RAInfo(EpochType.J2000,
+					ra), new DecInfo(EpochType.J2000, dec));
+			double viaHJD = converter.hjdToBJD(hjd, ra, dec);
+			double viaJD = converter.utcToBJD(jd, ra, dec);
+			assertEquals(0, (viaHJD - viaJD) * SECS_PER_DAY, 10.0);
+		}
+	}
+
+	public void testHJDRoundTrip() {
+		// An HJD computed from the converter's own ephemeris converts to
+		// the same BJD as the originating JD.
+		double ra = 10.68;
+		double dec = 41.27;
+		double jd = 2458000.25;
+		double[] pos = new double[3];
+		double jdTT = jd + converter.ttMinusUTC(jd) / SECS_PER_DAY;
+		converter.earthHeliocentricPosition(jdTT, pos);
+		double r = Math.toRadians(ra);
+		double d = Math.toRadians(dec);
+		double hjd = jd
+				+ (pos[0] * Math.cos(d) * Math.cos(r) + pos[1] * Math.cos(d)
+						* Math.sin(r) + pos[2] * Math.sin(d))
+				* BarycentricTimeConverter.AU_LIGHT_TIME_DAYS;
+
+		assertEquals(converter.utcToBJD(jd, ra, dec),
+				converter.hjdToBJD(hjd, ra, dec), 1e-8);
+	}
+
+	public void testArrayMatchesScalar() {
+		double ra = 299.59;
+		double dec = 35.20;
+		double[] jds = new double[10000];
+		for (int i = 0; i < jds.length; i++) {
+			jds[i] = 2455000.0 + i * 0.37;
+		}
+
+		double[] bjds = converter.utcToBJD(jds, ra, dec);
+		double[] bjdsFromHJDs = converter.hjdToBJD(jds, ra, dec);
+
+		for (int i = 0; i < jds.length; i += 97) {
+			assertEquals(converter.utcToBJD(jds[i], ra, dec), bjds[i], 1e-12);
+			assertEquals(converter.hjdToBJD(jds[i], ra, dec),
+					bjdsFromHJDs[i], 1e-12);
+		}
+	}
+
+	// Helpers
+
+	private double norm(double[] v) {
+		return Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+	}
+}
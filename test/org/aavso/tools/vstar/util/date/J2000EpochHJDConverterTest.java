@@ -321,7 +321,76 @@ public class J2000EpochHJDConverterTest extends TestCase {
 		// 2457501.868574388.
 		assertEquals("2457501.86857", getNumToPrecision(hjd, 5));
 	}
-	
+
+	// Batch conversion
+
+	public void testBatchConversionInterpolated() {
+		RAInfo ra = new RAInfo(EpochType.J2000, 10, 44, 22.5);
+		DecInfo dec = new DecInfo(EpochType.J2000, -60, 20, 13);
+
+		// Irregularly spaced JDs, many per night, over ~5.5 years.
+		double[] jds = new double[20000];
+		for (int i = 0; i < jds.length; i++) {
+			jds[i] = JD2 + i * 0.1 + 0.03 * Math.sin(i);
+		}
+
+		double[] corrections = converter.corrections(jds, ra, dec);
+		double[] hjds = converter.convert(jds, ra, dec);
+
+		// Corrections are compared since adding one to a JD rounds the sum
+		// to ~4.7e-10 days.
+		for (int i = 0; i < jds.length; i++) {
+			double expected = converter.correction(jds[i], ra, dec);
+			assertEquals(expected, corrections[i],
+					AbstractHJDConverter.INTERPOLATION_ERROR_BOUND);
+			assertEquals(jds[i] + corrections[i], hjds[i]);
+		}
+	}
+
+	public void testBatchConversionDirect() {
+		RAInfo ra = new RAInfo(EpochType.J2000, 21, 8, 46.84);
+		DecInfo dec = new DecInfo(EpochType.J2000, -88, 57, 23.40);
+
+		// Fewer JDs than grid points, so converted directly.
+		double[] jds = { MEEUS_EX24a_JD, JD2 };
+
+		double[] hjds = converter.convert(jds, ra, dec);
+
+		assertEquals("2448908.49927", getNumToPrecision(hjds[0], 5));
+		assertEquals("2457501.86857", getNumToPrecision(hjds[1], 5));
+	}
+
+	public void testBatchConversionEmpty() {
+		RAInfo ra = new RAInfo(EpochType.J2000, 21, 8, 46.84);
+		DecInfo dec = new DecInfo(EpochType.J2000, -88, 57, 23.40);
+
+		assertEquals(0, converter.convert(new double[0], ra, dec).length);
+	}
+
+	public void testBatchConversionNaN() {
+		RAInfo ra = new RAInfo(EpochType.J2000, 10, 44, 22.5);
+		DecInfo dec = new DecInfo(EpochType.J2000, -60, 20, 13);
+
+		// Enough JDs to be interpolated, one of them NaN.
+		double[] jds = new double[1000];
+		for (int i = 0; i < jds.length; i++) {
+			jds[i] = JD2 + i * 0.1;
+		}
+		jds[500] = Double.NaN;
+
+		double[] hjds = converter.convert(jds, ra, dec);
+
+		assertTrue(Double.isNaN(hjds[500]));
+		assertEquals(converter.convert(jds[501], ra, dec), hjds[501], 1e-9);
+
+		// Only NaN JDs.
+		hjds = converter.convert(new double[] { Double.NaN, Double.NaN }, ra,
+				dec);
+
+		assertTrue(Double.isNaN(hjds[0]));
+		assertTrue(Double.isNaN(hjds[1]));
+	}
+
 	// Helpers
 
 	private String getNumToPrecision(double n, int precision) {
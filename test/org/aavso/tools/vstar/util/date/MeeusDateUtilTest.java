@@ -27,4 +27,27 @@ public class MeeusDateUtilTest extends DateUtilTestBase {
 	public MeeusDateUtilTest(String name) {
 		super(name, new MeeusDateUtil());
 	}
+
+	// Per-day calendar date cache
+
+	public void testCachedCalendarDateMatchesUncached() {
+		MeeusDateUtil dateUtil = new MeeusDateUtil();
+
+		for (double jd = 2415020.0; jd < 2470000.0; jd += 0.37) {
+			String expected = dateUtil.formatCalendarDate(dateUtil.jdToYMD(jd));
+			assertEquals(expected, dateUtil.jdToCalendar(jd));
+		}
+	}
+
+	public void testCachedCalendarDateSlotCollision() {
+		MeeusDateUtil dateUtil = new MeeusDateUtil();
+
+		// Day numbers 2^14 apart share a cache slot.
+		double jd1 = 2451545.0;
+		double jd2 = jd1 + (1 << 14);
+
+		assertEquals("2000-01-01", dateUtil.jdToCalendar(jd1));
+		assertEquals("2044-11-09", dateUtil.jdToCalendar(jd2));
+		assertEquals("2000-01-01", dateUtil.jdToCalendar(jd1 + 0.25));
+	}
 }
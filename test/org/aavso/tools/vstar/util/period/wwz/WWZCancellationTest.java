@@ -0,0 +1,164 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.period.wwz;
+
+import org.aavso.tools.vstar.util.CancellationToken;
+import org.aavso.tools.vstar.util.period.dcdft.DataTestBase;
+
+/**
+ * Checks that a long-running WWZ stops promptly, releasing its thread, when
+ * cancelled via its token, via interrupt() or by interrupting its thread.
+ */
+public class WWZCancellationTest extends DataTestBase {
+
+	// The maximum time in milliseconds from cancellation to the algorithm's
+	// thread terminating.
+	private static final long MAX_STOP_MILLIS = 100;
+
+	// The time for which the algorithm runs before it is cancelled.
+	private static final long RUN_MILLIS = 300;
+
+	public WWZCancellationTest() {
+		super("WWZ cancellation unit test", TUmi2420000To2425000Data.data);
+	}
+
+	public void testCancelViaToken() throws Exception {
+		final CancellationToken token = new CancellationToken();
+		WeightedWaveletZTransform wwz = createLongRunningWWZ();
+
+		checkStopsPromptly(wwz, token, new Runnable() {
+			@Override
+			public void run() {
+				token.cancel();
+			}
+		});
+
+		assertTrue(token.isCancelled());
+	}
+
+	public void testCancelViaInterrupt() throws Exception {
+		final WeightedWaveletZTransform wwz = createLongRunningWWZ();
+
+		checkStopsPromptly(wwz, new CancellationToken(), new Runnable() {
+			@Override
+			public void run() {
+				wwz.interrupt();
+			}
+		});
+	}
+
+	public void testCancelViaThreadInterrupt() throws Exception {
+		WeightedWaveletZTransform wwz = createLongRunningWWZ();
+		final Thread[] thread = new Thread[1];
+
+		checkStopsPromptly(wwz, new CancellationToken(), new Runnable() {
+			@Override
+			public void run() {
+				thread[0].interrupt();
+			}
+		}, thread);
+	}
+
+	public void testInterruptBeforeExecuteIsKept() throws Exception {
+		final WeightedWaveletZTransform wwz = createLongRunningWWZ();
+		wwz.interrupt();
+
+		final Throwable[] error = new Throwable[1];
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					wwz.execute(new CancellationToken());
+				} catch (Throwable t) {
+					error[0] = t;
+				}
+			}
+		});
+
+		thread.start();
+		thread.join(10 * MAX_STOP_MILLIS);
+
+		assertFalse("WWZ did not stop", thread.isAlive());
+		assertNull(error[0]);
+	}
+
+	public void testProgressIsReported() throws Exception {
+		final long[] last = { 0, 0 };
+		CancellationToken token = new CancellationToken((done, total) -> {
+			last[0] = done;
+			last[1] = total;
+		});
+
+		WeightedWaveletZTransform wwz = new WeightedWaveletZTransform(obs,
+				0.01, 50.0);
+		wwz.make_freqs_from_freq_range(0.01, 0.02, 0.001);
+		wwz.execute(token);
+
+		assertTrue(last[1] > 0);
+		assertEquals(last[1], last[0]);
+		assertFalse(wwz.getStats().isEmpty());
+	}
+
+	// Helpers
+
+	// A WWZ over a fine frequency grid and many time divisions that would run
+	// for far longer than the tests wait.
+	private WeightedWaveletZTransform createLongRunningWWZ() {
+		WeightedWaveletZTransform wwz = new WeightedWaveletZTransform(obs,
+				0.001, 5000.0);
+		wwz.make_freqs_from_freq_range(0.0001, 0.5, 0.00001);
+		return wwz;
+	}
+
+	private void checkStopsPromptly(WeightedWaveletZTransform wwz,
+			CancellationToken token, Runnable canceller) throws Exception {
+		checkStopsPromptly(wwz, token, canceller, new Thread[1]);
+	}
+
+	private void checkStopsPromptly(final WeightedWaveletZTransform wwz,
+			final CancellationToken token, Runnable canceller,
+			Thread[] threadHolder) throws Exception {
+		final Throwable[] error = new Throwable[1];
+
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					wwz.execute(token);
+				} catch (Throwable t) {
+					error[0] = t;
+				}
+			}
+		});
+		threadHolder[0] = thread;
+
+		thread.start();
+		thread.join(RUN_MILLIS);
+		assertTrue("WWZ completed before it was cancelled", thread.isAlive());
+
+		long start = System.nanoTime();
+		canceller.run();
+		thread.join(10 * MAX_STOP_MILLIS);
+		long stopMillis = (System.nanoTime() - start) / 1000000;
+
+		assertFalse("WWZ did not stop", thread.isAlive());
+		assertTrue("WWZ took " + stopMillis + " ms to stop",
+				stopMillis <= MAX_STOP_MILLIS);
+		assertNull(error[0]);
+	}
+}
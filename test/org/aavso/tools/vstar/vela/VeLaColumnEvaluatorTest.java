@@ -0,0 +1,137 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+
+/**
+ * VeLaColumnEvaluator unit tests.
+ */
+public class VeLaColumnEvaluatorTest extends TestCase {
+
+	private List<ValidObservation> obs;
+
+	private VeLaInterpreter vela;
+
+	public VeLaColumnEvaluatorTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Locale.setDefault(Locale.ENGLISH);
+
+		VeLaValidObservationEnvironment.reset();
+
+		vela = new VeLaInterpreter(false, false, Collections.emptyList());
+
+		obs = new ArrayList<ValidObservation>();
+		for (int i = 0; i < 10000; i++) {
+			ValidObservation ob = new ValidObservation();
+			ob.setMagnitude(new Magnitude(10 + (i % 50) * 0.1, 0.001 * (i % 20)));
+			ob.setDateInfo(new DateInfo(2450000 + i * 0.1));
+			ob.setBand(i % 3 == 0 ? SeriesType.Visual : SeriesType.Johnson_V);
+			obs.add(ob);
+		}
+	}
+
+	public void testPredicatesMatchPerObservationEvaluation() {
+		String[] filters = { "magnitude < 12.3 and uncertainty < 0.01",
+				"mag >= 14 or band = \"Visual\"",
+				"not (time > 2450500) xor uncertainty = 0",
+				"-magnitude * 2 + 1 < -20 and 2 <= time - 2450000",
+				"band in \"Johnson V\" or magnitude / 2 > 7",
+				"band =~ \"Vis.*\" and not mag < 11",
+				"(magnitude < 11) = (uncertainty < 0.005)",
+				"(magnitude < 11) <> false", "true" };
+
+		for (String filter : filters) {
+			VeLaObservationFilter perObservation = new VeLaObservationFilter(
+					filter);
+
+			Optional<VeLaColumnEvaluator> columns = VeLaColumnEvaluator
+					.create(vela.compile(filter));
+			assertTrue(filter, columns.isPresent());
+			assertTrue(filter, columns.get().isPredicate());
+
+			boolean[] results = columns.get().accept(obs);
+			assertNotNull(filter, results);
+
+			for (int i = 0; i < obs.size(); i++) {
+				assertEquals(filter, perObservation.accept(obs.get(i)),
+						results[i]);
+			}
+		}
+	}
+
+	public void testNumericExpression() {
+		Optional<VeLaColumnEvaluator> columns = VeLaColumnEvaluator
+				.create(vela.compile("magnitude + uncertainty * 2 - 1"));
+
+		assertTrue(columns.get().isNumeric());
+
+		double[] values = columns.get().evaluate(obs);
+
+		for (int i = 0; i < obs.size(); i++) {
+			ValidObservation ob = obs.get(i);
+			assertEquals(ob.getMag() + ob.getMagnitude().getUncertainty() * 2
+					- 1, values[i], 0);
+		}
+	}
+
+	public void testDivisionByZeroIsLeftToPerObservationEvaluation() {
+		Optional<VeLaColumnEvaluator> columns = VeLaColumnEvaluator
+				.create(vela.compile("magnitude / uncertainty > 1000"));
+
+		assertTrue(columns.isPresent());
+		assertNull(columns.get().accept(obs));
+	}
+
+	public void testMissingValueIsLeftToPerObservationEvaluation() {
+		Optional<VeLaColumnEvaluator> columns = VeLaColumnEvaluator
+				.create(vela.compile("standardphase < 0.5"));
+
+		if (columns.isPresent()) {
+			assertNull(columns.get().accept(obs));
+		}
+	}
+
+	public void testUnsupportedPrograms() {
+		String[] programs = { "sqrt(magnitude) < 4", "x <- 2\nmagnitude < x",
+				"magnitude + band", "if magnitude < 12 then true else false",
+				"nosuchsymbol < 2", "" };
+
+		for (String program : programs) {
+			assertFalse(program,
+					VeLaColumnEvaluator.create(vela.compile(program))
+							.isPresent());
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs the VeLa unit tests with the interpreter in compiled mode, plus tests
+ * specific to compiled evaluation.
+ */
+public class VeLaCompiledTest extends VeLaTest {
+
+    public VeLaCompiledTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected VeLaInterpreter createInterpreter(List<File> dirs) {
+        VeLaInterpreter vela = super.createInterpreter(dirs);
+        vela.setCompiledMode(true);
+        return vela;
+    }
+
+    public void testCompiledMatchesInterpreted() {
+        String fundef = "";
+        fundef += "f(x:real n:integer) : real {\n";
+        fundef += "  when\n";
+        fundef += "    n = 0 -> x\n";
+        fundef += "    n > 0 -> f(x * 2 + n / 2 n - 1)\n";
+        fundef += "}\n";
+
+        String[] exprs = { "f(1.5 6)", "f(2 3)", "7 / 2", "7.0 / 2", "2 ^ 10", "-(3 - 5.5)", "not 5",
+                "\"a\" + 1", "\"abc\" =~ \"a.*\"", "3 in [1 2 3]", "2 < 2.5 and 1 <> 1" };
+
+        VeLaInterpreter interpreted = new VeLaInterpreter(false, false, Collections.emptyList());
+        VeLaInterpreter compiled = createInterpreter(Collections.emptyList());
+
+        for (String expr : exprs) {
+            Optional<Operand> expected = interpreted.program(fundef + expr);
+            Optional<Operand> actual = compiled.program(fundef + expr);
+
+            assertTrue(expr, actual.isPresent());
+            assertEquals(expr, expected.get(), actual.get());
+        }
+    }
+
+    public void testOverloadChosenPerParameterType() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        String prog = "";
+        prog += "g(n:integer) : string { \"integer\" }\n";
+        prog += "g(x:real) : string { \"real\" }\n";
+        prog += "[g(1) g(1.0) g(2) g(2.0)]";
+
+        Optional<Operand> result = vela.program(prog);
+
+        assertEquals("[integer real integer real]",
+                result.get().toHumanReadableString().replace("\"", ""));
+    }
+
+    public void testIntrinsicAppliedToPrimitives() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        AST ast = vela.compile("f(t:real) : real { sin(t) + atan2(t 2.0) }\nf(x)");
+
+        for (int i = 0; i < 100; i++) {
+            double x = i * 0.1;
+            vela.bind("X", new Operand(Type.REAL, x), false);
+            assertEquals(Math.sin(x) + Math.atan2(x, 2.0), vela.program(ast).get().doubleVal(), 0);
+        }
+    }
+
+    public void testLargeIntegerAfterCallSiteCached() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        AST ast = vela.compile("abs(n)");
+
+        vela.bind("N", new Operand(Type.INTEGER, -3), false);
+        assertEquals(3, vela.program(ast).get().intVal());
+
+        vela.bind("N", new Operand(Type.INTEGER, -3000000000L), false);
+        assertEquals(3000000000.0, vela.program(ast).get().doubleVal(), 0);
+
+        vela.bind("N", new Operand(Type.INTEGER, -4), false);
+        assertEquals(4, vela.program(ast).get().intVal());
+    }
+
+    public void testIntrinsicShadowedAfterCallSiteCached() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        AST ast = vela.compile("f(t:real) : real { sqrt(t) }\nf(4.0)");
+        assertEquals(2.0, vela.program(ast).get().doubleVal(), 0);
+        assertEquals(2.0, vela.program(ast).get().doubleVal(), 0);
+
+        vela.program("sqrt(t:real) : real { t * 10 }");
+        assertEquals(40.0, vela.program(ast).get().doubleVal(), 0);
+    }
+
+    public void testTypedDivisionByZero() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        AST ast = vela.compile("f(n:integer) : integer { 10 / n }\nf(0)");
+
+        try {
+            vela.program(ast);
+            fail();
+        } catch (VeLaEvalError e) {
+            assertEquals("10/0: division by zero error", e.getMessage());
+        }
+    }
+
+    // Unboxed evaluation
+
+    public void testFrameParameterVisibleToCallee() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        String prog = "";
+        prog += "g() : real { x * 2 }\n";
+        prog += "f(x:real) : real { g() + 1 }\n";
+        prog += "f(2.5)";
+
+        assertEquals(6.0, vela.program(prog).get().doubleVal(), 0);
+    }
+
+    public void testFrameParameterRebound() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        String prog = "";
+        prog += "f(x:real n:integer) : real {\n";
+        prog += "  x <- x * n\n";
+        prog += "  n <- 2.9\n";
+        prog += "  x + n\n";
+        prog += "}\n";
+        prog += "f(1.5 3)";
+
+        try {
+            vela.program(prog);
+            fail();
+        } catch (VeLaEvalError e) {
+            // A real value cannot be bound to an integer parameter.
+        }
+
+        // The interpreter's stacks are restored after an error.
+        assertEquals(4.5, vela.program("f(x:real) : real { x <- x * 3  x }\nf(1.5)").get().doubleVal(), 0);
+        assertEquals(0, vela.getPrimitiveStack().reserve(0));
+    }
+
+    public void testFrameParameterConstantBindingError() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        try {
+            vela.program("f(x:real) : real { x is 2.0  x }\nf(1.0)");
+            fail();
+        } catch (VeLaEvalError e) {
+            assertEquals("'X' is a constant binding in this environment.", e.getMessage());
+        }
+    }
+
+    public void testIntegerActualParameterConvertedToReal() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        Operand result = vela.program("f(x:real) : real { x / 2 }\nf(3)").get();
+
+        assertEquals(Type.REAL, result.getType());
+        assertEquals(1.5, result.doubleVal(), 0);
+    }
+
+    public void testApplyAsDouble() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        vela.program("zeroPoint is 2451545.0\nf(t:real) : real { 1.5 + 0.25 * cos(2 * PI * 0.1 * (t - zeroPoint)) }");
+
+        double t = 2459000.123456789;
+        double expected = 1.5 + 0.25 * Math.cos(2 * Math.PI * 0.1 * (t - 2451545.0));
+
+        assertEquals(expected, vela.applyAsDouble("f", t), 0);
+        assertEquals(Math.sqrt(t), vela.applyAsDouble("sqrt", t), 0);
+        assertEquals(0, vela.getPrimitiveStack().reserve(0));
+    }
+
+    public void testRealListArithmetic() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        vela.bind("XS", new Operand(Type.LIST, new RealList(new double[] { 1.0, 2.0, 3.0 })), true);
+
+        List<Operand> result = vela.program("-(xs * 2 + 1)").get().listVal();
+        assertTrue(result instanceof RealList);
+        assertEquals(new RealList(new double[] { -3.0, -5.0, -7.0 }), result);
+
+        result = vela.program("xs - xs").get().listVal();
+        assertTrue(result instanceof RealList);
+        assertEquals(Arrays.asList(new Operand(Type.REAL, 0.0), new Operand(Type.REAL, 0.0),
+                new Operand(Type.REAL, 0.0)), result);
+    }
+
+    public void testMapRealFunctionOverRealList() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        List<Operand> result = vela.program("f(t:real) : real { t * t }\nmap(f seq(1.0 3.0 1.0))").get()
+                .listVal();
+
+        assertTrue(result instanceof RealList);
+        assertEquals(new RealList(new double[] { 1.0, 4.0, 9.0 }), result);
+    }
+
+    // Tail calls
+
+    @Override
+    public void testFunProperlyTailRecursive1() {
+        // In compiled mode, a self tail call loops rather than overflowing the
+        // stack, so infinite_loop() would not return; a call not in tail
+        // position still grows the stack.
+        String prog = "";
+        prog += "infinite_loop() : integer {";
+        prog += "    1 + infinite_loop()";
+        prog += "}";
+        prog += "infinite_loop()";
+
+        try {
+            createInterpreter(Collections.emptyList()).program(prog);
+            fail("Should end in stack overflow, since the call is not in tail position.");
+        } catch (StackOverflowError e) {
+            // We expect to end up here
+        }
+    }
+
+    public void testTailCallDoesNotGrowStack() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        String prog = "";
+        prog += "count(n:integer acc:real) : real {\n";
+        prog += "  if n = 0 then acc else count(n - 1 acc + 0.5)\n";
+        prog += "}\n";
+        prog += "count(1000000 0)";
+
+        assertEquals(500000.0, vela.program(prog).get().doubleVal(), 0);
+        assertEquals(0, vela.getPrimitiveStack().reserve(0));
+    }
+
+    public void testBoxedTailCallDoesNotGrowStack() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        String prog = "";
+        prog += "pad(s:string n:integer) : string {\n";
+        prog += "  when\n";
+        prog += "    n = 0 -> s\n";
+        prog += "    n >= 1000 -> pad(s n - 1)\n";
+        prog += "    true -> { suffix is \"!\"  pad(s + suffix n - 1) }\n";
+        prog += "}\n";
+        prog += "length(pad(\"\" 1000000))";
+
+        assertEquals(999, vela.program(prog).get().intVal());
+    }
+
+    public void testTailCallRebindsConstants() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        String prog = "";
+        prog += "f(n:integer) : integer {\n";
+        prog += "  m is n - 1\n";
+        prog += "  if m < 0 then n else f(m)\n";
+        prog += "}\n";
+        prog += "f(100000)";
+
+        assertEquals(0, vela.program(prog).get().intVal());
+    }
+
+    public void testTailCallToOtherOverload() {
+        VeLaInterpreter vela = createInterpreter(Collections.emptyList());
+
+        String prog = "";
+        prog += "f(n:integer) : string { f(\"\" + n) }\n";
+        prog += "f(s:string) : string { \"<\" + s + \">\" }\n";
+        prog += "f(42)";
+
+        assertEquals("<42>", vela.program(prog).get().stringVal());
+    }
+}
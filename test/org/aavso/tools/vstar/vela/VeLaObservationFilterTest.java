@@ -0,0 +1,173 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+
+/**
+ * VeLaObservationFilter unit tests.
+ */
+public class VeLaObservationFilterTest extends TestCase {
+
+	private List<ValidObservation> obs;
+
+	public VeLaObservationFilterTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		Locale.setDefault(Locale.ENGLISH);
+
+		obs = new ArrayList<ValidObservation>();
+		for (int i = 0; i < 10000; i++) {
+			ValidObservation ob = new ValidObservation();
+			ob.setMagnitude(new Magnitude(10 + (i % 50) * 0.1, 0.001 * (i % 20)));
+			ob.setDateInfo(new DateInfo(2450000 + i * 0.1));
+			ob.setBand(i % 3 == 0 ? SeriesType.Visual : SeriesType.Johnson_V);
+			obs.add(ob);
+		}
+	}
+
+	public void testAccept() {
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"magnitude < 12.3 and uncertainty < 0.01");
+
+		for (ValidObservation ob : obs) {
+			boolean expected = ob.getMag() < 12.3
+					&& ob.getMagnitude().getUncertainty() < 0.01;
+			assertEquals(expected, filter.accept(ob));
+		}
+	}
+
+	public void testAcceptWithSymbolAliases() {
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"mag >= 14 or band = \"Visual\"");
+
+		for (ValidObservation ob : obs) {
+			boolean expected = ob.getMag() >= 14
+					|| ob.getBand() == SeriesType.Visual;
+			assertEquals(expected, filter.accept(ob));
+		}
+	}
+
+	public void testAcceptWithLocalBinding() {
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"limit <- 11\nmagnitude < limit");
+
+		assertTrue(filter.accept(obs.get(0)));
+		assertFalse(filter.accept(obs.get(30)));
+	}
+
+	public void testFunctionParameterShadowsObservationSymbol() {
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"f(t:real) : boolean { t > 2450500 }\nf(2450600) and mag < 10.5");
+
+		for (ValidObservation ob : obs) {
+			assertEquals(ob.getMag() < 10.5, filter.accept(ob));
+		}
+	}
+
+	public void testReusedEnvironmentWithBoundSlots() {
+		VeLaInterpreter vela = new VeLaInterpreter(false, false,
+				new ArrayList<File>());
+		VeLaValidObservationEnvironment env = new VeLaValidObservationEnvironment();
+		AST ast = env.bindSlots(vela.compile("x <- magnitude * 2\nx"));
+		vela.pushEnvironment(env);
+
+		for (ValidObservation ob : obs.subList(0, 100)) {
+			env.setObservation(ob);
+			assertEquals(ob.getMag() * 2, vela.program(ast).get()
+					.doubleVal(), 1e-9);
+		}
+	}
+
+	public void testEmptyFilterAcceptsAll() {
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"# nothing to see here");
+
+		assertTrue(filter.accept(obs.get(0)));
+	}
+
+	public void testBatchMatchesPerRecord() {
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"time > 2450500 and band in \"Johnson V\"");
+
+		boolean[] results = filter.accept(obs, e -> fail());
+
+		assertEquals(obs.size(), results.length);
+		for (int i = 0; i < obs.size(); i++) {
+			assertEquals(filter.accept(obs.get(i)), results[i]);
+		}
+	}
+
+	public void testBatchEvaluationErrorAcceptsAndReportsOnce() {
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"nosuchsymbol > 2");
+
+		final List<VeLaEvalError> errors = new ArrayList<VeLaEvalError>();
+		boolean[] results = filter.accept(obs, e -> errors.add(e));
+
+		assertEquals(1, errors.size());
+		for (boolean result : results) {
+			assertTrue(result);
+		}
+	}
+
+	public void testTypeErrorAtCompileTime() {
+		try {
+			new VeLaObservationFilter("magnitude + 1");
+			fail();
+		} catch (VeLaEvalError e) {
+			// expected
+		}
+	}
+
+	public void testParseErrorAtCompileTime() {
+		try {
+			new VeLaObservationFilter("magnitude < ");
+			fail();
+		} catch (VeLaParseError e) {
+			// expected
+		}
+	}
+
+	public void testRuntimeTypeError() {
+		// The type of f's result is not known until evaluation.
+		VeLaObservationFilter filter = new VeLaObservationFilter(
+				"f(x:real) : real { x * 2 }\nf(magnitude)");
+
+		try {
+			filter.accept(obs.get(0));
+			fail();
+		} catch (VeLaEvalError e) {
+			// expected
+		}
+	}
+}
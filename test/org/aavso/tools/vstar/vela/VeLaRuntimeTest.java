@@ -0,0 +1,154 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.vela;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+/**
+ * VeLaRuntime unit tests.
+ */
+public class VeLaRuntimeTest extends TestCase {
+
+    public VeLaRuntimeTest(String name) {
+        super(name);
+    }
+
+    public void testSharedRuntimes() {
+        assertSame(VeLaRuntime.getInstance(false), VeLaRuntime.getInstance(false));
+        assertSame(VeLaRuntime.getInstance(true), VeLaRuntime.getInstance(true));
+
+        assertFalse(VeLaRuntime.getInstance(false).hasVStarAPI());
+        assertTrue(VeLaRuntime.getInstance(true).hasVStarAPI());
+
+        // The VStar API is present only in runtimes that asked for it,
+        // regardless of which was created first.
+        assertTrue(VeLaRuntime.getInstance(true).getJavaClassFunctionExecutors()
+                .size() > VeLaRuntime.getInstance(false).getJavaClassFunctionExecutors().size());
+
+        VeLaInterpreter vela = new VeLaInterpreter(false, false, new ArrayList<File>());
+        assertSame(VeLaRuntime.getInstance(false), vela.getRuntime());
+    }
+
+    public void testParsedProgramsAreShared() {
+        VeLaRuntime runtime = new VeLaRuntime(false, new ArrayList<File>());
+
+        AST ast1 = runtime.createInterpreter(false).compile("2 * 3 + x");
+        AST ast2 = runtime.createInterpreter(false).compile("2 * 3 + x");
+
+        assertSame(ast1, ast2);
+
+        // Programs that differ only in case or white space are distinct.
+        AST ast3 = runtime.createInterpreter(false).compile("\"a b\"");
+        AST ast4 = runtime.createInterpreter(false).compile("\"A  B\"");
+
+        assertEquals("a b", runtime.createInterpreter(false).program(ast3).get().stringVal());
+        assertEquals("A  B", runtime.createInterpreter(false).program(ast4).get().stringVal());
+    }
+
+    public void testBindingsArePerInterpreter() {
+        VeLaRuntime runtime = new VeLaRuntime(false, new ArrayList<File>());
+
+        VeLaInterpreter vela1 = runtime.createInterpreter(false);
+        VeLaInterpreter vela2 = runtime.createInterpreter(false);
+
+        vela1.program("x <- 42");
+        vela1.program("f(n:integer) : integer { n * 2 }");
+
+        assertEquals(84, vela1.program("f(x)").get().intVal());
+
+        try {
+            vela2.program("f(x)");
+            fail();
+        } catch (VeLaEvalError e) {
+            // expected
+        }
+    }
+
+    public void testUserCodeParsedOnce() throws IOException {
+        File dir = Files.createTempDirectory("vela").toFile();
+        File file = new File(dir, "double.vl");
+
+        try {
+            FileWriter writer = new FileWriter(file);
+            writer.write("twice(x:real) : real { x * 2 }\n");
+            writer.close();
+
+            VeLaRuntime runtime = new VeLaRuntime(false, Arrays.asList(dir));
+            assertEquals(1, runtime.getUserCode().size());
+
+            VeLaInterpreter vela1 = runtime.createInterpreter(false);
+            VeLaInterpreter vela2 = runtime.createInterpreter(false);
+
+            assertEquals(5.0, vela1.program("twice(2.5)").get().doubleVal());
+            assertEquals(7.0, vela2.program("twice(3.5)").get().doubleVal());
+        } finally {
+            file.delete();
+            dir.delete();
+        }
+    }
+
+    public void testConcurrentEvaluation() throws Exception {
+        final VeLaRuntime runtime = new VeLaRuntime(false, new ArrayList<File>());
+        final String prog = "f(t:real) : real { sin(t) * 2 + t ^ 2 }\nf(x)";
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+
+            for (int i = 0; i < 8; i++) {
+                final boolean compiled = i % 2 == 0;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        VeLaInterpreter vela = runtime.createInterpreter(false);
+                        vela.setCompiledMode(compiled);
+                        AST ast = vela.compile(prog);
+
+                        boolean ok = true;
+                        for (int j = 0; j < 1000; j++) {
+                            double x = j * 0.01;
+                            vela.bind("X", new Operand(Type.REAL, x), false);
+                            double y = vela.program(ast).get().doubleVal();
+                            ok &= y == Math.sin(x) * 2 + Math.pow(x, 2);
+                        }
+                        return ok;
+                    }
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -66,7 +66,18 @@ public class VeLaTest extends TestCase implements WithQuickTheories {
     @Override
     protected void setUp() throws Exception {
         Locale.setDefault(Locale.ENGLISH);
-        vela = new VeLaInterpreter(VERBOSE, ADD_VSTAR_API, Collections.emptyList());
+        vela = createInterpreter(Collections.emptyList());
+    }
+
+    /**
+     * Create an interpreter for a test; subclasses may configure it
+     * differently, e.g. to evaluate in compiled mode.
+     * 
+     * @param dirs Source directories to be loaded.
+     * @return The interpreter.
+     */
+    protected VeLaInterpreter createInterpreter(List<File> dirs) {
+        return new VeLaInterpreter(VERBOSE, ADD_VSTAR_API, dirs);
     }
 
     // ** Valid test cases **
@@ -839,6 +850,27 @@ public class VeLaTest extends TestCase implements WithQuickTheories {
         assertTrue(Tolerance.areClose(24.0, result.doubleVal(), DELTA, true));
     }
 
+    public void testFunctionIntegerParameters() {
+        assertEquals(3, vela.expressionToOperand("abs(-3)").intVal());
+        assertEquals(3, vela.expressionToOperand("max(2 3)").intVal());
+        assertEquals("el", vela.expressionToOperand("substring(\"hello\" 1 3)").stringVal());
+    }
+
+    public void testFunctionLargeIntegerParameters() {
+        // Integers that do not fit in an int are not narrowed but are passed
+        // to real overloads where there are such.
+        assertEquals(3000000000.0, vela.expressionToOperand("abs(-3000000000)").doubleVal(), 0);
+        assertEquals(3000000000.0, vela.expressionToOperand("max(3000000000 1)").doubleVal(), 0);
+        assertEquals(-4294967296.0, vela.expressionToOperand("min(-4294967296 1)").doubleVal(), 0);
+
+        try {
+            vela.expressionToOperand("substring(\"hello\" 4294967297 3)");
+            fail();
+        } catch (VeLaEvalError e) {
+            // There is no overload to which the parameters conform.
+        }
+    }
+
     // List head
 
     public void testListHead1() {
@@ -1797,6 +1829,53 @@ public class VeLaTest extends TestCase implements WithQuickTheories {
         assertTrue(result.isPresent());
         assertEquals(13, result.get().intVal());
     }
+
+    // Memoised functions
+
+    public void testMemoisedFunction() {
+        String prog = "";
+        prog += "@memo fib(n:integer) : integer {\n";
+        prog += "  when\n";
+        prog += "    n < 2 -> n\n";
+        prog += "    true -> fib(n - 1) + fib(n - 2)\n";
+        prog += "}\n";
+        prog += "fib(80)";
+
+        Optional<Operand> result = vela.program(prog);
+
+        assertTrue(result.isPresent());
+        assertEquals(23416728348467685L, result.get().intVal());
+    }
+
+    public void testMemoisedFunctionEvaluatedOncePerParameters() {
+        String prog = "";
+        prog += "calls <- 0\n";
+        prog += "@MEMO sq(x:real) : real { calls <- calls + 1  x * x }\n";
+        prog += "sq(3) sq(3.0) sq(4.0) sq(3.0)\n";
+        prog += "calls";
+
+        Optional<Operand> result = vela.program(prog);
+
+        assertTrue(result.isPresent());
+        assertEquals(2, result.get().intVal());
+    }
+
+    public void testMemoisedResultsBounded() {
+        String prog = "";
+        prog += "calls <- 0\n";
+        prog += "@memo id(n:integer) : integer { calls <- calls + 1  n }\n";
+        prog += "i <- 0\n";
+        prog += "while i <= " + UserDefinedFunctionExecutor.MAX_MEMO_ENTRIES + " { id(i)  i <- i + 1 }\n";
+        prog += "id(" + UserDefinedFunctionExecutor.MAX_MEMO_ENTRIES + ")\n";
+        prog += "id(0)\n";
+        prog += "calls";
+
+        Optional<Operand> result = vela.program(prog);
+
+        assertTrue(result.isPresent());
+        assertEquals(UserDefinedFunctionExecutor.MAX_MEMO_ENTRIES + 2, result.get().intVal());
+    }
+
     // Sequence
 
     public void testSequence() {
@@ -1947,7 +2026,7 @@ public class VeLaTest extends TestCase implements WithQuickTheories {
         List<File> dirs = new ArrayList<File>();
         // Current directory must be VStar root.
         dirs.add(new File("test/org/aavso/tools/vstar/vela/code"));
-        VeLaInterpreter vela = new VeLaInterpreter(VERBOSE, ADD_VSTAR_API, dirs);
+        VeLaInterpreter vela = createInterpreter(dirs);
         Optional<Operand> result = vela.program("cube(2)");
         assertTrue(result.isPresent());
         assertEquals(8.0, result.get().doubleVal());
@@ -1960,7 +2039,7 @@ public class VeLaTest extends TestCase implements WithQuickTheories {
         List<File> dirs = new ArrayList<File>();
         // Current directory must be VStar root.
         dirs.add(new File("test/org/aavso/tools/vstar/vela/code"));
-        VeLaInterpreter vela = new VeLaInterpreter(VERBOSE, ADD_VSTAR_API, dirs);
+        VeLaInterpreter vela = createInterpreter(dirs);
         Optional<Operand> result = null;
         for (int i = 1; i < 10; i++) {
             result = vela.program("_nthrec(seq(1 100 1) 41)");
@@ -1973,7 +2052,7 @@ public class VeLaTest extends TestCase implements WithQuickTheories {
         List<File> dirs = new ArrayList<File>();
         // Current directory must be VStar root.
         dirs.add(new File("test/org/aavso/tools/vstar/vela/code"));
-        VeLaInterpreter vela = new VeLaInterpreter(VERBOSE, ADD_VSTAR_API, dirs);
+        VeLaInterpreter vela = createInterpreter(dirs);
         Optional<Operand> result = null;
         for (int i = 1; i < 10; i++) {
             result = vela.program("_nthiter(seq(1 100 1) 41)");